@@ -12,6 +12,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.MapKeyColumn;
 import javax.persistence.Table;
@@ -28,7 +29,9 @@ import java.util.Map;
  * @since 5.0.0
  */
 @Entity
-@Table(name = "CasEvent")
+@Table(name = "CasEvent", indexes = {
+        @Index(name = "CasEvent_principalId_type_creationTime", columnList = "principalId,type,creationTime"),
+        @Index(name = "CasEvent_type_creationTime", columnList = "type,creationTime")})
 public class CasEvent {
 
     @Id
@@ -41,6 +44,13 @@ public class CasEvent {
     @Column(length = 255, updatable = true, insertable = true, nullable = false)
     private String principalId;
 
+    /**
+     * Creation time in milliseconds since the epoch, kept next to the
+     * creation time property so repositories can query and index it.
+     */
+    @Column(nullable = true)
+    private Long creationTime;
+
     @ElementCollection
     @MapKeyColumn(name = "name")
     @Column(name = "value")
@@ -79,6 +89,8 @@ public class CasEvent {
      */
     public void putCreationTime(final Object time) {
         put("creationTime", time.toString());
+        final ZonedDateTime dt = time instanceof ZonedDateTime ? (ZonedDateTime) time : parseCreationTime(time.toString());
+        this.creationTime = dt == null ? null : dt.toInstant().toEpochMilli();
     }
 
     /**
@@ -126,12 +138,16 @@ public class CasEvent {
      * @return the creation time
      */
     public ZonedDateTime getCreationTime() {
-        final ZonedDateTime dt = DateTimeUtils.zonedDateTimeOf(get("creationTime"));
+        return parseCreationTime(get("creationTime"));
+    }
+
+    private static ZonedDateTime parseCreationTime(final String value) {
+        final ZonedDateTime dt = DateTimeUtils.zonedDateTimeOf(value);
         if (dt != null) {
             return dt;
         }
-        final LocalDateTime lt = DateTimeUtils.localDateTimeOf(get("creationTime"));
-        return DateTimeUtils.zonedDateTimeOf(lt.atZone(ZoneId.systemDefault()));
+        final LocalDateTime lt = DateTimeUtils.localDateTimeOf(value);
+        return lt == null ? null : DateTimeUtils.zonedDateTimeOf(lt.atZone(ZoneId.systemDefault()));
     }
 
     public Long getTimestamp() {
@@ -3,6 +3,7 @@ package org.apereo.cas.ticket;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
 import java.io.Serializable;
+import java.time.ZonedDateTime;
 
 /**
  * Strategy that determines if the ticket is expired. Implementations of the
@@ -40,4 +41,17 @@ public interface ExpirationPolicy extends Serializable {
      * by the implementation.
      */
     Long getTimeToIdle();
+
+    /**
+     * Determine the time at which the given ticket state would be considered expired
+     * by this policy, assuming the ticket is not used again in the meantime.
+     * The result is used as a scheduling hint to find tickets that may have expired;
+     * policies whose expiration cannot be expressed as a point in time return null.
+     *
+     * @param ticketState the ticket state
+     * @return the expiration time, or null if it cannot be determined.
+     */
+    default ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        return null;
+    }
 }
@@ -1,8 +1,11 @@
 package org.apereo.cas.ticket.registry;
 
+import java.time.Instant;
 import java.util.Collection;
+import java.util.stream.Stream;
 
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 
 /**
  * Interface for a registry that stores tickets. The underlying registry can be
@@ -23,6 +26,19 @@ public interface TicketRegistry {
      */
     void addTicket(Ticket ticket);
 
+    /**
+     * Record a ticket granted by the given ticket-granting ticket, by updating
+     * the ticket-granting ticket and adding the granted ticket to the registry.
+     * Registries that are able to do so should apply both changes in a single operation.
+     *
+     * @param ticketGrantingTicket the ticket-granting ticket that granted the ticket
+     * @param ticket               the granted ticket
+     */
+    default void addGrantedTicket(final TicketGrantingTicket ticketGrantingTicket, final Ticket ticket) {
+        updateTicket(ticketGrantingTicket);
+        addTicket(ticket);
+    }
+
     /**
      * Retrieve a ticket from the registry. If the ticket retrieved does not
      * match the expected class, an InvalidTicketException is thrown.
@@ -51,6 +67,19 @@ public interface TicketRegistry {
      */
     int deleteTicket(String ticketId);
 
+    /**
+     * Remove the ticket-granting ticket from the registry, along with every ticket
+     * that descends from it, such as its service tickets and proxy-granting tickets.
+     * Registries that maintain an index of descendant tickets may remove
+     * all of them in a single bulk operation.
+     *
+     * @param ticketGrantingTicket the ticket-granting ticket
+     * @return the number of tickets deleted including descendants.
+     */
+    default int deleteTicketsFor(final TicketGrantingTicket ticketGrantingTicket) {
+        return deleteTicket(ticketGrantingTicket.getId());
+    }
+
     /**
      * Delete all tickets from the registry.
      *
@@ -65,6 +94,33 @@ public interface TicketRegistry {
      */
     Collection<Ticket> getTickets();
 
+    /**
+     * Stream tickets of the given type from the registry.
+     * Registries backed by an external store should page through the store
+     * lazily, so that callers that only count or filter tickets do not require
+     * every ticket to be loaded in memory at once. The returned stream may hold
+     * on to resources such as connections or cursors and should be closed once consumed.
+     *
+     * @param <T>        the ticket type
+     * @param ticketType the ticket type, or {@link Ticket} to stream all tickets
+     * @return stream of tickets. Tickets might or might not be valid i.e. expired.
+     */
+    default <T extends Ticket> Stream<T> streamTickets(final Class<T> ticketType) {
+        return getTickets().stream().filter(ticketType::isInstance).map(ticketType::cast);
+    }
+
+    /**
+     * Retrieve tickets that are expired as of the given instant.
+     * Registries that maintain an expiration index may only examine tickets
+     * that are expected to have expired by then, rather than every ticket in the registry.
+     *
+     * @param instant the instant at which expiration is evaluated
+     * @return stream of expired tickets
+     */
+    default Stream<Ticket> streamExpiredTickets(final Instant instant) {
+        return streamTickets(Ticket.class).filter(Ticket::isExpired);
+    }
+
     /**
      * Update the received ticket.
      *
@@ -87,4 +143,16 @@ public interface TicketRegistry {
      */
     long serviceTicketCount();
 
+    /**
+     * Indicates whether {@link #sessionCount()} and {@link #serviceTicketCount()}
+     * report approximate values. Registries that maintain counts separately from
+     * the tickets themselves, rather than counting stored tickets, may drift
+     * from the actual number of tickets in the store.
+     *
+     * @return true if counts are approximate
+     */
+    default boolean isTicketCountApproximate() {
+        return false;
+    }
+
 }
@@ -16,6 +16,7 @@ import org.apereo.cas.validation.Assertion;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * CAS viewed as a set of services to generate and validate Tickets.
@@ -110,6 +111,18 @@ public interface CentralAuthenticationService {
      */
     Collection<Ticket> getTickets(Predicate<Ticket> predicate);
 
+    /**
+     * Stream tickets of the given type from the underlying ticket registry,
+     * without requiring the registry to materialize every ticket at once.
+     * The stream may hold on to registry resources and should be closed once consumed.
+     *
+     * @param <T>        the ticket type
+     * @param ticketType the ticket type, or {@link Ticket} to stream all tickets
+     * @return the tickets
+     * @since 5.1.0
+     */
+    <T extends Ticket> Stream<T> streamTickets(Class<T> ticketType);
+
     /**
      * Grant a {@link ServiceTicket} that may be used to access the given service
      * by authenticating the given credentials.
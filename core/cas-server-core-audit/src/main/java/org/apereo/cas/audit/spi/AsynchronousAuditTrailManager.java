@@ -0,0 +1,179 @@
+package org.apereo.cas.audit.spi;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import org.apereo.cas.util.concurrent.BatchingQueueWriter;
+import org.apereo.cas.util.concurrent.QueueOverflowPolicy;
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.apereo.inspektr.audit.AuditTrailManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * This is {@link AsynchronousAuditTrailManager} that records audit records in the background.
+ * Records are placed in a bounded queue and handed to the delegate manager in batches
+ * by a {@link BatchingQueueWriter}, once a full batch is available or the flush interval
+ * has passed since the last flush. Delegates that implement {@link BatchAuditTrailManager}
+ * receive each batch in one call.
+ * <p>
+ * When the queue is full, the {@link BackpressurePolicy} decides whether the caller waits for room,
+ * the record is dropped, or the record is spilled to disk and replayed once the queue has drained.
+ * Queued records that the delegate fails to write are spilled to disk as well with {@link BackpressurePolicy#SPILL},
+ * and counted as dropped otherwise. Spilled records that the delegate fails to write are kept on disk
+ * and replayed again on the next flush.
+ * Queue depth, flush latency and the number of written, dropped and spilled records
+ * are published to the metric registry, if one is available.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class AsynchronousAuditTrailManager implements AuditTrailManager, DisposableBean {
+
+    /**
+     * Decides what happens to records offered while the queue is full.
+     */
+    public enum BackpressurePolicy {
+        /**
+         * Wait for room in the queue.
+         */
+        BLOCK,
+        /**
+         * Discard the record.
+         */
+        DROP,
+        /**
+         * Append the record to a spill file on disk.
+         */
+        SPILL
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsynchronousAuditTrailManager.class);
+
+    private final BatchingQueueWriter<AuditActionContext> writer;
+    private final Meter spilled;
+
+    /**
+     * Instantiates a new asynchronous audit trail manager.
+     *
+     * @param delegate           the manager that writes records
+     * @param capacity           the maximum number of queued records
+     * @param batchSize          the maximum number of records written at once
+     * @param flushInterval      the maximum time in milliseconds a record waits for its batch to fill up
+     * @param backpressurePolicy the policy applied when the queue is full
+     * @param spillFile          the file that holds spilled records; required for {@link BackpressurePolicy#SPILL}
+     * @param metricRegistry     the metric registry; may be null
+     */
+    public AsynchronousAuditTrailManager(final AuditTrailManager delegate, final int capacity, final int batchSize,
+                                         final long flushInterval, final BackpressurePolicy backpressurePolicy,
+                                         final AuditActionContextSpillFile spillFile, final MetricRegistry metricRegistry) {
+        if (backpressurePolicy == BackpressurePolicy.SPILL && spillFile == null) {
+            throw new IllegalArgumentException("A spill file must be defined to spill audit records to disk");
+        }
+        this.spilled = metricRegistry != null
+                ? metricRegistry.meter(MetricRegistry.name(getClass(), "spilled"))
+                : new Meter();
+        this.writer = new BatchingQueueWriter<>(getClass().getName(), batch -> write(delegate, batch), capacity, batchSize,
+                flushInterval, getOverflowPolicy(backpressurePolicy, spillFile), metricRegistry);
+    }
+
+    /**
+     * Start writing queued records.
+     */
+    @PostConstruct
+    public void initialize() {
+        this.writer.initialize();
+    }
+
+    @Override
+    public void record(final AuditActionContext auditActionContext) {
+        this.writer.offer(auditActionContext);
+    }
+
+    public int getSize() {
+        return this.writer.getSize();
+    }
+
+    public long getWrittenCount() {
+        return this.writer.getWrittenCount();
+    }
+
+    public long getDroppedCount() {
+        return this.writer.getDroppedCount();
+    }
+
+    public long getSpilledCount() {
+        return this.spilled.getCount();
+    }
+
+    /**
+     * Stop the writer and write all records that are still queued.
+     *
+     * @throws Exception if the writer cannot properly shut down
+     */
+    @Override
+    public void destroy() throws Exception {
+        this.writer.destroy();
+    }
+
+    private QueueOverflowPolicy<AuditActionContext> getOverflowPolicy(final BackpressurePolicy backpressurePolicy,
+                                                                final AuditActionContextSpillFile spillFile) {
+        switch (backpressurePolicy) {
+            case DROP:
+                return QueueOverflowPolicy.drop();
+            case SPILL:
+                return new SpillOverflowPolicy(spillFile);
+            case BLOCK:
+            default:
+                return QueueOverflowPolicy.block();
+        }
+    }
+
+    private static void write(final AuditTrailManager delegate, final List<AuditActionContext> batch) {
+        if (delegate instanceof BatchAuditTrailManager) {
+            ((BatchAuditTrailManager) delegate).recordAll(batch);
+        } else {
+            batch.forEach(delegate::record);
+        }
+    }
+
+    /**
+     * Appends records to the spill file while the queue is full or when the delegate
+     * fails to write them, and replays them once the queue has drained below a batch.
+     */
+    private class SpillOverflowPolicy implements QueueOverflowPolicy<AuditActionContext> {
+        private final AuditActionContextSpillFile spillFile;
+
+        SpillOverflowPolicy(final AuditActionContextSpillFile spillFile) {
+            this.spillFile = spillFile;
+        }
+
+        @Override
+        public boolean overflow(final AuditActionContext item, final BatchingQueueWriter<AuditActionContext> writer) {
+            try {
+                this.spillFile.append(item);
+                spilled.mark();
+                return true;
+            } catch (final Exception e) {
+                LOGGER.error("Unable to spill audit record for [{}] to disk; The record is dropped: [{}]",
+                        item.getActionPerformed(), e.getMessage());
+                return false;
+            }
+        }
+
+        @Override
+        public boolean rejected(final AuditActionContext item, final BatchingQueueWriter<AuditActionContext> writer) {
+            return overflow(item, writer);
+        }
+
+        @Override
+        public void afterFlush(final BatchingQueueWriter<AuditActionContext> writer) {
+            if (!this.spillFile.isEmpty() && writer.getSize() < writer.getBatchSize()) {
+                this.spillFile.drain(writer.getBatchSize(), writer::write);
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package org.apereo.cas.audit.spi;
+
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.apereo.inspektr.audit.AuditPointRuntimeInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * This is {@link AuditActionContextSpillFile} that holds audit records which could not be queued
+ * for writing. Records are appended to a file in the given directory; when the file is drained,
+ * it is first moved aside so that new records can be appended while the old ones are replayed.
+ * Records left behind by a previous run, or not accepted during a previous drain, are replayed on the next drain.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class AuditActionContextSpillFile {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditActionContextSpillFile.class);
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final AuditPointRuntimeInfo RUNTIME_INFO = new AuditPointRuntimeInfo() {
+        private static final long serialVersionUID = -4146513962011460931L;
+
+        @Override
+        public String asString() {
+            return AuditActionContextSpillFile.class.getName();
+        }
+    };
+
+    private final Path spillFile;
+    private final Path replayFile;
+
+    private DataOutputStream output;
+    private long size;
+
+    /**
+     * Instantiates a new spill file.
+     *
+     * @param directory the directory that holds spilled records
+     */
+    public AuditActionContextSpillFile(final File directory) {
+        final Path path = directory.toPath();
+        this.spillFile = path.resolve("audit.spill");
+        this.replayFile = path.resolve("audit.replay");
+        try {
+            Files.createDirectories(path);
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Unable to create audit spill directory at " + directory, e);
+        }
+        this.size = Files.exists(this.spillFile) || Files.exists(this.replayFile) ? 1 : 0;
+    }
+
+    /**
+     * Append the record to the file.
+     *
+     * @param context the audit action context
+     * @throws IOException if the record cannot be written
+     */
+    public synchronized void append(final AuditActionContext context) throws IOException {
+        if (this.output == null) {
+            this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(this.spillFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+        }
+        write(this.output, context);
+        this.output.flush();
+        this.size++;
+    }
+
+    /**
+     * Whether records may be waiting in the file.
+     *
+     * @return true if records may be waiting
+     */
+    public synchronized boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Hand all records in the file to the consumer, in batches, and remove them from the file.
+     * Draining stops at the first batch the consumer does not accept; that batch and all records
+     * after it are kept in the file, and handed to the consumer again on the next drain.
+     * Records that cannot be read are discarded.
+     *
+     * @param batchSize the maximum number of records per batch
+     * @param consumer  the consumer, which returns whether the batch was accepted
+     * @return true if all records were accepted
+     */
+    public boolean drain(final int batchSize, final Predicate<List<AuditActionContext>> consumer) {
+        synchronized (this) {
+            if (this.size == 0) {
+                return true;
+            }
+            try {
+                if (this.output != null) {
+                    this.output.close();
+                    this.output = null;
+                }
+                if (!Files.exists(this.replayFile) && Files.exists(this.spillFile)) {
+                    Files.move(this.spillFile, this.replayFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+                this.size = Files.exists(this.spillFile) ? 1 : 0;
+            } catch (final IOException e) {
+                LOGGER.error("Unable to prepare spilled audit records for replay: [{}]", e.getMessage());
+                return false;
+            }
+        }
+        if (!Files.exists(this.replayFile)) {
+            return true;
+        }
+        final Path retainedFile = this.replayFile.resolveSibling(this.replayFile.getFileName() + ".retained");
+        boolean rejected = false;
+        boolean retained = false;
+        int count = 0;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.replayFile)))) {
+            final List<AuditActionContext> batch = new ArrayList<>(batchSize);
+            boolean more = true;
+            while (more && !rejected) {
+                final AuditActionContext context = read(input);
+                more = context != null;
+                if (more) {
+                    batch.add(context);
+                }
+                if (!batch.isEmpty() && (batch.size() >= batchSize || !more)) {
+                    if (consumer.test(new ArrayList<>(batch))) {
+                        count += batch.size();
+                        batch.clear();
+                    } else {
+                        rejected = true;
+                        retain(batch, input, retainedFile);
+                        retained = true;
+                    }
+                }
+            }
+        } catch (final IOException e) {
+            if (rejected) {
+                LOGGER.error("Unable to retain spilled audit records that were not replayed: [{}]", e.getMessage());
+            } else {
+                LOGGER.warn("Discarding unreadable spilled audit records after [{}] record(s): [{}]", count, e.getMessage());
+            }
+        }
+        try {
+            if (retained) {
+                Files.move(retainedFile, this.replayFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } else if (rejected) {
+                Files.deleteIfExists(retainedFile);
+            } else {
+                Files.deleteIfExists(this.replayFile);
+            }
+        } catch (final IOException e) {
+            LOGGER.error("Unable to update replayed audit records at [{}]: [{}]", this.replayFile, e.getMessage());
+        }
+        if (rejected) {
+            synchronized (this) {
+                this.size = Math.max(this.size, 1);
+            }
+            LOGGER.warn("Replayed [{}] spilled audit record(s); Remaining records are kept for the next replay", count);
+            return false;
+        }
+        LOGGER.info("Replayed [{}] spilled audit record(s)", count);
+        return true;
+    }
+
+    /**
+     * Write the batch that was not accepted, followed by the records that were not read yet.
+     */
+    private static void retain(final List<AuditActionContext> batch, final DataInputStream input, final Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (final AuditActionContext context : batch) {
+                write(out, context);
+            }
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read = input.read(buffer);
+            while (read > 0) {
+                out.write(buffer, 0, read);
+                read = input.read(buffer);
+            }
+        }
+    }
+
+    private static void write(final DataOutputStream out, final AuditActionContext context) throws IOException {
+        writeString(out, context.getPrincipal());
+        writeString(out, context.getResourceOperatedUpon());
+        writeString(out, context.getActionPerformed());
+        writeString(out, context.getApplicationCode());
+        out.writeLong(context.getWhenActionWasPerformed().getTime());
+        writeString(out, context.getClientIpAddress());
+        writeString(out, context.getServerIpAddress());
+    }
+
+    private AuditActionContext read(final DataInputStream input) throws IOException {
+        final String principal;
+        try {
+            principal = readString(input);
+        } catch (final EOFException e) {
+            return null;
+        }
+        final String resource = readString(input);
+        final String action = readString(input);
+        final String applicationCode = readString(input);
+        final Date date = new Date(input.readLong());
+        final String clientIpAddress = readString(input);
+        final String serverIpAddress = readString(input);
+        return new AuditActionContext(principal, resource, action, applicationCode, date, clientIpAddress, serverIpAddress, RUNTIME_INFO);
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream input) throws IOException {
+        final int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,23 @@
+package org.apereo.cas.audit.spi;
+
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.apereo.inspektr.audit.AuditTrailManager;
+
+import java.util.Collection;
+
+/**
+ * This is {@link BatchAuditTrailManager} that is able to record
+ * several audit records in one operation, such as a batched insert.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public interface BatchAuditTrailManager extends AuditTrailManager {
+
+    /**
+     * Record all audit records.
+     *
+     * @param auditActionContexts the audit action contexts
+     */
+    void recordAll(Collection<AuditActionContext> auditActionContexts);
+}
@@ -0,0 +1,208 @@
+package org.apereo.cas.audit.spi;
+
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.apereo.inspektr.audit.AuditPointRuntimeInfo;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link AsynchronousAuditTrailManagerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class AsynchronousAuditTrailManagerTests {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+
+    private static final long LONG_FLUSH_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    private static final AuditPointRuntimeInfo RUNTIME_INFO = new AuditPointRuntimeInfo() {
+        private static final long serialVersionUID = 6450339418418455093L;
+
+        @Override
+        public String asString() {
+            return AsynchronousAuditTrailManagerTests.class.getName();
+        }
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<Integer> batches = new CopyOnWriteArrayList<>();
+
+    private final List<AuditActionContext> records = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch writing = new CountDownLatch(1);
+
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    private volatile boolean blockWrites;
+
+    private volatile boolean failWrites;
+
+    private volatile boolean failSpilledWrites;
+
+    private final AtomicInteger failedWrites = new AtomicInteger();
+
+    private AsynchronousAuditTrailManager manager;
+
+    @After
+    public void shutdown() throws Exception {
+        this.released.countDown();
+        if (this.manager != null) {
+            this.manager.destroy();
+        }
+    }
+
+    @Test
+    public void verifyRecordsAreWrittenInBatches() {
+        this.manager = newManager(100, 5, LONG_FLUSH_INTERVAL, AsynchronousAuditTrailManager.BackpressurePolicy.BLOCK, null);
+        for (int i = 0; i < 10; i++) {
+            this.manager.record(newContext("casuser" + i));
+        }
+        waitUntil(() -> this.records.size() == 10);
+        assertEquals(2, this.batches.size());
+        assertEquals(Integer.valueOf(5), this.batches.get(0));
+        assertEquals(10, this.manager.getWrittenCount());
+    }
+
+    @Test
+    public void verifyRecordsAreSpilledWhenFull() throws Exception {
+        final AuditActionContextSpillFile spillFile = new AuditActionContextSpillFile(this.folder.newFolder());
+        this.manager = newManager(1, 1, LONG_FLUSH_INTERVAL, AsynchronousAuditTrailManager.BackpressurePolicy.SPILL, spillFile);
+        fillQueue();
+        this.manager.record(newContext("spilled"));
+        assertEquals(1, this.manager.getSpilledCount());
+        assertFalse(spillFile.isEmpty());
+
+        this.released.countDown();
+        waitUntil(() -> this.records.size() == 3);
+        assertTrue(this.records.stream().anyMatch(r -> r.getPrincipal().equals("spilled")));
+        assertTrue(spillFile.isEmpty());
+    }
+
+    @Test
+    public void verifySpilledRecordsAreKeptWhenReplayFails() throws Exception {
+        final AuditActionContextSpillFile spillFile = new AuditActionContextSpillFile(this.folder.newFolder());
+        this.manager = newManager(1, 1, 100, AsynchronousAuditTrailManager.BackpressurePolicy.SPILL, spillFile);
+        fillQueue();
+        this.manager.record(newContext("spilled"));
+        this.failSpilledWrites = true;
+
+        this.released.countDown();
+        waitUntil(() -> this.failedWrites.get() > 1);
+        assertFalse(spillFile.isEmpty());
+        assertTrue(this.records.stream().noneMatch(r -> r.getPrincipal().equals("spilled")));
+
+        this.failSpilledWrites = false;
+        waitUntil(() -> this.records.size() == 3);
+        assertTrue(this.records.stream().anyMatch(r -> r.getPrincipal().equals("spilled")));
+        assertTrue(spillFile.isEmpty());
+    }
+
+    @Test
+    public void verifyRecordsAreSpilledWhenWriteFails() throws Exception {
+        final AuditActionContextSpillFile spillFile = new AuditActionContextSpillFile(this.folder.newFolder());
+        this.manager = newManager(100, 1, 100, AsynchronousAuditTrailManager.BackpressurePolicy.SPILL, spillFile);
+        this.failWrites = true;
+        this.manager.record(newContext("failed"));
+        waitUntil(() -> this.manager.getSpilledCount() == 1);
+        assertEquals(0, this.manager.getDroppedCount());
+        assertTrue(this.records.isEmpty());
+
+        this.failWrites = false;
+        waitUntil(() -> this.records.size() == 1);
+        assertEquals("failed", this.records.get(0).getPrincipal());
+        waitUntil(spillFile::isEmpty);
+    }
+
+    @Test
+    public void verifyRecordsAreDroppedWhenWriteFails() {
+        this.manager = newManager(100, 1, 100, AsynchronousAuditTrailManager.BackpressurePolicy.DROP, null);
+        this.failWrites = true;
+        this.manager.record(newContext("failed"));
+        waitUntil(() -> this.manager.getDroppedCount() == 1);
+        assertEquals(0, this.manager.getWrittenCount());
+    }
+
+    /**
+     * Block the writer on a first record and queue a second one, leaving the queue full.
+     */
+    private void fillQueue() throws InterruptedException {
+        this.blockWrites = true;
+        this.manager.record(newContext("first"));
+        assertTrue(this.writing.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        this.manager.record(newContext("second"));
+        assertEquals(1, this.manager.getSize());
+    }
+
+    private AsynchronousAuditTrailManager newManager(final int capacity, final int batchSize, final long flushInterval,
+                                                     final AsynchronousAuditTrailManager.BackpressurePolicy policy,
+                                                     final AuditActionContextSpillFile spillFile) {
+        final BatchAuditTrailManager delegate = new BatchAuditTrailManager() {
+            @Override
+            public void recordAll(final Collection<AuditActionContext> auditActionContexts) {
+                if (blockWrites) {
+                    writing.countDown();
+                    try {
+                        released.await(TIMEOUT, TimeUnit.MILLISECONDS);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                if (failWrites) {
+                    failedWrites.incrementAndGet();
+                    throw new IllegalStateException("Unable to write records");
+                }
+                if (failSpilledWrites && auditActionContexts.stream().anyMatch(r -> r.getPrincipal().equals("spilled"))) {
+                    failedWrites.incrementAndGet();
+                    throw new IllegalStateException("Unable to write spilled records");
+                }
+                batches.add(auditActionContexts.size());
+                records.addAll(auditActionContexts);
+            }
+
+            @Override
+            public void record(final AuditActionContext auditActionContext) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        final AsynchronousAuditTrailManager m = new AsynchronousAuditTrailManager(delegate, capacity, batchSize, flushInterval,
+                policy, spillFile, null);
+        m.initialize();
+        return m;
+    }
+
+    private static AuditActionContext newContext(final String principal) {
+        return new AuditActionContext(principal, "resource", "ACTION", "CAS", new Date(), "1.2.3.4", "5.6.7.8", RUNTIME_INFO);
+    }
+
+    private static void waitUntil(final BooleanSupplier condition) {
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition was not met in time");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.apereo.cas.audit.spi;
+
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.apereo.inspektr.audit.AuditPointRuntimeInfo;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link AuditActionContextSpillFileTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class AuditActionContextSpillFileTests {
+
+    private static final AuditPointRuntimeInfo RUNTIME_INFO = new AuditPointRuntimeInfo() {
+        private static final long serialVersionUID = -2920735361408128843L;
+
+        @Override
+        public String asString() {
+            return AuditActionContextSpillFileTests.class.getName();
+        }
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+
+    private AuditActionContextSpillFile spillFile;
+
+    @Before
+    public void setUp() throws Exception {
+        this.directory = this.folder.newFolder();
+        this.spillFile = new AuditActionContextSpillFile(this.directory);
+    }
+
+    @Test
+    public void verifyRecordsAreReplayedInBatches() throws Exception {
+        append("casuser1", "casuser2", "casuser3");
+        assertFalse(this.spillFile.isEmpty());
+
+        final List<List<AuditActionContext>> batches = new ArrayList<>();
+        assertTrue(this.spillFile.drain(2, batches::add));
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals("casuser3", batches.get(1).get(0).getPrincipal());
+        assertEquals("1.2.3.4", batches.get(1).get(0).getClientIpAddress());
+        assertTrue(this.spillFile.isEmpty());
+    }
+
+    @Test
+    public void verifyRecordsAreKeptWhenBatchIsRejected() throws Exception {
+        append("casuser1", "casuser2", "casuser3", "casuser4", "casuser5");
+
+        final List<String> replayed = new ArrayList<>();
+        assertFalse(this.spillFile.drain(2, batch -> {
+            if (replayed.isEmpty()) {
+                replayed.addAll(principals(batch));
+                return true;
+            }
+            return false;
+        }));
+        assertFalse(this.spillFile.isEmpty());
+
+        append("casuser6");
+        assertTrue(this.spillFile.drain(2, batch -> replayed.addAll(principals(batch))));
+        assertTrue(this.spillFile.drain(2, batch -> replayed.addAll(principals(batch))));
+        assertTrue(this.spillFile.isEmpty());
+
+        final List<String> expected = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            expected.add("casuser" + i);
+        }
+        assertEquals(expected, replayed);
+    }
+
+    @Test
+    public void verifyRecordsAreReplayedAfterRestart() throws Exception {
+        append("casuser1");
+        assertFalse(this.spillFile.drain(1, batch -> false));
+
+        final AuditActionContextSpillFile restarted = new AuditActionContextSpillFile(this.directory);
+        assertFalse(restarted.isEmpty());
+        final List<String> replayed = new ArrayList<>();
+        assertTrue(restarted.drain(1, batch -> replayed.addAll(principals(batch))));
+        assertEquals(1, replayed.size());
+    }
+
+    private void append(final String... principals) throws Exception {
+        for (final String principal : principals) {
+            this.spillFile.append(new AuditActionContext(principal, "resource", "ACTION", "CAS", new Date(),
+                    "1.2.3.4", "5.6.7.8", RUNTIME_INFO));
+        }
+    }
+
+    private static List<String> principals(final List<AuditActionContext> batch) {
+        return batch.stream().map(AuditActionContext::getPrincipal).collect(Collectors.toList());
+    }
+}
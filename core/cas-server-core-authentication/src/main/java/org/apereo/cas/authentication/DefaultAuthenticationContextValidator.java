@@ -5,6 +5,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apereo.cas.services.MultifactorAuthenticationProvider;
 import org.apereo.cas.services.MultifactorAuthenticationProviderBypass;
+import org.apereo.cas.services.MultifactorAuthenticationProviderRegistry;
 import org.apereo.cas.services.RegisteredService;
 import org.apereo.cas.services.RegisteredServiceMultifactorPolicy;
 import org.apereo.cas.util.CollectionUtils;
@@ -14,6 +15,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.OrderComparator;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
@@ -67,14 +69,14 @@ public class DefaultAuthenticationContextValidator implements AuthenticationCont
         final Collection<Object> contexts = CollectionUtils.toCollection(ctxAttr);
         LOGGER.debug("Attempting to match requested authentication context {} against {}", requestedContext, contexts);
 
-        final Map<String, MultifactorAuthenticationProvider> providerMap =
-                getAllMultifactorAuthenticationProvidersFromApplicationContext();
-        if (providerMap == null) {
+        final MultifactorAuthenticationProviderRegistry registry =
+                MultifactorAuthenticationProviderRegistry.getInstance(this.applicationContext);
+        final Map<String, MultifactorAuthenticationProvider> providerMap = registry.getProviders();
+        if (providerMap.isEmpty()) {
             LOGGER.debug("No providers have been configured");
             return Pair.of(Boolean.FALSE, Optional.empty());
         }
-        final Optional<MultifactorAuthenticationProvider> requestedProvider =
-                locateRequestedProvider(providerMap.values(), requestedContext);
+        final Optional<MultifactorAuthenticationProvider> requestedProvider = registry.getProvider(requestedContext);
 
         if (!requestedProvider.isPresent()) {
             LOGGER.debug("Requested authentication provider cannot be recognized.");
@@ -112,7 +114,7 @@ public class DefaultAuthenticationContextValidator implements AuthenticationCont
         }
 
         final Collection<MultifactorAuthenticationProvider> satisfiedProviders =
-                getSatisfiedAuthenticationProviders(authentication, providerMap.values());
+                getSatisfiedAuthenticationProviders(authentication, new ArrayList<>(providerMap.values()));
 
         if (satisfiedProviders == null) {
             LOGGER.warn("No satisfied multifactor authentication providers are recorded in the current authentication context.");
@@ -161,20 +163,6 @@ public class DefaultAuthenticationContextValidator implements AuthenticationCont
         return Pair.of(false, requestedProvider);
     }
 
-    /**
-     * Gets all multifactor authentication providers from application context.
-     *
-     * @return the all multifactor authentication providers from application context
-     */
-    private Map<String, MultifactorAuthenticationProvider> getAllMultifactorAuthenticationProvidersFromApplicationContext() {
-        try {
-            return this.applicationContext.getBeansOfType(MultifactorAuthenticationProvider.class, false, true);
-        } catch (final Exception e) {
-            LOGGER.warn("Could not locate beans of type {} in the application context", MultifactorAuthenticationProvider.class);
-        }
-        return null;
-    }
-
     private Collection<MultifactorAuthenticationProvider> getSatisfiedAuthenticationProviders(final Authentication authentication,
             final Collection<MultifactorAuthenticationProvider> providers) {
         final Collection<Object> contexts = CollectionUtils.toCollection(
@@ -194,14 +182,6 @@ public class DefaultAuthenticationContextValidator implements AuthenticationCont
         return providers;
     }
 
-
-    private static Optional<MultifactorAuthenticationProvider> locateRequestedProvider(final Collection<MultifactorAuthenticationProvider> providersArray,
-                                                                                       final String requestedProvider) {
-        return providersArray.stream()
-                .filter(provider -> provider.getId().equals(requestedProvider))
-                .findFirst();
-    }
-
     private RegisteredServiceMultifactorPolicy.FailureModes getMultifactorFailureModeForService(final RegisteredService service) {
         final RegisteredServiceMultifactorPolicy policy = service.getMultifactorPolicy();
         if (policy == null || policy.getFailureMode() == null) {
@@ -1,5 +1,7 @@
 package org.apereo.cas.config;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricSet;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apereo.cas.authentication.AcceptUsersAuthenticationHandler;
@@ -42,9 +44,11 @@ import org.apereo.cas.authentication.support.password.PasswordPolicyConfiguratio
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.core.authentication.AuthenticationPolicyProperties;
 import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.services.MultifactorAuthenticationProviderRegistry;
 import org.apereo.cas.services.ServicesManager;
 import org.apereo.cas.util.http.HttpClient;
 import org.apereo.cas.util.http.SimpleHttpClientFactoryBean;
+import org.apereo.cas.util.scripting.GroovyScriptCache;
 import org.apereo.cas.web.flow.AuthenticationExceptionHandler;
 import org.apereo.services.persondir.IPersonAttributeDao;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -52,6 +56,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
@@ -80,6 +85,9 @@ public class CasCoreAuthenticationConfiguration {
 
     private static final String BEAN_NAME_HTTP_CLIENT = "supportsTrustStoreSslSocketFactoryHttpClient";
 
+    @Autowired
+    private ApplicationContext applicationContext;
+
     @Autowired
     private CasConfigurationProperties casProperties;
 
@@ -103,6 +111,19 @@ public class CasCoreAuthenticationConfiguration {
     @Qualifier("attributeRepository")
     private IPersonAttributeDao attributeRepository;
 
+    @Autowired(required = false)
+    @Qualifier("metrics")
+    private MetricRegistry metricRegistry;
+
+    @Bean
+    public MetricSet groovyScriptCacheMetricSet() {
+        final GroovyScriptCache cache = GroovyScriptCache.getInstance();
+        if (this.metricRegistry != null) {
+            this.metricRegistry.register(MetricRegistry.name(GroovyScriptCache.class), cache);
+        }
+        return cache;
+    }
+
     @ConditionalOnMissingBean(name = "jaasPrincipalFactory")
     @Bean
     public PrincipalFactory jaasPrincipalFactory() {
@@ -156,6 +177,11 @@ public class CasCoreAuthenticationConfiguration {
         return new DefaultPrincipalFactory();
     }
 
+    @Bean(name = MultifactorAuthenticationProviderRegistry.BEAN_NAME)
+    public MultifactorAuthenticationProviderRegistry multifactorAuthenticationProviderRegistry() {
+        return new MultifactorAuthenticationProviderRegistry(this.applicationContext);
+    }
+
     @RefreshScope
     @Bean
     public AuthenticationContextValidator authenticationContextValidator() {
@@ -2,14 +2,13 @@ package org.apereo.cas.config;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import groovy.lang.GroovyClassLoader;
-import groovy.lang.GroovyObject;
 import org.apache.commons.collections.map.HashedMap;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.core.authentication.PrincipalAttributesProperties;
 import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.util.CollectionUtils;
+import org.apereo.cas.util.scripting.GroovyScriptCache;
 import org.apereo.services.persondir.IPersonAttributeDao;
 import org.apereo.services.persondir.support.BaseGroovyScriptDaoImpl;
 import org.apereo.services.persondir.support.CachingPersonAttributeDaoImpl;
@@ -269,18 +268,14 @@ public class CasPersonDirectoryConfiguration {
         public Map<String, Object> getAttributesForUser(final String uid) {
             final Map<String, Object> finalAttributes = new HashedMap();
             casProperties.getAuthn().getAttributeRepository().getGroovy().forEach(groovy -> {
-                final ClassLoader parent = getClass().getClassLoader();
-                try (GroovyClassLoader loader = new GroovyClassLoader(parent)) {
+                try {
                     if (groovy.getConfig().getLocation() != null) {
                         final File groovyFile = groovy.getConfig().getLocation().getFile();
                         if (groovyFile.exists()) {
-                            final Class<?> groovyClass = loader.parseClass(groovyFile);
-                            LOGGER.debug("Loaded groovy class {} from script {}", groovyClass.getSimpleName(), groovyFile.getCanonicalPath());
-                            final GroovyObject groovyObject = (GroovyObject) groovyClass.newInstance();
-                            LOGGER.debug("Created groovy object instance from class {}", groovyFile.getCanonicalPath());
                             final Object[] args = {uid, LOGGER, casProperties, applicationContext};
                             LOGGER.debug("Executing groovy script's run method, with parameters {}", args);
-                            final Map<String, Object> personAttributesMap = (Map<String, Object>) groovyObject.invokeMethod("run", args);
+                            final Map<String, Object> personAttributesMap =
+                                    (Map<String, Object>) GroovyScriptCache.getInstance().executeMethod(groovyFile, "run", args);
                             LOGGER.debug("Creating person attributes with the username {} and attributes {}", uid, personAttributesMap);
                             finalAttributes.putAll(personAttributesMap);
                         }
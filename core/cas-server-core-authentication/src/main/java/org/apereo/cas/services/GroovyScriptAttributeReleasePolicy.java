@@ -1,8 +1,7 @@
 package org.apereo.cas.services;
 
-import groovy.lang.GroovyClassLoader;
-import groovy.lang.GroovyObject;
 import org.apereo.cas.util.ResourceUtils;
+import org.apereo.cas.util.scripting.GroovyScriptCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,16 +32,13 @@ public class GroovyScriptAttributeReleasePolicy extends AbstractRegisteredServic
 
     @Override
     protected Map<String, Object> getAttributesInternal(final Map<String, Object> attributes) {
-        final ClassLoader parent = getClass().getClassLoader();
-        try (GroovyClassLoader loader = new GroovyClassLoader(parent)) {
+        try {
             final File groovyFile = ResourceUtils.getResourceFrom(this.groovyScript).getFile();
             if (groovyFile.exists()) {
-                final Class<?> groovyClass = loader.parseClass(groovyFile);
-                final GroovyObject groovyObject = (GroovyObject) groovyClass.newInstance();
-                LOGGER.debug("Created groovy object instance from class {}", groovyFile.getCanonicalPath());
                 final Object[] args = {attributes, LOGGER};
                 LOGGER.debug("Executing groovy script's run method, with parameters {}", args);
-                final Map<String, Object> personAttributesMap = (Map<String, Object>) groovyObject.invokeMethod("run", args);
+                final Map<String, Object> personAttributesMap =
+                        (Map<String, Object>) GroovyScriptCache.getInstance().executeMethod(groovyFile, "run", args);
                 LOGGER.debug("Final set of attributes determined by the script are {}", personAttributesMap);
                 return personAttributesMap;
             }
@@ -0,0 +1,150 @@
+package org.apereo.cas.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This is {@link MultifactorAuthenticationProviderRegistry} that keeps track of the
+ * multifactor authentication providers registered in the application context.
+ * Providers are looked up once and indexed by their id, rather than scanning
+ * the application context for beans of type {@link MultifactorAuthenticationProvider}
+ * on every request. The registry is rebuilt once the context or the refresh scope
+ * is refreshed.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class MultifactorAuthenticationProviderRegistry {
+    /**
+     * Bean name of the registry in the application context.
+     */
+    public static final String BEAN_NAME = "multifactorAuthenticationProviderRegistry";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultifactorAuthenticationProviderRegistry.class);
+
+    private final ApplicationContext applicationContext;
+
+    private volatile Providers providers;
+
+    public MultifactorAuthenticationProviderRegistry(final ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * Gets the registry defined in the application context, or a registry
+     * that is not shared if the context does not define one.
+     *
+     * @param applicationContext the application context
+     * @return the registry
+     */
+    public static MultifactorAuthenticationProviderRegistry getInstance(final ApplicationContext applicationContext) {
+        if (applicationContext.containsBean(BEAN_NAME)) {
+            return applicationContext.getBean(BEAN_NAME, MultifactorAuthenticationProviderRegistry.class);
+        }
+        return new MultifactorAuthenticationProviderRegistry(applicationContext);
+    }
+
+    /**
+     * Gets all multifactor authentication providers, keyed by bean name.
+     *
+     * @return the providers; the map may not be modified
+     */
+    public Map<String, MultifactorAuthenticationProvider> getProviders() {
+        return getOrLoadProviders().beans;
+    }
+
+    /**
+     * Gets the provider whose id is the given identifier.
+     *
+     * @param identifier the identifier
+     * @return the provider
+     */
+    public Optional<MultifactorAuthenticationProvider> getProvider(final String identifier) {
+        return Optional.ofNullable(getOrLoadProviders().ids.get(identifier));
+    }
+
+    /**
+     * Find the first provider that matches the given identifier (e.g. "mfa-duo").
+     * Providers whose id is the identifier are found without going through all providers.
+     *
+     * @param identifier the identifier
+     * @return the provider
+     */
+    public Optional<MultifactorAuthenticationProvider> findProvider(final String identifier) {
+        final Providers current = getOrLoadProviders();
+        final MultifactorAuthenticationProvider provider = current.ids.get(identifier);
+        if (provider != null) {
+            return Optional.of(provider);
+        }
+        return current.beans.values().stream().filter(p -> p.matches(identifier)).findFirst();
+    }
+
+    /**
+     * Forget the providers, so they are located again on the next lookup.
+     */
+    public void refresh() {
+        LOGGER.debug("Multifactor authentication providers will be located again on the next lookup");
+        this.providers = null;
+    }
+
+    /**
+     * Handle the context being refreshed.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleContextRefreshedEvent(final ContextRefreshedEvent event) {
+        refresh();
+    }
+
+    /**
+     * Handle the refresh scope being refreshed.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleRefreshScopeRefreshedEvent(final RefreshScopeRefreshedEvent event) {
+        refresh();
+    }
+
+    private Providers getOrLoadProviders() {
+        Providers current = this.providers;
+        if (current == null) {
+            current = new Providers(locateProviders());
+            this.providers = current;
+        }
+        return current;
+    }
+
+    private Map<String, MultifactorAuthenticationProvider> locateProviders() {
+        try {
+            return this.applicationContext.getBeansOfType(MultifactorAuthenticationProvider.class, false, true);
+        } catch (final Exception e) {
+            LOGGER.warn("Could not locate beans of type {} in the application context", MultifactorAuthenticationProvider.class);
+        }
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Providers located in the application context.
+     */
+    private static class Providers {
+        private final Map<String, MultifactorAuthenticationProvider> beans;
+        private final Map<String, MultifactorAuthenticationProvider> ids = new HashMap<>();
+
+        Providers(final Map<String, MultifactorAuthenticationProvider> beans) {
+            this.beans = Collections.unmodifiableMap(new LinkedHashMap<>(beans));
+            this.beans.values().forEach(p -> this.ids.putIfAbsent(p.getId(), p));
+        }
+    }
+}
@@ -1,18 +1,15 @@
 package org.apereo.cas.services;
 
-import groovy.lang.Binding;
-import groovy.lang.GroovyShell;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apereo.cas.util.RegexUtils;
+import org.apereo.cas.util.scripting.GroovyScriptCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.TreeMap;
@@ -98,18 +95,13 @@ public class ReturnMappedAttributeReleasePolicy extends AbstractRegisteredServic
                     LOGGER.warn("Groovy-scripted attribute returned no value for {}", entry[0]);
                 }
             } else if (matcherFile.find()) {
-                try {
-                    LOGGER.debug("Found groovy script to execute for attribute mapping {}", entry[0]);
-                    final String script = FileUtils.readFileToString(new File(matcherFile.group(1)), StandardCharsets.UTF_8);
-                    final Object result = getGroovyAttributeValue(script, resolvedAttributes);
-                    if (result != null) {
-                        LOGGER.debug("Mapped attribute {} to {} from script", entry[0], result);
-                        attributesToRelease.put(entry[0].toString(), result);
-                    } else {
-                        LOGGER.warn("Groovy-scripted attribute returned no value for {}", entry[0]);
-                    }
-                } catch (final IOException e) {
-                    LOGGER.error(e.getMessage(), e);
+                LOGGER.debug("Found groovy script to execute for attribute mapping {}", entry[0]);
+                final Object result = getGroovyAttributeValue(new File(matcherFile.group(1)), resolvedAttributes);
+                if (result != null) {
+                    LOGGER.debug("Mapped attribute {} to {} from script", entry[0], result);
+                    attributesToRelease.put(entry[0].toString(), result);
+                } else {
+                    LOGGER.warn("Groovy-scripted attribute returned no value for {}", entry[0]);
                 }
             } else {
                 LOGGER.debug("Found attribute [{}] in the list of allowed attributes, mapped to the name [{}]",
@@ -123,11 +115,17 @@ public class ReturnMappedAttributeReleasePolicy extends AbstractRegisteredServic
     private static Object getGroovyAttributeValue(final String groovyScript,
                                            final Map<String, Object> resolvedAttributes) {
         try {
-            final Binding binding = new Binding();
-            final GroovyShell shell = new GroovyShell(binding);
-            binding.setVariable("attributes", resolvedAttributes);
-            final Object res = shell.evaluate(groovyScript);
-            return res;
+            return GroovyScriptCache.getInstance().evaluate(groovyScript, Collections.singletonMap("attributes", resolvedAttributes));
+        } catch (final Exception e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+        return null;
+    }
+
+    private static Object getGroovyAttributeValue(final File groovyScript,
+                                                  final Map<String, Object> resolvedAttributes) {
+        try {
+            return GroovyScriptCache.getInstance().evaluate(groovyScript, Collections.singletonMap("attributes", resolvedAttributes));
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
         }
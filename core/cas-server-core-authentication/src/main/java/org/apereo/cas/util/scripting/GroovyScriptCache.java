@@ -0,0 +1,183 @@
+package org.apereo.cas.util.scripting;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.Timer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovyObject;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * This is {@link GroovyScriptCache} that holds compiled Groovy scripts, so that scripts
+ * are parsed once rather than on every execution. Scripts loaded from files are keyed by their
+ * canonical path, and are compiled again whenever the file's modification time changes.
+ * Inline scripts are keyed by their text. Each script is compiled by its own class loader,
+ * so that evicted scripts can be unloaded. The cache is bounded in size.
+ * <p>
+ * Registered service policies are not managed by Spring, so a shared instance is available
+ * via {@link #getInstance()}. The number of compilations and the time spent executing
+ * scripts are exposed as metrics.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class GroovyScriptCache implements MetricSet {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GroovyScriptCache.class);
+
+    private static final long DEFAULT_MAXIMUM_SIZE = 1000;
+
+    private static final GroovyScriptCache INSTANCE = new GroovyScriptCache(DEFAULT_MAXIMUM_SIZE);
+
+    private final Cache<String, CompiledScript> cache;
+
+    private final Counter compilations = new Counter();
+
+    private final Timer executions = new Timer();
+
+    public GroovyScriptCache(final long maximumSize) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    public static GroovyScriptCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets the compiled class of the script file,
+     * compiling it if it is not cached or has changed since.
+     *
+     * @param file the script file
+     * @return the compiled class
+     * @throws IOException if the file cannot be read
+     */
+    public Class<?> getScriptClass(final File file) throws IOException {
+        final String key = "file:" + file.getCanonicalPath();
+        final long lastModified = file.lastModified();
+        final CompiledScript cached = this.cache.getIfPresent(key);
+        if (cached != null && cached.lastModified == lastModified) {
+            return cached.type;
+        }
+        LOGGER.debug("Compiling groovy script [{}]", key);
+        final CompiledScript compiled = new CompiledScript(newClassLoader().parseClass(file), lastModified);
+        this.compilations.inc();
+        this.cache.put(key, compiled);
+        return compiled.type;
+    }
+
+    /**
+     * Gets the compiled class of the inline script, compiling it if it is not cached.
+     *
+     * @param script the script text
+     * @return the compiled class
+     */
+    public Class<?> getScriptClass(final String script) {
+        final String key = "inline:" + script;
+        final CompiledScript cached = this.cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.type;
+        }
+        final CompiledScript compiled = new CompiledScript(newClassLoader().parseClass(script), 0);
+        this.compilations.inc();
+        this.cache.put(key, compiled);
+        return compiled.type;
+    }
+
+    /**
+     * Create a new instance of the class defined in the script file and invoke the given method.
+     *
+     * @param file       the script file
+     * @param methodName the method name
+     * @param args       the method arguments
+     * @return the result of the method
+     * @throws Exception if the script cannot be loaded, or the method fails
+     */
+    public Object executeMethod(final File file, final String methodName, final Object... args) throws Exception {
+        final GroovyObject groovyObject = (GroovyObject) getScriptClass(file).newInstance();
+        return time(() -> groovyObject.invokeMethod(methodName, args));
+    }
+
+    /**
+     * Run the script file with the given variables bound.
+     *
+     * @param file      the script file
+     * @param variables the variables
+     * @return the result of the script
+     * @throws Exception if the script cannot be loaded, or fails
+     */
+    public Object evaluate(final File file, final Map<String, Object> variables) throws Exception {
+        return run(getScriptClass(file), variables);
+    }
+
+    /**
+     * Run the inline script with the given variables bound.
+     *
+     * @param script    the script text
+     * @param variables the variables
+     * @return the result of the script
+     * @throws Exception if the script fails
+     */
+    public Object evaluate(final String script, final Map<String, Object> variables) throws Exception {
+        return run(getScriptClass(script), variables);
+    }
+
+    /**
+     * Remove all compiled scripts.
+     */
+    public void invalidate() {
+        this.cache.invalidateAll();
+    }
+
+    public long getCompilationCount() {
+        return this.compilations.getCount();
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        final Map<String, Metric> metrics = new HashMap<>();
+        metrics.put("compilations", this.compilations);
+        metrics.put("executions", this.executions);
+        return metrics;
+    }
+
+    private Object run(final Class<?> scriptClass, final Map<String, Object> variables) throws Exception {
+        final Binding binding = new Binding();
+        variables.forEach(binding::setVariable);
+        return time(() -> InvokerHelper.createScript(scriptClass, binding).run());
+    }
+
+    private Object time(final Callable<Object> callable) throws Exception {
+        final Timer.Context context = this.executions.time();
+        try {
+            return callable.call();
+        } finally {
+            context.stop();
+        }
+    }
+
+    private GroovyClassLoader newClassLoader() {
+        return new GroovyClassLoader(getClass().getClassLoader());
+    }
+
+    private static class CompiledScript {
+        private final Class<?> type;
+        private final long lastModified;
+
+        CompiledScript(final Class<?> type, final long lastModified) {
+            this.type = type;
+            this.lastModified = lastModified;
+        }
+    }
+}
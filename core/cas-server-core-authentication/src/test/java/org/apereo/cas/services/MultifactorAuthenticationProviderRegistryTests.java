@@ -0,0 +1,86 @@
+package org.apereo.cas.services;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.springframework.context.support.StaticApplicationContext;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link MultifactorAuthenticationProviderRegistryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class MultifactorAuthenticationProviderRegistryTests {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private StaticApplicationContext applicationContext;
+
+    private MultifactorAuthenticationProviderRegistry registry;
+
+    @Before
+    public void setUp() {
+        this.applicationContext = new StaticApplicationContext();
+        this.applicationContext.getBeanFactory().registerSingleton("mfaOne", newProvider("mfa-one"));
+        this.applicationContext.getBeanFactory().registerSingleton("mfaVariegated",
+                new DefaultVariegatedMultifactorAuthenticationProvider(Arrays.asList(newProvider("mfa-two"), newProvider("mfa-three"))));
+        this.applicationContext.refresh();
+        this.registry = new MultifactorAuthenticationProviderRegistry(this.applicationContext);
+    }
+
+    @Test
+    public void verifyProvidersAreFoundById() {
+        assertEquals(2, this.registry.getProviders().size());
+        assertEquals("mfa-one", this.registry.getProvider("mfa-one").get().getId());
+        assertFalse(this.registry.getProvider("mfa-two").isPresent());
+        assertEquals("mfa-two|mfa-three", this.registry.findProvider("mfa-two").get().getId());
+        assertFalse(this.registry.findProvider("mfa-unknown").isPresent());
+    }
+
+    @Test
+    public void verifyProvidersAreLocatedAgainOnceRefreshed() {
+        assertEquals(2, this.registry.getProviders().size());
+        this.applicationContext.getBeanFactory().registerSingleton("mfaFour", newProvider("mfa-four"));
+        assertFalse(this.registry.getProvider("mfa-four").isPresent());
+
+        this.registry.refresh();
+        assertEquals(3, this.registry.getProviders().size());
+        assertTrue(this.registry.getProvider("mfa-four").isPresent());
+    }
+
+    @Test
+    public void verifyProvidersCannotBeModified() {
+        this.thrown.expect(UnsupportedOperationException.class);
+        this.registry.getProviders().clear();
+    }
+
+    @Test
+    public void verifyRegistryIsSharedWhenDefined() {
+        assertNotSame(MultifactorAuthenticationProviderRegistry.getInstance(this.applicationContext),
+                MultifactorAuthenticationProviderRegistry.getInstance(this.applicationContext));
+        this.applicationContext.getBeanFactory().registerSingleton(MultifactorAuthenticationProviderRegistry.BEAN_NAME, this.registry);
+        assertSame(this.registry, MultifactorAuthenticationProviderRegistry.getInstance(this.applicationContext));
+    }
+
+    private static MultifactorAuthenticationProvider newProvider(final String id) {
+        final TestMultifactorAuthenticationProvider provider = new TestMultifactorAuthenticationProvider();
+        provider.setId(id);
+        return provider;
+    }
+
+    private static class TestMultifactorAuthenticationProvider extends AbstractMultifactorAuthenticationProvider {
+        private static final long serialVersionUID = 8253957366416232718L;
+
+        @Override
+        protected boolean isAvailable() {
+            return true;
+        }
+    }
+}
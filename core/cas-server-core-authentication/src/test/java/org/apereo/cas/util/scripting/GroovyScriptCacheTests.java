@@ -0,0 +1,48 @@
+package org.apereo.cas.util.scripting;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link GroovyScriptCacheTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class GroovyScriptCacheTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void verifyInlineScriptIsCompiledOnce() throws Exception {
+        final GroovyScriptCache cache = new GroovyScriptCache(10);
+        assertEquals(2, cache.evaluate("value * 2", Collections.singletonMap("value", 1)));
+        assertEquals(4, cache.evaluate("value * 2", Collections.singletonMap("value", 2)));
+        assertEquals(1, cache.getCompilationCount());
+    }
+
+    @Test
+    public void verifyScriptFileIsCompiledAgainOnceModified() throws Exception {
+        final GroovyScriptCache cache = new GroovyScriptCache(10);
+        final File script = folder.newFile("script.groovy");
+        FileUtils.write(script, "def run(Object... args) { 'first' }", StandardCharsets.UTF_8);
+
+        assertEquals("first", cache.executeMethod(script, "run", "casuser"));
+        assertEquals("first", cache.executeMethod(script, "run", "casuser"));
+        assertEquals(1, cache.getCompilationCount());
+
+        FileUtils.write(script, "def run(Object... args) { 'second' }", StandardCharsets.UTF_8);
+        assertTrue(script.setLastModified(script.lastModified() + 2000));
+        assertEquals("second", cache.executeMethod(script, "run", "casuser"));
+        assertEquals(2, cache.getCompilationCount());
+    }
+}
@@ -1,6 +1,7 @@
 package org.apereo.cas.configuration.model.core.audit;
 
 import org.apereo.cas.configuration.model.support.jpa.AbstractJpaProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.inspektr.audit.support.AbstractStringAuditTrailManager;
 
 /**
@@ -105,6 +106,8 @@ public class AuditProperties {
         private String isolationLevelName = "ISOLATION_READ_COMMITTED";
         private String propagationBehaviorName = "PROPAGATION_REQUIRED";
 
+        private Asynchronous asynchronous = new Asynchronous();
+
         public int getMaxAgeDays() {
             return maxAgeDays;
         }
@@ -128,5 +131,70 @@ public class AuditProperties {
         public void setIsolationLevelName(final String isolationLevelName) {
             this.isolationLevelName = isolationLevelName;
         }
+
+        public Asynchronous getAsynchronous() {
+            return asynchronous;
+        }
+
+        public void setAsynchronous(final Asynchronous asynchronous) {
+            this.asynchronous = asynchronous;
+        }
+    }
+
+    public static class Asynchronous {
+        private boolean enabled;
+        private int capacity = 10000;
+        private int batchSize = 100;
+        private String flushInterval = "PT1S";
+        private String backpressurePolicy = "BLOCK";
+        private String spillLocation;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(final int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushInterval() {
+            return Beans.newDuration(flushInterval).toMillis();
+        }
+
+        public void setFlushInterval(final String flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public String getBackpressurePolicy() {
+            return backpressurePolicy;
+        }
+
+        public void setBackpressurePolicy(final String backpressurePolicy) {
+            this.backpressurePolicy = backpressurePolicy;
+        }
+
+        public String getSpillLocation() {
+            return spillLocation;
+        }
+
+        public void setSpillLocation(final String spillLocation) {
+            this.spillLocation = spillLocation;
+        }
     }
 }
@@ -1,6 +1,7 @@
 package org.apereo.cas.configuration.model.core.authentication;
 
 import org.apereo.cas.configuration.model.support.sms.SmsProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
 /**
@@ -16,6 +17,7 @@ public class RiskBasedAuthenticationProperties {
     private GeoLocation geoLocation = new GeoLocation();
     private DateTime dateTime = new DateTime();
     private Response response = new Response();
+    private Profile profile = new Profile();
     
     private double threshold = 0.6;
     private long daysInRecentHistory = 30;
@@ -76,6 +78,35 @@ public class RiskBasedAuthenticationProperties {
         this.dateTime = dateTime;
     }
 
+    public Profile getProfile() {
+        return profile;
+    }
+
+    public void setProfile(final Profile profile) {
+        this.profile = profile;
+    }
+
+    public static class Profile {
+        private long cacheSize = 10000;
+        private String cacheExpiration = "PT30M";
+
+        public long getCacheSize() {
+            return cacheSize;
+        }
+
+        public void setCacheSize(final long cacheSize) {
+            this.cacheSize = cacheSize;
+        }
+
+        public long getCacheExpiration() {
+            return Beans.newDuration(cacheExpiration).toMillis();
+        }
+
+        public void setCacheExpiration(final String cacheExpiration) {
+            this.cacheExpiration = cacheExpiration;
+        }
+    }
+
     public static class IpAddress {
         private boolean enabled;
 
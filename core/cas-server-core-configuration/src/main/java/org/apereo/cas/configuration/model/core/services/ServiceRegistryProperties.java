@@ -38,6 +38,10 @@ public class ServiceRegistryProperties extends AbstractConfigProperties {
 
     private boolean watcherEnabled = true;
 
+    private String cache = "PT5M";
+
+    private long cacheSize = 10000;
+
     /**
      * Instantiates a new Service registry properties.
      */
@@ -77,6 +81,22 @@ public class ServiceRegistryProperties extends AbstractConfigProperties {
         this.repeatInterval = repeatInterval;
     }
 
+    public long getCache() {
+        return Beans.newDuration(cache).toMillis();
+    }
+
+    public void setCache(final String cache) {
+        this.cache = cache;
+    }
+
+    public long getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(final long cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
     public JpaServiceRegistryProperties getJpa() {
         return jpa;
     }
@@ -1,5 +1,7 @@
 package org.apereo.cas.configuration.model.core.slo;
 
+import org.apereo.cas.configuration.support.Beans;
+
 /**
  * This is {@link SloProperties}.
  *
@@ -11,6 +13,10 @@ public class SloProperties {
     
     private boolean asynchronous = true;
     private boolean disabled;
+    private int dispatchPoolSize = 10;
+    private int dispatchQueueSize = 1000;
+    private String dispatchTimeout = "PT10S";
+    private Queue queue = new Queue();
 
     public boolean isAsynchronous() {
         return asynchronous;
@@ -27,4 +33,111 @@ public class SloProperties {
     public void setDisabled(final boolean disabled) {
         this.disabled = disabled;
     }
+
+    public int getDispatchPoolSize() {
+        return dispatchPoolSize;
+    }
+
+    public void setDispatchPoolSize(final int dispatchPoolSize) {
+        this.dispatchPoolSize = dispatchPoolSize;
+    }
+
+    public int getDispatchQueueSize() {
+        return dispatchQueueSize;
+    }
+
+    public void setDispatchQueueSize(final int dispatchQueueSize) {
+        this.dispatchQueueSize = dispatchQueueSize;
+    }
+
+    public long getDispatchTimeout() {
+        return Beans.newDuration(dispatchTimeout).toMillis();
+    }
+
+    public void setDispatchTimeout(final String dispatchTimeout) {
+        this.dispatchTimeout = dispatchTimeout;
+    }
+
+    public Queue getQueue() {
+        return queue;
+    }
+
+    public void setQueue(final Queue queue) {
+        this.queue = queue;
+    }
+
+    public static class Queue {
+        private boolean enabled;
+        private String location;
+        private int capacity = 10000;
+        private int poolSize = 10;
+        private int maxConcurrencyPerHost = 2;
+        private int maxAttempts = 5;
+        private String initialBackoff = "PT5S";
+        private String maxBackoff = "PT10M";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public void setLocation(final String location) {
+            this.location = location;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(final int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(final int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getMaxConcurrencyPerHost() {
+            return maxConcurrencyPerHost;
+        }
+
+        public void setMaxConcurrencyPerHost(final int maxConcurrencyPerHost) {
+            this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(final int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getInitialBackoff() {
+            return Beans.newDuration(initialBackoff).toMillis();
+        }
+
+        public void setInitialBackoff(final String initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public long getMaxBackoff() {
+            return Beans.newDuration(maxBackoff).toMillis();
+        }
+
+        public void setMaxBackoff(final String maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+    }
 }
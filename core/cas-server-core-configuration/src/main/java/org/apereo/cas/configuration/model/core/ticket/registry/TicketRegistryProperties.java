@@ -143,6 +143,7 @@ public class TicketRegistryProperties {
         private int initialCapacity = 1000;
         private int loadFactor = 1;
         private int concurrency = 20;
+        private boolean expirationIndexEnabled;
 
         @NestedConfigurationProperty
         private CryptographyProperties crypto = new CryptographyProperties();
@@ -178,6 +179,14 @@ public class TicketRegistryProperties {
         public void setConcurrency(final int concurrency) {
             this.concurrency = concurrency;
         }
+
+        public boolean isExpirationIndexEnabled() {
+            return expirationIndexEnabled;
+        }
+
+        public void setExpirationIndexEnabled(final boolean expirationIndexEnabled) {
+            this.expirationIndexEnabled = expirationIndexEnabled;
+        }
     }
 
     public static class Cleaner {
@@ -33,7 +33,17 @@ public class TicketProperties {
 
     @NestedConfigurationProperty
     private TicketGrantingTicketProperties tgt = new TicketGrantingTicketProperties();
-    
+
+    private boolean timeOrderedIds;
+
+    public boolean isTimeOrderedIds() {
+        return timeOrderedIds;
+    }
+
+    public void setTimeOrderedIds(final boolean timeOrderedIds) {
+        this.timeOrderedIds = timeOrderedIds;
+    }
+
     public ProxyGrantingTicketProperties getPgt() {
         return pgt;
     }
@@ -19,6 +19,8 @@ public class TicketGrantingCookieProperties extends CookieProperties {
     private String signingKey = StringUtils.EMPTY;
     
     private boolean cipherEnabled = true;
+
+    private boolean aesGcmEncryption;
     
     public TicketGrantingCookieProperties() {
         super.setName("TGC");
@@ -55,4 +57,12 @@ public class TicketGrantingCookieProperties extends CookieProperties {
     public void setCipherEnabled(final boolean cipherEnabled) {
         this.cipherEnabled = cipherEnabled;
     }
+
+    public boolean isAesGcmEncryption() {
+        return aesGcmEncryption;
+    }
+
+    public void setAesGcmEncryption(final boolean aesGcmEncryption) {
+        this.aesGcmEncryption = aesGcmEncryption;
+    }
 }
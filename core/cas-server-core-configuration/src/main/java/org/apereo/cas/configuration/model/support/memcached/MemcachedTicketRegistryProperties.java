@@ -15,6 +15,7 @@ public class MemcachedTicketRegistryProperties {
     private String failureMode = "Redistribute";
     private String locatorType = "ARRAY_MOD";
     private String hashAlgorithm = "FNV1_64_HASH";
+    private boolean kryoTicketCodecEnabled;
 
     @NestedConfigurationProperty
     private CryptographyProperties crypto = new CryptographyProperties();
@@ -58,6 +59,14 @@ public class MemcachedTicketRegistryProperties {
     public void setHashAlgorithm(final String hashAlgorithm) {
         this.hashAlgorithm = hashAlgorithm;
     }
+
+    public boolean isKryoTicketCodecEnabled() {
+        return kryoTicketCodecEnabled;
+    }
+
+    public void setKryoTicketCodecEnabled(final boolean kryoTicketCodecEnabled) {
+        this.kryoTicketCodecEnabled = kryoTicketCodecEnabled;
+    }
 }
 
 
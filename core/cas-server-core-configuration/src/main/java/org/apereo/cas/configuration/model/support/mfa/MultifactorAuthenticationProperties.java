@@ -735,6 +735,14 @@ public class MultifactorAuthenticationProperties implements Serializable {
 
         public static class Rest {
             private String endpoint;
+            private String connectTimeout = "PT5S";
+            private String readTimeout = "PT5S";
+            private int maxConnections = 20;
+            private String cacheExpiration = "PT10S";
+            private long cacheMaximumSize = 10000;
+            private boolean asynchronousWrites;
+            private int writeBatchSize = 100;
+            private int writeQueueCapacity = 10000;
 
             public String getEndpoint() {
                 return endpoint;
@@ -743,6 +751,70 @@ public class MultifactorAuthenticationProperties implements Serializable {
             public void setEndpoint(final String endpoint) {
                 this.endpoint = endpoint;
             }
+
+            public long getConnectTimeout() {
+                return Beans.newDuration(connectTimeout).toMillis();
+            }
+
+            public void setConnectTimeout(final String connectTimeout) {
+                this.connectTimeout = connectTimeout;
+            }
+
+            public long getReadTimeout() {
+                return Beans.newDuration(readTimeout).toMillis();
+            }
+
+            public void setReadTimeout(final String readTimeout) {
+                this.readTimeout = readTimeout;
+            }
+
+            public int getMaxConnections() {
+                return maxConnections;
+            }
+
+            public void setMaxConnections(final int maxConnections) {
+                this.maxConnections = maxConnections;
+            }
+
+            public long getCacheExpiration() {
+                return Beans.newDuration(cacheExpiration).toMillis();
+            }
+
+            public void setCacheExpiration(final String cacheExpiration) {
+                this.cacheExpiration = cacheExpiration;
+            }
+
+            public long getCacheMaximumSize() {
+                return cacheMaximumSize;
+            }
+
+            public void setCacheMaximumSize(final long cacheMaximumSize) {
+                this.cacheMaximumSize = cacheMaximumSize;
+            }
+
+            public boolean isAsynchronousWrites() {
+                return asynchronousWrites;
+            }
+
+            public void setAsynchronousWrites(final boolean asynchronousWrites) {
+                this.asynchronousWrites = asynchronousWrites;
+            }
+
+            public int getWriteBatchSize() {
+                return writeBatchSize;
+            }
+
+            public void setWriteBatchSize(final int writeBatchSize) {
+                this.writeBatchSize = writeBatchSize;
+            }
+
+            public int getWriteQueueCapacity() {
+                return writeQueueCapacity;
+            }
+
+            public void setWriteQueueCapacity(final int writeQueueCapacity) {
+                this.writeQueueCapacity = writeQueueCapacity;
+            }
         }
 
         public static class Jpa extends AbstractJpaProperties {
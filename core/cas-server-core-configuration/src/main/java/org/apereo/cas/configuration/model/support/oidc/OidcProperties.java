@@ -1,5 +1,6 @@
 package org.apereo.cas.configuration.model.support.oidc;
 
+import org.apereo.cas.configuration.support.Beans;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 
@@ -14,6 +15,7 @@ public class OidcProperties {
     private String issuer = "http://localhost:8080/cas/oidc";
     private int skew = 5;
     private Resource jwksFile = new FileSystemResource("/etc/cas/keystore.jwks");
+    private String jwksCacheExpiration = "PT1M";
     private String dynamicClientRegistrationMode;
 
     public String getDynamicClientRegistrationMode() {
@@ -47,4 +49,12 @@ public class OidcProperties {
     public void setJwksFile(final Resource jwksFile) {
         this.jwksFile = jwksFile;
     }
+
+    public long getJwksCacheExpiration() {
+        return Beans.newDuration(jwksCacheExpiration).toMillis();
+    }
+
+    public void setJwksCacheExpiration(final String jwksCacheExpiration) {
+        this.jwksCacheExpiration = jwksCacheExpiration;
+    }
 }
@@ -99,6 +99,9 @@ public class SamlIdPProperties {
         private boolean failFast = true;
         private boolean requireValidMetadata = true;
         private long cacheExpirationMinutes = 30;
+        private long cacheMaximumSize = 100;
+        private int cacheRefreshPoolSize = 2;
+        private boolean indexAggregates;
         private Resource location = new FileSystemResource("/etc/cas/saml");
         private String privateKeyAlgName = "RSA";
         private String basicAuthnUsername;
@@ -129,6 +132,30 @@ public class SamlIdPProperties {
             this.cacheExpirationMinutes = cacheExpirationMinutes;
         }
 
+        public long getCacheMaximumSize() {
+            return cacheMaximumSize;
+        }
+
+        public void setCacheMaximumSize(final long cacheMaximumSize) {
+            this.cacheMaximumSize = cacheMaximumSize;
+        }
+
+        public int getCacheRefreshPoolSize() {
+            return cacheRefreshPoolSize;
+        }
+
+        public void setCacheRefreshPoolSize(final int cacheRefreshPoolSize) {
+            this.cacheRefreshPoolSize = cacheRefreshPoolSize;
+        }
+
+        public boolean isIndexAggregates() {
+            return indexAggregates;
+        }
+
+        public void setIndexAggregates(final boolean indexAggregates) {
+            this.indexAggregates = indexAggregates;
+        }
+
         public Resource getLocation() {
             return location;
         }
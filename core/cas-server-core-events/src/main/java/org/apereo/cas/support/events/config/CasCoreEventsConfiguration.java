@@ -1,21 +1,20 @@
 package org.apereo.cas.support.events.config;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import org.apereo.cas.configuration.CasConfigurationProperties;
-import org.apereo.cas.support.events.dao.CasEvent;
+import org.apereo.cas.configuration.model.core.events.EventsProperties;
+import org.apereo.cas.support.events.dao.AsynchronousCasEventRepository;
 import org.apereo.cas.support.events.dao.CasEventRepository;
 import org.apereo.cas.support.events.dao.InMemoryCasEventRepository;
 import org.apereo.cas.support.events.listener.DefaultCasEventListener;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 import java.util.concurrent.TimeUnit;
 
@@ -28,32 +27,45 @@ import java.util.concurrent.TimeUnit;
 @Configuration("casCoreEventsConfiguration")
 @EnableConfigurationProperties(CasConfigurationProperties.class)
 public class CasCoreEventsConfiguration {
-    private static final Logger LOGGER = LoggerFactory.getLogger(CasCoreEventsConfiguration.class);
-    
     private static final int INITIAL_CACHE_SIZE = 50;
     private static final long MAX_CACHE_SIZE = 1000;
 
+    @Autowired
+    private CasConfigurationProperties casProperties;
+
+    @Autowired(required = false)
+    @Qualifier("metrics")
+    private MetricRegistry metricRegistry;
+
     @Autowired
     @Bean
     public DefaultCasEventListener defaultCasEventListener(@Qualifier("casEventRepository") final CasEventRepository casEventRepository) {
+        if (casProperties.getEvents().getAsynchronous().isEnabled()) {
+            return new DefaultCasEventListener(asynchronousCasEventRepository(casEventRepository));
+        }
         return new DefaultCasEventListener(casEventRepository);
     }
 
+    @Lazy
+    @Autowired
+    @Bean
+    public AsynchronousCasEventRepository asynchronousCasEventRepository(@Qualifier("casEventRepository")
+                                                                         final CasEventRepository casEventRepository) {
+        final EventsProperties.Asynchronous async = casProperties.getEvents().getAsynchronous();
+        final AsynchronousCasEventRepository.OverflowPolicy policy =
+                AsynchronousCasEventRepository.OverflowPolicy.valueOf(async.getOverflowPolicy().trim().toUpperCase());
+        return new AsynchronousCasEventRepository(casEventRepository, async.getCapacity(), async.getBatchSize(),
+                async.getFlushInterval(), policy, this.metricRegistry);
+    }
+
     @ConditionalOnMissingBean(name = "casEventRepository")
     @Bean
     public CasEventRepository casEventRepository() {
-        final LoadingCache<String, CasEvent> storage = CacheBuilder.newBuilder()
+        final CacheBuilder<Object, Object> storage = CacheBuilder.newBuilder()
                 .initialCapacity(INITIAL_CACHE_SIZE)
                 .maximumSize(MAX_CACHE_SIZE)
                 .recordStats()
-                .expireAfterWrite(1, TimeUnit.DAYS)
-                .build(new CacheLoader<String, CasEvent>() {
-                    @Override
-                    public CasEvent load(final String s) throws Exception {
-                        LOGGER.error("Load operation of the cache is not supported.");
-                        return null;
-                    }
-                });
+                .expireAfterWrite(1, TimeUnit.DAYS);
         return new InMemoryCasEventRepository(storage);
     }
 }
@@ -16,6 +16,11 @@ import java.util.stream.Collectors;
 public abstract class AbstractCasEventRepository implements CasEventRepository {
     protected transient Logger logger = LoggerFactory.getLogger(this.getClass());
 
+    @Override
+    public void saveAll(final Collection<CasEvent> events) {
+        events.forEach(this::save);
+    }
+
     @Override
     public Collection<CasEvent> getEventsOfType(final String type) {
         final Collection<CasEvent> events = load();
@@ -0,0 +1,173 @@
+package org.apereo.cas.support.events.dao;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apereo.cas.util.concurrent.BatchingQueueWriter;
+import org.apereo.cas.util.concurrent.QueueOverflowPolicy;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.annotation.PostConstruct;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+
+/**
+ * This is {@link AsynchronousCasEventRepository} that saves events in the background.
+ * Events are placed in a bounded queue and handed to the delegate repository via
+ * {@link CasEventRepository#saveAll(Collection)} by a {@link BatchingQueueWriter}, once a full
+ * batch is available or the flush interval has passed since the last flush. Queries go straight to the
+ * delegate, and so do not see events that are still queued.
+ * <p>
+ * When the queue is full, the {@link OverflowPolicy} decides whether the caller waits for room,
+ * the event is dropped, or the caller saves the event itself. Queue depth, the age of the
+ * oldest queued event, batch latency and the number of saved and dropped events
+ * are published to the metric registry, if one is available.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class AsynchronousCasEventRepository implements CasEventRepository, DisposableBean {
+
+    /**
+     * Decides what happens to events offered while the queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Wait for room in the queue.
+         */
+        BLOCK,
+        /**
+         * Discard the event.
+         */
+        DROP,
+        /**
+         * Save the event in the calling thread.
+         */
+        CALLER_RUNS
+    }
+
+    private final CasEventRepository delegate;
+    private final BatchingQueueWriter<CasEvent> writer;
+
+    /**
+     * Instantiates a new asynchronous event repository.
+     *
+     * @param delegate       the repository that stores events
+     * @param capacity       the maximum number of queued events
+     * @param batchSize      the maximum number of events saved at once
+     * @param flushInterval  the maximum time in milliseconds an event waits for its batch to fill up
+     * @param overflowPolicy the policy applied when the queue is full
+     * @param metricRegistry the metric registry; may be null
+     */
+    public AsynchronousCasEventRepository(final CasEventRepository delegate, final int capacity, final int batchSize,
+                                          final long flushInterval, final OverflowPolicy overflowPolicy,
+                                          final MetricRegistry metricRegistry) {
+        this.delegate = delegate;
+        this.writer = new BatchingQueueWriter<>(getClass().getName(), delegate::saveAll, capacity, batchSize,
+                flushInterval, getOverflowPolicy(overflowPolicy), metricRegistry);
+    }
+
+    /**
+     * Start saving queued events.
+     */
+    @PostConstruct
+    public void initialize() {
+        this.writer.initialize();
+    }
+
+    @Override
+    public void save(final CasEvent event) {
+        this.writer.offer(event);
+    }
+
+    @Override
+    public void saveAll(final Collection<CasEvent> events) {
+        events.forEach(this::save);
+    }
+
+    @Override
+    public Collection<CasEvent> load() {
+        return this.delegate.load();
+    }
+
+    @Override
+    public Collection<CasEvent> load(final ZonedDateTime dateTime) {
+        return this.delegate.load(dateTime);
+    }
+
+    @Override
+    public Collection<CasEvent> getEventsOfTypeForPrincipal(final String type, final String principal) {
+        return this.delegate.getEventsOfTypeForPrincipal(type, principal);
+    }
+
+    @Override
+    public Collection<CasEvent> getEventsOfTypeForPrincipal(final String type, final String principal, final ZonedDateTime dateTime) {
+        return this.delegate.getEventsOfTypeForPrincipal(type, principal, dateTime);
+    }
+
+    @Override
+    public Collection<CasEvent> getEventsOfType(final String type) {
+        return this.delegate.getEventsOfType(type);
+    }
+
+    @Override
+    public Collection<CasEvent> getEventsOfType(final String type, final ZonedDateTime dateTime) {
+        return this.delegate.getEventsOfType(type, dateTime);
+    }
+
+    @Override
+    public Collection<CasEvent> getEventsForPrincipal(final String id) {
+        return this.delegate.getEventsForPrincipal(id);
+    }
+
+    @Override
+    public Collection<CasEvent> getEventsForPrincipal(final String id, final ZonedDateTime dateTime) {
+        return this.delegate.getEventsForPrincipal(id, dateTime);
+    }
+
+    public int getSize() {
+        return this.writer.getSize();
+    }
+
+    /**
+     * Gets the time in milliseconds the oldest queued event has been waiting to be saved.
+     *
+     * @return the lag, or zero if no events are queued
+     */
+    public long getLag() {
+        return this.writer.getLag();
+    }
+
+    public long getSavedCount() {
+        return this.writer.getWrittenCount();
+    }
+
+    public long getDroppedCount() {
+        return this.writer.getDroppedCount();
+    }
+
+    /**
+     * Stop the writer and save all events that are still queued.
+     *
+     * @throws Exception if the writer cannot properly shut down
+     */
+    @Override
+    public void destroy() throws Exception {
+        this.writer.destroy();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + '(' + this.delegate + ')';
+    }
+
+    private static QueueOverflowPolicy<CasEvent> getOverflowPolicy(final OverflowPolicy overflowPolicy) {
+        switch (overflowPolicy) {
+            case DROP:
+                return QueueOverflowPolicy.drop();
+            case CALLER_RUNS:
+                return QueueOverflowPolicy.callerRuns();
+            case BLOCK:
+            default:
+                return QueueOverflowPolicy.block();
+        }
+    }
+}
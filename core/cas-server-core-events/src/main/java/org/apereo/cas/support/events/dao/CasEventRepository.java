@@ -17,6 +17,13 @@ public interface CasEventRepository {
      */
     void save(CasEvent event);
 
+    /**
+     * Save all events at once, allowing the repository to write them in a single batch.
+     *
+     * @param events the events
+     */
+    void saveAll(Collection<CasEvent> events);
+
     /**
      * Load collection.
      *
@@ -1,36 +1,100 @@
 package org.apereo.cas.support.events.dao;
 
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
- * This is {@link InMemoryCasEventRepository}.
+ * This is {@link InMemoryCasEventRepository} that keeps events in a cache.
+ * Events are indexed by principal and by type, so that lookups for a principal
+ * or a type only visit matching events instead of scanning the whole cache.
+ * Index entries are removed as events are evicted from the cache.
  *
  * @author Misagh Moayyed
  * @since 5.1.0
  */
 public class InMemoryCasEventRepository extends AbstractCasEventRepository {
-    private final LoadingCache<String, CasEvent> cache;
+    private final Cache<String, CasEvent> cache;
 
-    public InMemoryCasEventRepository(final LoadingCache<String, CasEvent> cache) {
-        this.cache = cache;
+    private final Map<String, Set<String>> principalIndex = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<String>> typeIndex = new ConcurrentHashMap<>();
+
+    public InMemoryCasEventRepository(final CacheBuilder<Object, Object> cacheBuilder) {
+        this.cache = cacheBuilder.<String, CasEvent>removalListener(this::onRemoval).build();
     }
 
     @Override
     public void save(final CasEvent event) {
-        cache.put(UUID.randomUUID().toString(), event);
+        final String key = UUID.randomUUID().toString();
+        addToIndex(this.principalIndex, principalKeyOf(event.getPrincipalId()), key);
+        addToIndex(this.typeIndex, event.getType(), key);
+        this.cache.put(key, event);
     }
 
     @Override
     public Collection<CasEvent> load() {
-        return cache.asMap().values();
+        return this.cache.asMap().values();
     }
-    
+
     @Override
     public Collection<CasEvent> getEventsForPrincipal(final String id) {
-        return cache.asMap().values().stream().filter(e -> e.getPrincipalId().equalsIgnoreCase(id)).collect(Collectors.toSet());
+        return getIndexedEvents(this.principalIndex, principalKeyOf(id));
+    }
+
+    @Override
+    public Collection<CasEvent> getEventsOfType(final String type) {
+        return getIndexedEvents(this.typeIndex, type);
+    }
+
+    private Collection<CasEvent> getIndexedEvents(final Map<String, Set<String>> index, final String indexKey) {
+        final Set<String> keys = indexKey == null ? null : index.get(indexKey);
+        if (keys == null) {
+            return Collections.emptySet();
+        }
+        return keys.stream()
+                .map(this.cache::getIfPresent)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private void onRemoval(final RemovalNotification<String, CasEvent> notification) {
+        final CasEvent event = notification.getValue();
+        if (event != null) {
+            removeFromIndex(this.principalIndex, principalKeyOf(event.getPrincipalId()), notification.getKey());
+            removeFromIndex(this.typeIndex, event.getType(), notification.getKey());
+        }
+    }
+
+    private static String principalKeyOf(final String principal) {
+        return principal == null ? null : principal.toLowerCase();
+    }
+
+    private static void addToIndex(final Map<String, Set<String>> index, final String indexKey, final String key) {
+        if (indexKey != null) {
+            index.compute(indexKey, (k, keys) -> {
+                final Set<String> result = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+                result.add(key);
+                return result;
+            });
+        }
+    }
+
+    private static void removeFromIndex(final Map<String, Set<String>> index, final String indexKey, final String key) {
+        if (indexKey != null) {
+            index.computeIfPresent(indexKey, (k, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
     }
 }
@@ -6,6 +6,7 @@ import org.apereo.cas.support.events.dao.CasEventRepository;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collection;
 
 import static org.junit.Assert.*;
@@ -20,7 +21,26 @@ public abstract class AbstractCasEventRepositoryTests {
 
     @Test
     public void verifySave() {
-        final TicketGrantingTicket ticket = new MockTicketGrantingTicket("casuser");
+        getRepositoryInstance().save(newEvent("casuser"));
+
+        assertFalse(getRepositoryInstance().load().isEmpty());
+        final Collection<CasEvent> col = getRepositoryInstance().getEventsForPrincipal("casuser");
+        assertEquals(1, col.size());
+        assertFalse(col.stream().findFirst().get().getProperties().isEmpty());
+    }
+
+    @Test
+    public void verifySaveAll() {
+        getRepositoryInstance().saveAll(Arrays.asList(newEvent("casuser1"), newEvent("casuser2")));
+
+        assertFalse(getRepositoryInstance().load().isEmpty());
+        final Collection<CasEvent> col = getRepositoryInstance().getEventsForPrincipal("casuser2");
+        assertEquals(1, col.size());
+        assertFalse(col.stream().findFirst().get().getProperties().isEmpty());
+    }
+
+    private CasEvent newEvent(final String principal) {
+        final TicketGrantingTicket ticket = new MockTicketGrantingTicket(principal);
         final CasTicketGrantingTicketCreatedEvent event = new CasTicketGrantingTicketCreatedEvent(this, ticket);
 
         final CasEvent dto = new CasEvent();
@@ -29,12 +49,7 @@ public abstract class AbstractCasEventRepositoryTests {
         dto.putCreationTime(event.getTicketGrantingTicket().getCreationTime());
         dto.putId(event.getTicketGrantingTicket().getId());
         dto.setPrincipalId(event.getTicketGrantingTicket().getAuthentication().getPrincipal().getId());
-
-        getRepositoryInstance().save(dto);
-
-        final Collection<CasEvent> col = getRepositoryInstance().load();
-        assertEquals(col.size(), 1);
-        assertFalse(col.stream().findFirst().get().getProperties().isEmpty());
+        return dto;
     }
 
     public abstract CasEventRepository getRepositoryInstance();
@@ -0,0 +1,109 @@
+package org.apereo.cas.support.events.dao;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link AsynchronousCasEventRepositoryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class AsynchronousCasEventRepositoryTests {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+
+    private static final long LONG_FLUSH_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    private final List<Integer> batches = new CopyOnWriteArrayList<>();
+
+    private final List<CasEvent> events = new CopyOnWriteArrayList<>();
+
+    private AsynchronousCasEventRepository repository;
+
+    @After
+    public void shutdown() throws Exception {
+        if (this.repository != null) {
+            this.repository.destroy();
+        }
+    }
+
+    @Test
+    public void verifyEventsAreSavedInBatches() {
+        this.repository = newRepository(5, AsynchronousCasEventRepository.OverflowPolicy.BLOCK);
+        final List<CasEvent> saved = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            saved.add(newEvent("casuser" + i));
+        }
+        this.repository.saveAll(saved);
+        waitUntil(() -> this.events.size() == 10);
+        assertEquals(2, this.batches.size());
+        assertEquals(Integer.valueOf(5), this.batches.get(0));
+        assertEquals(10, this.repository.getSavedCount());
+        assertEquals(10, this.repository.load().size());
+    }
+
+    @Test
+    public void verifyQueuedEventsAreSavedOnShutdown() throws Exception {
+        this.repository = newRepository(50, AsynchronousCasEventRepository.OverflowPolicy.DROP);
+        this.repository.save(newEvent("casuser"));
+        this.repository.destroy();
+        assertEquals(1, this.events.size());
+        assertEquals(0, this.repository.getDroppedCount());
+    }
+
+    private AsynchronousCasEventRepository newRepository(final int batchSize, final AsynchronousCasEventRepository.OverflowPolicy policy) {
+        final CasEventRepository delegate = new AbstractCasEventRepository() {
+            @Override
+            public void saveAll(final Collection<CasEvent> casEvents) {
+                batches.add(casEvents.size());
+                events.addAll(casEvents);
+            }
+
+            @Override
+            public void save(final CasEvent event) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Collection<CasEvent> load() {
+                return new ArrayList<>(events);
+            }
+        };
+        final AsynchronousCasEventRepository r = new AsynchronousCasEventRepository(delegate, 100, batchSize, LONG_FLUSH_INTERVAL,
+                policy, null);
+        r.initialize();
+        return r;
+    }
+
+    private static CasEvent newEvent(final String principal) {
+        final CasEvent event = new CasEvent();
+        event.setType("test");
+        event.setPrincipalId(principal);
+        return event;
+    }
+
+    private static void waitUntil(final BooleanSupplier condition) {
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition was not met in time");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e.getMessage());
+            }
+        }
+    }
+}
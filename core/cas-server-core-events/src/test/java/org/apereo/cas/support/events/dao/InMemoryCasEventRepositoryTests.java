@@ -0,0 +1,58 @@
+package org.apereo.cas.support.events.dao;
+
+import com.google.common.cache.CacheBuilder;
+import org.apereo.cas.support.events.AbstractCasEventRepositoryTests;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link InMemoryCasEventRepositoryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class InMemoryCasEventRepositoryTests extends AbstractCasEventRepositoryTests {
+
+    private static final int MAX_CACHE_SIZE = 3;
+
+    private final InMemoryCasEventRepository repository =
+            new InMemoryCasEventRepository(CacheBuilder.newBuilder().concurrencyLevel(1).maximumSize(MAX_CACHE_SIZE));
+
+    @Override
+    public CasEventRepository getRepositoryInstance() {
+        return this.repository;
+    }
+
+    @Test
+    public void verifyEventsAreFoundByPrincipalAndType() {
+        this.repository.save(newEvent("casuser", "login", ZonedDateTime.now().minusDays(5)));
+        this.repository.save(newEvent("CASUSER", "login", ZonedDateTime.now()));
+        this.repository.save(newEvent("other", "logout", ZonedDateTime.now()));
+
+        assertEquals(2, this.repository.getEventsForPrincipal("casuser").size());
+        assertEquals(2, this.repository.getEventsOfType("login").size());
+        assertEquals(1, this.repository.getEventsOfTypeForPrincipal("login", "casuser", ZonedDateTime.now().minusDays(1)).size());
+        assertTrue(this.repository.getEventsForPrincipal("nobody").isEmpty());
+    }
+
+    @Test
+    public void verifyEvictedEventsAreRemovedFromIndexes() {
+        for (int i = 0; i < MAX_CACHE_SIZE * 2; i++) {
+            this.repository.save(newEvent("casuser", "login", ZonedDateTime.now()));
+        }
+        assertEquals(MAX_CACHE_SIZE, this.repository.load().size());
+        assertEquals(MAX_CACHE_SIZE, this.repository.getEventsForPrincipal("casuser").size());
+        assertEquals(MAX_CACHE_SIZE, this.repository.getEventsOfType("login").size());
+    }
+
+    private static CasEvent newEvent(final String principal, final String type, final ZonedDateTime creationTime) {
+        final CasEvent event = new CasEvent();
+        event.setPrincipalId(principal);
+        event.setType(type);
+        event.putCreationTime(creationTime);
+        return event;
+    }
+}
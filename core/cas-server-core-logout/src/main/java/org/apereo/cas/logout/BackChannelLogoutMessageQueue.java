@@ -0,0 +1,285 @@
+package org.apereo.cas.logout;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import org.apereo.cas.util.http.HttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.annotation.PostConstruct;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This is {@link BackChannelLogoutMessageQueue} that delivers back-channel logout messages
+ * in the background. The queue is bounded; messages offered once it is full are rejected
+ * rather than buffered. Accepted messages are recorded in a {@link LogoutMessageJournal}
+ * until they are delivered, so pending deliveries survive restarts.
+ * <p>
+ * Delivery is performed by a fixed pool of workers, with a limit on the number of concurrent
+ * deliveries to any one host. Failed deliveries are retried with exponential backoff,
+ * and messages that fail on every attempt are moved to the journal's dead-letter area.
+ * Queue depth and delivery rates are published to the metric registry, if one is available.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class BackChannelLogoutMessageQueue implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackChannelLogoutMessageQueue.class);
+
+    private static final long POLL_INTERVAL = 500;
+    private static final long HOST_BUSY_DELAY = 100;
+    private static final long SHUTDOWN_TIMEOUT = 5;
+
+    private final HttpClient httpClient;
+    private final LogoutMessageJournal journal;
+    private final int capacity;
+    private final int poolSize;
+
+    private int maxConcurrencyPerHost = 2;
+    private int maxAttempts = 5;
+    private long initialBackoff = TimeUnit.SECONDS.toMillis(5);
+    private long maxBackoff = TimeUnit.MINUTES.toMillis(10);
+
+    private final DelayQueue<QueuedLogoutMessage> queue = new DelayQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final Semaphore workerPermits;
+
+    private final Meter delivered;
+    private final Meter retried;
+    private final Meter deadLettered;
+    private final Meter rejected;
+
+    private ExecutorService workers;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    /**
+     * Instantiates a new back-channel logout message queue.
+     *
+     * @param httpClient     the http client used to deliver messages
+     * @param journal        the journal that persists pending messages
+     * @param capacity       the maximum number of pending messages
+     * @param poolSize       the number of concurrent deliveries
+     * @param metricRegistry the metric registry; may be null
+     */
+    public BackChannelLogoutMessageQueue(final HttpClient httpClient, final LogoutMessageJournal journal,
+                                         final int capacity, final int poolSize, final MetricRegistry metricRegistry) {
+        this.httpClient = httpClient;
+        this.journal = journal;
+        this.capacity = capacity;
+        this.poolSize = Math.max(1, poolSize);
+        this.workerPermits = new Semaphore(this.poolSize);
+
+        if (metricRegistry != null) {
+            final String depth = MetricRegistry.name(getClass(), "depth");
+            metricRegistry.remove(depth);
+            metricRegistry.register(depth, (Gauge<Integer>) this::getSize);
+            this.delivered = metricRegistry.meter(MetricRegistry.name(getClass(), "delivered"));
+            this.retried = metricRegistry.meter(MetricRegistry.name(getClass(), "retried"));
+            this.deadLettered = metricRegistry.meter(MetricRegistry.name(getClass(), "deadLettered"));
+            this.rejected = metricRegistry.meter(MetricRegistry.name(getClass(), "rejected"));
+        } else {
+            this.delivered = new Meter();
+            this.retried = new Meter();
+            this.deadLettered = new Meter();
+            this.rejected = new Meter();
+        }
+    }
+
+    /**
+     * Reload pending messages from the journal and start delivering messages.
+     */
+    @PostConstruct
+    public synchronized void initialize() {
+        if (this.running) {
+            return;
+        }
+        final Collection<QueuedLogoutMessage> pending = this.journal.load();
+        if (!pending.isEmpty()) {
+            LOGGER.info("Resuming delivery of [{}] pending logout message(s)", pending.size());
+            this.size.addAndGet(pending.size());
+            this.queue.addAll(pending);
+        }
+        this.workers = new ThreadPoolExecutor(this.poolSize, this.poolSize, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        this.running = true;
+        this.dispatcher = new Thread(this::dispatch, "cas-logout-message-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Queue the logout message for delivery.
+     *
+     * @param logoutUrl the logout url
+     * @param message   the logout message
+     * @return true if the message was accepted, false if the queue is full
+     */
+    public boolean offer(final URL logoutUrl, final String message) {
+        if (this.size.incrementAndGet() > this.capacity) {
+            this.size.decrementAndGet();
+            this.rejected.mark();
+            LOGGER.warn("Logout message queue is full with [{}] pending messages; Logout message to [{}] is rejected", this.capacity, logoutUrl);
+            return false;
+        }
+        final QueuedLogoutMessage queuedMessage = new QueuedLogoutMessage(logoutUrl, message);
+        this.journal.save(queuedMessage);
+        this.queue.offer(queuedMessage);
+        LOGGER.debug("Queued [{}] for delivery", queuedMessage);
+        return true;
+    }
+
+    public int getSize() {
+        return this.size.get();
+    }
+
+    public long getDeliveredCount() {
+        return this.delivered.getCount();
+    }
+
+    public long getDeadLetteredCount() {
+        return this.deadLettered.getCount();
+    }
+
+    public void setMaxConcurrencyPerHost(final int maxConcurrencyPerHost) {
+        this.maxConcurrencyPerHost = Math.max(1, maxConcurrencyPerHost);
+    }
+
+    public void setMaxAttempts(final int maxAttempts) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    public void setInitialBackoff(final long initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public void setMaxBackoff(final long maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Stop delivering messages. Messages that are still pending remain in the journal.
+     *
+     * @throws Exception if the workers cannot properly shut down
+     */
+    @Override
+    public synchronized void destroy() throws Exception {
+        if (!this.running) {
+            return;
+        }
+        this.running = false;
+        this.dispatcher.interrupt();
+        this.workers.shutdown();
+        if (!this.workers.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+            this.workers.shutdownNow();
+        }
+        LOGGER.info("Stopped logout message delivery with [{}] message(s) pending", getSize());
+    }
+
+    /**
+     * Hand due messages over to the workers, as long as a worker and
+     * a permit for the destination host are available.
+     */
+    private void dispatch() {
+        while (this.running) {
+            try {
+                final QueuedLogoutMessage message = this.queue.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                if (message != null) {
+                    this.workerPermits.acquire();
+                    final Semaphore hostPermit = this.hostPermits.computeIfAbsent(message.getHost(), k -> new Semaphore(this.maxConcurrencyPerHost));
+                    if (hostPermit.tryAcquire()) {
+                        execute(message, hostPermit);
+                    } else {
+                        this.workerPermits.release();
+                        message.scheduleAfter(HOST_BUSY_DELAY);
+                        this.queue.offer(message);
+                    }
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final Exception e) {
+                LOGGER.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Hand the message over to a worker. If the workers do not accept it, e.g. while shutting down,
+     * the permits are released and the message goes back in the queue; it also remains in the journal.
+     */
+    private void execute(final QueuedLogoutMessage message, final Semaphore hostPermit) {
+        try {
+            this.workers.execute(() -> deliver(message, hostPermit));
+        } catch (final RejectedExecutionException e) {
+            LOGGER.debug("Delivery of [{}] was rejected by the workers: [{}]", message, e.getMessage());
+            hostPermit.release();
+            this.workerPermits.release();
+            this.queue.offer(message);
+        }
+    }
+
+    private void deliver(final QueuedLogoutMessage message, final Semaphore hostPermit) {
+        try {
+            if (send(message)) {
+                LOGGER.debug("Delivered [{}]", message);
+                this.journal.remove(message);
+                this.size.decrementAndGet();
+                this.delivered.mark();
+            } else {
+                handleFailedDelivery(message);
+            }
+        } finally {
+            hostPermit.release();
+            this.workerPermits.release();
+        }
+    }
+
+    private boolean send(final QueuedLogoutMessage message) {
+        try {
+            return this.httpClient.sendMessageToEndPoint(new LogoutHttpMessage(message.getLogoutUrl(), message.getMessage(), false));
+        } catch (final Exception e) {
+            LOGGER.debug(e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private void handleFailedDelivery(final QueuedLogoutMessage message) {
+        final int attempts = message.recordFailedAttempt();
+        if (attempts >= this.maxAttempts) {
+            LOGGER.warn("Logout message to [{}] could not be delivered after [{}] attempt(s) and is dead-lettered", message.getLogoutUrl(), attempts);
+            this.journal.deadLetter(message);
+            this.size.decrementAndGet();
+            this.deadLettered.mark();
+            return;
+        }
+        final long delay = getBackoff(attempts);
+        LOGGER.debug("Delivery of [{}] failed; Retrying in [{}] ms", message, delay);
+        message.scheduleAfter(delay);
+        this.journal.save(message);
+        this.retried.mark();
+        this.queue.offer(message);
+    }
+
+    private long getBackoff(final int attempts) {
+        long delay = this.initialBackoff;
+        for (int i = 1; i < attempts && delay < this.maxBackoff; i++) {
+            delay *= 2;
+        }
+        return Math.min(delay, this.maxBackoff);
+    }
+}
@@ -26,6 +26,7 @@ public class DefaultSingleLogoutServiceMessageHandler implements SingleLogoutSer
     private boolean asynchronous = true;
     private final LogoutMessageCreator logoutMessageBuilder;
     private final SingleLogoutServiceLogoutUrlBuilder singleLogoutServiceLogoutUrlBuilder;
+    private final BackChannelLogoutMessageQueue logoutMessageQueue;
 
     /**
      * Instantiates a new Single logout service message handler.
@@ -39,11 +40,29 @@ public class DefaultSingleLogoutServiceMessageHandler implements SingleLogoutSer
                                                     final ServicesManager servicesManager,
                                                     final SingleLogoutServiceLogoutUrlBuilder singleLogoutServiceLogoutUrlBuilder,
                                                     final boolean asyncCallbacks) {
+        this(httpClient, logoutMessageCreator, servicesManager, singleLogoutServiceLogoutUrlBuilder, asyncCallbacks, null);
+    }
+
+    /**
+     * Instantiates a new Single logout service message handler.
+     * @param httpClient to send the requests
+     * @param logoutMessageCreator creates the message
+     * @param servicesManager finds services to logout from
+     * @param singleLogoutServiceLogoutUrlBuilder creates the URL
+     * @param asyncCallbacks if messages are sent in an asynchronous fashion.
+     * @param logoutMessageQueue the queue that delivers asynchronous messages; may be null
+     */
+    public DefaultSingleLogoutServiceMessageHandler(final HttpClient httpClient, final LogoutMessageCreator logoutMessageCreator,
+                                                    final ServicesManager servicesManager,
+                                                    final SingleLogoutServiceLogoutUrlBuilder singleLogoutServiceLogoutUrlBuilder,
+                                                    final boolean asyncCallbacks,
+                                                    final BackChannelLogoutMessageQueue logoutMessageQueue) {
         this.httpClient = httpClient;
         this.logoutMessageBuilder = logoutMessageCreator;
         this.servicesManager = servicesManager;
         this.singleLogoutServiceLogoutUrlBuilder = singleLogoutServiceLogoutUrlBuilder;
         this.asynchronous = asyncCallbacks;
+        this.logoutMessageQueue = logoutMessageQueue;
     }
 
     /**
@@ -84,6 +103,8 @@ public class DefaultSingleLogoutServiceMessageHandler implements SingleLogoutSer
 
     /**
      * Log out of a service through back channel.
+     * Asynchronous messages are handed over to the logout message queue, if one is defined,
+     * in which case the logout is considered performed once the message is accepted.
      *
      * @param request the logout request.
      * @return if the logout has been performed.
@@ -94,6 +115,11 @@ public class DefaultSingleLogoutServiceMessageHandler implements SingleLogoutSer
             final WebApplicationService logoutService = request.getService();
             logoutService.setLoggedOutAlready(true);
 
+            if (this.asynchronous && this.logoutMessageQueue != null) {
+                LOGGER.debug("Queuing logout request for [{}] to [{}]", logoutService.getId(), request.getLogoutUrl());
+                return this.logoutMessageQueue.offer(request.getLogoutUrl(), logoutRequest);
+            }
+
             LOGGER.debug("Sending logout request for [{}] to [{}]", logoutService.getId(), request.getLogoutUrl());
             final LogoutHttpMessage msg = new LogoutHttpMessage(request.getLogoutUrl(), logoutRequest, this.asynchronous);
             LOGGER.debug("Prepared logout message to send is [{}]", msg);
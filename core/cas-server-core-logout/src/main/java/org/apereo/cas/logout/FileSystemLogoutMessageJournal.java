@@ -0,0 +1,99 @@
+package org.apereo.cas.logout;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This is {@link FileSystemLogoutMessageJournal} that keeps each pending logout message
+ * as a serialized file in a directory. Files are written to a temporary location first and
+ * then moved into place, so a crash never leaves a partially written message behind.
+ * Dead-lettered messages are kept in a {@code deadletter} sub-directory for inspection.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class FileSystemLogoutMessageJournal implements LogoutMessageJournal {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemLogoutMessageJournal.class);
+
+    private static final String EXTENSION = ".msg";
+
+    private final Path directory;
+    private final Path deadLetterDirectory;
+
+    /**
+     * Instantiates a new journal.
+     *
+     * @param directory the directory that holds pending messages
+     */
+    public FileSystemLogoutMessageJournal(final File directory) {
+        this.directory = directory.toPath();
+        this.deadLetterDirectory = this.directory.resolve("deadletter");
+        try {
+            Files.createDirectories(this.deadLetterDirectory);
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Unable to create logout message journal at " + directory, e);
+        }
+    }
+
+    @Override
+    public void save(final QueuedLogoutMessage message) {
+        write(this.directory, message);
+    }
+
+    @Override
+    public void remove(final QueuedLogoutMessage message) {
+        try {
+            Files.deleteIfExists(this.directory.resolve(message.getId() + EXTENSION));
+        } catch (final IOException e) {
+            LOGGER.error("Unable to remove [{}] from the logout message journal: [{}]", message, e.getMessage());
+        }
+    }
+
+    @Override
+    public void deadLetter(final QueuedLogoutMessage message) {
+        write(this.deadLetterDirectory, message);
+        remove(message);
+    }
+
+    @Override
+    public Collection<QueuedLogoutMessage> load() {
+        final List<QueuedLogoutMessage> messages = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, '*' + EXTENSION)) {
+            for (final Path file : files) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    messages.add(SerializationUtils.deserialize(in));
+                } catch (final Exception e) {
+                    LOGGER.warn("Discarding unreadable logout message [{}]: [{}]", file, e.getMessage());
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (final IOException e) {
+            LOGGER.error("Unable to load the logout message journal at [{}]: [{}]", this.directory, e.getMessage());
+        }
+        LOGGER.debug("Loaded [{}] pending logout message(s) from [{}]", messages.size(), this.directory);
+        return messages;
+    }
+
+    private static void write(final Path target, final QueuedLogoutMessage message) {
+        try {
+            final Path temp = Files.createTempFile(target, message.getId(), ".tmp");
+            Files.write(temp, SerializationUtils.serialize(message));
+            Files.move(temp, target.resolve(message.getId() + EXTENSION), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            LOGGER.error("Unable to write [{}] to the logout message journal: [{}]", message, e.getMessage());
+        }
+    }
+}
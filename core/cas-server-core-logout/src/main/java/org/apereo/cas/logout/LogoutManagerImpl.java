@@ -1,6 +1,6 @@
 package org.apereo.cas.logout;
 
-import org.apereo.cas.authentication.principal.Service;
+import com.codahale.metrics.MetricRegistry;
 import org.apereo.cas.authentication.principal.WebApplicationService;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
@@ -11,10 +11,24 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 /**
  * This logout manager handles the Single Log Out process.
+ * <p>
+ * When an executor is provided, logout messages for the services of a ticket are dispatched
+ * concurrently, and the manager waits for them up to the configured dispatch timeout.
+ * Messages still in flight once the timeout elapses are left to complete in the background
+ * and are not included in the returned logout requests. The time taken to handle each message
+ * is recorded per destination host, if a metric registry is available.
  *
  * @author Jerome Leleu
  * @since 4.0.0
@@ -26,6 +40,9 @@ public class LogoutManagerImpl implements LogoutManager {
     private final boolean singleLogoutCallbacksDisabled;
     private final LogoutMessageCreator logoutMessageBuilder;
     private final SingleLogoutServiceMessageHandler singleLogoutServiceMessageHandler;
+    private final ExecutorService executorService;
+    private final long dispatchTimeout;
+    private final MetricRegistry metricRegistry;
 
     /**
      * Build the logout manager.
@@ -35,9 +52,27 @@ public class LogoutManagerImpl implements LogoutManager {
      */
     public LogoutManagerImpl(final LogoutMessageCreator logoutMessageBuilder, final SingleLogoutServiceMessageHandler singleLogoutServiceMessageHandler,
                              final boolean singleLogoutCallbacksDisabled) {
+        this(logoutMessageBuilder, singleLogoutServiceMessageHandler, singleLogoutCallbacksDisabled, null, 0, null);
+    }
+
+    /**
+     * Build the logout manager.
+     * @param logoutMessageBuilder the builder to construct logout messages.
+     * @param singleLogoutServiceMessageHandler who actually perform the logout request
+     * @param singleLogoutCallbacksDisabled Set if the logout is disabled.
+     * @param executorService the executor used to dispatch logout messages concurrently; may be null to dispatch sequentially
+     * @param dispatchTimeout the time in milliseconds to wait for concurrently dispatched messages
+     * @param metricRegistry the metric registry; may be null
+     */
+    public LogoutManagerImpl(final LogoutMessageCreator logoutMessageBuilder, final SingleLogoutServiceMessageHandler singleLogoutServiceMessageHandler,
+                             final boolean singleLogoutCallbacksDisabled, final ExecutorService executorService,
+                             final long dispatchTimeout, final MetricRegistry metricRegistry) {
         this.logoutMessageBuilder = logoutMessageBuilder;
         this.singleLogoutServiceMessageHandler = singleLogoutServiceMessageHandler;
         this.singleLogoutCallbacksDisabled = singleLogoutCallbacksDisabled;
+        this.executorService = executorService;
+        this.dispatchTimeout = dispatchTimeout;
+        this.metricRegistry = metricRegistry;
     }
 
     /**
@@ -53,28 +88,83 @@ public class LogoutManagerImpl implements LogoutManager {
             LOGGER.info("Single logout callbacks are disabled");
             return Collections.emptyList();
         }
-        final List<LogoutRequest> logoutRequests = new ArrayList<>();
-        performLogoutForTicket(ticket, logoutRequests);
+        final Map<String, WebApplicationService> services = new LinkedHashMap<>();
+        collectServicesForTicket(ticket, services);
+
+        final List<LogoutRequest> logoutRequests;
+        if (this.executorService == null || services.size() <= 1) {
+            logoutRequests = services.entrySet().stream()
+                    .map(entry -> handleLogoutForService(entry.getValue(), entry.getKey()))
+                    .filter(logoutRequest -> logoutRequest != null)
+                    .collect(Collectors.toList());
+        } else {
+            logoutRequests = dispatchLogoutForServices(services);
+        }
         LOGGER.info("{} logout requests were processed", logoutRequests.size());
         return logoutRequests;
     }
 
-    private void performLogoutForTicket(final TicketGrantingTicket ticket, final List<LogoutRequest> logoutRequests) {
-        ticket.getServices().entrySet().stream().filter(entry -> entry.getValue() instanceof WebApplicationService).forEach(entry -> {
-            final Service service = entry.getValue();
-            LOGGER.debug("Handling single logout callback for {}", service);
-            final LogoutRequest logoutRequest = this.singleLogoutServiceMessageHandler.handle((WebApplicationService) service, entry.getKey());
-            if (logoutRequest != null) {
-                LOGGER.debug("Captured logout request [{}]", logoutRequest);
-                logoutRequests.add(logoutRequest);
-            }
-        });
+    /**
+     * Collect the services of the ticket and its proxy-granting tickets, keyed by service ticket id.
+     * Each service ticket is only handled once, even if it is reachable through more than one ticket.
+     *
+     * @param ticket   the ticket
+     * @param services the services collected so far
+     */
+    private void collectServicesForTicket(final TicketGrantingTicket ticket, final Map<String, WebApplicationService> services) {
+        ticket.getServices().entrySet().stream()
+                .filter(entry -> entry.getValue() instanceof WebApplicationService)
+                .forEach(entry -> services.putIfAbsent(entry.getKey(), (WebApplicationService) entry.getValue()));
 
         final Collection<ProxyGrantingTicket> proxyGrantingTickets = ticket.getProxyGrantingTickets();
         if (proxyGrantingTickets.isEmpty()) {
             LOGGER.debug("There are no proxy-granting tickets associated with [{}] to process for single logout", ticket.getId());
         } else {
-            proxyGrantingTickets.forEach(proxyGrantingTicket -> performLogoutForTicket(proxyGrantingTicket, logoutRequests));
+            proxyGrantingTickets.forEach(proxyGrantingTicket -> collectServicesForTicket(proxyGrantingTicket, services));
+        }
+    }
+
+    private List<LogoutRequest> dispatchLogoutForServices(final Map<String, WebApplicationService> services) {
+        final List<CompletableFuture<LogoutRequest>> futures = services.entrySet().stream()
+                .map(entry -> CompletableFuture.supplyAsync(() -> handleLogoutForService(entry.getValue(), entry.getKey()), this.executorService))
+                .collect(Collectors.toList());
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.dispatchTimeout);
+        final List<LogoutRequest> logoutRequests = new ArrayList<>(futures.size());
+        for (final CompletableFuture<LogoutRequest> future : futures) {
+            try {
+                final LogoutRequest logoutRequest = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (logoutRequest != null) {
+                    logoutRequests.add(logoutRequest);
+                }
+            } catch (final TimeoutException e) {
+                LOGGER.warn("Logout request did not complete within [{}] ms; Continuing processing...", this.dispatchTimeout);
+            } catch (final ExecutionException e) {
+                LOGGER.error(e.getMessage(), e);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("Interrupted while waiting for logout requests to complete");
+                break;
+            }
+        }
+        return logoutRequests;
+    }
+
+    private LogoutRequest handleLogoutForService(final WebApplicationService service, final String ticketId) {
+        LOGGER.debug("Handling single logout callback for {}", service);
+        final long start = System.nanoTime();
+        final LogoutRequest logoutRequest = this.singleLogoutServiceMessageHandler.handle(service, ticketId);
+        if (logoutRequest != null) {
+            LOGGER.debug("Captured logout request [{}]", logoutRequest);
+            recordLatency(logoutRequest, System.nanoTime() - start);
+        }
+        return logoutRequest;
+    }
+
+    private void recordLatency(final LogoutRequest logoutRequest, final long elapsed) {
+        if (this.metricRegistry != null && logoutRequest.getLogoutUrl() != null) {
+            this.metricRegistry.timer(MetricRegistry.name(getClass(), "dispatch", logoutRequest.getLogoutUrl().getHost()))
+                    .update(elapsed, TimeUnit.NANOSECONDS);
         }
     }
 
@@ -0,0 +1,48 @@
+package org.apereo.cas.logout;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * This is {@link LogoutMessageJournal} that persists queued back-channel logout messages
+ * so that pending deliveries survive restarts. The default methods keep nothing,
+ * which leaves the queue purely in memory.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public interface LogoutMessageJournal {
+
+    /**
+     * Save or replace the message in the journal.
+     *
+     * @param message the message
+     */
+    default void save(final QueuedLogoutMessage message) {
+    }
+
+    /**
+     * Remove the message from the journal once delivered.
+     *
+     * @param message the message
+     */
+    default void remove(final QueuedLogoutMessage message) {
+    }
+
+    /**
+     * Move the message to the dead-letter area, once all delivery attempts have failed.
+     *
+     * @param message the message
+     */
+    default void deadLetter(final QueuedLogoutMessage message) {
+    }
+
+    /**
+     * Load pending messages from the journal.
+     *
+     * @return the pending messages
+     */
+    default Collection<QueuedLogoutMessage> load() {
+        return Collections.emptyList();
+    }
+}
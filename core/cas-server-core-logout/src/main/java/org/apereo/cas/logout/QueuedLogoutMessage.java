@@ -0,0 +1,112 @@
+package org.apereo.cas.logout;
+
+import java.io.Serializable;
+import java.net.URL;
+import java.util.UUID;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link QueuedLogoutMessage} that represents a back-channel logout message
+ * waiting in the {@link BackChannelLogoutMessageQueue} for delivery, along with
+ * the number of failed delivery attempts and the time of the next attempt.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class QueuedLogoutMessage implements Delayed, Serializable {
+
+    private static final long serialVersionUID = -3058147152938743216L;
+
+    private final String id;
+    private final URL logoutUrl;
+    private final String message;
+    private int attempts;
+    private long nextAttemptTime;
+
+    /**
+     * Instantiates a new queued logout message, due immediately.
+     *
+     * @param logoutUrl the logout url
+     * @param message   the logout message
+     */
+    public QueuedLogoutMessage(final URL logoutUrl, final String message) {
+        this.id = UUID.randomUUID().toString();
+        this.logoutUrl = logoutUrl;
+        this.message = message;
+        this.nextAttemptTime = System.currentTimeMillis();
+    }
+
+    public String getId() {
+        return this.id;
+    }
+
+    public URL getLogoutUrl() {
+        return this.logoutUrl;
+    }
+
+    public String getMessage() {
+        return this.message;
+    }
+
+    public int getAttempts() {
+        return this.attempts;
+    }
+
+    public long getNextAttemptTime() {
+        return this.nextAttemptTime;
+    }
+
+    public String getHost() {
+        return this.logoutUrl.getHost();
+    }
+
+    /**
+     * Record a failed delivery attempt.
+     *
+     * @return the number of failed attempts so far
+     */
+    public int recordFailedAttempt() {
+        return ++this.attempts;
+    }
+
+    /**
+     * Schedule the next delivery attempt after the given delay.
+     *
+     * @param delay the delay in milliseconds
+     */
+    public void scheduleAfter(final long delay) {
+        this.nextAttemptTime = System.currentTimeMillis() + delay;
+    }
+
+    @Override
+    public long getDelay(final TimeUnit unit) {
+        return unit.convert(this.nextAttemptTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(final Delayed other) {
+        return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof QueuedLogoutMessage)) {
+            return false;
+        }
+        return this.id.equals(((QueuedLogoutMessage) obj).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("QueuedLogoutMessage[id=%s, logoutUrl=%s, attempts=%s]", this.id, this.logoutUrl, this.attempts);
+    }
+}
@@ -1,11 +1,17 @@
 package org.apereo.cas.logout.config;
 
+import com.codahale.metrics.MetricRegistry;
+import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.core.slo.SloProperties;
+import org.apereo.cas.logout.BackChannelLogoutMessageQueue;
 import org.apereo.cas.logout.DefaultSingleLogoutServiceLogoutUrlBuilder;
 import org.apereo.cas.logout.DefaultSingleLogoutServiceMessageHandler;
+import org.apereo.cas.logout.FileSystemLogoutMessageJournal;
 import org.apereo.cas.logout.LogoutManager;
 import org.apereo.cas.logout.LogoutManagerImpl;
 import org.apereo.cas.logout.LogoutMessageCreator;
+import org.apereo.cas.logout.LogoutMessageJournal;
 import org.apereo.cas.logout.SamlCompliantLogoutMessageCreator;
 import org.apereo.cas.logout.SingleLogoutServiceLogoutUrlBuilder;
 import org.apereo.cas.logout.SingleLogoutServiceMessageHandler;
@@ -17,6 +23,13 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is {@link CasCoreLogoutConfiguration}.
@@ -39,6 +52,10 @@ public class CasCoreLogoutConfiguration {
     @Qualifier("servicesManager")
     private ServicesManager servicesManager;
 
+    @Autowired(required = false)
+    @Qualifier("metrics")
+    private MetricRegistry metricRegistry;
+
     @Bean
     public SingleLogoutServiceLogoutUrlBuilder defaultSingleLogoutServiceLogoutUrlBuilder() {
         return new DefaultSingleLogoutServiceLogoutUrlBuilder();
@@ -47,13 +64,40 @@ public class CasCoreLogoutConfiguration {
     @Bean
     public SingleLogoutServiceMessageHandler defaultSingleLogoutServiceMessageHandler() {
         return new DefaultSingleLogoutServiceMessageHandler(httpClient, logoutBuilder(), servicesManager, defaultSingleLogoutServiceLogoutUrlBuilder(),
-                casProperties.getSlo().isAsynchronous());
+                casProperties.getSlo().isAsynchronous(), casProperties.getSlo().getQueue().isEnabled() ? backChannelLogoutMessageQueue() : null);
+    }
+
+    @Lazy
+    @Bean
+    public BackChannelLogoutMessageQueue backChannelLogoutMessageQueue() {
+        final SloProperties.Queue queue = casProperties.getSlo().getQueue();
+        final LogoutMessageJournal journal = StringUtils.isBlank(queue.getLocation())
+                ? new LogoutMessageJournal() {
+                }
+                : new FileSystemLogoutMessageJournal(new File(queue.getLocation()));
+        final BackChannelLogoutMessageQueue messageQueue = new BackChannelLogoutMessageQueue(httpClient, journal,
+                queue.getCapacity(), queue.getPoolSize(), this.metricRegistry);
+        messageQueue.setMaxConcurrencyPerHost(queue.getMaxConcurrencyPerHost());
+        messageQueue.setMaxAttempts(queue.getMaxAttempts());
+        messageQueue.setInitialBackoff(queue.getInitialBackoff());
+        messageQueue.setMaxBackoff(queue.getMaxBackoff());
+        return messageQueue;
     }
 
     @RefreshScope
     @Bean
     public LogoutManager logoutManager() {
-        return new LogoutManagerImpl(logoutBuilder(), defaultSingleLogoutServiceMessageHandler(), casProperties.getSlo().isDisabled());
+        final SloProperties slo = casProperties.getSlo();
+        return new LogoutManagerImpl(logoutBuilder(), defaultSingleLogoutServiceMessageHandler(), slo.isDisabled(),
+                slo.getDispatchPoolSize() > 0 ? singleLogoutDispatchExecutor() : null, slo.getDispatchTimeout(), this.metricRegistry);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService singleLogoutDispatchExecutor() {
+        final SloProperties slo = casProperties.getSlo();
+        final int poolSize = Math.max(1, slo.getDispatchPoolSize());
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(slo.getDispatchQueueSize()), new ThreadPoolExecutor.CallerRunsPolicy());
     }
 
     @Bean
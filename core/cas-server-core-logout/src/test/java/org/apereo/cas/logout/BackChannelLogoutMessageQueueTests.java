@@ -0,0 +1,100 @@
+package org.apereo.cas.logout;
+
+import org.apereo.cas.util.http.HttpClient;
+import org.apereo.cas.util.http.HttpMessage;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.URL;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link BackChannelLogoutMessageQueueTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class BackChannelLogoutMessageQueueTests {
+
+    private static final long TIMEOUT = 5000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void verifyFailedDeliveryIsRetried() throws Exception {
+        final HttpClient client = mock(HttpClient.class);
+        when(client.sendMessageToEndPoint(any(HttpMessage.class))).thenReturn(false, true);
+
+        final BackChannelLogoutMessageQueue queue = newQueue(client, new LogoutMessageJournal() {
+        }, 10);
+        queue.initialize();
+        try {
+            assertTrue(queue.offer(new URL("https://sp.example.org/logout"), "message"));
+            waitFor(() -> queue.getDeliveredCount() == 1);
+            assertEquals(0, queue.getSize());
+            verify(client, times(2)).sendMessageToEndPoint(any(HttpMessage.class));
+        } finally {
+            queue.destroy();
+        }
+    }
+
+    @Test
+    public void verifyUndeliverableMessageIsDeadLettered() throws Exception {
+        final HttpClient client = mock(HttpClient.class);
+        when(client.sendMessageToEndPoint(any(HttpMessage.class))).thenReturn(false);
+
+        final File directory = folder.newFolder();
+        final BackChannelLogoutMessageQueue queue = newQueue(client, new FileSystemLogoutMessageJournal(directory), 10);
+        queue.initialize();
+        try {
+            assertTrue(queue.offer(new URL("https://sp.example.org/logout"), "message"));
+            waitFor(() -> queue.getDeadLetteredCount() == 1);
+            assertEquals(0, queue.getSize());
+            assertEquals(1, new File(directory, "deadletter").listFiles((dir, name) -> name.endsWith(".msg")).length);
+            assertEquals(0, directory.listFiles((dir, name) -> name.endsWith(".msg")).length);
+        } finally {
+            queue.destroy();
+        }
+    }
+
+    @Test
+    public void verifyQueueIsBoundedAndPendingMessagesSurviveRestart() throws Exception {
+        final File directory = folder.newFolder();
+        final BackChannelLogoutMessageQueue stopped = newQueue(mock(HttpClient.class), new FileSystemLogoutMessageJournal(directory), 1);
+        assertTrue(stopped.offer(new URL("https://sp.example.org/logout"), "message"));
+        assertFalse(stopped.offer(new URL("https://sp.example.org/logout"), "message"));
+
+        final HttpClient client = mock(HttpClient.class);
+        when(client.sendMessageToEndPoint(any(HttpMessage.class))).thenReturn(true);
+        final BackChannelLogoutMessageQueue queue = newQueue(client, new FileSystemLogoutMessageJournal(directory), 1);
+        queue.initialize();
+        try {
+            waitFor(() -> queue.getDeliveredCount() == 1);
+            assertEquals(0, directory.listFiles((dir, name) -> name.endsWith(".msg")).length);
+        } finally {
+            queue.destroy();
+        }
+    }
+
+    private static BackChannelLogoutMessageQueue newQueue(final HttpClient client, final LogoutMessageJournal journal, final int capacity) {
+        final BackChannelLogoutMessageQueue queue = new BackChannelLogoutMessageQueue(client, journal, capacity, 2, null);
+        queue.setMaxAttempts(2);
+        queue.setInitialBackoff(10);
+        queue.setMaxBackoff(100);
+        return queue;
+    }
+
+    private static void waitFor(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -1,5 +1,6 @@
 package org.apereo.cas.logout;
 
+import com.codahale.metrics.MetricRegistry;
 import org.apereo.cas.services.RegisteredServiceTestUtils;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.authentication.principal.AbstractWebApplicationService;
@@ -17,9 +18,15 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -150,4 +157,29 @@ public class LogoutManagerImplTests {
         final Collection<LogoutRequest> logoutRequests = this.logoutManager.performLogout(tgt);
         assertEquals(1, logoutRequests.size());
     }
+
+    @Test
+    public void verifyConcurrentLogoutForMultipleServices() {
+        final Map<String, Service> services = new LinkedHashMap<>();
+        for (int i = 0; i < 5; i++) {
+            services.put("ST-" + i, RegisteredServiceTestUtils.getService(URL + "/app" + i));
+        }
+        when(this.tgt.getServices()).thenReturn(services);
+        when(servicesManager.findServiceBy(any(Service.class))).thenReturn(this.registeredService);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final MetricRegistry metricRegistry = new MetricRegistry();
+            this.logoutManager = new LogoutManagerImpl(new SamlCompliantLogoutMessageCreator(), singleLogoutServiceMessageHandler, false,
+                    executor, 5000, metricRegistry);
+            final List<LogoutRequest> logoutRequests = this.logoutManager.performLogout(tgt);
+            assertEquals(services.size(), logoutRequests.size());
+            assertEquals(new ArrayList<>(services.keySet()),
+                    logoutRequests.stream().map(LogoutRequest::getTicketId).collect(Collectors.toList()));
+            assertEquals(services.size(),
+                    metricRegistry.timer(MetricRegistry.name(LogoutManagerImpl.class, "dispatch", "www.github.com")).getCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -63,6 +63,9 @@ public class SessionMonitor implements Monitor<SessionStatus> {
             } else {
                 msg.append(ticketCount).append(" service tickets.");
             }
+            if (this.registryState.isTicketCountApproximate()) {
+                msg.append(" Counts are approximate.");
+            }
             return new SessionStatus(code, msg.toString(), sessionCount, ticketCount);
         } catch (final Exception e) {
             return new SessionStatus(StatusCode.ERROR, e.getMessage());
@@ -1,15 +1,24 @@
 package org.apereo.cas.authentication.principal;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * This is {@link DefaultWebApplicationResponseBuilderLocator}.
+ * Response builders are located once and sorted by order; the builder chosen
+ * for a type of service is remembered, so later lookups for the same type
+ * do not go through all builders again. Builders are located again once
+ * the context or the refresh scope is refreshed.
  *
  * @author Misagh Moayyed
  * @since 5.1.0
@@ -21,11 +30,68 @@ public class DefaultWebApplicationResponseBuilderLocator implements ResponseBuil
     @Autowired
     private ApplicationContext applicationContext;
 
+    private transient volatile ResponseBuilders responseBuilders;
+
     @Override
     public ResponseBuilder locate(final WebApplicationService service) {
-        final Map<String, ResponseBuilder> beans = applicationContext.getBeansOfType(ResponseBuilder.class, false, true);
-        final List<ResponseBuilder> builders = beans.values().stream().collect(Collectors.toList());
-        AnnotationAwareOrderComparator.sortIfNecessary(builders);
-        return builders.stream().filter(r -> r.supports(service)).findFirst().orElse(null);
+        final ResponseBuilders current = getOrLoadResponseBuilders();
+        final Optional<ResponseBuilder> builder = current.byServiceType.get(service.getClass());
+        if (builder != null && (!builder.isPresent() || builder.get().supports(service))) {
+            return builder.orElse(null);
+        }
+        final Optional<ResponseBuilder> result = current.builders.stream().filter(r -> r.supports(service)).findFirst();
+        current.byServiceType.put(service.getClass(), result);
+        return result.orElse(null);
+    }
+
+    /**
+     * Forget the response builders, so they are located again on the next lookup.
+     */
+    public void refresh() {
+        this.responseBuilders = null;
+    }
+
+    /**
+     * Handle the context being refreshed.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleContextRefreshedEvent(final ContextRefreshedEvent event) {
+        refresh();
+    }
+
+    /**
+     * Handle the refresh scope being refreshed.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleRefreshScopeRefreshedEvent(final RefreshScopeRefreshedEvent event) {
+        refresh();
+    }
+
+    private ResponseBuilders getOrLoadResponseBuilders() {
+        ResponseBuilders current = this.responseBuilders;
+        if (current == null) {
+            final Map<String, ResponseBuilder> beans = applicationContext.getBeansOfType(ResponseBuilder.class, false, true);
+            final List<ResponseBuilder> builders = beans.values().stream().collect(Collectors.toList());
+            AnnotationAwareOrderComparator.sortIfNecessary(builders);
+            current = new ResponseBuilders(builders);
+            this.responseBuilders = current;
+        }
+        return current;
+    }
+
+    /**
+     * Response builders located in the application context.
+     */
+    private static class ResponseBuilders {
+        private final List<ResponseBuilder> builders;
+        private final Map<Class<?>, Optional<ResponseBuilder>> byServiceType = new ConcurrentHashMap<>();
+
+        ResponseBuilders(final List<ResponseBuilder> builders) {
+            this.builders = builders;
+        }
     }
 }
@@ -1,5 +1,6 @@
 package org.apereo.cas.config;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.base.Throwables;
 import org.apereo.cas.authentication.DefaultMultifactorTriggerSelectionStrategy;
 import org.apereo.cas.authentication.MultifactorTriggerSelectionStrategy;
@@ -17,9 +18,12 @@ import org.apereo.cas.authentication.support.DefaultCasProtocolAttributeEncoder;
 import org.apereo.cas.authentication.support.NoOpProtocolAttributeEncoder;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.services.AbstractResourceBasedServiceRegistryDao;
+import org.apereo.cas.services.CachingRegisteredServicesIndex;
+import org.apereo.cas.services.DefaultRegisteredServicesIndex;
 import org.apereo.cas.services.DefaultServicesManager;
 import org.apereo.cas.services.InMemoryServiceRegistry;
 import org.apereo.cas.services.RegisteredServiceCipherExecutor;
+import org.apereo.cas.services.RegisteredServicesIndex;
 import org.apereo.cas.services.ServiceRegistryDao;
 import org.apereo.cas.services.ServiceRegistryInitializer;
 import org.apereo.cas.services.ServicesManager;
@@ -38,6 +42,7 @@ import org.springframework.core.io.ClassPathResource;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is {@link CasCoreServicesConfiguration}.
@@ -60,6 +65,10 @@ public class CasCoreServicesConfiguration {
     @Autowired
     private ApplicationEventPublisher eventPublisher;
 
+    @Autowired(required = false)
+    @Qualifier("metrics")
+    private MetricRegistry metricRegistry;
+
     @RefreshScope
     @Bean
     public MultifactorTriggerSelectionStrategy defaultMultifactorTriggerSelectionStrategy() {
@@ -109,7 +118,17 @@ public class CasCoreServicesConfiguration {
 
     @Bean
     public ServicesManager servicesManager(@Qualifier("serviceRegistryDao") final ServiceRegistryDao serviceRegistryDao) {
-        return new DefaultServicesManager(serviceRegistryDao);
+        return new DefaultServicesManager(serviceRegistryDao, registeredServicesIndex());
+    }
+
+    @Bean
+    public RegisteredServicesIndex registeredServicesIndex() {
+        final long cacheSize = casProperties.getServiceRegistry().getCacheSize();
+        if (cacheSize <= 0) {
+            return new DefaultRegisteredServicesIndex();
+        }
+        return new CachingRegisteredServicesIndex(new DefaultRegisteredServicesIndex(), cacheSize,
+                casProperties.getServiceRegistry().getCache(), TimeUnit.MILLISECONDS, this.metricRegistry);
     }
 
     @ConditionalOnMissingBean(name = BEAN_NAME_SERVICE_REGISTRY_DAO)
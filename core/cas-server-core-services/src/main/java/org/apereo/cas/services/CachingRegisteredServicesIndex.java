@@ -0,0 +1,157 @@
+package org.apereo.cas.services;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.support.events.CasRegisteredServiceDeletedEvent;
+import org.apereo.cas.support.events.CasRegisteredServiceSavedEvent;
+import org.apereo.cas.support.events.CasRegisteredServicesRefreshEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * This is {@link CachingRegisteredServicesIndex} that remembers the registered service
+ * resolved for a given service id, including negative results, on top of another index.
+ * Entries are evicted by size and time, and the cache is invalidated whenever the index
+ * is rebuilt or registered service definitions are saved, deleted or refreshed.
+ * <p>
+ * Results are keyed by the service id alone, which holds for registered services
+ * whose matching logic only considers the service id, such as {@link RegexRegisteredService}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class CachingRegisteredServicesIndex implements RegisteredServicesIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingRegisteredServicesIndex.class);
+
+    private final RegisteredServicesIndex delegate;
+
+    private final Cache<String, Optional<RegisteredService>> cache;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Instantiates a new Caching registered services index.
+     *
+     * @param delegate       the delegate
+     * @param maximumSize    the maximum number of cached service ids
+     * @param expiration     the expiration duration
+     * @param timeUnit       the time unit of the expiration
+     * @param metricRegistry the metric registry; may be null
+     */
+    public CachingRegisteredServicesIndex(final RegisteredServicesIndex delegate, final long maximumSize,
+                                          final long expiration, final TimeUnit timeUnit,
+                                          final MetricRegistry metricRegistry) {
+        this.delegate = delegate;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expiration, timeUnit)
+                .build();
+
+        if (metricRegistry != null) {
+            this.hits = metricRegistry.counter(MetricRegistry.name(getClass(), "hits"));
+            this.misses = metricRegistry.counter(MetricRegistry.name(getClass(), "misses"));
+        } else {
+            this.hits = new Counter();
+            this.misses = new Counter();
+        }
+    }
+
+    @Override
+    public void rebuild(final Collection<RegisteredService> services) {
+        this.delegate.rebuild(services);
+        invalidate();
+    }
+
+    @Override
+    public RegisteredService find(final Service service) {
+        if (service == null || service.getId() == null) {
+            return this.delegate.find(service);
+        }
+        return lookup(service.getId(), () -> this.delegate.find(service));
+    }
+
+    @Override
+    public RegisteredService find(final String serviceId) {
+        if (serviceId == null) {
+            return this.delegate.find(serviceId);
+        }
+        return lookup(serviceId, () -> this.delegate.find(serviceId));
+    }
+
+    /**
+     * Invalidate all cached results.
+     */
+    public void invalidate() {
+        LOGGER.debug("Invalidating [{}] cached registered service lookups", this.cache.size());
+        this.generation.incrementAndGet();
+        this.cache.invalidateAll();
+    }
+
+    public long getHitCount() {
+        return this.hits.getCount();
+    }
+
+    public long getMissCount() {
+        return this.misses.getCount();
+    }
+
+    /**
+     * Handle registered service saved event.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleRegisteredServiceSavedEvent(final CasRegisteredServiceSavedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Handle registered service deleted event.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleRegisteredServiceDeletedEvent(final CasRegisteredServiceDeletedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Handle registered services refresh event.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleRegisteredServicesRefreshEvent(final CasRegisteredServicesRefreshEvent event) {
+        invalidate();
+    }
+
+    private RegisteredService lookup(final String serviceId, final Supplier<RegisteredService> resolver) {
+        final Optional<RegisteredService> cached = this.cache.getIfPresent(serviceId);
+        if (cached != null) {
+            this.hits.inc();
+            return cached.orElse(null);
+        }
+        this.misses.inc();
+        final long currentGeneration = this.generation.get();
+        final RegisteredService result = resolver.get();
+        if (currentGeneration == this.generation.get()) {
+            this.cache.put(serviceId, Optional.ofNullable(result));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,225 @@
+package org.apereo.cas.services;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.authentication.principal.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * This is {@link DefaultRegisteredServicesIndex}. Regex-based services whose
+ * patterns are entirely literal are indexed by their exact service id, and those
+ * whose patterns start with a literal prefix are indexed in a character trie.
+ * All other services fall back to regular ordered evaluation.
+ * Candidates collected from the index are always confirmed by the service's own
+ * matching logic, in evaluation order, so results are identical to a linear scan.
+ * <p>
+ * Matching of {@link RegexRegisteredService} is case insensitive for US-ASCII characters;
+ * keys are normalized accordingly and literal prefixes stop at the first non-ASCII character.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class DefaultRegisteredServicesIndex implements RegisteredServicesIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultRegisteredServicesIndex.class);
+
+    private static final String REGEX_METACHARACTERS = "[](){}.*+?|^$";
+    private static final String REGEX_QUANTIFIERS = "*+?{";
+    private static final char MAX_ASCII_CHAR = 127;
+
+    private volatile Snapshot snapshot = new Snapshot();
+
+    @Override
+    public void rebuild(final Collection<RegisteredService> services) {
+        final Snapshot newSnapshot = new Snapshot();
+        int rank = 0;
+        for (final RegisteredService service : services) {
+            newSnapshot.add(new IndexedService(rank++, service));
+        }
+        LOGGER.debug("Indexed [{}] services by exact id, [{}] services by prefix with [{}] services left for ordered evaluation",
+                newSnapshot.exactCount, newSnapshot.prefixCount, newSnapshot.fallback.size());
+        this.snapshot = newSnapshot;
+    }
+
+    @Override
+    public RegisteredService find(final Service service) {
+        if (service == null || service.getId() == null) {
+            return this.snapshot.findAll(r -> r.matches(service));
+        }
+        return this.snapshot.find(service.getId(), r -> r.matches(service));
+    }
+
+    @Override
+    public RegisteredService find(final String serviceId) {
+        if (serviceId == null) {
+            return this.snapshot.findAll(r -> r.matches(serviceId));
+        }
+        return this.snapshot.find(serviceId, r -> r.matches(serviceId));
+    }
+
+    /**
+     * Normalize the key by lower-casing US-ASCII characters only,
+     * mirroring case insensitive regex matching without unicode case folding.
+     *
+     * @param value the value
+     * @return the normalized value
+     */
+    private static String normalize(final String value) {
+        final char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            final char c = chars[i];
+            if (c >= 'A' && c <= 'Z') {
+                chars[i] = (char) (c + ('a' - 'A'));
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Extract the literal portion of a regular expression that any matching
+     * input must begin with.
+     *
+     * @param pattern the pattern
+     * @return the literal prefix, normalized; never null
+     */
+    private static LiteralPrefix getLiteralPrefix(final String pattern) {
+        if (pattern == null || pattern.indexOf('|') >= 0) {
+            return new LiteralPrefix(StringUtils.EMPTY, false);
+        }
+        final int length = pattern.length();
+        final StringBuilder prefix = new StringBuilder(length);
+        int i = pattern.startsWith("^") ? 1 : 0;
+        while (i < length) {
+            char c = pattern.charAt(i);
+            if (c == '$' && i == length - 1) {
+                i++;
+                break;
+            }
+            if (c == '\\') {
+                if (i + 1 >= length) {
+                    break;
+                }
+                c = pattern.charAt(i + 1);
+                if (c > MAX_ASCII_CHAR || Character.isLetterOrDigit(c)) {
+                    break;
+                }
+                i += 2;
+            } else if (c > MAX_ASCII_CHAR || REGEX_METACHARACTERS.indexOf(c) >= 0) {
+                break;
+            } else {
+                i++;
+            }
+            if (i < length && REGEX_QUANTIFIERS.indexOf(pattern.charAt(i)) >= 0) {
+                break;
+            }
+            prefix.append(c);
+        }
+        return new LiteralPrefix(normalize(prefix.toString()), i == length);
+    }
+
+    /**
+     * Immutable point-in-time view of the index.
+     */
+    private static class Snapshot {
+        private final Map<String, List<IndexedService>> exact = new HashMap<>();
+        private final TrieNode prefixes = new TrieNode();
+        private final List<IndexedService> fallback = new ArrayList<>();
+
+        private int exactCount;
+        private int prefixCount;
+
+        void add(final IndexedService entry) {
+            if (entry.service instanceof RegexRegisteredService) {
+                final LiteralPrefix literal = getLiteralPrefix(entry.service.getServiceId());
+                if (literal.exact) {
+                    this.exact.computeIfAbsent(literal.prefix, k -> new ArrayList<>(1)).add(entry);
+                    this.exactCount++;
+                    return;
+                }
+                if (!literal.prefix.isEmpty()) {
+                    TrieNode node = this.prefixes;
+                    for (int i = 0; i < literal.prefix.length(); i++) {
+                        node = node.children.computeIfAbsent(literal.prefix.charAt(i), k -> new TrieNode());
+                    }
+                    node.services.add(entry);
+                    this.prefixCount++;
+                    return;
+                }
+            }
+            this.fallback.add(entry);
+        }
+
+        RegisteredService find(final String serviceId, final Predicate<RegisteredService> predicate) {
+            final String key = normalize(serviceId);
+            final List<IndexedService> candidates = new ArrayList<>(this.fallback);
+            candidates.addAll(this.exact.getOrDefault(key, Collections.emptyList()));
+
+            TrieNode node = this.prefixes;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+                if (node != null) {
+                    candidates.addAll(node.services);
+                }
+            }
+            if (candidates.size() > this.fallback.size()) {
+                candidates.sort(Comparator.comparingInt(c -> c.rank));
+            }
+            return candidates.stream()
+                    .map(c -> c.service)
+                    .filter(predicate)
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        RegisteredService findAll(final Predicate<RegisteredService> predicate) {
+            final List<IndexedService> candidates = new ArrayList<>(this.fallback);
+            this.exact.values().forEach(candidates::addAll);
+            this.prefixes.collect(candidates);
+            candidates.sort(Comparator.comparingInt(c -> c.rank));
+            return candidates.stream()
+                    .map(c -> c.service)
+                    .filter(predicate)
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    private static class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private final List<IndexedService> services = new ArrayList<>(1);
+
+        void collect(final List<IndexedService> results) {
+            results.addAll(this.services);
+            this.children.values().forEach(c -> c.collect(results));
+        }
+    }
+
+    private static class IndexedService {
+        private final int rank;
+        private final RegisteredService service;
+
+        IndexedService(final int rank, final RegisteredService service) {
+            this.rank = rank;
+            this.service = service;
+        }
+    }
+
+    private static class LiteralPrefix {
+        private final String prefix;
+        private final boolean exact;
+
+        LiteralPrefix(final String prefix, final boolean exact) {
+            this.prefix = prefix;
+            this.exact = exact;
+        }
+    }
+}
@@ -14,6 +14,8 @@ import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 
 import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
@@ -37,6 +39,8 @@ public class DefaultServicesManager implements ServicesManager, Serializable {
 
     private final ServiceRegistryDao serviceRegistryDao;
 
+    private transient RegisteredServicesIndex servicesIndex;
+
     @Autowired
     private transient ApplicationEventPublisher eventPublisher;
 
@@ -49,7 +53,18 @@ public class DefaultServicesManager implements ServicesManager, Serializable {
      * @param serviceRegistryDao the service registry dao
      */
     public DefaultServicesManager(final ServiceRegistryDao serviceRegistryDao) {
+        this(serviceRegistryDao, new DefaultRegisteredServicesIndex());
+    }
+
+    /**
+     * Instantiates a new default services manager impl.
+     *
+     * @param serviceRegistryDao the service registry dao
+     * @param servicesIndex      the index used to match services
+     */
+    public DefaultServicesManager(final ServiceRegistryDao serviceRegistryDao, final RegisteredServicesIndex servicesIndex) {
         this.serviceRegistryDao = serviceRegistryDao;
+        this.servicesIndex = servicesIndex;
     }
 
     @Audit(action = "DELETE_SERVICE", actionResolverName = "DELETE_SERVICE_ACTION_RESOLVER",
@@ -61,6 +76,7 @@ public class DefaultServicesManager implements ServicesManager, Serializable {
             this.serviceRegistryDao.delete(service);
             this.services.remove(id);
             this.orderedServices.remove(service);
+            this.servicesIndex.rebuild(this.orderedServices);
             publishEvent(new CasRegisteredServiceDeletedEvent(this, service));
         }
         return service;
@@ -68,7 +84,7 @@ public class DefaultServicesManager implements ServicesManager, Serializable {
 
     @Override
     public RegisteredService findServiceBy(final Service service) {
-        return orderedServices.stream().filter(r -> r.matches(service)).findFirst().orElse(null);
+        return this.servicesIndex.find(service);
     }
 
     @Override
@@ -106,6 +122,7 @@ public class DefaultServicesManager implements ServicesManager, Serializable {
         final RegisteredService r = this.serviceRegistryDao.save(registeredService);
         this.services.put(r.getId(), r);
         this.orderedServices = new ConcurrentSkipListSet<>(this.services.values());
+        this.servicesIndex.rebuild(this.orderedServices);
         publishEvent(new CasRegisteredServiceSavedEvent(this, r));
         return r;
     }
@@ -125,12 +142,13 @@ public class DefaultServicesManager implements ServicesManager, Serializable {
                     return r.getId();
                 }, r -> r, (r, s) -> s == null ? r : s));
         this.orderedServices = new ConcurrentSkipListSet<>(this.services.values());
+        this.servicesIndex.rebuild(this.orderedServices);
         LOGGER.info("Loaded {} services from {}.", this.services.size(), this.serviceRegistryDao);
     }
 
     @Override
     public RegisteredService findServiceBy(final String serviceId) {
-        return orderedServices.stream().filter(r -> r.matches(serviceId)).findFirst().orElse(null);
+        return this.servicesIndex.find(serviceId);
     }
 
     @Override
@@ -153,6 +171,15 @@ public class DefaultServicesManager implements ServicesManager, Serializable {
         load();
     }
 
+    /**
+     * The index is not serialized; rebuild a default index from the deserialized services.
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.servicesIndex = new DefaultRegisteredServicesIndex();
+        this.servicesIndex.rebuild(this.orderedServices);
+    }
+
     private void publishEvent(final ApplicationEvent event) {
         if (this.eventPublisher != null) {
             this.eventPublisher.publishEvent(event);
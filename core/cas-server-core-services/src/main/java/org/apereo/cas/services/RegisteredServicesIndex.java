@@ -0,0 +1,40 @@
+package org.apereo.cas.services;
+
+import org.apereo.cas.authentication.principal.Service;
+
+import java.util.Collection;
+
+/**
+ * Defines a lookup structure that is able to locate the registered service
+ * matching a given service without evaluating every registered definition.
+ * Implementations must honor the evaluation order of the services
+ * they are built from, such that the first matching service in that order is returned.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public interface RegisteredServicesIndex {
+
+    /**
+     * Rebuild the index from the given services, replacing the previous state atomically.
+     *
+     * @param services the services, sorted by their evaluation order
+     */
+    void rebuild(Collection<RegisteredService> services);
+
+    /**
+     * Find the first registered service, in evaluation order, that matches the given service.
+     *
+     * @param service the service
+     * @return the registered service, or null
+     */
+    RegisteredService find(Service service);
+
+    /**
+     * Find the first registered service, in evaluation order, that matches the given service id.
+     *
+     * @param serviceId the service id
+     * @return the registered service, or null
+     */
+    RegisteredService find(String serviceId);
+}
@@ -2,18 +2,30 @@ package org.apereo.cas.util.services;
 
 import com.google.common.base.Throwables;
 import org.apereo.cas.services.RegisteredService;
+import org.apereo.cas.services.RegisteredServicePublicKey;
+import org.apereo.cas.support.events.CasRegisteredServiceDeletedEvent;
+import org.apereo.cas.support.events.CasRegisteredServiceSavedEvent;
+import org.apereo.cas.support.events.CasRegisteredServicesRefreshEvent;
 import org.apereo.cas.util.EncodingUtils;
 import org.apereo.cas.services.RegisteredServiceCipherExecutor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
 
 import javax.crypto.Cipher;
 import java.nio.charset.StandardCharsets;
 import java.security.PublicKey;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Default cipher implementation based on public keys.
+ * <p>
+ * Public keys are created once per registered service and remembered until the service's
+ * public key definition changes, or until registered services are saved, deleted or refreshed.
+ * {@link Cipher} instances are kept per thread and algorithm, and initialized with the key for each use.
  *
  * @author Misagh Moayyed
  * @since 4.1
@@ -23,6 +35,10 @@ public class DefaultRegisteredServiceCipherExecutor implements RegisteredService
     /** Logger instance. **/
     protected transient Logger logger = LoggerFactory.getLogger(this.getClass());
 
+    private final Map<Long, CachedPublicKey> publicKeys = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Map<String, Cipher>> ciphers = ThreadLocal.withInitial(HashMap::new);
+
     /**
      * Encrypt using the given cipher associated with the service,
      * and encode the data in base 64.
@@ -70,24 +86,61 @@ public class DefaultRegisteredServiceCipherExecutor implements RegisteredService
     }
 
     /**
-     * Create registered service public key defined.
+     * Handle registered service saved event.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleRegisteredServiceSavedEvent(final CasRegisteredServiceSavedEvent event) {
+        this.publicKeys.remove(event.getRegisteredService().getId());
+    }
+
+    /**
+     * Handle registered service deleted event.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleRegisteredServiceDeletedEvent(final CasRegisteredServiceDeletedEvent event) {
+        this.publicKeys.remove(event.getRegisteredService().getId());
+    }
+
+    /**
+     * Handle registered services refresh event.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleRegisteredServicesRefreshEvent(final CasRegisteredServicesRefreshEvent event) {
+        this.publicKeys.clear();
+    }
+
+    /**
+     * Create registered service public key defined, or reuse the key created earlier
+     * for the same service and public key definition.
      *
      * @param registeredService the registered service
      * @return the public key
      * @throws Exception the exception, if key cant be created
      */
     private PublicKey createRegisteredServicePublicKey(final RegisteredService registeredService) throws Exception {
-        if (registeredService.getPublicKey() == null) {
+        final RegisteredServicePublicKey definition = registeredService.getPublicKey();
+        if (definition == null) {
             logger.debug("No public key is defined for service [{}]. No encoding will take place.",
                     registeredService);
             return null;
         }
-        final PublicKey publicKey = registeredService.getPublicKey().createInstance();
+        final CachedPublicKey cached = this.publicKeys.get(registeredService.getId());
+        if (cached != null && cached.definition.equals(definition)) {
+            return cached.publicKey;
+        }
+        final PublicKey publicKey = definition.createInstance();
         if (publicKey == null) {
             logger.debug("No public key instance created for service [{}]. No encoding will take place.",
                     registeredService);
             return null;
         }
+        this.publicKeys.put(registeredService.getId(), new CachedPublicKey(definition, publicKey));
         return publicKey;
     }
 
@@ -105,7 +158,7 @@ public class DefaultRegisteredServiceCipherExecutor implements RegisteredService
             logger.debug("Using public key [{}] to initialize the cipher",
                     registeredService.getPublicKey());
 
-            final Cipher cipher = Cipher.getInstance(publicKey.getAlgorithm());
+            final Cipher cipher = getCipher(publicKey.getAlgorithm());
             cipher.init(Cipher.ENCRYPT_MODE, publicKey);
             logger.debug("Initialized cipher in encrypt-mode via the public key algorithm [{}]",
                     publicKey.getAlgorithm());
@@ -116,4 +169,27 @@ public class DefaultRegisteredServiceCipherExecutor implements RegisteredService
         }
         return null;
     }
+
+    private Cipher getCipher(final String algorithm) throws Exception {
+        final Map<String, Cipher> threadCiphers = this.ciphers.get();
+        Cipher cipher = threadCiphers.get(algorithm);
+        if (cipher == null) {
+            cipher = Cipher.getInstance(algorithm);
+            threadCiphers.put(algorithm, cipher);
+        }
+        return cipher;
+    }
+
+    /**
+     * A public key, along with the definition it was created from.
+     */
+    private static class CachedPublicKey {
+        private final RegisteredServicePublicKey definition;
+        private final PublicKey publicKey;
+
+        CachedPublicKey(final RegisteredServicePublicKey definition, final PublicKey publicKey) {
+            this.definition = definition;
+            this.publicKey = publicKey;
+        }
+    }
 }
@@ -0,0 +1,61 @@
+package org.apereo.cas.services;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link CachingRegisteredServicesIndexTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class CachingRegisteredServicesIndexTests {
+
+    private CachingRegisteredServicesIndex index;
+
+    private MetricRegistry metricRegistry;
+
+    @Before
+    public void setUp() {
+        this.metricRegistry = new MetricRegistry();
+        this.index = new CachingRegisteredServicesIndex(new DefaultRegisteredServicesIndex(), 100, 1, TimeUnit.MINUTES, metricRegistry);
+    }
+
+    @Test
+    public void verifyPositiveAndNegativeResultsAreCached() {
+        final RegexRegisteredService r = new RegexRegisteredService();
+        r.setId(1);
+        r.setName("test");
+        r.setServiceId("^https://www\\.example\\.org/.*");
+        this.index.rebuild(Collections.singleton(r));
+
+        assertEquals(r, this.index.find("https://www.example.org/app"));
+        assertEquals(r, this.index.find("https://www.example.org/app"));
+        assertNull(this.index.find("https://unknown.example.org"));
+        assertNull(this.index.find("https://unknown.example.org"));
+
+        assertEquals(2, this.index.getHitCount());
+        assertEquals(2, this.index.getMissCount());
+        assertEquals(2, metricRegistry.getCounters().get(MetricRegistry.name(CachingRegisteredServicesIndex.class, "hits")).getCount());
+    }
+
+    @Test
+    public void verifyRebuildInvalidatesCache() {
+        assertNull(this.index.find("https://www.example.org/app"));
+
+        final RegexRegisteredService r = new RegexRegisteredService();
+        r.setId(1);
+        r.setName("test");
+        r.setServiceId("^https://www\\.example\\.org/.*");
+        this.index.rebuild(Collections.singleton(r));
+
+        assertEquals(r, this.index.find("https://www.example.org/app"));
+        assertEquals(0, this.index.getHitCount());
+    }
+}
@@ -0,0 +1,114 @@
+package org.apereo.cas.services;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link DefaultRegisteredServicesIndexTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class DefaultRegisteredServicesIndexTests {
+
+    @Test
+    public void verifyExactAndPrefixMatches() {
+        final RegisteredServicesIndex index = buildIndex(
+                newService(1, "https://app.example.org/login", 10),
+                newService(2, "^https://www\\.example\\.org/.*", 20),
+                newService(3, "^https://api\\.example\\.org/v1/.+$", 30));
+
+        assertEquals(1, index.find("https://app.example.org/login").getId());
+        assertEquals(1, index.find("HTTPS://APP.EXAMPLE.ORG/LOGIN").getId());
+        assertEquals(2, index.find("https://www.example.org/path?q=1").getId());
+        assertEquals(3, index.find("https://API.example.org/v1/users").getId());
+        assertNull(index.find("https://app.example.org/login/other"));
+        assertNull(index.find("https://api.example.org/v2/users"));
+    }
+
+    @Test
+    public void verifyEvaluationOrderIsHonoredAcrossIndexes() {
+        final RegisteredServicesIndex index = buildIndex(
+                newService(1, "https://app.example.org/login", 10),
+                newService(2, ".*", 5),
+                newService(3, "^https://app\\.example\\.org/.*", 1));
+
+        assertEquals(3, index.find("https://app.example.org/login").getId());
+        assertEquals(2, index.find("https://other.example.org").getId());
+    }
+
+    @Test
+    public void verifyOptionalAndAlternatePatterns() {
+        final RegisteredServicesIndex index = buildIndex(
+                newService(1, "^https?://secure\\.example\\.org/.*", 10),
+                newService(2, "^(https|imaps)://mail\\.example\\.org", 20),
+                newService(3, "^http://a|^http://b", 30),
+                newService(4, "^ab*c", 40));
+
+        assertEquals(1, index.find("http://secure.example.org/app").getId());
+        assertEquals(1, index.find("https://secure.example.org/app").getId());
+        assertEquals(2, index.find("imaps://mail.example.org").getId());
+        assertEquals(3, index.find("http://b").getId());
+        assertEquals(4, index.find("ac").getId());
+    }
+
+    @Test
+    public void verifyIndexMatchesLinearScan() {
+        for (final int size : new int[]{10, 1000, 10000}) {
+            final Set<RegisteredService> services = new ConcurrentSkipListSet<>();
+            for (int i = 0; i < size; i++) {
+                final String serviceId;
+                switch (i % 3) {
+                    case 0:
+                        serviceId = "https://app" + i + ".example.org/cas";
+                        break;
+                    case 1:
+                        serviceId = "^https://app" + i + "\\.example\\.org/.*";
+                        break;
+                    default:
+                        serviceId = "^(https|http)://host" + i + "\\.example\\.org.*";
+                        break;
+                }
+                services.add(newService(i, serviceId, size - i));
+            }
+            final RegisteredServicesIndex index = new DefaultRegisteredServicesIndex();
+            index.rebuild(services);
+
+            final List<String> serviceIds = new ArrayList<>();
+            for (int i = 0; i < size; i += Math.max(1, size / 100)) {
+                serviceIds.add("https://app" + i + ".example.org/cas");
+                serviceIds.add("http://host" + i + ".example.org/path");
+                serviceIds.add("https://unknown" + i + ".example.org");
+            }
+            serviceIds.forEach(id -> {
+                final RegisteredService expected = services.stream().filter(r -> r.matches(id)).findFirst().orElse(null);
+                assertEquals(expected, index.find(id));
+            });
+        }
+    }
+
+    private static RegisteredServicesIndex buildIndex(final RegisteredService... services) {
+        final Set<RegisteredService> ordered = new ConcurrentSkipListSet<>();
+        for (final RegisteredService service : services) {
+            ordered.add(service);
+        }
+        final RegisteredServicesIndex index = new DefaultRegisteredServicesIndex();
+        index.rebuild(ordered);
+        return index;
+    }
+
+    private static RegisteredService newService(final long id, final String serviceId, final int order) {
+        final RegexRegisteredService r = new RegexRegisteredService();
+        r.setId(id);
+        r.setName("service" + id);
+        r.setServiceId(serviceId);
+        r.setEvaluationOrder(order);
+        return r;
+    }
+}
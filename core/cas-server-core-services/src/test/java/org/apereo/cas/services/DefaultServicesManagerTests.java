@@ -6,6 +6,11 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -100,6 +105,29 @@ public class DefaultServicesManagerTests {
         assertNull(this.defaultServicesManager.delete(1500));
     }
 
+    @Test
+    public void verifyServicesAreFoundAfterDeserialization() throws Exception {
+        final RegexRegisteredService r = new RegexRegisteredService();
+        r.setId(1000);
+        r.setName("test");
+        r.setServiceId("test");
+        final List<RegisteredService> list = new ArrayList<>();
+        list.add(r);
+        final DefaultServicesManager manager = new DefaultServicesManager(new SerializableServiceRegistry(list));
+        manager.load();
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(manager);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            final DefaultServicesManager deserialized = (DefaultServicesManager) in.readObject();
+            assertEquals(r, deserialized.findServiceBy(new SimpleService("test")));
+            assertEquals(r, deserialized.findServiceBy("test"));
+            assertNull(deserialized.findServiceBy(new SimpleService("other")));
+        }
+    }
+
     @Test
     public void verifyMatchesExistingService() {
         final RegexRegisteredService r = new RegexRegisteredService();
@@ -233,6 +261,14 @@ public class DefaultServicesManagerTests {
         assertEquals(description, serviceRetrieved.toArray(new RegisteredService[]{})[0].getDescription());
     }
 
+    private static class SerializableServiceRegistry extends InMemoryServiceRegistry implements Serializable {
+        private static final long serialVersionUID = 3452391874632149867L;
+
+        SerializableServiceRegistry(final List<RegisteredService> registeredServices) {
+            super(registeredServices);
+        }
+    }
+
     private static class SimpleService implements Service {
 
         /**
@@ -0,0 +1,81 @@
+package org.apereo.cas.util.services;
+
+import org.apereo.cas.services.RegexRegisteredService;
+import org.apereo.cas.services.RegisteredServicePublicKey;
+import org.apereo.cas.support.events.CasRegisteredServiceSavedEvent;
+import org.apereo.cas.util.EncodingUtils;
+import org.junit.Test;
+
+import javax.crypto.Cipher;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link DefaultRegisteredServiceCipherExecutorTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class DefaultRegisteredServiceCipherExecutorTests {
+
+    private static final int KEY_SIZE = 1024;
+
+    private final AtomicInteger instances = new AtomicInteger();
+
+    @Test
+    public void verifyPublicKeyIsCreatedOncePerService() throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(KEY_SIZE);
+        final KeyPair keyPair = generator.generateKeyPair();
+
+        final RegexRegisteredService service = new RegexRegisteredService();
+        service.setId(1000);
+        service.setServiceId("^https://.+");
+        service.setPublicKey(new CountingPublicKey(keyPair.getPublic()));
+
+        final DefaultRegisteredServiceCipherExecutor cipher = new DefaultRegisteredServiceCipherExecutor();
+        final String encoded = cipher.encode("PGT-1234567", service);
+        assertNotNull(encoded);
+        assertNotNull(cipher.encode("PrincipalPassword", service));
+        assertEquals(1, this.instances.get());
+
+        final Cipher decipher = Cipher.getInstance("RSA");
+        decipher.init(Cipher.DECRYPT_MODE, keyPair.getPrivate());
+        assertEquals("PGT-1234567", new String(decipher.doFinal(EncodingUtils.decodeBase64(encoded)), StandardCharsets.UTF_8));
+
+        cipher.handleRegisteredServiceSavedEvent(new CasRegisteredServiceSavedEvent(this, service));
+        assertNotNull(cipher.encode("PGT-1234567", service));
+        assertEquals(2, this.instances.get());
+    }
+
+    private class CountingPublicKey implements RegisteredServicePublicKey {
+        private static final long serialVersionUID = 4128932562394582410L;
+
+        private final transient PublicKey publicKey;
+
+        CountingPublicKey(final PublicKey publicKey) {
+            this.publicKey = publicKey;
+        }
+
+        @Override
+        public String getLocation() {
+            return "memory";
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return this.publicKey.getAlgorithm();
+        }
+
+        @Override
+        public PublicKey createInstance() {
+            instances.incrementAndGet();
+            return this.publicKey;
+        }
+    }
+}
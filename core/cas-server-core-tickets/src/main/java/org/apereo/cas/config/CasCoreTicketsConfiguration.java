@@ -1,5 +1,7 @@
 package org.apereo.cas.config;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricSet;
 import org.apereo.cas.CipherExecutor;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.core.ticket.TicketGrantingTicketProperties;
@@ -25,8 +27,10 @@ import org.apereo.cas.ticket.registry.DefaultTicketRegistry;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistrySupport;
 import org.apereo.cas.ticket.registry.NoOpLockingStrategy;
+import org.apereo.cas.ticket.registry.TicketExpirationIndex;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistryCleaner;
+import org.apereo.cas.ticket.registry.TicketRegistryMetricSet;
 import org.apereo.cas.ticket.registry.TicketRegistrySupport;
 import org.apereo.cas.ticket.registry.support.LockingStrategy;
 import org.apereo.cas.ticket.support.AlwaysExpiresExpirationPolicy;
@@ -39,6 +43,7 @@ import org.apereo.cas.ticket.support.TicketGrantingTicketExpirationPolicy;
 import org.apereo.cas.ticket.support.TimeoutExpirationPolicy;
 import org.apereo.cas.util.HostNameBasedUniqueTicketIdGenerator;
 import org.apereo.cas.util.cipher.NoOpCipherExecutor;
+import org.apereo.cas.util.gen.TimeOrderedNumericGenerator;
 import org.apereo.cas.util.cipher.ProtocolTicketCipherExecutor;
 import org.apereo.cas.util.http.HttpClient;
 import org.slf4j.Logger;
@@ -91,6 +96,10 @@ public class CasCoreTicketsConfiguration {
     @Qualifier("supportsTrustStoreSslSocketFactoryHttpClient")
     private HttpClient httpClient;
 
+    @Autowired(required = false)
+    @Qualifier("metrics")
+    private MetricRegistry metricRegistry;
+
     @ConditionalOnMissingBean(name = "defaultProxyGrantingTicketFactory")
     @Bean
     public ProxyGrantingTicketFactory defaultProxyGrantingTicketFactory() {
@@ -150,11 +159,15 @@ public class CasCoreTicketsConfiguration {
     @Bean(name = {"defaultTicketRegistry", "ticketRegistry"})
     public TicketRegistry defaultTicketRegistry() {
         final TicketRegistryProperties.InMemory mem = casProperties.getTicket().getRegistry().getInMemory();
-        return new DefaultTicketRegistry(
+        final DefaultTicketRegistry registry = new DefaultTicketRegistry(
                 mem.getInitialCapacity(),
                 mem.getLoadFactor(),
                 mem.getConcurrency(),
                 Beans.newTicketRegistryCipherExecutor(mem.getCrypto()));
+        if (mem.isExpirationIndexEnabled()) {
+            registry.setExpirationIndex(new TicketExpirationIndex());
+        }
+        return registry;
     }
 
     @ConditionalOnMissingBean(name = "defaultTicketRegistrySupport")
@@ -166,25 +179,25 @@ public class CasCoreTicketsConfiguration {
     @ConditionalOnMissingBean(name = "ticketGrantingTicketUniqueIdGenerator")
     @Bean
     public UniqueTicketIdGenerator ticketGrantingTicketUniqueIdGenerator() {
-        return new HostNameBasedUniqueTicketIdGenerator.TicketGrantingTicketIdGenerator(
+        return configureUniqueTicketIdGenerator(new HostNameBasedUniqueTicketIdGenerator.TicketGrantingTicketIdGenerator(
                 casProperties.getTicket().getTgt().getMaxLength(),
-                casProperties.getHost().getName());
+                casProperties.getHost().getName()));
     }
 
     @ConditionalOnMissingBean(name = "serviceTicketUniqueIdGenerator")
     @Bean
     public UniqueTicketIdGenerator serviceTicketUniqueIdGenerator() {
-        return new HostNameBasedUniqueTicketIdGenerator.ServiceTicketIdGenerator(
+        return configureUniqueTicketIdGenerator(new HostNameBasedUniqueTicketIdGenerator.ServiceTicketIdGenerator(
                 casProperties.getTicket().getSt().getMaxLength(),
-                casProperties.getHost().getName());
+                casProperties.getHost().getName()));
     }
 
     @ConditionalOnMissingBean(name = "proxy20TicketUniqueIdGenerator")
     @Bean
     public UniqueTicketIdGenerator proxy20TicketUniqueIdGenerator() {
-        return new HostNameBasedUniqueTicketIdGenerator.ProxyTicketIdGenerator(
+        return configureUniqueTicketIdGenerator(new HostNameBasedUniqueTicketIdGenerator.ProxyTicketIdGenerator(
                 casProperties.getTicket().getPgt().getMaxLength(),
-                casProperties.getHost().getName());
+                casProperties.getHost().getName()));
     }
 
     @ConditionalOnMissingBean(name = "grantingTicketExpirationPolicy")
@@ -238,6 +251,15 @@ public class CasCoreTicketsConfiguration {
         return new DefaultTicketRegistryCleaner(lockingStrategy(), logoutManager, ticketRegistry, isCleanerEnabled);
     }
 
+    @Bean
+    public MetricSet ticketRegistryMetricSet() {
+        final TicketRegistryMetricSet metrics = new TicketRegistryMetricSet(ticketRegistry);
+        if (this.metricRegistry != null) {
+            this.metricRegistry.register(MetricRegistry.name(TicketRegistry.class), metrics);
+        }
+        return metrics;
+    }
+
     @ConditionalOnMissingBean(name = "ticketTransactionManager")
     @Bean
     public PlatformTransactionManager ticketTransactionManager() {
@@ -257,6 +279,13 @@ public class CasCoreTicketsConfiguration {
         return NoOpCipherExecutor.getInstance();
     }
 
+    private UniqueTicketIdGenerator configureUniqueTicketIdGenerator(final HostNameBasedUniqueTicketIdGenerator generator) {
+        if (casProperties.getTicket().isTimeOrderedIds()) {
+            generator.setNumericGenerator(new TimeOrderedNumericGenerator());
+        }
+        return generator;
+    }
+
     private ExpirationPolicy buildTicketGrantingTicketExpirationPolicy() {
         final TicketGrantingTicketProperties tgt = casProperties.getTicket().getTgt();
         if (tgt.getMaxTimeToLiveInSeconds() < 0 && tgt.getTimeToKillInSeconds() < 0) {
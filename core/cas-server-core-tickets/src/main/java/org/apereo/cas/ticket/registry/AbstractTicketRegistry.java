@@ -1,9 +1,13 @@
 package org.apereo.cas.ticket.registry;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.CipherExecutor;
@@ -13,9 +17,10 @@ import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
 import org.apereo.cas.util.DigestUtils;
-import org.apereo.cas.util.serialization.SerializationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.util.Assert;
 
 import com.google.common.io.ByteSource;
@@ -36,6 +41,12 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
     /** The cipher executor for ticket objects. */
     protected CipherExecutor cipherExecutor;
 
+    /** The codec that turns tickets into bytes before they are encrypted. */
+    protected TicketCodec ticketCodec = new JavaSerializationTicketCodec();
+
+    /** Optional index of tickets by their expected expiration time. */
+    private TicketExpirationIndex expirationIndex;
+
     /**
      * Default constructor.
      */
@@ -72,8 +83,8 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
 
     @Override
     public long sessionCount() {
-        try {
-            return getTickets().stream().filter(t -> t instanceof TicketGrantingTicket).count();
+        try (Stream<TicketGrantingTicket> tickets = streamTickets(TicketGrantingTicket.class)) {
+            return tickets.count();
         } catch (final Throwable t) {
             logger.trace("sessionCount() operation is not implemented by the ticket registry instance {}. "
                             + "Message is: {} Returning unknown as {}",
@@ -84,8 +95,8 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
 
     @Override
     public long serviceTicketCount() {
-        try {
-            return getTickets().stream().filter(t -> t instanceof ServiceTicket).count();
+        try (Stream<ServiceTicket> tickets = streamTickets(ServiceTicket.class)) {
+            return tickets.count();
         } catch (final Throwable t) {
             logger.trace("serviceTicketCount() operation is not implemented by the ticket registry instance {}. "
                             + "Message is: {} Returning unknown as {}",
@@ -94,6 +105,28 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         }
     }
 
+    @Override
+    public Stream<Ticket> streamExpiredTickets(final Instant instant) {
+        if (this.expirationIndex == null) {
+            return streamTickets(Ticket.class).filter(Ticket::isExpired);
+        }
+        final Collection<String> ticketIds = this.expirationIndex.getDueTicketIds(instant);
+        logger.debug("[{}] tickets are due for expiration checks as of [{}]", ticketIds.size(), instant);
+
+        final List<Ticket> expiredTickets = new ArrayList<>();
+        ticketIds.forEach(ticketId -> {
+            final Ticket ticket = getTicket(ticketId);
+            if (ticket == null) {
+                this.expirationIndex.remove(ticketId);
+            } else if (ticket.isExpired()) {
+                expiredTickets.add(ticket);
+            } else {
+                this.expirationIndex.put(ticket);
+            }
+        });
+        return expiredTickets.stream();
+    }
+
     @Override
     public int deleteTicket(final String ticketId) {
         final AtomicInteger count = new AtomicInteger(0);
@@ -108,22 +141,36 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         }
 
         if (ticket instanceof TicketGrantingTicket) {
-            if (ticket instanceof ProxyGrantingTicket) {
-                logger.debug("Removing proxy-granting ticket [{}]", ticketId);
-            }
-
-            logger.debug("Removing children of ticket [{}] from the registry.", ticket.getId());
-            final TicketGrantingTicket tgt = (TicketGrantingTicket) ticket;
-            count.addAndGet(deleteChildren(tgt));
-
-            final Collection<ProxyGrantingTicket> proxyGrantingTickets = tgt.getProxyGrantingTickets();
-            proxyGrantingTickets.stream().map(Ticket::getId).forEach((t) -> count.addAndGet(this.deleteTicket(t)));
+            return deleteTicketsFor((TicketGrantingTicket) ticket);
         }
         logger.debug("Removing ticket [{}] from the registry.", ticket);
 
         if (deleteSingleTicket(ticketId)) {
             count.incrementAndGet();
         }
+        removeTicketExpiration(ticketId);
+
+        return count.intValue();
+    }
+
+    @Override
+    public int deleteTicketsFor(final TicketGrantingTicket ticket) {
+        final AtomicInteger count = new AtomicInteger(0);
+        if (ticket instanceof ProxyGrantingTicket) {
+            logger.debug("Removing proxy-granting ticket [{}]", ticket.getId());
+        }
+
+        logger.debug("Removing children of ticket [{}] from the registry.", ticket.getId());
+        count.addAndGet(deleteChildren(ticket));
+
+        final Collection<ProxyGrantingTicket> proxyGrantingTickets = ticket.getProxyGrantingTickets();
+        proxyGrantingTickets.stream().map(Ticket::getId).forEach((t) -> count.addAndGet(this.deleteTicket(t)));
+
+        logger.debug("Removing ticket [{}] from the registry.", ticket);
+        if (deleteSingleTicket(ticket.getId())) {
+            count.incrementAndGet();
+        }
+        removeTicketExpiration(ticket.getId());
 
         return count.intValue();
     }
@@ -142,6 +189,7 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         final Map<String, Service> services = ticket.getServices();
         if (services != null && !services.isEmpty()) {
             services.keySet().stream().forEach(ticketId -> {
+                removeTicketExpiration(ticketId);
                 if (deleteSingleTicket(ticketId)) {
                     logger.debug("Removed ticket [{}]", ticketId);
                     count.incrementAndGet();
@@ -176,6 +224,56 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         this.cipherExecutor = cipherExecutor;
     }
 
+    /**
+     * Sets the codec that turns tickets into bytes before they are encrypted.
+     * Defaults to Java serialization, unless a codec is defined as the {@code ticketCodec} bean.
+     *
+     * @param ticketCodec the ticket codec
+     */
+    @Autowired(required = false)
+    @Qualifier("ticketCodec")
+    public void setTicketCodec(final TicketCodec ticketCodec) {
+        this.ticketCodec = ticketCodec;
+    }
+
+    public void setExpirationIndex(final TicketExpirationIndex expirationIndex) {
+        this.expirationIndex = expirationIndex;
+    }
+
+    /**
+     * Record the expected expiration time of the ticket,
+     * if this registry maintains an expiration index.
+     *
+     * @param ticket the ticket
+     */
+    protected void indexTicketExpiration(final Ticket ticket) {
+        if (this.expirationIndex != null && ticket != null) {
+            this.expirationIndex.put(ticket);
+        }
+    }
+
+    /**
+     * Remove the ticket from the expiration index,
+     * if this registry maintains one.
+     *
+     * @param ticketId the ticket id
+     */
+    protected void removeTicketExpiration(final String ticketId) {
+        if (this.expirationIndex != null) {
+            this.expirationIndex.remove(ticketId);
+        }
+    }
+
+    /**
+     * Remove all tickets from the expiration index,
+     * if this registry maintains one.
+     */
+    protected void clearTicketExpirations() {
+        if (this.expirationIndex != null) {
+            this.expirationIndex.clear();
+        }
+    }
+
     /**
      * Encode ticket id into a SHA-512.
      *
@@ -212,8 +310,7 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         }
 
         logger.info("Encoding [{}]", ticket);
-        final byte[] encodedTicketObject = SerializationUtils.serializeAndEncodeObject(
-                this.cipherExecutor, ticket);
+        final byte[] encodedTicketObject = (byte[]) this.cipherExecutor.encode(this.ticketCodec.encode(ticket));
         final String encodedTicketId = encodeTicketId(ticket.getId());
         final Ticket encodedTicket = new EncodedTicket(
                 ByteSource.wrap(encodedTicketObject),
@@ -242,8 +339,7 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         logger.info("Attempting to decode {}", result);
         final EncodedTicket encodedTicket = (EncodedTicket) result;
 
-        final Ticket ticket = SerializationUtils.decodeAndSerializeObject(
-                encodedTicket.getEncoded(), this.cipherExecutor, Ticket.class);
+        final Ticket ticket = this.ticketCodec.decode((byte[]) this.cipherExecutor.decode(encodedTicket.getEncoded()));
         logger.info("Decoded {}", ticket);
         return ticket;
     }
@@ -1,7 +1,9 @@
 package org.apereo.cas.ticket.registry;
 
 import org.apereo.cas.CipherExecutor;
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.springframework.util.Assert;
 
 import javax.annotation.PostConstruct;
@@ -9,6 +11,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Implementation of the TicketRegistry that is backed by a ConcurrentHashMap.
@@ -23,6 +26,16 @@ public class DefaultTicketRegistry extends AbstractTicketRegistry {
      */
     private Map<String, Ticket> cache;
 
+    /**
+     * Number of ticket-granting tickets in the cache, maintained as tickets are added and removed.
+     */
+    private final LongAdder sessionCount = new LongAdder();
+
+    /**
+     * Number of service tickets in the cache, maintained as tickets are added and removed.
+     */
+    private final LongAdder serviceTicketCount = new LongAdder();
+
     /**
      * Instantiates a new default ticket registry.
      */
@@ -56,7 +69,10 @@ public class DefaultTicketRegistry extends AbstractTicketRegistry {
         Assert.notNull(ticket, "ticket cannot be null");
 
         logger.debug("Added ticket [{}] to registry.", ticket.getId());
-        this.cache.put(ticket.getId(), ticket);
+        if (this.cache.put(ticket.getId(), ticket) == null) {
+            countTicket(ticket, 1);
+        }
+        indexTicketExpiration(ticket);
     }
 
     /**
@@ -79,13 +95,19 @@ public class DefaultTicketRegistry extends AbstractTicketRegistry {
 
     @Override
     public boolean deleteSingleTicket(final String ticketId) {
-        return this.cache.remove(ticketId) != null;
+        final Ticket ticket = this.cache.remove(ticketId);
+        if (ticket == null) {
+            return false;
+        }
+        countTicket(ticket, -1);
+        return true;
     }
 
     @Override
     public long deleteAll() {
         final int size = this.cache.size();
-        this.cache.clear();
+        this.cache.keySet().forEach(this::deleteSingleTicket);
+        clearTicketExpirations();
         return size;
     }
 
@@ -99,4 +121,22 @@ public class DefaultTicketRegistry extends AbstractTicketRegistry {
         addTicket(ticket);
         return ticket;
     }
+
+    @Override
+    public long sessionCount() {
+        return this.sessionCount.sum();
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return this.serviceTicketCount.sum();
+    }
+
+    private void countTicket(final Ticket ticket, final long delta) {
+        if (ticket instanceof TicketGrantingTicket) {
+            this.sessionCount.add(delta);
+        } else if (ticket instanceof ServiceTicket) {
+            this.serviceTicketCount.add(delta);
+        }
+    }
 }
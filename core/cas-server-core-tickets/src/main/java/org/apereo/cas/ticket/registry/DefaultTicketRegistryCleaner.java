@@ -10,8 +10,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * This is {@link DefaultTicketRegistryCleaner}.
@@ -77,10 +79,10 @@ public class DefaultTicketRegistryCleaner implements TicketRegistryCleaner {
      * Clean tickets.
      */
     protected void cleanInternal() {
-        final Collection<Ticket> ticketsToRemove = ticketRegistry.getTickets()
-                .stream()
-                .filter(Ticket::isExpired)
-                .collect(Collectors.toSet());
+        final Collection<Ticket> ticketsToRemove;
+        try (Stream<Ticket> expiredTickets = ticketRegistry.streamExpiredTickets(Instant.now())) {
+            ticketsToRemove = expiredTickets.collect(Collectors.toSet());
+        }
         LOGGER.debug("{} expired tickets found.", ticketsToRemove.size());
 
         int count = 0;
@@ -89,7 +91,7 @@ public class DefaultTicketRegistryCleaner implements TicketRegistryCleaner {
             if (ticket instanceof TicketGrantingTicket) {
                 LOGGER.debug("Cleaning up expired ticket-granting ticket [{}]", ticket.getId());
                 logoutManager.performLogout((TicketGrantingTicket) ticket);
-                count += ticketRegistry.deleteTicket(ticket.getId());
+                count += ticketRegistry.deleteTicketsFor((TicketGrantingTicket) ticket);
             } else if (ticket instanceof ServiceTicket) {
                 LOGGER.debug("Cleaning up expired service ticket [{}]", ticket.getId());
                 count += ticketRegistry.deleteTicket(ticket.getId());
@@ -0,0 +1,24 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.util.serialization.SerializationUtils;
+
+/**
+ * This is {@link JavaSerializationTicketCodec} that encodes tickets
+ * using standard Java serialization.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class JavaSerializationTicketCodec implements TicketCodec {
+
+    @Override
+    public byte[] encode(final Ticket ticket) {
+        return SerializationUtils.serialize(ticket);
+    }
+
+    @Override
+    public Ticket decode(final byte[] bytes) {
+        return SerializationUtils.deserializeAndCheckObject(bytes, Ticket.class);
+    }
+}
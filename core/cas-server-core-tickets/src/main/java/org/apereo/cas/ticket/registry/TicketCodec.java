@@ -0,0 +1,29 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.Ticket;
+
+/**
+ * This is {@link TicketCodec} that turns tickets into bytes and back, when ticket registries
+ * sign and encrypt the tickets they store. Implementations must be thread-safe.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public interface TicketCodec {
+
+    /**
+     * Encode the ticket.
+     *
+     * @param ticket the ticket
+     * @return the bytes
+     */
+    byte[] encode(Ticket ticket);
+
+    /**
+     * Decode the ticket.
+     *
+     * @param bytes the bytes
+     * @return the ticket
+     */
+    Ticket decode(byte[] bytes);
+}
@@ -0,0 +1,160 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.ExpirationPolicy;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketState;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * This is {@link TicketExpirationIndex}, a time-bucketed index of ticket ids
+ * keyed by the instant at which each ticket is expected to expire, as reported by
+ * {@link ExpirationPolicy#getExpirationTime(TicketState)}. It allows the registry cleaner
+ * to only visit tickets whose bucket has come due, rather than scanning the entire registry.
+ * Tickets whose expiration time cannot be determined are always considered due,
+ * so that they are examined on every pass.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class TicketExpirationIndex {
+
+    private static final long DEFAULT_RESOLUTION_IN_SECONDS = 10;
+
+    private final long resolutionInSeconds;
+
+    private final NavigableMap<Long, Set<String>> buckets = new TreeMap<>();
+
+    private final Map<String, Long> ticketBuckets = new HashMap<>();
+
+    public TicketExpirationIndex() {
+        this(DEFAULT_RESOLUTION_IN_SECONDS);
+    }
+
+    public TicketExpirationIndex(final long resolutionInSeconds) {
+        this.resolutionInSeconds = Math.max(1, resolutionInSeconds);
+    }
+
+    /**
+     * Index the ticket by its expected expiration time,
+     * replacing any previous entry for the same ticket.
+     *
+     * @param ticket the ticket
+     */
+    public void put(final Ticket ticket) {
+        put(ticket.getId(), getExpirationTime(ticket));
+    }
+
+    /**
+     * Index the ticket id by the given expiration time,
+     * replacing any previous entry for the same ticket.
+     *
+     * @param ticketId       the ticket id
+     * @param expirationTime the expiration time; may be null if unknown
+     */
+    public synchronized void put(final String ticketId, final Instant expirationTime) {
+        final long bucket = getBucket(expirationTime);
+        final Long previous = this.ticketBuckets.put(ticketId, bucket);
+        if (previous != null && previous != bucket) {
+            removeFromBucket(previous, ticketId);
+        }
+        this.buckets.computeIfAbsent(bucket, k -> new HashSet<>()).add(ticketId);
+    }
+
+    /**
+     * Remove the ticket id from the index.
+     *
+     * @param ticketId the ticket id
+     */
+    public synchronized void remove(final String ticketId) {
+        final Long bucket = this.ticketBuckets.remove(ticketId);
+        if (bucket != null) {
+            removeFromBucket(bucket, ticketId);
+        }
+    }
+
+    /**
+     * Gets ids of tickets whose buckets have come due at the given instant.
+     * Entries are not removed; they remain in the index until the ticket
+     * is either removed or re-indexed.
+     *
+     * @param instant the instant
+     * @return the ticket ids
+     */
+    public synchronized Collection<String> getDueTicketIds(final Instant instant) {
+        final List<String> results = new ArrayList<>();
+        this.buckets.headMap(Math.floorDiv(instant.getEpochSecond(), this.resolutionInSeconds), true)
+                .values()
+                .forEach(results::addAll);
+        return results;
+    }
+
+    /**
+     * Remove all entries from the index.
+     */
+    public synchronized void clear() {
+        this.buckets.clear();
+        this.ticketBuckets.clear();
+    }
+
+    /**
+     * Number of indexed tickets.
+     *
+     * @return the size
+     */
+    public synchronized int size() {
+        return this.ticketBuckets.size();
+    }
+
+    /**
+     * Determine the expiration time of the ticket from its expiration policy.
+     *
+     * @param ticket the ticket
+     * @return the expiration time, or null
+     */
+    protected Instant getExpirationTime(final Ticket ticket) {
+        final ExpirationPolicy policy = ticket.getExpirationPolicy();
+        if (policy == null || !(ticket instanceof TicketState)) {
+            return null;
+        }
+        final ZonedDateTime expirationTime = policy.getExpirationTime((TicketState) ticket);
+        return expirationTime == null ? null : expirationTime.toInstant();
+    }
+
+    /**
+     * Bucket that holds the given expiration time. Buckets are identified by their
+     * closing boundary, so that a bucket only comes due once all of its tickets may have expired.
+     * Policies consider tickets expired strictly after their expiration time, hence the extra second.
+     * Unknown expiration times are placed in the current bucket, which is always due.
+     *
+     * @param expirationTime the expiration time
+     * @return the bucket
+     */
+    private long getBucket(final Instant expirationTime) {
+        if (expirationTime == null) {
+            return Math.floorDiv(Instant.now().getEpochSecond(), this.resolutionInSeconds);
+        }
+        final long seconds = expirationTime.getEpochSecond() + 1;
+        return Math.floorDiv(seconds + this.resolutionInSeconds - 1, this.resolutionInSeconds);
+    }
+
+    private void removeFromBucket(final long bucket, final String ticketId) {
+        final Set<String> ids = this.buckets.get(bucket);
+        if (ids != null) {
+            ids.remove(ticketId);
+            if (ids.isEmpty()) {
+                this.buckets.remove(bucket);
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.apereo.cas.ticket.registry;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This is {@link TicketRegistryMetricSet} that exposes the session and service ticket
+ * counts reported by a {@link TicketRegistry} as gauges, along with whether
+ * those counts are approximate. Gauges are evaluated on demand, so registries
+ * should be able to report counts without scanning their tickets.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class TicketRegistryMetricSet implements MetricSet {
+
+    private final TicketRegistry ticketRegistry;
+
+    public TicketRegistryMetricSet(final TicketRegistry ticketRegistry) {
+        this.ticketRegistry = ticketRegistry;
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        final Map<String, Metric> metrics = new HashMap<>();
+        metrics.put("sessions", (Gauge<Long>) this.ticketRegistry::sessionCount);
+        metrics.put("serviceTickets", (Gauge<Long>) this.ticketRegistry::serviceTicketCount);
+        metrics.put("approximate", (Gauge<Boolean>) this.ticketRegistry::isTicketCountApproximate);
+        return metrics;
+    }
+}
@@ -6,6 +6,8 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apereo.cas.ticket.TicketState;
 
+import java.time.ZonedDateTime;
+
 /**
  * AlwaysExpiresExpirationPolicy always answers true when asked if a Ticket is
  * expired.
@@ -44,6 +46,11 @@ public class AlwaysExpiresExpirationPolicy extends AbstractCasExpirationPolicy {
         return 0L;
     }
 
+    @Override
+    public ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        return ticketState == null ? null : ticketState.getCreationTime();
+    }
+
 
     @Override
     public boolean equals(final Object obj) {
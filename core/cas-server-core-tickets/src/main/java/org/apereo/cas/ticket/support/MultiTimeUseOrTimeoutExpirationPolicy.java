@@ -98,6 +98,11 @@ public class MultiTimeUseOrTimeoutExpirationPolicy extends AbstractCasExpiration
         return 0L;
     }
 
+    @Override
+    public ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        return ticketState == null ? null : ticketState.getLastTimeUsed().plus(this.timeToKillInSeconds, ChronoUnit.SECONDS);
+    }
+
     @Override
     public boolean equals(final Object obj) {
         if (obj == null) {
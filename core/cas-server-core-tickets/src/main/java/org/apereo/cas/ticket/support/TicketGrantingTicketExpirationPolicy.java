@@ -103,6 +103,16 @@ public class TicketGrantingTicketExpirationPolicy extends AbstractCasExpirationP
         return this.timeToKillInSeconds;
     }
 
+    @Override
+    public ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        if (ticketState == null) {
+            return null;
+        }
+        final ZonedDateTime hardExpirationTime = ticketState.getCreationTime().plus(this.maxTimeToLiveInSeconds, ChronoUnit.SECONDS);
+        final ZonedDateTime idleExpirationTime = ticketState.getLastTimeUsed().plus(this.timeToKillInSeconds, ChronoUnit.SECONDS);
+        return idleExpirationTime.isBefore(hardExpirationTime) ? idleExpirationTime : hardExpirationTime;
+    }
+
 
     @Override
     public boolean equals(final Object obj) {
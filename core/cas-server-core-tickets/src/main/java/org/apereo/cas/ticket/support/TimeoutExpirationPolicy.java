@@ -77,6 +77,11 @@ public class TimeoutExpirationPolicy extends AbstractCasExpirationPolicy {
         return this.timeToKillInSeconds;
     }
 
+    @Override
+    public ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        return ticketState == null ? null : ticketState.getLastTimeUsed().plus(this.timeToKillInSeconds, ChronoUnit.SECONDS);
+    }
+
 
     @Override
     public boolean equals(final Object obj) {
@@ -120,6 +120,16 @@ public class DefaultUniqueTicketIdGenerator implements UniqueTicketIdGenerator {
         initialCapacity = 2 + this.suffix.length() + this.randomStringGenerator.getMaxLength();
     }
 
+    /**
+     * Sets the numeric generator that produces the sequence part of the id.
+     * A {@link org.apereo.cas.util.gen.TimeOrderedNumericGenerator} makes ids sortable by the time they were issued.
+     *
+     * @param numericGenerator the numeric generator
+     */
+    public void setNumericGenerator(final NumericGenerator numericGenerator) {
+        this.numericGenerator = numericGenerator;
+    }
+
     /**
      * Sets max length of id generation.
      *
@@ -14,6 +14,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 
@@ -219,6 +220,46 @@ public abstract class AbstractTicketRegistryTests {
         }
     }
 
+    @Test
+    public void verifyStreamTicketsByType() {
+        for (int i = 0; i < TICKETS_IN_REGISTRY; i++) {
+            final TicketGrantingTicket ticketGrantingTicket = new TicketGrantingTicketImpl("TEST" + i,
+                    CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+            final ServiceTicket st = ticketGrantingTicket.grantServiceTicket("tests" + i,
+                    RegisteredServiceTestUtils.getService(),
+                    new NeverExpiresExpirationPolicy(), false, true);
+            this.ticketRegistry.addTicket(ticketGrantingTicket);
+            this.ticketRegistry.addTicket(st);
+        }
+
+        try (Stream<Ticket> tickets = this.ticketRegistry.streamTickets(Ticket.class)) {
+            assertEquals(TICKETS_IN_REGISTRY * 2, tickets.count());
+        }
+        try (Stream<TicketGrantingTicket> tickets = this.ticketRegistry.streamTickets(TicketGrantingTicket.class)) {
+            assertEquals(TICKETS_IN_REGISTRY, tickets.count());
+        }
+        try (Stream<ServiceTicket> tickets = this.ticketRegistry.streamTickets(ServiceTicket.class)) {
+            assertEquals(TICKETS_IN_REGISTRY, tickets.filter(t -> t.getId().startsWith("tests")).count());
+        }
+    }
+
+    @Test
+    public void verifyAddGrantedTicket() {
+        final TicketGrantingTicket tgt = new TicketGrantingTicketImpl("TGT",
+                CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        this.ticketRegistry.addTicket(tgt);
+
+        final ServiceTicket st = tgt.grantServiceTicket("ST1", RegisteredServiceTestUtils.getService(),
+                new NeverExpiresExpirationPolicy(), false, true);
+        this.ticketRegistry.addGrantedTicket(tgt, st);
+
+        assertNotNull(this.ticketRegistry.getTicket("ST1", ServiceTicket.class));
+        final TicketGrantingTicket result = this.ticketRegistry.getTicket("TGT", TicketGrantingTicket.class);
+        assertTrue(result.getServices().containsKey("ST1"));
+        assertEquals(2, this.ticketRegistry.deleteTicket("TGT"));
+        assertNull(this.ticketRegistry.getTicket("ST1", ServiceTicket.class));
+    }
+
     @Test
     public void verifyDeleteTicketWithChildren() {
         try {
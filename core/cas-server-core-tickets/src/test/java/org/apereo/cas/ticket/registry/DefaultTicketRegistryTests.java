@@ -1,5 +1,11 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
 import org.apereo.cas.util.cipher.NoOpCipherExecutor;
 import org.junit.Test;
 
@@ -23,4 +29,28 @@ public class DefaultTicketRegistryTests extends AbstractTicketRegistryTests {
     public void verifyOtherConstructor() {
         assertNotNull(new DefaultTicketRegistry(10, 10F, 5, NoOpCipherExecutor.getInstance()));
     }
+
+    @Test
+    public void verifyCountsAreMaintained() {
+        final TicketRegistry registry = new DefaultTicketRegistry();
+        final TicketGrantingTicket tgt = new TicketGrantingTicketImpl("TGT-1",
+                CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        final ServiceTicket st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+                new NeverExpiresExpirationPolicy(), false, true);
+        registry.addTicket(tgt);
+        registry.addTicket(st);
+        registry.updateTicket(tgt);
+
+        assertEquals(1, registry.sessionCount());
+        assertEquals(1, registry.serviceTicketCount());
+        assertFalse(registry.isTicketCountApproximate());
+
+        registry.deleteTicket(tgt.getId());
+        assertEquals(0, registry.sessionCount());
+        assertEquals(0, registry.serviceTicketCount());
+
+        registry.addTicket(tgt);
+        registry.deleteAll();
+        assertEquals(0, registry.sessionCount());
+    }
 }
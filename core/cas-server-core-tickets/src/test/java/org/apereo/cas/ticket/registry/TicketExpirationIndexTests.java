@@ -0,0 +1,69 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.AlwaysExpiresExpirationPolicy;
+import org.apereo.cas.ticket.support.HardTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link TicketExpirationIndexTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class TicketExpirationIndexTests {
+
+    private TicketExpirationIndex index;
+
+    private DefaultTicketRegistry registry;
+
+    @Before
+    public void setUp() {
+        this.index = new TicketExpirationIndex(1);
+        this.registry = new DefaultTicketRegistry();
+        this.registry.setExpirationIndex(this.index);
+    }
+
+    @Test
+    public void verifyOnlyDueTicketsAreReturned() {
+        this.registry.addTicket(new TicketGrantingTicketImpl("TGT-expired",
+                CoreAuthenticationTestUtils.getAuthentication(), new AlwaysExpiresExpirationPolicy()));
+        this.registry.addTicket(new TicketGrantingTicketImpl("TGT-hard",
+                CoreAuthenticationTestUtils.getAuthentication(), new HardTimeoutExpirationPolicy(3600)));
+        this.registry.addTicket(new TicketGrantingTicketImpl("TGT-never",
+                CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy()));
+        assertEquals(3, this.index.size());
+
+        final Instant now = Instant.now().plusSeconds(2);
+        assertTrue(this.index.getDueTicketIds(now).contains("TGT-expired"));
+        assertTrue(this.index.getDueTicketIds(now).contains("TGT-never"));
+        assertFalse(this.index.getDueTicketIds(now).contains("TGT-hard"));
+        assertTrue(this.index.getDueTicketIds(now.plusSeconds(3600)).contains("TGT-hard"));
+
+        final List<String> expired = this.registry.streamExpiredTickets(now)
+                .map(Ticket::getId)
+                .collect(Collectors.toList());
+        assertEquals(1, expired.size());
+        assertEquals("TGT-expired", expired.get(0));
+    }
+
+    @Test
+    public void verifyDeletedTicketsAreRemoved() {
+        this.registry.addTicket(new TicketGrantingTicketImpl("TGT-expired",
+                CoreAuthenticationTestUtils.getAuthentication(), new AlwaysExpiresExpirationPolicy()));
+        assertEquals(1, this.index.size());
+        this.registry.deleteTicket("TGT-expired");
+        assertEquals(0, this.index.size());
+        assertEquals(0, this.registry.streamExpiredTickets(Instant.now()).count());
+    }
+}
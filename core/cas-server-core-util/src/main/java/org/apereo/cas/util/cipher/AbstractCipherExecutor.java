@@ -19,6 +19,8 @@ public abstract class AbstractCipherExecutor<T, R> implements CipherExecutor<T,
 
     private AesKey signingKey;
 
+    private HmacJsonWebSignatureSigner signer;
+
     /**
      * Instantiates a new cipher executor.
      *
@@ -36,15 +38,21 @@ public abstract class AbstractCipherExecutor<T, R> implements CipherExecutor<T,
 
     public void setSigningKey(final String signingSecretKey) {
         this.signingKey = new AesKey(signingSecretKey.getBytes(StandardCharsets.UTF_8));
+        this.signer = HmacJsonWebSignatureSigner.supports(this.signingKey) ? new HmacJsonWebSignatureSigner(this.signingKey) : null;
     }
 
     /**
      * Sign the array by first turning it into a base64 encoded string.
+     * Keys long enough for {@code HS512} are handled by a per-thread {@link javax.crypto.Mac},
+     * producing the same compact serialization as the JOSE implementation.
      *
      * @param value the value
      * @return the byte [ ]
      */
     protected byte[] sign(final byte[] value) {
+        if (this.signer != null) {
+            return this.signer.sign(value);
+        }
         return EncodingUtils.signJws(this.signingKey, value);
     }
 
@@ -56,6 +64,9 @@ public abstract class AbstractCipherExecutor<T, R> implements CipherExecutor<T,
      * be decoded, or null.
      */
     protected byte[] verifySignature(final byte[] value) {
+        if (this.signer != null && this.signer.canVerify(value)) {
+            return this.signer.verify(value);
+        }
         return EncodingUtils.verifyJwsSignature(this.signingKey, value);
     }
 
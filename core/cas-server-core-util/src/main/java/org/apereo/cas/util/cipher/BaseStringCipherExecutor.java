@@ -4,14 +4,18 @@ import com.google.common.base.Throwables;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.CipherExecutor;
 import org.apereo.cas.util.EncodingUtils;
+import org.apereo.cas.util.gen.ThreadLocalSecureRandom;
 import org.jose4j.jwe.ContentEncryptionAlgorithmIdentifiers;
 import org.jose4j.jwe.JsonWebEncryption;
 import org.jose4j.jwe.KeyManagementAlgorithmIdentifiers;
 import org.jose4j.jwk.JsonWebKey;
 
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -19,6 +23,11 @@ import java.util.Map;
  * The {@link BaseStringCipherExecutor} is the default
  * implementation of {@link CipherExecutor}. It provides
  * a facade API to encrypt, sign, and verify values.
+ * <p>
+ * Values are encrypted as JSON web encryption objects by default. Alternatively, values may be
+ * encrypted with AES in GCM mode and encoded as the base64 form of the random nonce followed by
+ * the ciphertext, which avoids building and parsing JOSE headers for every value.
+ * Both forms are accepted when values are decrypted, regardless of the form used for encryption.
  *
  * @author Misagh Moayyed
  * @since 4.1
@@ -29,10 +38,18 @@ public abstract class BaseStringCipherExecutor extends AbstractCipherExecutor<Se
 
     private static final int SIGNING_KEY_SIZE = 512;
 
+    private static final ThreadLocalCipher AES_GCM = new ThreadLocalCipher("AES/GCM/NoPadding");
+
+    private static final int GCM_NONCE_LENGTH = 12;
+
+    private static final int GCM_TAG_LENGTH = 128;
+
     private String contentEncryptionAlgorithmIdentifier;
 
     private Key secretKeyEncryptionKey;
 
+    private boolean aesGcmEncryption;
+
     private BaseStringCipherExecutor() {
     }
 
@@ -95,6 +112,15 @@ public abstract class BaseStringCipherExecutor extends AbstractCipherExecutor<Se
 
     }
 
+    /**
+     * Whether values should be encrypted with AES in GCM mode, rather than as JSON web encryption objects.
+     *
+     * @param aesGcmEncryption the aes gcm encryption
+     */
+    public void setAesGcmEncryption(final boolean aesGcmEncryption) {
+        this.aesGcmEncryption = aesGcmEncryption;
+    }
+
     @Override
     public String encode(final Serializable value) {
         final String encoded = encryptValue(value);
@@ -138,6 +164,9 @@ public abstract class BaseStringCipherExecutor extends AbstractCipherExecutor<Se
      * @return the encoded value
      */
     private String encryptValue(final Serializable value) {
+        if (this.aesGcmEncryption) {
+            return encryptValueWithAesGcm(value);
+        }
         try {
             final JsonWebEncryption jwe = new JsonWebEncryption();
             jwe.setPayload(serializeValue(value));
@@ -170,6 +199,9 @@ public abstract class BaseStringCipherExecutor extends AbstractCipherExecutor<Se
      * @return the decrypted value
      */
     private String decryptValue(final String value) {
+        if (value.indexOf('.') < 0) {
+            return decryptValueWithAesGcm(value);
+        }
         try {
             final JsonWebEncryption jwe = new JsonWebEncryption();
             jwe.setKey(this.secretKeyEncryptionKey);
@@ -180,4 +212,35 @@ public abstract class BaseStringCipherExecutor extends AbstractCipherExecutor<Se
             throw Throwables.propagate(e);
         }
     }
+
+    private String encryptValueWithAesGcm(final Serializable value) {
+        try {
+            final byte[] nonce = new byte[GCM_NONCE_LENGTH];
+            ThreadLocalSecureRandom.nextBytes(nonce);
+            final Cipher cipher = AES_GCM.get();
+            cipher.init(Cipher.ENCRYPT_MODE, this.secretKeyEncryptionKey, new GCMParameterSpec(GCM_TAG_LENGTH, nonce));
+            final byte[] encrypted = cipher.doFinal(serializeValue(value).getBytes(StandardCharsets.UTF_8));
+
+            final byte[] result = new byte[GCM_NONCE_LENGTH + encrypted.length];
+            System.arraycopy(nonce, 0, result, 0, GCM_NONCE_LENGTH);
+            System.arraycopy(encrypted, 0, result, GCM_NONCE_LENGTH, encrypted.length);
+            logger.debug("Encrypted value via AES/GCM");
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(result);
+        } catch (final Exception e) {
+            throw new RuntimeException("Ensure that you have installed JCE Unlimited Strength Jurisdiction Policy Files. "
+                    + e.getMessage(), e);
+        }
+    }
+
+    private String decryptValueWithAesGcm(final String value) {
+        try {
+            final byte[] decoded = Base64.getUrlDecoder().decode(value);
+            final Cipher cipher = AES_GCM.get();
+            cipher.init(Cipher.DECRYPT_MODE, this.secretKeyEncryptionKey, new GCMParameterSpec(GCM_TAG_LENGTH, decoded, 0, GCM_NONCE_LENGTH));
+            logger.debug("Decrypting value via AES/GCM...");
+            return new String(cipher.doFinal(decoded, GCM_NONCE_LENGTH, decoded.length - GCM_NONCE_LENGTH), StandardCharsets.UTF_8);
+        } catch (final Exception e) {
+            throw Throwables.propagate(e);
+        }
+    }
 }
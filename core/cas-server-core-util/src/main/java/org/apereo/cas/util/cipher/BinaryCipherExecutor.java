@@ -3,31 +3,43 @@ package org.apereo.cas.util.cipher;
 import com.google.common.base.Throwables;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.shiro.crypto.AesCipherService;
-import org.apache.shiro.crypto.CipherService;
+import org.apache.shiro.crypto.CryptoException;
+import org.apereo.cas.util.gen.ThreadLocalSecureRandom;
 import org.jose4j.jwk.JsonWebKey;
 import org.jose4j.jwk.OctJwkGenerator;
 import org.jose4j.jwk.OctetSequenceJsonWebKey;
 
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.Key;
+import java.util.Arrays;
 import java.util.Map;
 
 /**
  * A implementation that is based on algorithms
  * provided by the default platform's JCE. By default AES encryption is
  * used.
+ * <p>
+ * Values are encrypted with AES in CBC mode with a random initialization vector
+ * that is prepended to the result, which is the format produced by Shiro's {@link org.apache.shiro.crypto.AesCipherService}.
+ * Cipher instances are kept per thread and only initialized with the key and vector for each operation.
  * @author Misagh Moayyed
  * @since 4.2
  */
 public class BinaryCipherExecutor extends AbstractCipherExecutor<byte[], byte[]> {
 
-    /** Secret key IV algorithm. Default is {@code AES}. */
-    private String secretKeyAlgorithm = "AES";
+    private static final ThreadLocalCipher AES_CBC = new ThreadLocalCipher("AES/CBC/PKCS5Padding");
+
+    private static final String CIPHER_KEY_ALGORITHM = "AES";
+
+    private static final int IV_LENGTH = 16;
 
     private String encryptionSecretKey;
 
+    private Key encryptionKey;
 
     /**
      * Instantiates a new cryptic ticket cipher executor.
@@ -59,21 +71,19 @@ public class BinaryCipherExecutor extends AbstractCipherExecutor<byte[], byte[]>
         } else {
             this.encryptionSecretKey = encryptionSecretKey;
         }
-    }
-
-
-    public void setSecretKeyAlgorithm(final String secretKeyAlgorithm) {
-        this.secretKeyAlgorithm = secretKeyAlgorithm;
+        this.encryptionKey = new SecretKeySpec(this.encryptionSecretKey.getBytes(StandardCharsets.UTF_8), CIPHER_KEY_ALGORITHM);
     }
 
     @Override
     public byte[] encode(final byte[] value) {
         try {
-            final Key key = new SecretKeySpec(this.encryptionSecretKey.getBytes(StandardCharsets.UTF_8),
-                    this.secretKeyAlgorithm);
-            final CipherService cipher = new AesCipherService();
-            final byte[] result = cipher.encrypt(value, key.getEncoded()).getBytes();
-            return sign(result);
+            final byte[] iv = new byte[IV_LENGTH];
+            ThreadLocalSecureRandom.nextBytes(iv);
+            final Cipher cipher = initCipher(Cipher.ENCRYPT_MODE, iv);
+            final byte[] result = new byte[IV_LENGTH + cipher.getOutputSize(value.length)];
+            System.arraycopy(iv, 0, result, 0, IV_LENGTH);
+            final int length = cipher.doFinal(value, 0, value.length, result, IV_LENGTH);
+            return sign(Arrays.copyOf(result, IV_LENGTH + length));
         } catch (final Exception e) {
             logger.error(e.getMessage(), e);
             throw Throwables.propagate(e);
@@ -84,17 +94,27 @@ public class BinaryCipherExecutor extends AbstractCipherExecutor<byte[], byte[]>
     public byte[] decode(final byte[] value) {
         try {
             final byte[] verifiedValue = verifySignature(value);
-            final Key key = new SecretKeySpec(this.encryptionSecretKey.getBytes(StandardCharsets.UTF_8),
-                    this.secretKeyAlgorithm);
-            final CipherService cipher = new AesCipherService();
-            final byte[] result = cipher.decrypt(verifiedValue, key.getEncoded()).getBytes();
-            return result;
+            if (verifiedValue == null || verifiedValue.length < IV_LENGTH) {
+                throw new CryptoException("Unable to verify the signature of the encrypted value");
+            }
+            final Cipher cipher = initCipher(Cipher.DECRYPT_MODE, Arrays.copyOf(verifiedValue, IV_LENGTH));
+            return cipher.doFinal(verifiedValue, IV_LENGTH, verifiedValue.length - IV_LENGTH);
         } catch (final Exception e) {
             logger.error(e.getMessage(), e);
             throw Throwables.propagate(e);
         }
     }
 
+    private Cipher initCipher(final int mode, final byte[] iv) {
+        final Cipher cipher = AES_CBC.get();
+        try {
+            cipher.init(mode, this.encryptionKey, new IvParameterSpec(iv));
+            return cipher;
+        } catch (final GeneralSecurityException e) {
+            throw new CryptoException("Unable to init cipher instance.", e);
+        }
+    }
+
     private String generateOctetJsonWebKeyOfSize(final int size) {
         try {
             final OctetSequenceJsonWebKey octetKey = OctJwkGenerator.generateJwk(size);
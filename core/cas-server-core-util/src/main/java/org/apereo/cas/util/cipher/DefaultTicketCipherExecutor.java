@@ -15,6 +15,5 @@ public class DefaultTicketCipherExecutor extends BinaryCipherExecutor {
             final int signingKeySize,
             final int encryptionKeySize) {
         super(encryptionSecretKey, signingSecretKey, signingKeySize, encryptionKeySize);
-        setSecretKeyAlgorithm(secretKeyAlg);
     }
 }
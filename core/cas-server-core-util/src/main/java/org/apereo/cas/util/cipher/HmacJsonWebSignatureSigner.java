@@ -0,0 +1,142 @@
+package org.apereo.cas.util.cipher;
+
+import com.google.common.base.Throwables;
+import org.apereo.cas.util.EncodingUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * This is {@link HmacJsonWebSignatureSigner} that produces and verifies the compact {@code HS512}
+ * signatures of {@link EncodingUtils#signJws(Key, byte[])} with a {@link Mac} instance per thread.
+ * Only values carrying the exact header this class produces are verified here; the header
+ * is compared as a constant rather than parsed. Other values are left to the full JOSE
+ * implementation, which callers should consult when {@link #canVerify(byte[])} is false.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+class HmacJsonWebSignatureSigner {
+
+    private static final String ALGORITHM = "HmacSHA512";
+
+    /**
+     * Minimum key length in bytes; shorter keys are rejected by the JOSE implementation for {@code HS512}.
+     */
+    private static final int MINIMUM_KEY_LENGTH = 64;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private static final byte[] ENCODED_HEADER = ENCODER.encode("{\"alg\":\"HS512\"}".getBytes(StandardCharsets.UTF_8));
+
+    private static final byte SEPARATOR = '.';
+
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * Instantiates a new signer.
+     *
+     * @param key the signing key
+     */
+    HmacJsonWebSignatureSigner(final Key key) {
+        final SecretKeySpec spec = new SecretKeySpec(key.getEncoded(), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                final Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(spec);
+                return mac;
+            } catch (final GeneralSecurityException e) {
+                throw Throwables.propagate(e);
+            }
+        });
+    }
+
+    /**
+     * Whether signatures with the given key can be handled by this class.
+     *
+     * @param key the key
+     * @return true if the key is long enough for {@code HS512}
+     */
+    static boolean supports(final Key key) {
+        return key.getEncoded().length >= MINIMUM_KEY_LENGTH;
+    }
+
+    /**
+     * Sign the value, encoding it in base64 first.
+     *
+     * @param value the value
+     * @return the compact serialization of the signature
+     */
+    byte[] sign(final byte[] value) {
+        final byte[] payload = ENCODER.encode(EncodingUtils.encodeBase64ToByteArray(value));
+        final byte[] signingInput = new byte[ENCODED_HEADER.length + 1 + payload.length];
+        System.arraycopy(ENCODED_HEADER, 0, signingInput, 0, ENCODED_HEADER.length);
+        signingInput[ENCODED_HEADER.length] = SEPARATOR;
+        System.arraycopy(payload, 0, signingInput, ENCODED_HEADER.length + 1, payload.length);
+
+        final byte[] signature = ENCODER.encode(mac(signingInput, signingInput.length));
+        final byte[] result = Arrays.copyOf(signingInput, signingInput.length + 1 + signature.length);
+        result[signingInput.length] = SEPARATOR;
+        System.arraycopy(signature, 0, result, signingInput.length + 1, signature.length);
+        return result;
+    }
+
+    /**
+     * Whether the value carries the header produced by this class.
+     *
+     * @param value the value
+     * @return true if the value can be verified by this class
+     */
+    boolean canVerify(final byte[] value) {
+        if (value.length <= ENCODED_HEADER.length || value[ENCODED_HEADER.length] != SEPARATOR) {
+            return false;
+        }
+        for (int i = 0; i < ENCODED_HEADER.length; i++) {
+            if (value[i] != ENCODED_HEADER[i]) {
+                return false;
+            }
+        }
+        return lastSeparator(value) > ENCODED_HEADER.length;
+    }
+
+    /**
+     * Verify the signature of a value accepted by {@link #canVerify(byte[])}.
+     *
+     * @param value the value
+     * @return the signed value, decoded from base64, or null if the signature does not match
+     */
+    byte[] verify(final byte[] value) {
+        final int separator = lastSeparator(value);
+        final byte[] expected = mac(value, separator);
+        final byte[] actual = DECODER.decode(Arrays.copyOfRange(value, separator + 1, value.length));
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return null;
+        }
+        final byte[] payload = DECODER.decode(Arrays.copyOfRange(value, ENCODED_HEADER.length + 1, separator));
+        return EncodingUtils.decodeBase64(payload);
+    }
+
+    private byte[] mac(final byte[] input, final int length) {
+        final Mac mac = this.macs.get();
+        mac.reset();
+        mac.update(input, 0, length);
+        return mac.doFinal();
+    }
+
+    private static int lastSeparator(final byte[] value) {
+        for (int i = value.length - 1; i >= 0; i--) {
+            if (value[i] == SEPARATOR) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
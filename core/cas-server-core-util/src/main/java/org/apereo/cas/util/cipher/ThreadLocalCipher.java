@@ -0,0 +1,44 @@
+package org.apereo.cas.util.cipher;
+
+import com.google.common.base.Throwables;
+
+import javax.crypto.Cipher;
+import java.security.GeneralSecurityException;
+
+/**
+ * This is {@link ThreadLocalCipher} that holds a {@link Cipher} instance per thread
+ * for a given transformation, so that the provider lookup behind {@link Cipher#getInstance(String)}
+ * happens once per thread rather than once per operation. Instances must be initialized
+ * with a key before every use, and must not be handed to other threads.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+class ThreadLocalCipher {
+
+    private final ThreadLocal<Cipher> ciphers;
+
+    /**
+     * Instantiates a new thread local cipher.
+     *
+     * @param transformation the transformation, such as {@code AES/CBC/PKCS5Padding}
+     */
+    ThreadLocalCipher(final String transformation) {
+        this.ciphers = ThreadLocal.withInitial(() -> {
+            try {
+                return Cipher.getInstance(transformation);
+            } catch (final GeneralSecurityException e) {
+                throw Throwables.propagate(e);
+            }
+        });
+    }
+
+    /**
+     * Gets the cipher instance owned by the calling thread.
+     *
+     * @return the cipher
+     */
+    Cipher get() {
+        return this.ciphers.get();
+    }
+}
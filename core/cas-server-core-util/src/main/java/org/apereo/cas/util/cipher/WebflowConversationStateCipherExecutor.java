@@ -14,7 +14,7 @@ public class WebflowConversationStateCipherExecutor extends BinaryCipherExecutor
      *
      * @param secretKeyEncryption the secret key encryption
      * @param secretKeySigning    the secret key signing
-     * @param secretKeyAlg        the secret key alg
+     * @param secretKeyAlg        the secret key alg; values are always encrypted with {@code AES}
      * @param signingKeySize      the signing key size
      * @param encryptionKeySize   the encryption key size
      */
@@ -24,6 +24,5 @@ public class WebflowConversationStateCipherExecutor extends BinaryCipherExecutor
                                                   final int signingKeySize,
                                                   final int encryptionKeySize){
         super(secretKeyEncryption, secretKeySigning, signingKeySize, encryptionKeySize);
-        setSecretKeyAlgorithm(secretKeyAlg);
     }
 }
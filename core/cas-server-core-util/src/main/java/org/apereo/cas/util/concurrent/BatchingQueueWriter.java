@@ -0,0 +1,306 @@
+package org.apereo.cas.util.concurrent;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link BatchingQueueWriter} that writes items in the background, in batches.
+ * Items are placed in a bounded queue and handed to the sink once a full batch is available
+ * or the flush interval has passed since the last flush. Items that are still queued
+ * are written when the writer is destroyed; until the writer is initialized, and once it
+ * is destroyed, items are written in the calling thread.
+ * <p>
+ * When the queue is full, the {@link QueueOverflowPolicy} decides what happens to the item.
+ * Items the sink fails to write are handed back to the policy, and counted as dropped unless
+ * the policy handles them.
+ * Queue depth, the age of the oldest queued item, batch latency and the number of written
+ * and dropped items are published to the metric registry under the name of the writer,
+ * if a registry is available.
+ *
+ * @param <T> the type of items
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class BatchingQueueWriter<T> implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingQueueWriter.class);
+
+    private static final long SHUTDOWN_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
+    private static final long PUT_RETRY_INTERVAL = 100;
+
+    private final String name;
+    private final Consumer<List<T>> sink;
+    private final BlockingQueue<QueuedItem<T>> queue;
+    private final int batchSize;
+    private final long flushInterval;
+    private final QueueOverflowPolicy<T> overflowPolicy;
+
+    private final Timer batches;
+    private final Meter written;
+    private final Meter dropped;
+
+    private Thread writer;
+    private volatile boolean running;
+
+    /**
+     * Instantiates a new batching queue writer.
+     *
+     * @param name           the name of the writer, used to name its thread and metrics
+     * @param sink           the sink that writes a batch of items, and throws an exception if it cannot
+     * @param capacity       the maximum number of queued items
+     * @param batchSize      the maximum number of items written at once
+     * @param flushInterval  the maximum time in milliseconds an item waits for its batch to fill up
+     * @param overflowPolicy the policy applied when the queue is full
+     * @param metricRegistry the metric registry; may be null
+     */
+    public BatchingQueueWriter(final String name, final Consumer<List<T>> sink, final int capacity, final int batchSize,
+                               final long flushInterval, final QueueOverflowPolicy<T> overflowPolicy,
+                               final MetricRegistry metricRegistry) {
+        this.name = name;
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.flushInterval = Math.max(1, flushInterval);
+        this.overflowPolicy = overflowPolicy;
+
+        if (metricRegistry != null) {
+            final String depth = MetricRegistry.name(name, "depth");
+            metricRegistry.remove(depth);
+            metricRegistry.register(depth, (Gauge<Integer>) this::getSize);
+            final String lag = MetricRegistry.name(name, "lag");
+            metricRegistry.remove(lag);
+            metricRegistry.register(lag, (Gauge<Long>) this::getLag);
+            this.batches = metricRegistry.timer(MetricRegistry.name(name, "batches"));
+            this.written = metricRegistry.meter(MetricRegistry.name(name, "written"));
+            this.dropped = metricRegistry.meter(MetricRegistry.name(name, "dropped"));
+        } else {
+            this.batches = new Timer();
+            this.written = new Meter();
+            this.dropped = new Meter();
+        }
+    }
+
+    /**
+     * Start writing queued items.
+     */
+    @PostConstruct
+    public synchronized void initialize() {
+        if (this.running) {
+            return;
+        }
+        this.running = true;
+        this.writer = new Thread(this::run, this.name + "-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queue the item for writing, applying the overflow policy if the queue is full.
+     *
+     * @param item the item
+     */
+    public void offer(final T item) {
+        if (!this.running) {
+            writeOrReject(Collections.singletonList(item));
+            return;
+        }
+        if (this.queue.offer(new QueuedItem<>(item))) {
+            writeIfStopped();
+            return;
+        }
+        if (!this.overflowPolicy.overflow(item, this)) {
+            this.dropped.mark();
+            LOGGER.debug("Queue [{}] is full with [{}] item(s); Dropping item", this.name, this.queue.size());
+        }
+    }
+
+    /**
+     * Queue the item for writing, waiting for room in the queue if necessary.
+     * If the writer is stopped or the calling thread is interrupted while waiting,
+     * the item is written in the calling thread.
+     *
+     * @param item the item
+     */
+    public void put(final T item) {
+        final QueuedItem<T> queued = new QueuedItem<>(item);
+        try {
+            while (!this.queue.offer(queued, PUT_RETRY_INTERVAL, TimeUnit.MILLISECONDS)) {
+                if (!this.running) {
+                    writeOrReject(Collections.singletonList(item));
+                    return;
+                }
+            }
+            writeIfStopped();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeOrReject(Collections.singletonList(item));
+        }
+    }
+
+    /**
+     * Write the items right away, in the calling thread.
+     *
+     * @param items the items
+     * @return true if the items were written
+     */
+    public boolean write(final List<T> items) {
+        if (items.isEmpty()) {
+            return true;
+        }
+        final Timer.Context time = this.batches.time();
+        try {
+            this.sink.accept(items);
+            this.written.mark(items.size());
+            LOGGER.debug("Wrote [{}] item(s) to [{}]", items.size(), this.name);
+            return true;
+        } catch (final Exception e) {
+            LOGGER.error("Unable to write [{}] item(s) to [{}]: [{}]", items.size(), this.name, e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+            return false;
+        } finally {
+            time.stop();
+        }
+    }
+
+    public int getSize() {
+        return this.queue.size();
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    /**
+     * Gets the time in milliseconds the oldest queued item has been waiting to be written.
+     *
+     * @return the lag, or zero if no items are queued
+     */
+    public long getLag() {
+        final QueuedItem<T> oldest = this.queue.peek();
+        return oldest == null ? 0 : Math.max(0, System.currentTimeMillis() - oldest.queuedAt);
+    }
+
+    public long getWrittenCount() {
+        return this.written.getCount();
+    }
+
+    public long getDroppedCount() {
+        return this.dropped.getCount();
+    }
+
+    /**
+     * Stop the writer and write all items that are still queued, including items
+     * queued while the writer thread was finishing.
+     *
+     * @throws Exception if the writer cannot properly shut down
+     */
+    @Override
+    public synchronized void destroy() throws Exception {
+        if (!this.running) {
+            return;
+        }
+        this.running = false;
+        this.writer.interrupt();
+        this.writer.join(SHUTDOWN_TIMEOUT);
+        final int pending = getSize();
+        writeIfStopped();
+        LOGGER.info("Stopped writer [{}] with [{}] item(s) pending", this.name, pending);
+    }
+
+    private void run() {
+        final List<QueuedItem<T>> batch = new ArrayList<>(this.batchSize);
+        long deadline = System.currentTimeMillis() + this.flushInterval;
+        while (this.running) {
+            try {
+                final long wait = deadline - System.currentTimeMillis();
+                if (batch.size() < this.batchSize && wait > 0) {
+                    final QueuedItem<T> item = this.queue.poll(wait, TimeUnit.MILLISECONDS);
+                    if (item != null) {
+                        batch.add(item);
+                        this.queue.drainTo(batch, this.batchSize - batch.size());
+                    }
+                    continue;
+                }
+                flush(batch);
+                deadline = System.currentTimeMillis() + this.flushInterval;
+            } catch (final InterruptedException e) {
+                break;
+            } catch (final Exception e) {
+                LOGGER.error(e.getMessage(), e);
+            }
+        }
+        Thread.interrupted();
+        this.queue.drainTo(batch);
+        flush(batch);
+    }
+
+    /**
+     * Write items left in the queue once the writer is stopped. Callers re-check after
+     * queueing an item, so that an item queued after the writer thread drained the queue
+     * for the last time is written rather than stranded.
+     */
+    private void writeIfStopped() {
+        if (this.running || this.queue.isEmpty()) {
+            return;
+        }
+        final List<QueuedItem<T>> items = new ArrayList<>();
+        this.queue.drainTo(items);
+        writeAll(items);
+    }
+
+    private void flush(final List<QueuedItem<T>> batch) {
+        writeAll(batch);
+        batch.clear();
+        this.overflowPolicy.afterFlush(this);
+    }
+
+    private void writeAll(final List<QueuedItem<T>> items) {
+        for (int i = 0; i < items.size(); i += this.batchSize) {
+            writeOrReject(items.subList(i, Math.min(items.size(), i + this.batchSize))
+                    .stream()
+                    .map(queued -> queued.item)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    private void writeOrReject(final List<T> items) {
+        if (write(items)) {
+            return;
+        }
+        items.forEach(item -> {
+            if (!this.overflowPolicy.rejected(item, this)) {
+                this.dropped.mark();
+            }
+        });
+    }
+
+    /**
+     * An item along with the time it was queued.
+     *
+     * @param <T> the type of item
+     */
+    private static class QueuedItem<T> {
+        private final T item;
+        private final long queuedAt = System.currentTimeMillis();
+
+        QueuedItem(final T item) {
+            this.item = item;
+        }
+    }
+}
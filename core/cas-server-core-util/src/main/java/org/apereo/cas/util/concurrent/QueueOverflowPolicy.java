@@ -0,0 +1,79 @@
+package org.apereo.cas.util.concurrent;
+
+import java.util.Collections;
+
+/**
+ * This is {@link QueueOverflowPolicy} that decides what happens to items offered
+ * to a {@link BatchingQueueWriter} while its queue is full, and to queued items
+ * the writer fails to write.
+ *
+ * @param <T> the type of items
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+@FunctionalInterface
+public interface QueueOverflowPolicy<T> {
+
+    /**
+     * Handle an item that does not fit in the queue.
+     *
+     * @param item   the item
+     * @param writer the writer the item was offered to
+     * @return true if the item was handled, or false if it is dropped
+     */
+    boolean overflow(T item, BatchingQueueWriter<T> writer);
+
+    /**
+     * Handle an item that was taken from the queue but could not be written.
+     * Drops the item by default.
+     *
+     * @param item   the item
+     * @param writer the writer that failed to write the item
+     * @return true if the item was handled, or false if it is dropped
+     */
+    default boolean rejected(final T item, final BatchingQueueWriter<T> writer) {
+        return false;
+    }
+
+    /**
+     * Invoked by the writer thread after every flush, e.g. to hand over items
+     * that were set aside while the queue was full. Does nothing by default.
+     *
+     * @param writer the writer
+     */
+    default void afterFlush(final BatchingQueueWriter<T> writer) {
+    }
+
+    /**
+     * Wait for room in the queue.
+     *
+     * @param <T> the type of items
+     * @return the policy
+     */
+    static <T> QueueOverflowPolicy<T> block() {
+        return (item, writer) -> {
+            writer.put(item);
+            return true;
+        };
+    }
+
+    /**
+     * Drop the item.
+     *
+     * @param <T> the type of items
+     * @return the policy
+     */
+    static <T> QueueOverflowPolicy<T> drop() {
+        return (item, writer) -> false;
+    }
+
+    /**
+     * Write the item in the calling thread.
+     *
+     * @param <T> the type of items
+     * @return the policy
+     */
+    static <T> QueueOverflowPolicy<T> callerRuns() {
+        return (item, writer) -> writer.write(Collections.singletonList(item));
+    }
+}
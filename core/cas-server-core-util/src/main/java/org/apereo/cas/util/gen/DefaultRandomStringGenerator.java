@@ -1,11 +1,12 @@
 package org.apereo.cas.util.gen;
 
-import java.security.SecureRandom;
-import java.util.stream.IntStream;
-
 /**
  * Implementation of the RandomStringGenerator that allows you to define the
  * length of the random part.
+ * <p>
+ * Random bytes are obtained from {@link ThreadLocalSecureRandom}, and mapped onto
+ * the 62 alphanumeric characters by rejection sampling, so that every character
+ * is equally likely.
  *
  * @author Scott Battaglia
 
@@ -17,10 +18,13 @@ public class DefaultRandomStringGenerator implements RandomStringGenerator {
     public static final int DEFAULT_MAX_RANDOM_LENGTH = 35;
 
     /** The array of printable characters to be used in our random string. */
-    private static final char[] PRINTABLE_CHARACTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ012345679".toCharArray();
+    private static final char[] PRINTABLE_CHARACTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+
+    /** Mask that selects the smallest number of bits that can index {@link #PRINTABLE_CHARACTERS}. */
+    private static final int CHARACTER_MASK = 0x3F;
 
-    /** An instance of secure random to ensure randomness is secure. */
-    private SecureRandom randomizer = new SecureRandom();
+    /** Random bytes drawn beyond the requested length, to absorb rejected samples. */
+    private static final int EXTRA_BYTES = 8;
 
     /** The maximum length the random string can be. */
     private int maximumRandomLength;
@@ -54,30 +58,27 @@ public class DefaultRandomStringGenerator implements RandomStringGenerator {
 
     @Override
     public String getNewString() {
-        final byte[] random = getNewStringAsBytes();
-        return convertBytesToString(random);
+        final char[] output = new char[this.maximumRandomLength];
+        final byte[] random = new byte[this.maximumRandomLength + EXTRA_BYTES];
+        int position = random.length;
+        int count = 0;
+        while (count < output.length) {
+            if (position == random.length) {
+                ThreadLocalSecureRandom.nextBytes(random);
+                position = 0;
+            }
+            final int index = random[position++] & CHARACTER_MASK;
+            if (index < PRINTABLE_CHARACTERS.length) {
+                output[count++] = PRINTABLE_CHARACTERS[index];
+            }
+        }
+        return new String(output);
     }
 
     @Override
     public byte[] getNewStringAsBytes() {
         final byte[] random = new byte[this.maximumRandomLength];
-        this.randomizer.nextBytes(random);
+        ThreadLocalSecureRandom.nextBytes(random);
         return random;
     }
-
-    /**
-     * Convert bytes to string, taking into account {@link #PRINTABLE_CHARACTERS}.
-     *
-     * @param random the random
-     * @return the string
-     */
-    private static String convertBytesToString(final byte[] random) {
-        final char[] output = new char[random.length];
-        IntStream.range(0, random.length).forEach(i -> {
-            final int index = Math.abs(random[i] % PRINTABLE_CHARACTERS.length);
-            output[i] = PRINTABLE_CHARACTERS[index];
-        });
-
-        return new String(output);
-    }
 }
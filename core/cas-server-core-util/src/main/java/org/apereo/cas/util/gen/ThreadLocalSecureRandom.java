@@ -0,0 +1,81 @@
+package org.apereo.cas.util.gen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * This is {@link ThreadLocalSecureRandom} that hands out random bytes from a
+ * hash-based {@link SecureRandom} instance owned by the calling thread, so that
+ * threads generating random values do not contend on a single shared instance.
+ * Each instance is seeded from a shared, system-provided {@link SecureRandom} and
+ * is seeded again after producing {@link #RESEED_INTERVAL} bytes.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class ThreadLocalSecureRandom {
+
+    /**
+     * Number of bytes produced by an instance before it is seeded again.
+     */
+    public static final long RESEED_INTERVAL = 1024 * 1024;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThreadLocalSecureRandom.class);
+
+    private static final String ALGORITHM = "SHA1PRNG";
+
+    private static final int SEED_LENGTH = 32;
+
+    private static final SecureRandom SEED_SOURCE = new SecureRandom();
+
+    private static final ThreadLocal<ThreadLocalSecureRandom> INSTANCES = ThreadLocal.withInitial(ThreadLocalSecureRandom::new);
+
+    private final SecureRandom random;
+
+    private long bytesSinceSeed;
+
+    /**
+     * Instantiates a new instance, seeded from the shared seed source.
+     * Instances are only created per thread through {@link #nextBytes(byte[])}.
+     */
+    ThreadLocalSecureRandom() {
+        this.random = newSecureRandom();
+        reseed();
+    }
+
+    /**
+     * Fill the array with random bytes, using the instance owned by the calling thread.
+     *
+     * @param bytes the bytes
+     */
+    public static void nextBytes(final byte[] bytes) {
+        INSTANCES.get().fill(bytes);
+    }
+
+    private void fill(final byte[] bytes) {
+        if (this.bytesSinceSeed >= RESEED_INTERVAL) {
+            reseed();
+        }
+        this.random.nextBytes(bytes);
+        this.bytesSinceSeed += bytes.length;
+    }
+
+    private void reseed() {
+        final byte[] seed = new byte[SEED_LENGTH];
+        SEED_SOURCE.nextBytes(seed);
+        this.random.setSeed(seed);
+        this.bytesSinceSeed = 0;
+    }
+
+    private static SecureRandom newSecureRandom() {
+        try {
+            return SecureRandom.getInstance(ALGORITHM);
+        } catch (final NoSuchAlgorithmException e) {
+            LOGGER.warn("Secure random algorithm [{}] is not available; falling back to the platform default", ALGORITHM);
+            return new SecureRandom();
+        }
+    }
+}
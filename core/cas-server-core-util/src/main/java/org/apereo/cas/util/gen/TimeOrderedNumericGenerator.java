@@ -0,0 +1,33 @@
+package org.apereo.cas.util.gen;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * This is {@link TimeOrderedNumericGenerator} that produces the current time in milliseconds,
+ * zero-padded to a fixed width, so that values sort lexicographically in the order
+ * in which they were generated. Used as the numeric part of ticket ids, it lets
+ * ids issued close together in time land next to each other in ordered indexes,
+ * such as the B-tree primary keys of a relational ticket registry.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class TimeOrderedNumericGenerator implements NumericGenerator {
+
+    private static final int LENGTH = Long.toString(Long.MAX_VALUE).length();
+
+    @Override
+    public String getNextNumberAsString() {
+        return StringUtils.leftPad(Long.toString(System.currentTimeMillis()), LENGTH, '0');
+    }
+
+    @Override
+    public int maxLength() {
+        return LENGTH;
+    }
+
+    @Override
+    public int minLength() {
+        return LENGTH;
+    }
+}
@@ -1,11 +1,15 @@
 package org.apereo.cas.util;
 
+import org.apache.shiro.crypto.AesCipherService;
 import org.apereo.cas.CipherExecutor;
 import org.apereo.cas.util.cipher.BinaryCipherExecutor;
+import org.jose4j.keys.AesKey;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.Assert.*;
 
 /**
@@ -28,6 +32,18 @@ public class BinaryCipherExecutorTests {
         assertEquals(new String(decoded), value);
     }
 
+    @Test
+    public void checkDecodingValuesEncryptedByShiro() {
+        final String value = "ThisIsATestValueThatIsGoingToBeEncodedAndDecodedAgainAndAgain";
+        final String signingKey = "szxK-5_eJjs-aUj-64MpUZ-GPPzGLhYPLGl0wrYjYNVAGva2P0lLe6UGKGM7k8dWxsOVGutZWgvmY3l5oVPO3w";
+        final CipherExecutor<byte[], byte[]> cc = new BinaryCipherExecutor("1234567890123456", signingKey, 512, 16);
+
+        final byte[] encrypted = new AesCipherService().encrypt(value.getBytes(StandardCharsets.UTF_8),
+                "1234567890123456".getBytes(StandardCharsets.UTF_8)).getBytes();
+        final byte[] signed = EncodingUtils.signJws(new AesKey(signingKey.getBytes(StandardCharsets.UTF_8)), encrypted);
+        assertEquals(value, new String(cc.decode(signed), StandardCharsets.UTF_8));
+    }
+
     @Test
     public void checkEncodingDecodingBadKeys() {
         final String value = "ThisIsATestValueThatIsGoingToBeEncodedAndDecodedAgainAndAgain";
@@ -4,8 +4,12 @@ import static org.junit.Assert.*;
 
 import org.apereo.cas.util.gen.DefaultRandomStringGenerator;
 import org.apereo.cas.util.gen.RandomStringGenerator;
+import org.apereo.cas.util.gen.TimeOrderedNumericGenerator;
 import org.junit.Test;
 
+import java.util.HashMap;
+import java.util.Map;
+
 
 /**
  * @author Scott Battaglia
@@ -16,6 +20,10 @@ public class DefaultRandomStringGeneratorTests {
 
     private static final int LENGTH = 35;
 
+    private static final int ALPHABET_SIZE = 62;
+
+    private static final int SAMPLE_COUNT = 20000;
+
     private final RandomStringGenerator randomStringGenerator = new DefaultRandomStringGenerator(
         LENGTH);
 
@@ -34,4 +42,31 @@ public class DefaultRandomStringGeneratorTests {
         assertNotSame(this.randomStringGenerator.getNewString(),
             this.randomStringGenerator.getNewString());
     }
+
+    @Test
+    public void verifyCharactersAreUniformlyDistributed() {
+        final Map<Character, Integer> counts = new HashMap<>();
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            final String value = this.randomStringGenerator.getNewString();
+            assertEquals(LENGTH, value.length());
+            for (final char c : value.toCharArray()) {
+                assertTrue(Character.isLetterOrDigit(c));
+                counts.merge(c, 1, Integer::sum);
+            }
+        }
+        assertEquals(ALPHABET_SIZE, counts.size());
+
+        final double expected = (double) SAMPLE_COUNT * LENGTH / ALPHABET_SIZE;
+        counts.values().forEach(count -> assertEquals(expected, count, expected * 0.05));
+    }
+
+    @Test
+    public void verifyTimeOrderedNumbersSort() throws Exception {
+        final TimeOrderedNumericGenerator generator = new TimeOrderedNumericGenerator();
+        final String first = generator.getNextNumberAsString();
+        Thread.sleep(2);
+        final String second = generator.getNextNumberAsString();
+        assertEquals(generator.maxLength(), first.length());
+        assertTrue(first.compareTo(second) < 0);
+    }
 }
@@ -3,8 +3,11 @@ package org.apereo.cas.util;
 import org.apereo.cas.CipherExecutor;
 import org.apereo.cas.util.cipher.BaseStringCipherExecutor;
 import org.apereo.cas.util.cipher.TicketGrantingCookieCipherExecutor;
+import org.jose4j.keys.AesKey;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.Assert.*;
 
 /**
@@ -15,6 +18,10 @@ import static org.junit.Assert.*;
  */
 public class TicketGrantingCookieCipherExecutorTests {
 
+    private static final String ENCRYPTION_KEY = "1PbwSbnHeinpkZOSZjuSJ8yYpUrInm5aaV18J2Ar4rM";
+
+    private static final String SIGNING_KEY = "szxK-5_eJjs-aUj-64MpUZ-GPPzGLhYPLGl0wrYjYNVAGva2P0lLe6UGKGM7k8dWxsOVGutZWgvmY3l5oVPO3w";
+
     @Test
     public void checkEncryptionWithDefaultSettings() {
         final CipherExecutor cipherExecutor =
@@ -22,4 +29,29 @@ public class TicketGrantingCookieCipherExecutorTests {
                         "szxK-5_eJjs-aUj-64MpUZ-GPPzGLhYPLGl0wrYjYNVAGva2P0lLe6UGKGM7k8dWxsOVGutZWgvmY3l5oVPO3w");
         assertEquals(cipherExecutor.decode(cipherExecutor.encode("CAS Test")), "CAS Test");
     }
+
+    @Test
+    public void checkEncryptionWithAesGcm() {
+        final TicketGrantingCookieCipherExecutor gcm = new TicketGrantingCookieCipherExecutor(ENCRYPTION_KEY, SIGNING_KEY);
+        gcm.setAesGcmEncryption(true);
+        final TicketGrantingCookieCipherExecutor jwe = new TicketGrantingCookieCipherExecutor(ENCRYPTION_KEY, SIGNING_KEY);
+
+        final String encoded = gcm.encode("CAS Test");
+        assertEquals("CAS Test", gcm.decode(encoded));
+        assertEquals("CAS Test", jwe.decode(encoded));
+        assertEquals("CAS Test", gcm.decode(jwe.encode("CAS Test")));
+    }
+
+    @Test
+    public void checkSignatureCompatibleWithJose() {
+        final TicketGrantingCookieCipherExecutor cipher = new TicketGrantingCookieCipherExecutor(ENCRYPTION_KEY, SIGNING_KEY);
+        final AesKey signingKey = new AesKey(SIGNING_KEY.getBytes(StandardCharsets.UTF_8));
+
+        final byte[] signed = cipher.encode("CAS Test").getBytes(StandardCharsets.UTF_8);
+        final byte[] payload = EncodingUtils.verifyJwsSignature(signingKey, signed);
+        assertNotNull(payload);
+
+        final String resigned = new String(EncodingUtils.signJws(signingKey, payload), StandardCharsets.UTF_8);
+        assertEquals("CAS Test", cipher.decode(resigned));
+    }
 }
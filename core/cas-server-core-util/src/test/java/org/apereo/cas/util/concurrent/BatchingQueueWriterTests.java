@@ -0,0 +1,250 @@
+package org.apereo.cas.util.concurrent;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link BatchingQueueWriterTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class BatchingQueueWriterTests {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+
+    private static final long LONG_FLUSH_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    private final List<Integer> batches = new CopyOnWriteArrayList<>();
+
+    private final List<String> items = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch writing = new CountDownLatch(1);
+
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    private volatile boolean blockWrites;
+
+    private volatile boolean failWrites;
+
+    private BatchingQueueWriter<String> writer;
+
+    @After
+    public void shutdown() throws Exception {
+        this.released.countDown();
+        if (this.writer != null) {
+            this.writer.destroy();
+        }
+    }
+
+    @Test
+    public void verifyItemsAreWrittenInBatches() {
+        this.writer = newWriter(100, 5, LONG_FLUSH_INTERVAL, QueueOverflowPolicy.block());
+        for (int i = 0; i < 10; i++) {
+            this.writer.offer("item" + i);
+        }
+        waitUntil(() -> this.items.size() == 10);
+        assertEquals(2, this.batches.size());
+        assertEquals(Integer.valueOf(5), this.batches.get(0));
+        assertEquals("item0", this.items.get(0));
+        assertEquals(10, this.writer.getWrittenCount());
+    }
+
+    @Test
+    public void verifyPartialBatchIsWrittenAfterInterval() {
+        this.writer = newWriter(100, 50, 100, QueueOverflowPolicy.block());
+        this.writer.offer("item");
+        waitUntil(() -> this.items.size() == 1);
+    }
+
+    @Test
+    public void verifyItemsAreWrittenInCallingThreadUntilInitialized() {
+        this.writer = new BatchingQueueWriter<>("test", this.items::addAll, 100, 50, LONG_FLUSH_INTERVAL,
+                QueueOverflowPolicy.block(), null);
+        this.writer.offer("item");
+        assertEquals(1, this.items.size());
+    }
+
+    @Test
+    public void verifyItemsAreDroppedWhenFull() throws Exception {
+        this.writer = newWriter(1, 1, LONG_FLUSH_INTERVAL, QueueOverflowPolicy.drop());
+        fillQueue();
+        this.writer.offer("dropped");
+        assertEquals(1, this.writer.getDroppedCount());
+        assertTrue(this.writer.getLag() >= 0);
+
+        this.released.countDown();
+        waitUntil(() -> this.items.size() == 2);
+        assertFalse(this.items.contains("dropped"));
+    }
+
+    @Test
+    public void verifyCallerWaitsWhenFull() throws Exception {
+        this.writer = newWriter(1, 1, LONG_FLUSH_INTERVAL, QueueOverflowPolicy.block());
+        fillQueue();
+        final Thread caller = new Thread(() -> this.writer.offer("blocked"));
+        caller.start();
+        waitUntil(() -> caller.getState() == Thread.State.TIMED_WAITING);
+        assertFalse(this.items.contains("blocked"));
+
+        this.released.countDown();
+        caller.join(TIMEOUT);
+        waitUntil(() -> this.items.size() == 3);
+        assertEquals(0, this.writer.getDroppedCount());
+    }
+
+    @Test
+    public void verifyCallerStopsWaitingOnShutdown() throws Exception {
+        this.writer = newWriter(1, 1, LONG_FLUSH_INTERVAL, QueueOverflowPolicy.block());
+        fillQueue();
+        final Thread caller = new Thread(() -> this.writer.offer("blocked"));
+        caller.start();
+        waitUntil(() -> caller.getState() == Thread.State.TIMED_WAITING);
+
+        this.blockWrites = false;
+        this.writer.destroy();
+        caller.join(TIMEOUT);
+        assertFalse(caller.isAlive());
+        waitUntil(() -> this.items.size() == 3);
+        assertTrue(this.items.contains("blocked"));
+        assertEquals(0, this.writer.getSize());
+    }
+
+    @Test
+    public void verifyCallerWritesItemWhenFull() throws Exception {
+        this.writer = newWriter(1, 1, LONG_FLUSH_INTERVAL, QueueOverflowPolicy.callerRuns());
+        fillQueue();
+        this.blockWrites = false;
+        this.writer.offer("caller");
+        assertTrue(this.items.contains("caller"));
+        assertEquals(0, this.writer.getDroppedCount());
+    }
+
+    @Test
+    public void verifyFailedWritesAreReported() {
+        this.writer = newWriter(100, 50, LONG_FLUSH_INTERVAL, QueueOverflowPolicy.block());
+        this.failWrites = true;
+        assertFalse(this.writer.write(Collections.singletonList("failed")));
+        assertEquals(0, this.writer.getWrittenCount());
+
+        this.failWrites = false;
+        assertTrue(this.writer.write(Collections.singletonList("written")));
+        assertEquals(1, this.writer.getWrittenCount());
+    }
+
+    @Test
+    public void verifyFailedBatchesAreDropped() {
+        this.writer = newWriter(100, 50, 50, QueueOverflowPolicy.drop());
+        this.failWrites = true;
+        this.writer.offer("item1");
+        this.writer.offer("item2");
+        waitUntil(() -> this.writer.getDroppedCount() == 2);
+        assertEquals(0, this.writer.getWrittenCount());
+    }
+
+    @Test
+    public void verifyFailedBatchesAreHandedToPolicy() {
+        final List<String> rejected = new CopyOnWriteArrayList<>();
+        this.writer = newWriter(100, 50, 50, new QueueOverflowPolicy<String>() {
+            @Override
+            public boolean overflow(final String item, final BatchingQueueWriter<String> w) {
+                return false;
+            }
+
+            @Override
+            public boolean rejected(final String item, final BatchingQueueWriter<String> w) {
+                return rejected.add(item);
+            }
+        });
+        this.failWrites = true;
+        this.writer.offer("item");
+        waitUntil(() -> rejected.size() == 1);
+        assertEquals("item", rejected.get(0));
+        assertEquals(0, this.writer.getDroppedCount());
+    }
+
+    @Test
+    public void verifyPolicyIsInvokedAfterFlush() {
+        final AtomicInteger flushes = new AtomicInteger();
+        this.writer = newWriter(100, 50, 50, new QueueOverflowPolicy<String>() {
+            @Override
+            public boolean overflow(final String item, final BatchingQueueWriter<String> w) {
+                return false;
+            }
+
+            @Override
+            public void afterFlush(final BatchingQueueWriter<String> w) {
+                flushes.incrementAndGet();
+            }
+        });
+        waitUntil(() -> flushes.get() > 1);
+    }
+
+    @Test
+    public void verifyQueuedItemsAreWrittenOnShutdown() throws Exception {
+        this.writer = newWriter(100, 50, LONG_FLUSH_INTERVAL, QueueOverflowPolicy.block());
+        this.writer.offer("item");
+        this.writer.destroy();
+        assertEquals(1, this.items.size());
+
+        this.writer.offer("after");
+        assertEquals(2, this.items.size());
+    }
+
+    /**
+     * Block the writer on a first item and queue a second one, leaving the queue full.
+     */
+    private void fillQueue() throws InterruptedException {
+        this.blockWrites = true;
+        this.writer.offer("first");
+        assertTrue(this.writing.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        this.writer.offer("second");
+        assertEquals(1, this.writer.getSize());
+    }
+
+    private BatchingQueueWriter<String> newWriter(final int capacity, final int batchSize, final long flushInterval,
+                                                  final QueueOverflowPolicy<String> policy) {
+        final BatchingQueueWriter<String> w = new BatchingQueueWriter<>("test", batch -> {
+            if (failWrites) {
+                throw new IllegalStateException("Unable to write");
+            }
+            if (blockWrites) {
+                writing.countDown();
+                try {
+                    released.await(TIMEOUT, TimeUnit.MILLISECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            batches.add(batch.size());
+            items.addAll(batch);
+        }, capacity, batchSize, flushInterval, policy, null);
+        w.initialize();
+        return w;
+    }
+
+    private static void waitUntil(final BooleanSupplier condition) {
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition was not met in time");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e.getMessage());
+            }
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.apereo.cas.authentication.principal.Service;
 import org.apereo.cas.authentication.principal.WebApplicationService;
 import org.apereo.cas.logout.LogoutRequest;
 import org.apereo.cas.services.MultifactorAuthenticationProvider;
+import org.apereo.cas.services.MultifactorAuthenticationProviderRegistry;
 import org.apereo.cas.services.RegisteredService;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
@@ -38,7 +39,6 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.Serializable;
 import java.net.URI;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -663,16 +663,11 @@ public final class WebUtils {
      * Gets all multifactor authentication providers from application context.
      *
      * @param applicationContext the application context
-     * @return the all multifactor authentication providers from application context
+     * @return the all multifactor authentication providers from application context; the map may not be modified
      */
     public static Map<String, MultifactorAuthenticationProvider> getAvailableMultifactorAuthenticationProviders(
             final ApplicationContext applicationContext) {
-        try {
-            return applicationContext.getBeansOfType(MultifactorAuthenticationProvider.class, false, true);
-        } catch (final Exception e) {
-            LOGGER.warn("Could not locate beans of type {} in the application context", MultifactorAuthenticationProvider.class);
-        }
-        return Collections.emptyMap();
+        return MultifactorAuthenticationProviderRegistry.getInstance(applicationContext).getProviders();
     }
 
     /**
@@ -38,6 +38,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * An abstract implementation of the {@link CentralAuthenticationService} that provides access to
@@ -182,9 +183,14 @@ public abstract class AbstractCentralAuthenticationService implements CentralAut
     @Counted(name = "GET_TICKETS_COUNTER", monotonic = true)
     @Override
     public Collection<Ticket> getTickets(final Predicate<Ticket> predicate) {
-        return this.ticketRegistry.getTickets().stream()
-                .filter(predicate)
-                .collect(Collectors.toSet());
+        try (Stream<Ticket> tickets = this.ticketRegistry.streamTickets(Ticket.class)) {
+            return tickets.filter(predicate).collect(Collectors.toSet());
+        }
+    }
+
+    @Override
+    public <T extends Ticket> Stream<T> streamTickets(final Class<T> ticketType) {
+        return this.ticketRegistry.streamTickets(ticketType);
     }
 
     /**
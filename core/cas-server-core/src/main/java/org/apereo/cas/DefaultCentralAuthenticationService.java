@@ -116,7 +116,7 @@ public class DefaultCentralAuthenticationService extends AbstractCentralAuthenti
             CurrentCredentialsAndAuthentication.bindCurrent(ticket.getAuthentication());
 
             final List<LogoutRequest> logoutRequests = this.logoutManager.performLogout(ticket);
-            this.ticketRegistry.deleteTicket(ticketGrantingTicketId);
+            this.ticketRegistry.deleteTicketsFor(ticket);
 
             doPublishEvent(new CasTicketGrantingTicketDestroyedEvent(this, ticket));
 
@@ -157,8 +157,7 @@ public class DefaultCentralAuthenticationService extends AbstractCentralAuthenti
         final ServiceTicketFactory factory = this.ticketFactory.get(ServiceTicket.class);
         final ServiceTicket serviceTicket = factory.create(ticketGrantingTicket, service,
                 authenticationResult != null && authenticationResult.isCredentialProvided());
-        this.ticketRegistry.updateTicket(ticketGrantingTicket);
-        this.ticketRegistry.addTicket(serviceTicket);
+        this.ticketRegistry.addGrantedTicket(ticketGrantingTicket, serviceTicket);
 
         logger.info("Granted ticket [{}] for service [{}] and principal [{}]",
                 serviceTicket.getId(), service.getId(), principal.getId());
@@ -205,8 +204,7 @@ public class DefaultCentralAuthenticationService extends AbstractCentralAuthenti
         final ProxyTicketFactory factory = this.ticketFactory.get(ProxyTicket.class);
         final ProxyTicket proxyTicket = factory.create(proxyGrantingTicketObject, service);
 
-        this.ticketRegistry.updateTicket(proxyGrantingTicketObject);
-        this.ticketRegistry.addTicket(proxyTicket);
+        this.ticketRegistry.addGrantedTicket(proxyGrantingTicketObject, proxyTicket);
 
         logger.info("Granted ticket [{}] for service [{}] for user [{}]",
                 proxyTicket.getId(), service.getId(), principal.getId());
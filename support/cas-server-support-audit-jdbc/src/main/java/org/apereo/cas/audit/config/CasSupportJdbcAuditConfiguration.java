@@ -1,9 +1,14 @@
 package org.apereo.cas.audit.config;
 
+import com.codahale.metrics.MetricRegistry;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.audit.entity.AuditTrailEntity;
+import org.apereo.cas.audit.spi.AsynchronousAuditTrailManager;
+import org.apereo.cas.audit.spi.AuditActionContextSpillFile;
 import org.apereo.cas.audit.spi.DefaultDelegatingAuditTrailManager;
 import org.apereo.cas.audit.spi.DelegatingAuditTrailManager;
+import org.apereo.cas.audit.support.JdbcBatchAuditTrailManager;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.core.audit.AuditProperties;
 import org.apereo.cas.configuration.model.support.jpa.JpaConfigDataHolder;
@@ -12,6 +17,7 @@ import org.apereo.inspektr.audit.support.JdbcAuditTrailManager;
 import org.apereo.inspektr.audit.support.MaxAgeWhereClauseMatchCriteria;
 import org.apereo.inspektr.audit.support.WhereClauseMatchCriteria;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Bean;
@@ -25,6 +31,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.sql.DataSource;
+import java.io.File;
 
 /**
  * This is {@link CasSupportJdbcAuditConfiguration}.
@@ -41,23 +48,42 @@ public class CasSupportJdbcAuditConfiguration {
     @Autowired
     private CasConfigurationProperties casProperties;
 
+    @Autowired(required = false)
+    @Qualifier("metrics")
+    private MetricRegistry metricRegistry;
+
     @Bean(name = {"jdbcAuditTrailManager", "auditTrailManager"})
     public DelegatingAuditTrailManager jdbcAuditTrailManager() {
         final AuditProperties.Jdbc jdbc = casProperties.getAudit().getJdbc();
+        if (jdbc.getAsynchronous().isEnabled()) {
+            return new DefaultDelegatingAuditTrailManager(asynchronousJdbcAuditTrailManager());
+        }
         final JdbcAuditTrailManager t = new JdbcAuditTrailManager(inspektrAuditTransactionTemplate());
         t.setCleanupCriteria(auditCleanupCriteria());
         t.setDataSource(inspektrAuditTrailDataSource());
-        String tableName = AuditTrailEntity.AUDIT_TRAIL_TABLE_NAME;
-        if (StringUtils.isNotBlank(jdbc.getDefaultSchema())) {
-            tableName = jdbc.getDefaultSchema() + '.' + tableName;
-        }
-        if (StringUtils.isNotBlank(jdbc.getDefaultCatalog())) {
-            tableName = jdbc.getDefaultCatalog() + '.' + tableName;
-        }
-        t.setTableName(tableName);
+        t.setTableName(getAuditTableName());
         return new DefaultDelegatingAuditTrailManager(t);
     }
 
+    @Lazy
+    @Bean
+    public AsynchronousAuditTrailManager asynchronousJdbcAuditTrailManager() {
+        final AuditProperties.Asynchronous async = casProperties.getAudit().getJdbc().getAsynchronous();
+        final AsynchronousAuditTrailManager.BackpressurePolicy policy =
+                AsynchronousAuditTrailManager.BackpressurePolicy.valueOf(async.getBackpressurePolicy().trim().toUpperCase());
+        AuditActionContextSpillFile spillFile = null;
+        if (policy == AsynchronousAuditTrailManager.BackpressurePolicy.SPILL) {
+            final File location = StringUtils.isBlank(async.getSpillLocation())
+                    ? new File(FileUtils.getTempDirectory(), "cas-audit-spill")
+                    : new File(async.getSpillLocation());
+            spillFile = new AuditActionContextSpillFile(location);
+        }
+        final JdbcBatchAuditTrailManager batch = new JdbcBatchAuditTrailManager(inspektrAuditTrailDataSource(),
+                inspektrAuditTransactionTemplate(), getAuditTableName());
+        return new AsynchronousAuditTrailManager(batch, async.getCapacity(), async.getBatchSize(),
+                async.getFlushInterval(), policy, spillFile, this.metricRegistry);
+    }
+
     @Lazy
     @Bean
     public LocalContainerEntityManagerFactoryBean inspektrAuditEntityManagerFactory() {
@@ -94,4 +120,16 @@ public class CasSupportJdbcAuditConfiguration {
         t.setPropagationBehaviorName(casProperties.getAudit().getJdbc().getPropagationBehaviorName());
         return t;
     }
+
+    private String getAuditTableName() {
+        final AuditProperties.Jdbc jdbc = casProperties.getAudit().getJdbc();
+        String tableName = AuditTrailEntity.AUDIT_TRAIL_TABLE_NAME;
+        if (StringUtils.isNotBlank(jdbc.getDefaultSchema())) {
+            tableName = jdbc.getDefaultSchema() + '.' + tableName;
+        }
+        if (StringUtils.isNotBlank(jdbc.getDefaultCatalog())) {
+            tableName = jdbc.getDefaultCatalog() + '.' + tableName;
+        }
+        return tableName;
+    }
 }
@@ -0,0 +1,84 @@
+package org.apereo.cas.audit.support;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.audit.spi.BatchAuditTrailManager;
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link JdbcBatchAuditTrailManager} that inserts audit records into the audit table
+ * using JDBC batches, one batch and one transaction per group of records.
+ * Principal, resource and action values are truncated to the column length,
+ * as is done by the Inspektr JDBC audit trail manager.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class JdbcBatchAuditTrailManager implements BatchAuditTrailManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JdbcBatchAuditTrailManager.class);
+
+    private static final String INSERT_SQL_TEMPLATE = "INSERT INTO %s "
+            + "(AUD_USER, AUD_CLIENT_IP, AUD_SERVER_IP, AUD_RESOURCE, AUD_ACTION, APPLIC_CD, AUD_DATE) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int DEFAULT_COLUMN_LENGTH = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String insertSql;
+
+    private int columnLength = DEFAULT_COLUMN_LENGTH;
+
+    /**
+     * Instantiates a new Jdbc batch audit trail manager.
+     *
+     * @param dataSource          the data source
+     * @param transactionTemplate the transaction template
+     * @param tableName           the audit table name
+     */
+    public JdbcBatchAuditTrailManager(final DataSource dataSource, final TransactionTemplate transactionTemplate,
+                                      final String tableName) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+        this.insertSql = String.format(INSERT_SQL_TEMPLATE, tableName);
+    }
+
+    public void setColumnLength(final int columnLength) {
+        this.columnLength = columnLength;
+    }
+
+    @Override
+    public void record(final AuditActionContext auditActionContext) {
+        recordAll(Collections.singletonList(auditActionContext));
+    }
+
+    @Override
+    public void recordAll(final Collection<AuditActionContext> auditActionContexts) {
+        if (auditActionContexts.isEmpty()) {
+            return;
+        }
+        final List<Object[]> arguments = auditActionContexts.stream()
+                .map(context -> new Object[]{
+                        StringUtils.left(context.getPrincipal(), this.columnLength),
+                        context.getClientIpAddress(),
+                        context.getServerIpAddress(),
+                        StringUtils.left(context.getResourceOperatedUpon(), this.columnLength),
+                        StringUtils.left(context.getActionPerformed(), this.columnLength),
+                        context.getApplicationCode(),
+                        new Timestamp(context.getWhenActionWasPerformed().getTime())})
+                .collect(Collectors.toList());
+        this.transactionTemplate.execute(status -> this.jdbcTemplate.batchUpdate(this.insertSql, arguments));
+        LOGGER.debug("Inserted [{}] audit record(s)", arguments.size());
+    }
+}
@@ -56,8 +56,10 @@ public class CasCookieConfiguration {
     @Bean
     public CipherExecutor cookieCipherExecutor() {
         if (casProperties.getTgc().isCipherEnabled()) {
-            return new TicketGrantingCookieCipherExecutor(casProperties.getTgc().getEncryptionKey(),
+            final TicketGrantingCookieCipherExecutor cipher = new TicketGrantingCookieCipherExecutor(casProperties.getTgc().getEncryptionKey(),
                     casProperties.getTgc().getSigningKey());
+            cipher.setAesGcmEncryption(casProperties.getTgc().isAesGcmEncryption());
+            return cipher;
         }
 
         LOGGER.info("Ticket-granting cookie encryption/signing is turned off and "
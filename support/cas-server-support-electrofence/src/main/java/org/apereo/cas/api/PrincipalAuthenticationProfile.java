@@ -0,0 +1,193 @@
+package org.apereo.cas.api;
+
+import org.apereo.cas.authentication.adaptive.geo.GeoLocationRequest;
+import org.apereo.cas.support.events.dao.CasEvent;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This is {@link PrincipalAuthenticationProfile} that summarizes the recent authentication
+ * history of a principal: how often the principal authenticated from each ip address,
+ * user agent and geolocation, and at which hour of the day. Risk calculators read the
+ * counters instead of going through individual events.
+ * <p>
+ * Counters are kept per day, so that days falling out of the recent history
+ * are subtracted from the totals; history is tracked with a granularity of one day.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class PrincipalAuthenticationProfile implements Serializable {
+    private static final long serialVersionUID = -3158374027384592736L;
+
+    private static final int HOURS_IN_DAY = 24;
+
+    private final String principal;
+
+    private final long daysInRecentHistory;
+
+    private final TreeMap<Long, Counters> days = new TreeMap<>();
+
+    private final Counters totals = new Counters();
+
+    public PrincipalAuthenticationProfile(final String principal, final long daysInRecentHistory) {
+        this.principal = principal;
+        this.daysInRecentHistory = daysInRecentHistory;
+    }
+
+    public String getPrincipal() {
+        return this.principal;
+    }
+
+    /**
+     * Record an authentication event.
+     *
+     * @param event the event
+     */
+    public void record(final CasEvent event) {
+        record(event.getCreationTime(), event.getClientIpAddress(), event.getAgent(), event.getGeoLocation());
+    }
+
+    /**
+     * Record an authentication. Authentications older than the recent history are ignored.
+     *
+     * @param creationTime    the time of the authentication
+     * @param clientIpAddress the client ip address
+     * @param userAgent       the user agent
+     * @param geoLocation     the geolocation; may be null
+     */
+    public synchronized void record(final ZonedDateTime creationTime, final String clientIpAddress,
+                                    final String userAgent, final GeoLocationRequest geoLocation) {
+        if (creationTime == null) {
+            return;
+        }
+        final long day = creationTime.toLocalDate().toEpochDay();
+        if (day < getFirstDayInHistory()) {
+            return;
+        }
+        final Counters counters = this.days.computeIfAbsent(day, k -> new Counters());
+        counters.record(creationTime.getHour(), clientIpAddress, userAgent, geoLocation);
+        this.totals.record(creationTime.getHour(), clientIpAddress, userAgent, geoLocation);
+    }
+
+    /**
+     * Gets the number of recent authentications.
+     *
+     * @return the count
+     */
+    public synchronized long getCount() {
+        expire();
+        return this.totals.count;
+    }
+
+    /**
+     * Gets the number of recent authentications from the ip address.
+     *
+     * @param clientIpAddress the client ip address
+     * @return the count
+     */
+    public synchronized long getIpAddressCount(final String clientIpAddress) {
+        expire();
+        return this.totals.ipAddresses.getOrDefault(keyOf(clientIpAddress), 0L);
+    }
+
+    /**
+     * Gets the number of recent authentications from the user agent.
+     *
+     * @param userAgent the user agent
+     * @return the count
+     */
+    public synchronized long getUserAgentCount(final String userAgent) {
+        expire();
+        return this.totals.userAgents.getOrDefault(keyOf(userAgent), 0L);
+    }
+
+    /**
+     * Gets the number of recent authentications from the geolocation.
+     *
+     * @param geoLocation the geolocation
+     * @return the count
+     */
+    public synchronized long getGeoLocationCount(final GeoLocationRequest geoLocation) {
+        expire();
+        return this.totals.geoLocations.getOrDefault(keyOf(geoLocation), 0L);
+    }
+
+    /**
+     * Gets the number of recent authentications during the hour of the day.
+     *
+     * @param hour the hour of the day
+     * @return the count
+     */
+    public synchronized long getHourOfDayCount(final int hour) {
+        expire();
+        return this.totals.hours[Math.floorMod(hour, HOURS_IN_DAY)];
+    }
+
+    private long getFirstDayInHistory() {
+        return LocalDate.now().toEpochDay() - this.daysInRecentHistory;
+    }
+
+    private void expire() {
+        final Iterator<Counters> it = this.days.headMap(getFirstDayInHistory()).values().iterator();
+        while (it.hasNext()) {
+            this.totals.subtract(it.next());
+            it.remove();
+        }
+    }
+
+    private static String keyOf(final String value) {
+        return value == null ? null : value.toLowerCase();
+    }
+
+    private static String keyOf(final GeoLocationRequest geoLocation) {
+        return geoLocation == null ? null : geoLocation.getLatitude() + ',' + geoLocation.getLongitude();
+    }
+
+    /**
+     * Authentication counters for a period of time.
+     */
+    private static class Counters implements Serializable {
+        private static final long serialVersionUID = 2206218693545390734L;
+
+        private long count;
+        private final long[] hours = new long[HOURS_IN_DAY];
+        private final Map<String, Long> ipAddresses = new HashMap<>();
+        private final Map<String, Long> userAgents = new HashMap<>();
+        private final Map<String, Long> geoLocations = new HashMap<>();
+
+        void record(final int hour, final String clientIpAddress, final String userAgent, final GeoLocationRequest geoLocation) {
+            this.count++;
+            this.hours[hour]++;
+            increment(this.ipAddresses, keyOf(clientIpAddress));
+            increment(this.userAgents, keyOf(userAgent));
+            increment(this.geoLocations, keyOf(geoLocation));
+        }
+
+        void subtract(final Counters other) {
+            this.count -= other.count;
+            for (int i = 0; i < HOURS_IN_DAY; i++) {
+                this.hours[i] -= other.hours[i];
+            }
+            subtract(this.ipAddresses, other.ipAddresses);
+            subtract(this.userAgents, other.userAgents);
+            subtract(this.geoLocations, other.geoLocations);
+        }
+
+        private static void increment(final Map<String, Long> counters, final String key) {
+            if (key != null) {
+                counters.merge(key, 1L, Long::sum);
+            }
+        }
+
+        private static void subtract(final Map<String, Long> counters, final Map<String, Long> other) {
+            other.forEach((key, value) -> counters.computeIfPresent(key, (k, v) -> v - value > 0 ? v - value : null));
+        }
+    }
+}
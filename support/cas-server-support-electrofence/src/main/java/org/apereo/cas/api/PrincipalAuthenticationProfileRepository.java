@@ -0,0 +1,26 @@
+package org.apereo.cas.api;
+
+/**
+ * This is {@link PrincipalAuthenticationProfileRepository} that backs the
+ * authentication profiles of principals with persistent storage.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public interface PrincipalAuthenticationProfileRepository {
+
+    /**
+     * Load the authentication profile of the principal.
+     *
+     * @param principal the principal
+     * @return the profile, which is empty if the principal has no recent history
+     */
+    PrincipalAuthenticationProfile load(String principal);
+
+    /**
+     * Save the authentication profile after it has been updated.
+     *
+     * @param profile the profile
+     */
+    void save(PrincipalAuthenticationProfile profile);
+}
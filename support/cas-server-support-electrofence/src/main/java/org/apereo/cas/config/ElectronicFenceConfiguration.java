@@ -7,6 +7,7 @@ import org.apereo.cas.api.AuthenticationRiskContingencyPlan;
 import org.apereo.cas.api.AuthenticationRiskEvaluator;
 import org.apereo.cas.api.AuthenticationRiskMitigator;
 import org.apereo.cas.api.AuthenticationRiskNotifier;
+import org.apereo.cas.api.PrincipalAuthenticationProfileRepository;
 import org.apereo.cas.authentication.AuthenticationSystemSupport;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.core.authentication.RiskBasedAuthenticationProperties;
@@ -22,6 +23,8 @@ import org.apereo.cas.impl.notify.AuthenticationRiskTwilioSmsNotifier;
 import org.apereo.cas.impl.plans.BaseAuthenticationRiskContingencyPlan;
 import org.apereo.cas.impl.plans.BlockAuthenticationContingencyPlan;
 import org.apereo.cas.impl.plans.MultifactorAuthenticationContingencyPlan;
+import org.apereo.cas.impl.profile.CasEventPrincipalAuthenticationProfileRepository;
+import org.apereo.cas.impl.profile.PrincipalAuthenticationProfileCache;
 import org.apereo.cas.services.MultifactorAuthenticationProviderSelector;
 import org.apereo.cas.services.ServicesManager;
 import org.apereo.cas.support.events.dao.CasEventRepository;
@@ -161,25 +164,40 @@ public class ElectronicFenceConfiguration {
         return new DefaultAuthenticationRiskMitigator(multifactorAuthenticationContingencyPlan());
     }
 
+    @ConditionalOnMissingBean(name = "principalAuthenticationProfileRepository")
+    @Bean
+    public PrincipalAuthenticationProfileRepository principalAuthenticationProfileRepository() {
+        return new CasEventPrincipalAuthenticationProfileRepository(this.casEventRepository,
+                casProperties.getAuthn().getAdaptive().getRisk().getDaysInRecentHistory());
+    }
+
+    @ConditionalOnMissingBean(name = "principalAuthenticationProfileCache")
+    @Bean
+    public PrincipalAuthenticationProfileCache principalAuthenticationProfileCache() {
+        final RiskBasedAuthenticationProperties.Profile profile = casProperties.getAuthn().getAdaptive().getRisk().getProfile();
+        return new PrincipalAuthenticationProfileCache(principalAuthenticationProfileRepository(),
+                profile.getCacheSize(), profile.getCacheExpiration());
+    }
+
     @ConditionalOnMissingBean(name = "ipAddressAuthenticationRequestRiskCalculator")
     @Bean
     @RefreshScope
     public AuthenticationRequestRiskCalculator ipAddressAuthenticationRequestRiskCalculator() {
-        return new IpAddressAuthenticationRequestRiskCalculator(this.casEventRepository);
+        return new IpAddressAuthenticationRequestRiskCalculator(principalAuthenticationProfileCache());
     }
 
     @ConditionalOnMissingBean(name = "userAgentAuthenticationRequestRiskCalculator")
     @Bean
     @RefreshScope
     public AuthenticationRequestRiskCalculator userAgentAuthenticationRequestRiskCalculator() {
-        return new UserAgentAuthenticationRequestRiskCalculator(this.casEventRepository);
+        return new UserAgentAuthenticationRequestRiskCalculator(principalAuthenticationProfileCache());
     }
 
     @ConditionalOnMissingBean(name = "dateTimeAuthenticationRequestRiskCalculator")
     @Bean
     @RefreshScope
     public AuthenticationRequestRiskCalculator dateTimeAuthenticationRequestRiskCalculator() {
-        return new DateTimeAuthenticationRequestRiskCalculator(this.casEventRepository,
+        return new DateTimeAuthenticationRequestRiskCalculator(principalAuthenticationProfileCache(),
                 casProperties.getAuthn().getAdaptive().getRisk().getDateTime().getWindowInHours());
     }
 
@@ -187,7 +205,7 @@ public class ElectronicFenceConfiguration {
     @Bean
     @RefreshScope
     public AuthenticationRequestRiskCalculator geoLocationAuthenticationRequestRiskCalculator() {
-        return new GeoLocationAuthenticationRequestRiskCalculator(this.casEventRepository);
+        return new GeoLocationAuthenticationRequestRiskCalculator(principalAuthenticationProfileCache());
     }
 
     @ConditionalOnMissingBean(name = "riskAwareAuthenticationWebflowConfigurer")
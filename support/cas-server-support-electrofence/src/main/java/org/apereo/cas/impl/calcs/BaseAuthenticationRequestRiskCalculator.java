@@ -2,21 +2,16 @@ package org.apereo.cas.impl.calcs;
 
 import org.apereo.cas.api.AuthenticationRequestRiskCalculator;
 import org.apereo.cas.api.AuthenticationRiskScore;
+import org.apereo.cas.api.PrincipalAuthenticationProfile;
 import org.apereo.cas.authentication.Authentication;
 import org.apereo.cas.authentication.principal.Principal;
-import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.impl.profile.PrincipalAuthenticationProfileCache;
 import org.apereo.cas.services.RegisteredService;
-import org.apereo.cas.support.events.CasTicketGrantingTicketCreatedEvent;
-import org.apereo.cas.support.events.dao.CasEvent;
-import org.apereo.cas.support.events.dao.CasEventRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 
 import javax.servlet.http.HttpServletRequest;
 import java.math.BigDecimal;
-import java.time.ZonedDateTime;
-import java.util.Collection;
 
 /**
  * This is {@link BaseAuthenticationRequestRiskCalculator}.
@@ -28,15 +23,12 @@ public abstract class BaseAuthenticationRequestRiskCalculator implements Authent
     protected final transient Logger logger = LoggerFactory.getLogger(this.getClass());
 
     /**
-     * CAS event repository instance.
+     * Authentication profiles of principals, shared by all calculators.
      */
-    protected CasEventRepository casEventRepository;
-    
-    @Autowired
-    private CasConfigurationProperties casProperties;
-    
-    public BaseAuthenticationRequestRiskCalculator(final CasEventRepository casEventRepository) {
-        this.casEventRepository = casEventRepository;
+    protected PrincipalAuthenticationProfileCache profiles;
+
+    public BaseAuthenticationRequestRiskCalculator(final PrincipalAuthenticationProfileCache profiles) {
+        this.profiles = profiles;
     }
 
     @Override
@@ -44,46 +36,31 @@ public abstract class BaseAuthenticationRequestRiskCalculator implements Authent
                                                    final RegisteredService service,
                                                    final HttpServletRequest request) {
         final Principal principal = authentication.getPrincipal();
-        final Collection<CasEvent> events = getCasTicketGrantingTicketCreatedEventsFor(principal.getId());
-        if (events.isEmpty()) {
+        final PrincipalAuthenticationProfile profile = this.profiles.get(principal.getId());
+        if (profile.getCount() == 0) {
             return new AuthenticationRiskScore(HIGHEST_RISK_SCORE);
         }
-        final AuthenticationRiskScore score = new AuthenticationRiskScore(calculateScore(request, authentication, service, events));
+        final AuthenticationRiskScore score = new AuthenticationRiskScore(calculateScore(request, authentication, service, profile));
         logger.debug("Calculated authentication risk score by {} is {}", getClass().getSimpleName(), score);
         return score;
     }
-    
+
     /**
      * Calculate score authentication risk score.
      *
      * @param request        the request
      * @param authentication the authentication
      * @param service        the service
-     * @param events         the events
+     * @param profile        the authentication profile of the principal
      * @return the authentication risk score
      */
     protected BigDecimal calculateScore(final HttpServletRequest request,
                                     final Authentication authentication,
                                     final RegisteredService service,
-                                    final Collection<CasEvent> events) {
+                                    final PrincipalAuthenticationProfile profile) {
         return HIGHEST_RISK_SCORE;
     }
 
-    /**
-     * Gets cas ticket granting ticket created events.
-     *
-     * @param principal the principal
-     * @return the cas ticket granting ticket created events for
-     */
-    protected Collection<CasEvent> getCasTicketGrantingTicketCreatedEventsFor(final String principal) {
-        final String type = CasTicketGrantingTicketCreatedEvent.class.getName();
-        logger.debug("Retrieving events of type {} for {}", type, principal);
-        
-        final ZonedDateTime date = ZonedDateTime.now()
-                .minusDays(casProperties.getAuthn().getAdaptive().getRisk().getDaysInRecentHistory());
-        return casEventRepository.getEventsOfTypeForPrincipal(type, principal, date);
-    }
-
     /**
      * Gets final averaged score.
      *
@@ -1,14 +1,14 @@
 package org.apereo.cas.impl.calcs;
 
+import org.apereo.cas.api.PrincipalAuthenticationProfile;
 import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.impl.profile.PrincipalAuthenticationProfileCache;
 import org.apereo.cas.services.RegisteredService;
-import org.apereo.cas.support.events.dao.CasEvent;
-import org.apereo.cas.support.events.dao.CasEventRepository;
 
 import javax.servlet.http.HttpServletRequest;
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
-import java.util.Collection;
+import java.util.stream.IntStream;
 
 /**
  * This is {@link DateTimeAuthenticationRequestRiskCalculator}.
@@ -17,28 +17,32 @@ import java.util.Collection;
  * @since 5.1.0
  */
 public class DateTimeAuthenticationRequestRiskCalculator extends BaseAuthenticationRequestRiskCalculator {
+    private static final int HOURS_IN_DAY = 24;
+
     private final int windowInHours;
 
-    public DateTimeAuthenticationRequestRiskCalculator(final CasEventRepository casEventRepository, final int windowInHours) {
-        super(casEventRepository);
+    public DateTimeAuthenticationRequestRiskCalculator(final PrincipalAuthenticationProfileCache profiles, final int windowInHours) {
+        super(profiles);
         this.windowInHours = windowInHours;
     }
 
     @Override
     protected BigDecimal calculateScore(final HttpServletRequest request, final Authentication authentication,
-                                        final RegisteredService service, final Collection<CasEvent> events) {
+                                        final RegisteredService service, final PrincipalAuthenticationProfile profile) {
         final ZonedDateTime timestamp = ZonedDateTime.now();
         logger.debug("Filtering authentication events for timestamp {}", timestamp);
 
-        final long count = events.stream().filter(e -> e.getCreationTime().getHour() == timestamp.getHour()
-                || e.getCreationTime().plusHours(windowInHours).getHour() == timestamp.getHour()
-                || e.getCreationTime().minusHours(windowInHours).getHour() == timestamp.getHour()).count();
-        
+        final int hour = timestamp.getHour();
+        final long count = IntStream.of(hour, hour - windowInHours, hour + windowInHours)
+                .map(h -> Math.floorMod(h, HOURS_IN_DAY))
+                .distinct()
+                .mapToLong(profile::getHourOfDayCount)
+                .sum();
         logger.debug("Total authentication events found for {}: {}", timestamp, count);
-        if (count == events.size()) {
+        if (count == profile.getCount()) {
             logger.debug("Principal {} has always authenticated from {}", authentication.getPrincipal(), timestamp);
             return LOWEST_RISK_SCORE;
         }
-        return getFinalAveragedScore(count, events.size());
+        return getFinalAveragedScore(count, profile.getCount());
     }
 }
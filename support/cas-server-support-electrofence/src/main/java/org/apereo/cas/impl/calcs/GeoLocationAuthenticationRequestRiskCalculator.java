@@ -1,12 +1,12 @@
 package org.apereo.cas.impl.calcs;
 
+import org.apereo.cas.api.PrincipalAuthenticationProfile;
 import org.apereo.cas.authentication.Authentication;
 import org.apereo.cas.authentication.adaptive.geo.GeoLocationRequest;
 import org.apereo.cas.authentication.adaptive.geo.GeoLocationResponse;
 import org.apereo.cas.authentication.adaptive.geo.GeoLocationService;
+import org.apereo.cas.impl.profile.PrincipalAuthenticationProfileCache;
 import org.apereo.cas.services.RegisteredService;
-import org.apereo.cas.support.events.dao.CasEvent;
-import org.apereo.cas.support.events.dao.CasEventRepository;
 import org.apereo.cas.web.support.WebUtils;
 import org.apereo.inspektr.common.web.ClientInfoHolder;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +14,6 @@ import org.springframework.beans.factory.annotation.Qualifier;
 
 import javax.servlet.http.HttpServletRequest;
 import java.math.BigDecimal;
-import java.util.Collection;
 
 /**
  * This is {@link GeoLocationAuthenticationRequestRiskCalculator}.
@@ -30,37 +29,37 @@ public class GeoLocationAuthenticationRequestRiskCalculator extends BaseAuthenti
     @Qualifier("geoLocationService")
     protected GeoLocationService geoLocationService;
 
-    public GeoLocationAuthenticationRequestRiskCalculator(final CasEventRepository casEventRepository) {
-        super(casEventRepository);
+    public GeoLocationAuthenticationRequestRiskCalculator(final PrincipalAuthenticationProfileCache profiles) {
+        super(profiles);
     }
 
     @Override
     protected BigDecimal calculateScore(final HttpServletRequest request, final Authentication authentication,
-                                        final RegisteredService service, final Collection<CasEvent> events) {
+                                        final RegisteredService service, final PrincipalAuthenticationProfile profile) {
 
         final GeoLocationRequest loc = WebUtils.getHttpServletRequestGeoLocation();
         if (loc.isValid()) {
             logger.debug("Filtering authentication events for geolocation {}", loc);
-            final long count = events.stream().filter(e -> e.getGeoLocation().equals(loc)).count();
+            final long count = profile.getGeoLocationCount(loc);
             logger.debug("Total authentication events found for {}: {}", loc, count);
-            if (count == events.size()) {
+            if (count == profile.getCount()) {
                 logger.debug("Principal {} has always authenticated from {}", authentication.getPrincipal(), loc);
                 return LOWEST_RISK_SCORE;
             }
-            return getFinalAveragedScore(count, events.size());
+            return getFinalAveragedScore(count, profile.getCount());
         } else {
             final String remoteAddr = ClientInfoHolder.getClientInfo().getClientIpAddress();
             logger.debug("Filtering authentication events for location based on ip {}", remoteAddr);
             final GeoLocationResponse response = this.geoLocationService.locate(remoteAddr);
             if (response != null) {
-                final long count = events.stream().filter(e -> e.getGeoLocation().equals(
-                        new GeoLocationRequest(response.getLatitude(), response.getLongitude()))).count();
+                final long count = profile.getGeoLocationCount(
+                        new GeoLocationRequest(response.getLatitude(), response.getLongitude()));
                 logger.debug("Total authentication events found for location of {}: {}", remoteAddr, count);
-                if (count == events.size()) {
+                if (count == profile.getCount()) {
                     logger.debug("Principal {} has always authenticated from {}", authentication.getPrincipal(), loc);
                     return LOWEST_RISK_SCORE;
                 }
-                return getFinalAveragedScore(count, events.size());
+                return getFinalAveragedScore(count, profile.getCount());
             }
         }
         logger.debug("Request does not contain enough geolocation data");
@@ -1,14 +1,13 @@
 package org.apereo.cas.impl.calcs;
 
+import org.apereo.cas.api.PrincipalAuthenticationProfile;
 import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.impl.profile.PrincipalAuthenticationProfileCache;
 import org.apereo.cas.services.RegisteredService;
-import org.apereo.cas.support.events.dao.CasEvent;
-import org.apereo.cas.support.events.dao.CasEventRepository;
 import org.apereo.inspektr.common.web.ClientInfoHolder;
 
 import javax.servlet.http.HttpServletRequest;
 import java.math.BigDecimal;
-import java.util.Collection;
 
 /**
  * This is {@link IpAddressAuthenticationRequestRiskCalculator}.
@@ -18,23 +17,23 @@ import java.util.Collection;
  */
 public class IpAddressAuthenticationRequestRiskCalculator extends BaseAuthenticationRequestRiskCalculator {
 
-    public IpAddressAuthenticationRequestRiskCalculator(final CasEventRepository casEventRepository) {
-        super(casEventRepository);
+    public IpAddressAuthenticationRequestRiskCalculator(final PrincipalAuthenticationProfileCache profiles) {
+        super(profiles);
     }
 
     @Override
     protected BigDecimal calculateScore(final HttpServletRequest request,
                                         final Authentication authentication,
                                         final RegisteredService service,
-                                        final Collection<CasEvent> events) {
+                                        final PrincipalAuthenticationProfile profile) {
         final String remoteAddr = ClientInfoHolder.getClientInfo().getClientIpAddress();
         logger.debug("Filtering authentication events for ip address {}", remoteAddr);
-        final long count = events.stream().filter(e -> e.getClientIpAddress().equalsIgnoreCase(remoteAddr)).count();
+        final long count = profile.getIpAddressCount(remoteAddr);
         logger.debug("Total authentication events found for {}: {}", remoteAddr, count);
-        if (count == events.size()) {
+        if (count == profile.getCount()) {
             logger.debug("Principal {} has always authenticated from {}", authentication.getPrincipal(), remoteAddr);
             return LOWEST_RISK_SCORE;
         }
-        return getFinalAveragedScore(count, events.size());
+        return getFinalAveragedScore(count, profile.getCount());
     }
 }
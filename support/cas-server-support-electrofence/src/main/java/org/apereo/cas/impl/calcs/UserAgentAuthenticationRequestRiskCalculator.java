@@ -1,14 +1,13 @@
 package org.apereo.cas.impl.calcs;
 
+import org.apereo.cas.api.PrincipalAuthenticationProfile;
 import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.impl.profile.PrincipalAuthenticationProfileCache;
 import org.apereo.cas.services.RegisteredService;
-import org.apereo.cas.support.events.dao.CasEvent;
-import org.apereo.cas.support.events.dao.CasEventRepository;
 import org.apereo.cas.web.support.WebUtils;
 
 import javax.servlet.http.HttpServletRequest;
 import java.math.BigDecimal;
-import java.util.Collection;
 
 /**
  * This is {@link UserAgentAuthenticationRequestRiskCalculator}.
@@ -17,24 +16,24 @@ import java.util.Collection;
  * @since 5.1.0
  */
 public class UserAgentAuthenticationRequestRiskCalculator extends BaseAuthenticationRequestRiskCalculator {
-    public UserAgentAuthenticationRequestRiskCalculator(final CasEventRepository casEventRepository) {
-        super(casEventRepository);
+    public UserAgentAuthenticationRequestRiskCalculator(final PrincipalAuthenticationProfileCache profiles) {
+        super(profiles);
     }
 
     @Override
     protected BigDecimal calculateScore(final HttpServletRequest request,
                                         final Authentication authentication,
                                         final RegisteredService service,
-                                        final Collection<CasEvent> events) {
+                                        final PrincipalAuthenticationProfile profile) {
 
         final String agent = WebUtils.getHttpServletRequestUserAgent(request);
         logger.debug("Filtering authentication events for user agent {}", agent);
-        final long count = events.stream().filter(e -> e.getAgent().equalsIgnoreCase(agent)).count();
+        final long count = profile.getUserAgentCount(agent);
         logger.debug("Total authentication events found for {}: {}", agent, count);
-        if (count == events.size()) {
+        if (count == profile.getCount()) {
             logger.debug("Principal {} has always authenticated from {}", authentication.getPrincipal(), agent);
             return LOWEST_RISK_SCORE;
         }
-        return getFinalAveragedScore(count, events.size());
+        return getFinalAveragedScore(count, profile.getCount());
     }
 }
@@ -0,0 +1,51 @@
+package org.apereo.cas.impl.profile;
+
+import org.apereo.cas.api.PrincipalAuthenticationProfile;
+import org.apereo.cas.api.PrincipalAuthenticationProfileRepository;
+import org.apereo.cas.support.events.CasTicketGrantingTicketCreatedEvent;
+import org.apereo.cas.support.events.dao.CasEvent;
+import org.apereo.cas.support.events.dao.CasEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+
+/**
+ * This is {@link CasEventPrincipalAuthenticationProfileRepository} that builds profiles
+ * from the ticket granting ticket created events of the principal found in the
+ * {@link CasEventRepository}. Since the events themselves are persisted, profiles are not saved.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class CasEventPrincipalAuthenticationProfileRepository implements PrincipalAuthenticationProfileRepository {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CasEventPrincipalAuthenticationProfileRepository.class);
+
+    private final CasEventRepository casEventRepository;
+
+    private final long daysInRecentHistory;
+
+    public CasEventPrincipalAuthenticationProfileRepository(final CasEventRepository casEventRepository, final long daysInRecentHistory) {
+        this.casEventRepository = casEventRepository;
+        this.daysInRecentHistory = daysInRecentHistory;
+    }
+
+    @Override
+    public PrincipalAuthenticationProfile load(final String principal) {
+        final String type = CasTicketGrantingTicketCreatedEvent.class.getName();
+        LOGGER.debug("Retrieving events of type {} for {}", type, principal);
+
+        final ZonedDateTime date = ZonedDateTime.now().minusDays(this.daysInRecentHistory);
+        final Collection<CasEvent> events = this.casEventRepository.getEventsOfTypeForPrincipal(type, principal, date);
+        final PrincipalAuthenticationProfile profile = new PrincipalAuthenticationProfile(principal, this.daysInRecentHistory);
+        events.forEach(profile::record);
+        LOGGER.debug("Built authentication profile for {} from {} event(s)", principal, events.size());
+        return profile;
+    }
+
+    @Override
+    public void save(final PrincipalAuthenticationProfile profile) {
+        LOGGER.trace("Authentication profile of {} is kept as events", profile.getPrincipal());
+    }
+}
@@ -0,0 +1,98 @@
+package org.apereo.cas.impl.profile;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import org.apereo.cas.api.PrincipalAuthenticationProfile;
+import org.apereo.cas.api.PrincipalAuthenticationProfileRepository;
+import org.apereo.cas.support.events.CasTicketGrantingTicketCreatedEvent;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.web.support.WebUtils;
+import org.apereo.inspektr.common.web.ClientInfo;
+import org.apereo.inspektr.common.web.ClientInfoHolder;
+import org.springframework.context.event.EventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link PrincipalAuthenticationProfileCache} that keeps a bounded number of
+ * authentication profiles in memory. Profiles are loaded from the
+ * {@link PrincipalAuthenticationProfileRepository} on first use and are updated
+ * as principals obtain ticket granting tickets on this node, so that risk calculators
+ * do not go through the authentication history of a principal on every authentication.
+ * Profiles are dropped a fixed time after they were loaded, however often they are used,
+ * so that authentications recorded by other nodes are picked up once the profile is
+ * loaded again.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class PrincipalAuthenticationProfileCache {
+    private final PrincipalAuthenticationProfileRepository repository;
+
+    private final LoadingCache<String, PrincipalAuthenticationProfile> profiles;
+
+    /**
+     * Instantiates a new profile cache.
+     *
+     * @param repository      the repository that loads and saves profiles
+     * @param cacheSize       the maximum number of cached profiles
+     * @param cacheExpiration the time in milliseconds after which a profile is loaded again
+     */
+    public PrincipalAuthenticationProfileCache(final PrincipalAuthenticationProfileRepository repository,
+                                               final long cacheSize, final long cacheExpiration) {
+        this(repository, cacheSize, cacheExpiration, Ticker.systemTicker());
+    }
+
+    /**
+     * Instantiates a new profile cache.
+     *
+     * @param repository      the repository that loads and saves profiles
+     * @param cacheSize       the maximum number of cached profiles
+     * @param cacheExpiration the time in milliseconds after which a profile is loaded again
+     * @param ticker          the time source of the cache
+     */
+    PrincipalAuthenticationProfileCache(final PrincipalAuthenticationProfileRepository repository,
+                                        final long cacheSize, final long cacheExpiration, final Ticker ticker) {
+        this.repository = repository;
+        this.profiles = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheExpiration, TimeUnit.MILLISECONDS)
+                .ticker(ticker)
+                .build(new CacheLoader<String, PrincipalAuthenticationProfile>() {
+                    @Override
+                    public PrincipalAuthenticationProfile load(final String principal) {
+                        return repository.load(principal);
+                    }
+                });
+    }
+
+    /**
+     * Gets the authentication profile of the principal.
+     *
+     * @param principal the principal
+     * @return the profile
+     */
+    public PrincipalAuthenticationProfile get(final String principal) {
+        return this.profiles.getUnchecked(principal);
+    }
+
+    /**
+     * Record the authentication in the profile of the principal, if the profile is cached.
+     * Profiles that are not cached pick up the authentication when they are next loaded.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleCasTicketGrantingTicketCreatedEvent(final CasTicketGrantingTicketCreatedEvent event) {
+        final TicketGrantingTicket ticket = event.getTicketGrantingTicket();
+        final PrincipalAuthenticationProfile profile = this.profiles.getIfPresent(ticket.getAuthentication().getPrincipal().getId());
+        if (profile != null) {
+            final ClientInfo clientInfo = ClientInfoHolder.getClientInfo();
+            profile.record(ticket.getCreationTime(), clientInfo == null ? null : clientInfo.getClientIpAddress(),
+                    WebUtils.getHttpServletRequestUserAgent(), WebUtils.getHttpServletRequestGeoLocation());
+            this.repository.save(profile);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.apereo.cas.api;
+
+import org.apereo.cas.authentication.adaptive.geo.GeoLocationRequest;
+import org.apereo.cas.support.events.dao.CasEvent;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link PrincipalAuthenticationProfileTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class PrincipalAuthenticationProfileTests {
+
+    private static final int DAYS_IN_HISTORY = 30;
+
+    private static final int EVENT_COUNT = 5000;
+
+    @Test
+    public void verifyCountersMatchHistoryOfManyEvents() {
+        final List<CasEvent> events = new ArrayList<>(EVENT_COUNT);
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            final CasEvent event = new CasEvent();
+            event.setPrincipalId("casuser");
+            event.putCreationTime(ZonedDateTime.now().minusDays(i % DAYS_IN_HISTORY).minusHours(i / 7 % 24));
+            event.putClientIpAddress("10.0.0." + i % 10);
+            event.putAgent("Agent-" + i % 5);
+            event.putGeoLocation(new GeoLocationRequest(i % 3, i / 3 % 3));
+            events.add(event);
+        }
+
+        final PrincipalAuthenticationProfile profile = new PrincipalAuthenticationProfile("casuser", DAYS_IN_HISTORY);
+        events.forEach(profile::record);
+
+        assertEquals(EVENT_COUNT, profile.getCount());
+        assertEquals(events.stream().filter(e -> e.getClientIpAddress().equalsIgnoreCase("10.0.0.1")).count(),
+                profile.getIpAddressCount("10.0.0.1"));
+        assertEquals(events.stream().filter(e -> e.getAgent().equalsIgnoreCase("agent-2")).count(),
+                profile.getUserAgentCount("AGENT-2"));
+        final GeoLocationRequest location = new GeoLocationRequest(1, 2);
+        assertEquals(events.stream().filter(e -> e.getGeoLocation().equals(location)).count(),
+                profile.getGeoLocationCount(location));
+        for (int hour = 0; hour < 24; hour++) {
+            final int h = hour;
+            assertEquals(events.stream().filter(e -> e.getCreationTime().getHour() == h).count(),
+                    profile.getHourOfDayCount(hour));
+        }
+    }
+
+    @Test
+    public void verifyAuthenticationsOutsideHistoryAreIgnored() {
+        final PrincipalAuthenticationProfile profile = new PrincipalAuthenticationProfile("casuser", DAYS_IN_HISTORY);
+        profile.record(ZonedDateTime.now().minusDays(DAYS_IN_HISTORY + 1), "10.0.0.1", "agent", null);
+        profile.record(ZonedDateTime.now(), "10.0.0.2", "agent", null);
+        assertEquals(1, profile.getCount());
+        assertEquals(0, profile.getIpAddressCount("10.0.0.1"));
+        assertEquals(1, profile.getUserAgentCount("agent"));
+    }
+}
@@ -0,0 +1,148 @@
+package org.apereo.cas.impl.profile;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import org.apereo.cas.api.PrincipalAuthenticationProfile;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.support.events.CasTicketGrantingTicketCreatedEvent;
+import org.apereo.cas.support.events.dao.CasEvent;
+import org.apereo.cas.support.events.dao.CasEventRepository;
+import org.apereo.cas.support.events.dao.InMemoryCasEventRepository;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.apereo.inspektr.common.web.ClientInfo;
+import org.apereo.inspektr.common.web.ClientInfoHolder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link PrincipalAuthenticationProfileCacheTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class PrincipalAuthenticationProfileCacheTests {
+
+    private static final int DAYS_IN_HISTORY = 30;
+
+    private static final long CACHE_EXPIRATION = TimeUnit.MINUTES.toMillis(30);
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final AtomicInteger saves = new AtomicInteger();
+
+    private CasEventRepository casEventRepository;
+
+    private PrincipalAuthenticationProfileCache cache;
+
+    @Before
+    public void setUp() {
+        this.casEventRepository = new InMemoryCasEventRepository(CacheBuilder.newBuilder());
+        final CasEventPrincipalAuthenticationProfileRepository repository =
+                new CasEventPrincipalAuthenticationProfileRepository(this.casEventRepository, DAYS_IN_HISTORY) {
+                    @Override
+                    public PrincipalAuthenticationProfile load(final String principal) {
+                        loads.incrementAndGet();
+                        return super.load(principal);
+                    }
+
+                    @Override
+                    public void save(final PrincipalAuthenticationProfile profile) {
+                        saves.incrementAndGet();
+                        super.save(profile);
+                    }
+                };
+        final Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        };
+        this.cache = new PrincipalAuthenticationProfileCache(repository, 100, CACHE_EXPIRATION, ticker);
+        ClientInfoHolder.setClientInfo(new ClientInfo("127.0.0.1", "10.0.0.1"));
+    }
+
+    @After
+    public void tearDown() {
+        ClientInfoHolder.setClientInfo(null);
+    }
+
+    @Test
+    public void verifyProfileIsLoadedFromEventsOnce() {
+        saveEvent("casuser", "10.0.0.1");
+        saveEvent("casuser", "10.0.0.2");
+        saveEvent("other", "10.0.0.1");
+
+        final PrincipalAuthenticationProfile profile = this.cache.get("casuser");
+        assertEquals(2, profile.getCount());
+        assertEquals(1, profile.getIpAddressCount("10.0.0.2"));
+        assertSame(profile, this.cache.get("casuser"));
+        assertEquals(1, this.loads.get());
+        assertEquals(0, this.cache.get("nobody").getCount());
+    }
+
+    @Test
+    public void verifyCachedProfileRecordsTicketGrantingTickets() {
+        saveEvent("casuser", "10.0.0.2");
+        final PrincipalAuthenticationProfile profile = this.cache.get("casuser");
+
+        this.cache.handleCasTicketGrantingTicketCreatedEvent(newTicketGrantingTicketCreatedEvent("casuser"));
+        assertEquals(2, profile.getCount());
+        assertEquals(1, profile.getIpAddressCount("10.0.0.1"));
+        assertEquals(1, this.saves.get());
+        assertEquals(1, this.loads.get());
+    }
+
+    @Test
+    public void verifyTicketGrantingTicketsDoNotLoadProfiles() {
+        this.cache.handleCasTicketGrantingTicketCreatedEvent(newTicketGrantingTicketCreatedEvent("casuser"));
+        assertEquals(0, this.loads.get());
+        assertEquals(0, this.saves.get());
+    }
+
+    @Test
+    public void verifyProfileInUseIsLoadedAgainAfterExpiration() {
+        saveEvent("casuser", "10.0.0.2");
+        assertEquals(1, this.cache.get("casuser").getCount());
+
+        saveEvent("casuser", "10.0.0.3");
+        advance(CACHE_EXPIRATION / 2);
+        assertEquals(1, this.cache.get("casuser").getCount());
+        advance(CACHE_EXPIRATION / 2 + 1);
+
+        final PrincipalAuthenticationProfile profile = this.cache.get("casuser");
+        assertEquals(2, profile.getCount());
+        assertEquals(1, profile.getIpAddressCount("10.0.0.3"));
+        assertEquals(2, this.loads.get());
+    }
+
+    private void advance(final long millis) {
+        this.nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private void saveEvent(final String principal, final String clientIpAddress) {
+        final CasEvent event = new CasEvent();
+        event.setType(CasTicketGrantingTicketCreatedEvent.class.getName());
+        event.setPrincipalId(principal);
+        event.putCreationTime(ZonedDateTime.now().minusHours(1));
+        event.putClientIpAddress(clientIpAddress);
+        event.putAgent("Firefox");
+        this.casEventRepository.save(event);
+    }
+
+    private static CasTicketGrantingTicketCreatedEvent newTicketGrantingTicketCreatedEvent(final String principal) {
+        return new CasTicketGrantingTicketCreatedEvent(PrincipalAuthenticationProfileCacheTests.class,
+                new TicketGrantingTicketImpl("TGT-1", CoreAuthenticationTestUtils.getAuthentication(principal),
+                        new NeverExpiresExpirationPolicy()));
+    }
+}
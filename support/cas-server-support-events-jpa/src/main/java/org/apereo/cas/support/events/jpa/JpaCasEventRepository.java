@@ -20,7 +20,10 @@ import java.util.Collection;
 @Transactional(readOnly = false, transactionManager = "transactionManagerEvents")
 public class JpaCasEventRepository extends AbstractCasEventRepository {
 
-    private static final String SELECT_QUERY = "SELECT r from CasEvent r ";
+    /**
+     * Event properties are fetched along with each event, rather than in one extra query per event.
+     */
+    private static final String SELECT_QUERY = "SELECT DISTINCT r from CasEvent r left join fetch r.properties ";
 
     @PersistenceContext(unitName = "eventsEntityManagerFactory")
     private EntityManager entityManager;
@@ -35,6 +38,19 @@ public class JpaCasEventRepository extends AbstractCasEventRepository {
         this.entityManager.merge(event);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * All events are written in a single transaction; inserts are grouped into
+     * JDBC batches of {@code cas.events.jpa.batchSize} statements.
+     */
+    @Override
+    public void saveAll(final Collection<CasEvent> events) {
+        events.forEach(this.entityManager::merge);
+        this.entityManager.flush();
+        this.entityManager.clear();
+    }
+
     @Override
     public Collection<CasEvent> load() {
         return this.entityManager.createQuery(SELECT_QUERY.trim(), CasEvent.class).getResultList();
@@ -49,7 +65,7 @@ public class JpaCasEventRepository extends AbstractCasEventRepository {
     @Override
     public Collection<CasEvent> load(final ZonedDateTime dateTime) {
         return this.entityManager.createQuery(SELECT_QUERY.concat("where r.creationTime >= :creationTime"),
-                CasEvent.class).setParameter("creationTime", dateTime.toString()).getResultList();
+                CasEvent.class).setParameter("creationTime", dateTime.toInstant().toEpochMilli()).getResultList();
     }
 
     @Override
@@ -59,7 +75,7 @@ public class JpaCasEventRepository extends AbstractCasEventRepository {
                 CasEvent.class)
                 .setParameter("type", type)
                 .setParameter("principalId", principal)
-                .setParameter("creationTime", dateTime.toString())
+                .setParameter("creationTime", dateTime.toInstant().toEpochMilli())
                 .getResultList();
     }
 
@@ -68,7 +84,7 @@ public class JpaCasEventRepository extends AbstractCasEventRepository {
         return this.entityManager.createQuery(
                 SELECT_QUERY.concat("where r.type = :type and r.creationTime >= :creationTime"), CasEvent.class)
                 .setParameter("type", type)
-                .setParameter("creationTime", dateTime.toString())
+                .setParameter("creationTime", dateTime.toInstant().toEpochMilli())
                 .getResultList();
     }
 
@@ -77,7 +93,7 @@ public class JpaCasEventRepository extends AbstractCasEventRepository {
         return this.entityManager.createQuery(
                 SELECT_QUERY.concat("where r.principalId = :principalId and r.creationTime >= :creationTime"), CasEvent.class)
                 .setParameter("principalId", id)
-                .setParameter("creationTime", dateTime.toString())
+                .setParameter("creationTime", dateTime.toInstant().toEpochMilli())
                 .getResultList();
     }
 
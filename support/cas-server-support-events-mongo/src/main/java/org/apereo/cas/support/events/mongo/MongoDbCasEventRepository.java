@@ -1,10 +1,17 @@
 package org.apereo.cas.support.events.mongo;
 
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
 import org.apereo.cas.support.events.dao.AbstractCasEventRepository;
 import org.apereo.cas.support.events.dao.CasEvent;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.util.Assert;
 
 import java.time.ZonedDateTime;
@@ -18,6 +25,11 @@ import java.util.Collection;
  */
 public class MongoDbCasEventRepository extends AbstractCasEventRepository {
 
+    private static final String ID_FIELD = "_id";
+    private static final String PRINCIPAL_ID_FIELD = "principalId";
+    private static final String TYPE_FIELD = "type";
+    private static final String CREATION_TIME_FIELD = "creationTime";
+
     private final String collectionName;
     private final MongoOperations mongoTemplate;
 
@@ -36,6 +48,13 @@ public class MongoDbCasEventRepository extends AbstractCasEventRepository {
             logger.debug("Creating database collection: {}", this.collectionName);
             this.mongoTemplate.createCollection(this.collectionName);
         }
+
+        final IndexOperations indexes = this.mongoTemplate.indexOps(this.collectionName);
+        indexes.ensureIndex(new Index().on(PRINCIPAL_ID_FIELD, Sort.Direction.ASC)
+                .on(TYPE_FIELD, Sort.Direction.ASC)
+                .on(CREATION_TIME_FIELD, Sort.Direction.ASC));
+        indexes.ensureIndex(new Index().on(TYPE_FIELD, Sort.Direction.ASC)
+                .on(CREATION_TIME_FIELD, Sort.Direction.ASC));
     }
 
     @Override
@@ -48,6 +67,29 @@ public class MongoDbCasEventRepository extends AbstractCasEventRepository {
         this.mongoTemplate.save(event, this.collectionName);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Events are sent to the database in one ordered bulk write, keeping the
+     * upsert semantics of {@link #save(CasEvent)} for each event. Events that map
+     * to the same document are applied in order, so the last one wins as it would
+     * when saving them one by one.
+     */
+    @Override
+    public void saveAll(final Collection<CasEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        final BulkOperations operations = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, CasEvent.class, this.collectionName);
+        events.forEach(event -> {
+            final DBObject document = new BasicDBObject();
+            this.mongoTemplate.getConverter().write(event, document);
+            final Query query = new Query(Criteria.where(ID_FIELD).is(document.get(ID_FIELD)));
+            operations.upsert(query, Update.fromDBObject(document, ID_FIELD));
+        });
+        operations.execute();
+    }
+
     @Override
     public Collection<CasEvent> load() {
         return this.mongoTemplate.findAll(CasEvent.class, this.collectionName);
@@ -56,49 +98,53 @@ public class MongoDbCasEventRepository extends AbstractCasEventRepository {
     @Override
     public Collection<CasEvent> getEventsForPrincipal(final String id) {
         final Query query = new Query();
-        query.addCriteria(Criteria.where("principalId").is(id));
+        query.addCriteria(Criteria.where(PRINCIPAL_ID_FIELD).is(id));
         return this.mongoTemplate.find(query, CasEvent.class, this.collectionName);
     }
 
     @Override
     public Collection<CasEvent> getEventsOfType(final String type) {
         final Query query = new Query();
-        query.addCriteria(Criteria.where("type").is(type));
+        query.addCriteria(Criteria.where(TYPE_FIELD).is(type));
         return this.mongoTemplate.find(query, CasEvent.class, this.collectionName);
     }
 
     @Override
     public Collection<CasEvent> getEventsOfTypeForPrincipal(final String type, final String principal) {
         final Query query = new Query();
-        query.addCriteria(Criteria.where("type").is(type).and("principalId").is(principal));
+        query.addCriteria(Criteria.where(TYPE_FIELD).is(type).and(PRINCIPAL_ID_FIELD).is(principal));
         return this.mongoTemplate.find(query, CasEvent.class, this.collectionName);
     }
 
     @Override
     public Collection<CasEvent> load(final ZonedDateTime dateTime) {
         final Query query = new Query();
-        query.addCriteria(Criteria.where("creationTime").gte(dateTime.toString()));
+        query.addCriteria(Criteria.where(CREATION_TIME_FIELD).gte(dateTime.toInstant().toEpochMilli()));
         return this.mongoTemplate.find(query, CasEvent.class, this.collectionName);
     }
 
     @Override
     public Collection<CasEvent> getEventsOfTypeForPrincipal(final String type, final String principal, final ZonedDateTime dateTime) {
         final Query query = new Query();
-        query.addCriteria(Criteria.where("type").is(type).and("principalId").is(principal).and("creationTime").gte(dateTime.toString()));
+        query.addCriteria(Criteria.where(TYPE_FIELD).is(type)
+                .and(PRINCIPAL_ID_FIELD).is(principal)
+                .and(CREATION_TIME_FIELD).gte(dateTime.toInstant().toEpochMilli()));
         return this.mongoTemplate.find(query, CasEvent.class, this.collectionName);
     }
 
     @Override
     public Collection<CasEvent> getEventsOfType(final String type, final ZonedDateTime dateTime) {
         final Query query = new Query();
-        query.addCriteria(Criteria.where("type").is(type).and("creationTime").gte(dateTime.toString()));
+        query.addCriteria(Criteria.where(TYPE_FIELD).is(type)
+                .and(CREATION_TIME_FIELD).gte(dateTime.toInstant().toEpochMilli()));
         return this.mongoTemplate.find(query, CasEvent.class, this.collectionName);
     }
 
     @Override
     public Collection<CasEvent> getEventsForPrincipal(final String principal, final ZonedDateTime dateTime) {
         final Query query = new Query();
-        query.addCriteria(Criteria.where("principalId").is(principal).and("creationTime").gte(dateTime.toString()));
+        query.addCriteria(Criteria.where(PRINCIPAL_ID_FIELD).is(principal)
+                .and(CREATION_TIME_FIELD).gte(dateTime.toInstant().toEpochMilli()));
         return this.mongoTemplate.find(query, CasEvent.class, this.collectionName);
     }
 }
@@ -1,5 +1,6 @@
 package org.apereo.cas.ticket.registry;
 
+import com.google.common.collect.AbstractIterator;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
 import com.hazelcast.query.PagingPredicate;
@@ -12,9 +13,14 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Hazelcast-based implementation of a {@link TicketRegistry}.
@@ -123,6 +129,35 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
         return collection;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Tickets are fetched lazily from the cluster one page at a time,
+     * without acquiring the cluster-wide lock used by {@link #getTickets()}.
+     */
+    @Override
+    public <T extends Ticket> Stream<T> streamTickets(final Class<T> ticketType) {
+        final Iterator<Ticket> iterator = new AbstractIterator<Ticket>() {
+            private final PagingPredicate pagingPredicate = new PagingPredicate(pageSize);
+            private Iterator<Ticket> page;
+
+            @Override
+            protected Ticket computeNext() {
+                if (this.page == null) {
+                    this.page = registry.values(this.pagingPredicate).iterator();
+                } else if (!this.page.hasNext()) {
+                    this.pagingPredicate.nextPage();
+                    this.page = registry.values(this.pagingPredicate).iterator();
+                }
+                return this.page.hasNext() ? this.page.next() : endOfData();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false)
+                .map(this::decodeTicket)
+                .filter(ticketType::isInstance)
+                .map(ticketType::cast);
+    }
+
     /**
      * Make sure we shutdown HazelCast when the context is destroyed.
      */
@@ -1,5 +1,7 @@
 package org.apereo.cas.ticket.registry;
 
+import com.google.common.collect.AbstractIterator;
+import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.ticket.OAuthToken;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.ServiceTicketImpl;
@@ -20,7 +22,13 @@ import javax.persistence.PersistenceContext;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * JPA implementation of a CAS {@link TicketRegistry}. This implementation of
@@ -37,6 +45,7 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
     private static final String TABLE_OAUTH_TICKETS = OAuthCodeImpl.class.getSimpleName();
     private static final String TABLE_SERVICE_TICKETS = ServiceTicketImpl.class.getSimpleName();
     private static final String TABLE_TICKET_GRANTING_TICKETS = TicketGrantingTicketImpl.class.getSimpleName();
+    private static final int STREAM_PAGE_SIZE = 500;
 
     private final boolean lockTgt;
 
@@ -136,6 +145,53 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         return tickets;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Tickets are read lazily, one table at a time, in pages of {@value #STREAM_PAGE_SIZE}
+     * ordered by ticket id. Each page resumes after the last id of the previous page,
+     * so paging does not rely on offsets that shift as tickets are added or removed.
+     * Tables that cannot hold tickets of the requested type are not queried.
+     */
+    @Override
+    public <T extends Ticket> Stream<T> streamTickets(final Class<T> ticketType) {
+        return Stream.of(
+                new TicketTable(TABLE_TICKET_GRANTING_TICKETS, TicketGrantingTicketImpl.class, TicketGrantingTicket.class),
+                new TicketTable(TABLE_SERVICE_TICKETS, ServiceTicketImpl.class, ServiceTicket.class),
+                new TicketTable(TABLE_OAUTH_TICKETS, OAuthCodeImpl.class, OAuthToken.class))
+                .filter(table -> table.mayContain(ticketType))
+                .flatMap(this::streamTable)
+                .filter(ticketType::isInstance)
+                .map(ticketType::cast);
+    }
+
+    private Stream<Ticket> streamTable(final TicketTable table) {
+        final Iterator<Ticket> iterator = new AbstractIterator<Ticket>() {
+            private Iterator<? extends Ticket> page = Collections.emptyIterator();
+            private String lastId = StringUtils.EMPTY;
+            private boolean exhausted;
+
+            @Override
+            protected Ticket computeNext() {
+                if (!this.page.hasNext() && !this.exhausted) {
+                    final List<? extends Ticket> results = entityManager
+                            .createQuery("select t from " + table.name + " t where t.id > :id order by t.id", table.entityType)
+                            .setParameter("id", this.lastId)
+                            .setMaxResults(STREAM_PAGE_SIZE)
+                            .getResultList();
+                    logger.trace("Fetched [{}] tickets from [{}] after [{}]", results.size(), table.name, this.lastId);
+                    this.exhausted = results.size() < STREAM_PAGE_SIZE;
+                    if (!results.isEmpty()) {
+                        this.lastId = results.get(results.size() - 1).getId();
+                    }
+                    this.page = results.iterator();
+                }
+                return this.page.hasNext() ? this.page.next() : endOfData();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
     @Override
     public long sessionCount() {
         return countToLong(this.entityManager.createQuery(
@@ -168,6 +224,34 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         return failureCount == 0;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Service tickets of the ticket-granting ticket are removed with a single bulk delete
+     * keyed on their foreign key to the ticket-granting ticket, rather than one by one.
+     * Proxy-granting tickets are removed the same way, recursively.
+     */
+    @Override
+    public int deleteTicketsFor(final TicketGrantingTicket ticket) {
+        int count = 0;
+        final List<TicketGrantingTicketImpl> proxyGrantingTickets = getTicketQueryResultList(ticket.getId(),
+                "select t from " + TABLE_TICKET_GRANTING_TICKETS + " t where t.ticketGrantingTicket.id = :id", TicketGrantingTicketImpl.class);
+        for (final TicketGrantingTicketImpl proxyGrantingTicket : proxyGrantingTickets) {
+            count += deleteTicketsFor(proxyGrantingTicket);
+        }
+
+        count += this.entityManager.createQuery("delete from " + TABLE_SERVICE_TICKETS + " s where s.ticketGrantingTicket.id = :id")
+                .setParameter("id", ticket.getId())
+                .executeUpdate();
+
+        final Ticket ticketGrantingTicket = this.entityManager.find(TicketGrantingTicketImpl.class, ticket.getId());
+        if (ticketGrantingTicket != null && removeTicket(ticketGrantingTicket)) {
+            count++;
+        }
+        logger.debug("Removed [{}] tickets for [{}]", count, ticket.getId());
+        return count;
+    }
+
     /**
      * Gets ticket query result list.
      *
@@ -251,6 +335,25 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         return failureCount;
     }
 
+    /**
+     * Describes a ticket table, its entity and the type of tickets it holds.
+     */
+    private static class TicketTable {
+        private final String name;
+        private final Class<? extends Ticket> entityType;
+        private final Class<? extends Ticket> ticketType;
+
+        TicketTable(final String name, final Class<? extends Ticket> entityType, final Class<? extends Ticket> ticketType) {
+            this.name = name;
+            this.entityType = entityType;
+            this.ticketType = ticketType;
+        }
+
+        boolean mayContain(final Class<? extends Ticket> type) {
+            return type.isAssignableFrom(this.ticketType) || this.ticketType.isAssignableFrom(type);
+        }
+    }
+
     /**
      * Count the result into a numeric value.
      *
@@ -12,11 +12,15 @@ import org.apereo.cas.logout.LogoutManager;
 import org.apereo.cas.ticket.registry.MemCacheTicketRegistry;
 import org.apereo.cas.ticket.registry.NoOpLockingStrategy;
 import org.apereo.cas.ticket.registry.NoOpTicketRegistryCleaner;
+import org.apereo.cas.ticket.registry.TicketCodec;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistryCleaner;
+import org.apereo.cas.ticket.registry.support.kryo.KryoTicketCodec;
 import org.apereo.cas.ticket.registry.support.kryo.KryoTranscoder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -60,6 +64,13 @@ public class MemcachedTicketRegistryConfiguration {
         return new KryoTranscoder();
     }
 
+    @ConditionalOnMissingBean(name = "ticketCodec")
+    @ConditionalOnProperty(prefix = "cas.ticket.registry.memcached", name = "kryoTicketCodecEnabled", havingValue = "true")
+    @Bean
+    public TicketCodec ticketCodec() {
+        return new KryoTicketCodec();
+    }
+
     @Autowired
     @Bean(name = {"memcachedTicketRegistry", "ticketRegistry"})
     public TicketRegistry memcachedTicketRegistry(@Qualifier("memcachedClient") final MemcachedClientIF memcachedClientIF) {
@@ -0,0 +1,38 @@
+package org.apereo.cas.ticket.registry.support.kryo;
+
+import net.spy.memcached.CachedData;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.registry.TicketCodec;
+
+/**
+ * This is {@link KryoTicketCodec} that encodes tickets with Kryo, using the type registrations
+ * of {@link KryoTranscoder}. Registered types are written as compact numeric identifiers
+ * rather than class names, and fields are written without the class metadata
+ * that Java serialization carries. Kryo instances are not thread-safe,
+ * so each thread is given its own transcoder.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class KryoTicketCodec implements TicketCodec {
+
+    private final ThreadLocal<KryoTranscoder> transcoders;
+
+    public KryoTicketCodec() {
+        this.transcoders = ThreadLocal.withInitial(() -> {
+            final KryoTranscoder transcoder = new KryoTranscoder();
+            transcoder.initialize();
+            return transcoder;
+        });
+    }
+
+    @Override
+    public byte[] encode(final Ticket ticket) {
+        return this.transcoders.get().encode(ticket).getData();
+    }
+
+    @Override
+    public Ticket decode(final byte[] bytes) {
+        return (Ticket) this.transcoders.get().decode(new CachedData(0, bytes, bytes.length));
+    }
+}
@@ -0,0 +1,69 @@
+package org.apereo.cas.ticket.registry.support.kryo;
+
+import org.apereo.cas.authentication.AcceptUsersAuthenticationHandler;
+import org.apereo.cas.authentication.AuthenticationBuilder;
+import org.apereo.cas.authentication.BasicCredentialMetaData;
+import org.apereo.cas.authentication.Credential;
+import org.apereo.cas.authentication.DefaultAuthenticationBuilder;
+import org.apereo.cas.authentication.DefaultHandlerResult;
+import org.apereo.cas.authentication.UsernamePasswordCredential;
+import org.apereo.cas.authentication.principal.DefaultPrincipalFactory;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.registry.JavaSerializationTicketCodec;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link KryoTicketCodecTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class KryoTicketCodecTests {
+
+    private static final String TGT_ID = "TGT-1-1234567890ABCDEFGHIJKLMNOPQRSTUVWXYZ01234567890ABCDEFGHIJK-cas1";
+    private static final String ST_ID = "ST-1-1234567890ABCDEFGHIJKLMNOPQRSTUVWXYZ01234567890ABCDEFGHIJK";
+
+    private final KryoTicketCodec codec = new KryoTicketCodec();
+
+    @Test
+    public void verifyTicketsRoundTrip() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket();
+        final ServiceTicket st = tgt.grantServiceTicket(ST_ID, RegisteredServiceTestUtils.getService(),
+                new NeverExpiresExpirationPolicy(), false, true);
+
+        assertEquals(tgt, this.codec.decode(this.codec.encode(tgt)));
+        assertEquals(st, this.codec.decode(this.codec.encode(st)));
+    }
+
+    @Test
+    public void verifyEncodingIsSmallerThanJavaSerialization() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket();
+        final byte[] kryo = this.codec.encode(tgt);
+        final byte[] java = new JavaSerializationTicketCodec().encode(tgt);
+        assertTrue(kryo.length < java.length);
+    }
+
+    private static TicketGrantingTicket newTicketGrantingTicket() {
+        final Credential credential = new UsernamePasswordCredential("casuser", "Mellon");
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put("nickname", "bob");
+        final AuthenticationBuilder builder = new DefaultAuthenticationBuilder(
+                new DefaultPrincipalFactory().createPrincipal("casuser", attributes));
+        builder.setAuthenticationDate(ZonedDateTime.now());
+        builder.addCredential(new BasicCredentialMetaData(credential));
+        builder.addSuccess("authn", new DefaultHandlerResult(new AcceptUsersAuthenticationHandler(),
+                new BasicCredentialMetaData(credential)));
+        return new TicketGrantingTicketImpl(TGT_ID, RegisteredServiceTestUtils.getService(), null,
+                builder.build(), new NeverExpiresExpirationPolicy());
+    }
+}
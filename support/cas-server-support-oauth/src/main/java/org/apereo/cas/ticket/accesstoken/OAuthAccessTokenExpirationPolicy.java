@@ -79,6 +79,19 @@ public class OAuthAccessTokenExpirationPolicy extends AbstractCasExpirationPolic
         return this.timeToKillInSeconds;
     }
 
+    @Override
+    public ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        if (ticketState == null) {
+            return null;
+        }
+        final ZonedDateTime creationTime = ticketState.getCreationTime();
+        final ZonedDateTime idleExpirationTime = creationTime.plus(this.timeToKillInSeconds, ChronoUnit.SECONDS);
+        if (ticketState.getLastTimeUsed().isAfter(idleExpirationTime)) {
+            return idleExpirationTime;
+        }
+        return creationTime.plus(this.maxTimeToLiveInSeconds, ChronoUnit.SECONDS);
+    }
+
 
     @Override
     public boolean equals(final Object obj) {
@@ -65,6 +65,11 @@ public class OAuthRefreshTokenExpirationPolicy extends AbstractCasExpirationPoli
         return 0L;
     }
 
+    @Override
+    public ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        return ticketState == null ? null : ticketState.getCreationTime().plus(this.timeToKillInSeconds, ChronoUnit.SECONDS);
+    }
+
 
     @Override
     public boolean equals(final Object obj) {
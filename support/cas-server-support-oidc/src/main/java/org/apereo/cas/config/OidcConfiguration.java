@@ -27,6 +27,7 @@ import org.apereo.cas.ticket.refreshtoken.RefreshTokenFactory;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistrySupport;
 import org.apereo.cas.util.OidcAuthorizationRequestSupport;
+import org.apereo.cas.util.OidcJsonWebKeystoreService;
 import org.apereo.cas.util.gen.DefaultRandomStringGenerator;
 import org.apereo.cas.util.serialization.StringSerializer;
 import org.apereo.cas.validation.AuthenticationRequestServiceSelectionStrategy;
@@ -59,6 +60,7 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
@@ -129,6 +131,9 @@ public class OidcConfiguration extends WebMvcConfigurerAdapter {
     @Autowired
     private CasConfigurationProperties casProperties;
 
+    @Autowired
+    private ResourceLoader resourceLoader;
+
     @Autowired
     @Qualifier("oauthSecConfig")
     private Config oauthSecConfig;
@@ -213,7 +218,14 @@ public class OidcConfiguration extends WebMvcConfigurerAdapter {
     @RefreshScope
     public AccessTokenResponseGenerator oidcAccessTokenResponseGenerator() {
         final OidcProperties oidc = casProperties.getAuthn().getOidc();
-        return new OidcAccessTokenResponseGenerator(oidc.getIssuer(), oidc.getSkew(), oidc.getJwksFile());
+        return new OidcAccessTokenResponseGenerator(oidc.getIssuer(), oidc.getSkew(), oidcJsonWebKeystoreService());
+    }
+
+    @Bean
+    @RefreshScope
+    public OidcJsonWebKeystoreService oidcJsonWebKeystoreService() {
+        final OidcProperties oidc = casProperties.getAuthn().getOidc();
+        return new OidcJsonWebKeystoreService(oidc.getJwksFile(), this.resourceLoader, oidc.getJwksCacheExpiration());
     }
 
     @Bean
@@ -253,7 +265,7 @@ public class OidcConfiguration extends WebMvcConfigurerAdapter {
     @Bean
     public OidcJwksEndpointController oidcJwksController() {
         return new OidcJwksEndpointController(servicesManager, ticketRegistry, oAuth20Validator, defaultAccessTokenFactory,
-                oidcPrincipalFactory(), webApplicationServiceFactory, casProperties.getAuthn().getOidc().getJwksFile());
+                oidcPrincipalFactory(), webApplicationServiceFactory, oidcJsonWebKeystoreService());
     }
 
     @RefreshScope
@@ -0,0 +1,304 @@
+package org.apereo.cas.util;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.services.OidcRegisteredService;
+import org.apereo.cas.services.RegisteredService;
+import org.apereo.cas.support.events.CasRegisteredServiceDeletedEvent;
+import org.apereo.cas.support.events.CasRegisteredServiceSavedEvent;
+import org.apereo.cas.support.events.CasRegisteredServicesRefreshEvent;
+import org.jose4j.jwk.JsonWebKey;
+import org.jose4j.jwk.JsonWebKeySet;
+import org.jose4j.jwk.RsaJsonWebKey;
+import org.jose4j.jwk.Use;
+import org.jose4j.lang.HashUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This is {@link OidcJsonWebKeystoreService} that loads and parses JWKS resources once,
+ * and keeps the parsed keys in memory for the configured expiration period. Once expired,
+ * keystores backed by files are only parsed again if the file has been modified;
+ * other resources are always reloaded. A keystore that fails to reload keeps serving its previous keys.
+ * <p>
+ * A keystore may carry several keys, to support key rotation. The first RSA key with a private
+ * part that is not restricted to encryption is the active signing key; all keys remain published
+ * so that tokens signed by keys that are being retired can still be verified. Keys that do not
+ * declare a key id are assigned their SHA-256 JWK thumbprint, so the key id stays stable.
+ * Loaded keystores are removed when an OIDC service is saved or deleted, or when services are reloaded,
+ * so keystores of services that no longer use them are not kept.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class OidcJsonWebKeystoreService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OidcJsonWebKeystoreService.class);
+
+    private final Resource jwksFile;
+
+    private final ResourceLoader resourceLoader;
+
+    private final long cacheExpiration;
+
+    private final Map<String, Keystore> keystores = new ConcurrentHashMap<>();
+
+    private volatile JsonWebKeySetDocument document;
+
+    /**
+     * Instantiates a new Oidc json web keystore service.
+     *
+     * @param jwksFile        the default jwks file
+     * @param resourceLoader  the resource loader for per-service jwks locations
+     * @param cacheExpiration the duration in milliseconds for which loaded keystores are used without checking for changes
+     */
+    public OidcJsonWebKeystoreService(final Resource jwksFile, final ResourceLoader resourceLoader, final long cacheExpiration) {
+        this.jwksFile = jwksFile;
+        this.resourceLoader = resourceLoader;
+        this.cacheExpiration = cacheExpiration;
+    }
+
+    /**
+     * Gets the json web key set for the service, which is the keystore defined by the service
+     * if any and if it can be loaded, or otherwise the default keystore.
+     *
+     * @param service the service
+     * @return the json web key set
+     */
+    public Optional<JsonWebKeySet> getJsonWebKeySet(final OidcRegisteredService service) {
+        return getServiceKeystore(service).map(k -> k.keys);
+    }
+
+    /**
+     * Gets the active signing key for the service.
+     *
+     * @param service the service
+     * @return the signing key
+     */
+    public Optional<RsaJsonWebKey> getSigningKey(final OidcRegisteredService service) {
+        return getServiceKeystore(service).map(k -> k.signingKey);
+    }
+
+    /**
+     * Gets the public keys of the default keystore and the keystores of the given services,
+     * serialized as a JWKS document. The document is only serialized again
+     * when one of the keystores it is built from has been reloaded.
+     *
+     * @param services the services
+     * @return the json web key set document
+     * @throws Exception the exception
+     */
+    public JsonWebKeySetDocument getPublishedJsonWebKeySet(final Collection<OidcRegisteredService> services) throws Exception {
+        final List<Keystore> sources = new ArrayList<>();
+        if (this.jwksFile != null) {
+            sources.add(getKeystore(this.jwksFile, this.jwksFile.getDescription()));
+        }
+        for (final OidcRegisteredService service : services) {
+            if (StringUtils.isNotBlank(service.getJwks())) {
+                sources.add(getKeystore(this.resourceLoader.getResource(service.getJwks()), service.getJwks()));
+            }
+        }
+
+        final JsonWebKeySetDocument current = this.document;
+        if (current != null && current.isBuiltFrom(sources)) {
+            return current;
+        }
+        final JsonWebKeySet jsonWebKeySet = new JsonWebKeySet();
+        sources.forEach(k -> k.keys.getJsonWebKeys().forEach(jsonWebKeySet::addJsonWebKey));
+        final String body = jsonWebKeySet.toJson(JsonWebKey.OutputControlLevel.PUBLIC_ONLY);
+        final JsonWebKeySetDocument result = new JsonWebKeySetDocument(sources, body, '"' + DigestUtils.sha(body) + '"');
+        this.document = result;
+        return result;
+    }
+
+    /**
+     * Remove all loaded keystores, forcing them to be loaded again on next use.
+     */
+    public void invalidate() {
+        this.keystores.clear();
+        this.document = null;
+    }
+
+    /**
+     * Handle registered service saved event.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleRegisteredServiceSavedEvent(final CasRegisteredServiceSavedEvent event) {
+        invalidate(event.getRegisteredService());
+    }
+
+    /**
+     * Handle registered service deleted event.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleRegisteredServiceDeletedEvent(final CasRegisteredServiceDeletedEvent event) {
+        invalidate(event.getRegisteredService());
+    }
+
+    /**
+     * Handle registered services refresh event.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleRegisteredServicesRefreshEvent(final CasRegisteredServicesRefreshEvent event) {
+        invalidate();
+    }
+
+    private void invalidate(final RegisteredService service) {
+        if (service instanceof OidcRegisteredService) {
+            LOGGER.debug("Removing loaded keystores after changes to service [{}]", service.getServiceId());
+            invalidate();
+        }
+    }
+
+    private Optional<Keystore> getServiceKeystore(final OidcRegisteredService service) {
+        try {
+            if (StringUtils.isNotBlank(service.getJwks())) {
+                return Optional.of(getKeystore(this.resourceLoader.getResource(service.getJwks()), service.getJwks()));
+            }
+        } catch (final Exception e) {
+            LOGGER.debug(e.getMessage(), e);
+        }
+        try {
+            if (this.jwksFile != null) {
+                return Optional.of(getKeystore(this.jwksFile, this.jwksFile.getDescription()));
+            }
+        } catch (final Exception e) {
+            LOGGER.error("Unable to load default JWKS from [{}]: [{}]", this.jwksFile, e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+        }
+        return Optional.empty();
+    }
+
+    private Keystore getKeystore(final Resource resource, final String location) throws Exception {
+        final Keystore current = this.keystores.get(location);
+        if (current != null && System.currentTimeMillis() < current.checkAfter) {
+            return current;
+        }
+        synchronized (this.keystores) {
+            final Keystore latest = this.keystores.get(location);
+            final long now = System.currentTimeMillis();
+            if (latest != null && now < latest.checkAfter) {
+                return latest;
+            }
+            final long lastModified = getLastModified(resource);
+            if (latest != null && lastModified > 0 && lastModified == latest.lastModified) {
+                LOGGER.trace("JWKS at [{}] is unchanged", location);
+                return putKeystore(location, new Keystore(latest.keys, latest.signingKey, lastModified, now + this.cacheExpiration));
+            }
+            try {
+                LOGGER.debug("Loading JWKS from [{}]", location);
+                return putKeystore(location, loadKeystore(resource, lastModified, now));
+            } catch (final Exception e) {
+                if (latest == null) {
+                    throw e;
+                }
+                LOGGER.warn("Unable to reload JWKS from [{}]; previously loaded keys remain in use: [{}]", location, e.getMessage());
+                return putKeystore(location, new Keystore(latest.keys, latest.signingKey, latest.lastModified, now + this.cacheExpiration));
+            }
+        }
+    }
+
+    private Keystore putKeystore(final String location, final Keystore keystore) {
+        this.keystores.put(location, keystore);
+        return keystore;
+    }
+
+    private Keystore loadKeystore(final Resource resource, final long lastModified, final long now) throws Exception {
+        final JsonWebKeySet keys;
+        try (InputStream in = resource.getInputStream()) {
+            keys = new JsonWebKeySet(IOUtils.toString(in, StandardCharsets.UTF_8));
+        }
+        RsaJsonWebKey signingKey = null;
+        for (final JsonWebKey key : keys.getJsonWebKeys()) {
+            if (StringUtils.isBlank(key.getKeyId())) {
+                key.setKeyId(key.calculateBase64urlEncodedThumbprint(HashUtil.SHA_256));
+            }
+            if (signingKey == null && key instanceof RsaJsonWebKey && ((RsaJsonWebKey) key).getPrivateKey() != null
+                    && !Use.ENCRYPTION.equals(key.getUse())) {
+                signingKey = (RsaJsonWebKey) key;
+            }
+        }
+        LOGGER.debug("Loaded [{}] keys; the active signing key is [{}]", keys.getJsonWebKeys().size(),
+                signingKey != null ? signingKey.getKeyId() : null);
+        return new Keystore(keys, signingKey, lastModified, now + this.cacheExpiration);
+    }
+
+    private static long getLastModified(final Resource resource) {
+        try {
+            return resource.getFile().lastModified();
+        } catch (final IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Parsed keys loaded from a JWKS resource.
+     */
+    private static class Keystore {
+        private final JsonWebKeySet keys;
+        private final RsaJsonWebKey signingKey;
+        private final long lastModified;
+        private final long checkAfter;
+
+        Keystore(final JsonWebKeySet keys, final RsaJsonWebKey signingKey, final long lastModified, final long checkAfter) {
+            this.keys = keys;
+            this.signingKey = signingKey;
+            this.lastModified = lastModified;
+            this.checkAfter = checkAfter;
+        }
+    }
+
+    /**
+     * Serialized JWKS document with its entity tag.
+     */
+    public static class JsonWebKeySetDocument {
+        private final List<Keystore> sources;
+        private final String body;
+        private final String etag;
+
+        JsonWebKeySetDocument(final List<Keystore> sources, final String body, final String etag) {
+            this.sources = sources;
+            this.body = body;
+            this.etag = etag;
+        }
+
+        public String getBody() {
+            return this.body;
+        }
+
+        public String getETag() {
+            return this.etag;
+        }
+
+        private boolean isBuiltFrom(final List<Keystore> keystores) {
+            if (keystores.size() != this.sources.size()) {
+                return false;
+            }
+            for (int i = 0; i < keystores.size(); i++) {
+                if (keystores.get(i).keys != this.sources.get(i).keys) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package org.apereo.cas.web;
 
 import com.fasterxml.jackson.core.JsonGenerator;
-import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.OidcConstants;
 import org.apereo.cas.authentication.Authentication;
 import org.apereo.cas.authentication.AuthenticationHandler;
@@ -15,8 +13,8 @@ import org.apereo.cas.support.oauth.web.OAuth20AccessTokenResponseGenerator;
 import org.apereo.cas.ticket.accesstoken.AccessToken;
 import org.apereo.cas.ticket.refreshtoken.RefreshToken;
 import org.apereo.cas.util.CollectionUtils;
+import org.apereo.cas.util.OidcJsonWebKeystoreService;
 import org.jose4j.jwa.AlgorithmConstraints;
-import org.jose4j.jwk.JsonWebKeySet;
 import org.jose4j.jwk.RsaJsonWebKey;
 import org.jose4j.jws.AlgorithmIdentifiers;
 import org.jose4j.jws.JsonWebSignature;
@@ -26,11 +24,9 @@ import org.jose4j.lang.JoseException;
 import org.pac4j.core.context.J2EContext;
 import org.pac4j.core.profile.ProfileManager;
 import org.pac4j.core.profile.UserProfile;
-import org.springframework.core.io.Resource;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
@@ -45,12 +41,12 @@ public class OidcAccessTokenResponseGenerator extends OAuth20AccessTokenResponse
 
     private final String issuer;
     private final int skew;
-    private final Resource jwksFile;
+    private final OidcJsonWebKeystoreService keystoreService;
 
-    public OidcAccessTokenResponseGenerator(final String issuer, final int skew, final Resource jwksFile) {
+    public OidcAccessTokenResponseGenerator(final String issuer, final int skew, final OidcJsonWebKeystoreService keystoreService) {
         this.issuer = issuer;
         this.skew = skew;
-        this.jwksFile = jwksFile;
+        this.keystoreService = keystoreService;
     }
 
     @Override
@@ -67,8 +63,8 @@ public class OidcAccessTokenResponseGenerator extends OAuth20AccessTokenResponse
 
         final JwtClaims claims = produceIdTokenClaims(request, accessTokenId, timeout,
                 oidcRegisteredService, profile.get(), context);
-        final Optional<JsonWebKeySet> jwks = buildJsonWebKeySet(oidcRegisteredService);
-        final String idToken = signIdTokenClaim(oidcRegisteredService, jwks, claims);
+        final Optional<RsaJsonWebKey> signingKey = this.keystoreService.getSigningKey(oidcRegisteredService);
+        final String idToken = signIdTokenClaim(oidcRegisteredService, signingKey, claims);
         jsonGenerator.writeStringField(OidcConstants.ID_TOKEN, idToken);
     }
 
@@ -129,12 +125,13 @@ public class OidcAccessTokenResponseGenerator extends OAuth20AccessTokenResponse
      * Sign id token claim string.
      *
      * @param svc    the service
-     * @param jwks   the jwks
-     * @param claims the claims
+     * @param signingKey the signing key
+     * @param claims     the claims
      * @return the string
      * @throws JoseException the jose exception
      */
-    protected String signIdTokenClaim(final OidcRegisteredService svc, final Optional<JsonWebKeySet> jwks, final JwtClaims claims) throws JoseException {
+    protected String signIdTokenClaim(final OidcRegisteredService svc, final Optional<RsaJsonWebKey> signingKey,
+                                      final JwtClaims claims) throws JoseException {
         final JsonWebSignature jws = new JsonWebSignature();
 
         final String jsonClaims = claims.toJson();
@@ -144,50 +141,15 @@ public class OidcAccessTokenResponseGenerator extends OAuth20AccessTokenResponse
         jws.setAlgorithmHeaderValue(AlgorithmIdentifiers.NONE);
         jws.setAlgorithmConstraints(AlgorithmConstraints.NO_CONSTRAINTS);
 
-        if (svc.isSignIdToken() && jwks.isPresent() && !jwks.get().getJsonWebKeys().isEmpty()) {
-            final RsaJsonWebKey jsonWebKey = (RsaJsonWebKey) jwks.get().getJsonWebKeys().get(0);
+        if (svc.isSignIdToken() && signingKey.isPresent()) {
+            final RsaJsonWebKey jsonWebKey = signingKey.get();
             jws.setKey(jsonWebKey.getPrivateKey());
             jws.setAlgorithmConstraints(AlgorithmConstraints.DISALLOW_NONE);
-            if (StringUtils.isBlank(jsonWebKey.getKeyId())) {
-                jws.setKeyIdHeaderValue(UUID.randomUUID().toString());
-            } else {
-                jws.setKeyIdHeaderValue(jsonWebKey.getKeyId());
-            }
+            jws.setKeyIdHeaderValue(jsonWebKey.getKeyId());
             logger.debug("Signing id token with key id header value {}", jws.getKeyIdHeaderValue());
             jws.setAlgorithmHeaderValue(AlgorithmIdentifiers.RSA_USING_SHA256);
         }
         logger.debug("Signing id token with algorithm {}", jws.getAlgorithmHeaderValue());
         return jws.getCompactSerialization();
     }
-
-    /**
-     * Build json web key set.
-     *
-     * @param service the service
-     * @return the json web key set
-     * @throws Exception the exception
-     */
-    protected Optional<JsonWebKeySet> buildJsonWebKeySet(final OidcRegisteredService service) throws Exception {
-        JsonWebKeySet jsonWebKeySet = null;
-        try {
-            if (StringUtils.isNotBlank(service.getJwks())) {
-                logger.debug("Loading JWKS from {}", service.getJwks());
-                final Resource resource = this.resourceLoader.getResource(service.getJwks());
-                jsonWebKeySet = new JsonWebKeySet(IOUtils.toString(resource.getInputStream(), StandardCharsets.UTF_8));
-            }
-        } catch (final Exception e) {
-            logger.debug(e.getMessage(), e);
-        } finally {
-            if (jsonWebKeySet == null) {
-                logger.debug("Loading default JWKS from {}", this.jwksFile);
-
-                if (this.jwksFile != null) {
-                    final String jsonJwks = IOUtils.toString(this.jwksFile.getInputStream(), StandardCharsets.UTF_8);
-                    jsonWebKeySet = new JsonWebKeySet(jsonJwks);
-                }
-            }
-        }
-        return jsonWebKeySet != null ? Optional.of(jsonWebKeySet) : Optional.empty();
-    }
 }
-
@@ -1,9 +1,6 @@
 package org.apereo.cas.web.controllers;
 
 
-import com.stormpath.sdk.lang.Assert;
-import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.OidcConstants;
 import org.apereo.cas.authentication.principal.PrincipalFactory;
 import org.apereo.cas.authentication.principal.ServiceFactory;
@@ -14,12 +11,8 @@ import org.apereo.cas.support.oauth.validator.OAuth20Validator;
 import org.apereo.cas.support.oauth.web.BaseOAuthWrapperController;
 import org.apereo.cas.ticket.accesstoken.AccessTokenFactory;
 import org.apereo.cas.ticket.registry.TicketRegistry;
-import org.jooq.lambda.Unchecked;
-import org.jose4j.jwk.JsonWebKey;
-import org.jose4j.jwk.JsonWebKeySet;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
+import org.apereo.cas.util.OidcJsonWebKeystoreService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -28,7 +21,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * This is {@link OidcJwksEndpointController}.
@@ -38,10 +32,7 @@ import java.nio.charset.StandardCharsets;
  */
 public class OidcJwksEndpointController extends BaseOAuthWrapperController {
 
-    @Autowired
-    private ResourceLoader resourceLoader;
-
-    private Resource jwksFile;
+    private final OidcJsonWebKeystoreService keystoreService;
 
     public OidcJwksEndpointController(final ServicesManager servicesManager,
                                       final TicketRegistry ticketRegistry,
@@ -49,13 +40,14 @@ public class OidcJwksEndpointController extends BaseOAuthWrapperController {
                                       final AccessTokenFactory accessTokenFactory,
                                       final PrincipalFactory principalFactory,
                                       final ServiceFactory<WebApplicationService> webApplicationServiceServiceFactory,
-                                      final Resource jwksFile) {
+                                      final OidcJsonWebKeystoreService keystoreService) {
         super(servicesManager, ticketRegistry, validator, accessTokenFactory, principalFactory, webApplicationServiceServiceFactory);
-        this.jwksFile = jwksFile;
+        this.keystoreService = keystoreService;
     }
 
     /**
-     * Handle request for jwk set.
+     * Handle request for jwk set. Responses carry an entity tag,
+     * and conditional requests for an unchanged key set are answered with no content.
      *
      * @param request  the request
      * @param response the response
@@ -67,26 +59,21 @@ public class OidcJwksEndpointController extends BaseOAuthWrapperController {
     public ResponseEntity<String> handleRequestInternal(final HttpServletRequest request,
                                                         final HttpServletResponse response,
                                                         final Model model) throws Exception {
-
-        Assert.notNull(this.jwksFile, "JWKS file cannot be undefined or null.");
-
         try {
-            final String jsonJwks = IOUtils.toString(this.jwksFile.getInputStream(), StandardCharsets.UTF_8);
-            final JsonWebKeySet jsonWebKeySet = new JsonWebKeySet(jsonJwks);
-
-            getServicesManager().getAllServices()
+            final List<OidcRegisteredService> services = getServicesManager().getAllServices()
                     .stream()
-                    .filter(s -> s instanceof OidcRegisteredService && StringUtils.isNotBlank(((OidcRegisteredService) s).getJwks()))
-                    .forEach(
-                            Unchecked.consumer(s -> {
-                                final OidcRegisteredService service = (OidcRegisteredService) s;
-                                final Resource resource = this.resourceLoader.getResource(service.getJwks());
-                                final JsonWebKeySet set = new JsonWebKeySet(IOUtils.toString(resource.getInputStream(), StandardCharsets.UTF_8));
-                                set.getJsonWebKeys().forEach(jsonWebKeySet::addJsonWebKey);
-                            }));
-            final String body = jsonWebKeySet.toJson(JsonWebKey.OutputControlLevel.PUBLIC_ONLY);
-            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-            return new ResponseEntity<>(body, HttpStatus.OK);
+                    .filter(OidcRegisteredService.class::isInstance)
+                    .map(OidcRegisteredService.class::cast)
+                    .collect(Collectors.toList());
+            final OidcJsonWebKeystoreService.JsonWebKeySetDocument document = this.keystoreService.getPublishedJsonWebKeySet(services);
+
+            final HttpHeaders headers = new HttpHeaders();
+            headers.setETag(document.getETag());
+            if (document.getETag().equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+            }
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            return new ResponseEntity<>(document.getBody(), headers, HttpStatus.OK);
         } catch (final Exception e) {
             logger.error(e.getMessage(), e);
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
@@ -0,0 +1,101 @@
+package org.apereo.cas.util;
+
+import org.apache.commons.io.FileUtils;
+import org.apereo.cas.services.OidcRegisteredService;
+import org.apereo.cas.support.events.CasRegisteredServiceDeletedEvent;
+import org.jose4j.jwk.JsonWebKey;
+import org.jose4j.jwk.JsonWebKeySet;
+import org.jose4j.jwk.RsaJsonWebKey;
+import org.jose4j.jwk.RsaJwkGenerator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link OidcJsonWebKeystoreServiceTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class OidcJsonWebKeystoreServiceTests {
+
+    private static final int KEY_SIZE = 2048;
+
+    private static final long CACHE_EXPIRATION = 60000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void verifyKeysAreParsedOnceAndAssignedKeyIds() throws Exception {
+        final File file = folder.newFile("keystore.jwks");
+        final RsaJsonWebKey key = RsaJwkGenerator.generateJwk(KEY_SIZE);
+        writeKeystore(file, key);
+
+        final OidcJsonWebKeystoreService service = new OidcJsonWebKeystoreService(new FileSystemResource(file),
+                new DefaultResourceLoader(), CACHE_EXPIRATION);
+        final OidcRegisteredService registeredService = new OidcRegisteredService();
+
+        final RsaJsonWebKey signingKey = service.getSigningKey(registeredService).get();
+        assertNotNull(signingKey.getPrivateKey());
+        assertEquals(key.calculateBase64urlEncodedThumbprint("SHA-256"), signingKey.getKeyId());
+        assertSame(signingKey, service.getSigningKey(registeredService).get());
+        assertSame(service.getJsonWebKeySet(registeredService).get(), service.getJsonWebKeySet(registeredService).get());
+    }
+
+    @Test
+    public void verifyRotatedKeysAreReloadedAndPublished() throws Exception {
+        final File file = folder.newFile("keystore.jwks");
+        final RsaJsonWebKey oldKey = RsaJwkGenerator.generateJwk(KEY_SIZE);
+        oldKey.setKeyId("old");
+        writeKeystore(file, oldKey);
+
+        final OidcJsonWebKeystoreService service = new OidcJsonWebKeystoreService(new FileSystemResource(file),
+                new DefaultResourceLoader(), 0);
+        final OidcRegisteredService registeredService = new OidcRegisteredService();
+        assertEquals("old", service.getSigningKey(registeredService).get().getKeyId());
+
+        final OidcJsonWebKeystoreService.JsonWebKeySetDocument first = service.getPublishedJsonWebKeySet(Collections.emptyList());
+        assertSame(first, service.getPublishedJsonWebKeySet(Collections.emptyList()));
+        assertFalse(first.getBody().contains("\"d\""));
+
+        final RsaJsonWebKey newKey = RsaJwkGenerator.generateJwk(KEY_SIZE);
+        newKey.setKeyId("new");
+        writeKeystore(file, newKey, oldKey);
+        assertTrue(file.setLastModified(file.lastModified() + 2000));
+
+        assertEquals("new", service.getSigningKey(registeredService).get().getKeyId());
+        final OidcJsonWebKeystoreService.JsonWebKeySetDocument second = service.getPublishedJsonWebKeySet(Collections.emptyList());
+        assertNotEquals(first.getETag(), second.getETag());
+        assertTrue(second.getBody().contains("\"new\""));
+        assertTrue(second.getBody().contains("\"old\""));
+    }
+
+    @Test
+    public void verifyKeystoresAreRemovedWhenServiceIsDeleted() throws Exception {
+        final File file = folder.newFile("service.jwks");
+        writeKeystore(file, RsaJwkGenerator.generateJwk(KEY_SIZE));
+
+        final OidcJsonWebKeystoreService service = new OidcJsonWebKeystoreService(null, new DefaultResourceLoader(), CACHE_EXPIRATION);
+        final OidcRegisteredService registeredService = new OidcRegisteredService();
+        registeredService.setJwks("file:" + file.getAbsolutePath());
+        final RsaJsonWebKey signingKey = service.getSigningKey(registeredService).get();
+        assertSame(signingKey, service.getSigningKey(registeredService).get());
+
+        service.handleRegisteredServiceDeletedEvent(new CasRegisteredServiceDeletedEvent(this, registeredService));
+        assertNotSame(signingKey, service.getSigningKey(registeredService).get());
+    }
+
+    private static void writeKeystore(final File file, final JsonWebKey... keys) throws Exception {
+        final String json = new JsonWebKeySet(keys).toJson(JsonWebKey.OutputControlLevel.INCLUDE_PRIVATE);
+        FileUtils.write(file, json, StandardCharsets.UTF_8);
+    }
+}
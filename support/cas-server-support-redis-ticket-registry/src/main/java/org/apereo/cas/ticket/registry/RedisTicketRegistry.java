@@ -1,13 +1,37 @@
 package org.apereo.cas.ticket.registry;
 
+import com.google.common.collect.Iterators;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisConnectionUtils;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.util.Assert;
 
 import javax.validation.constraints.NotNull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Key-value ticket registry implementation that stores tickets in redis keyed on the ticket ID.
@@ -18,6 +42,11 @@ import java.util.concurrent.TimeUnit;
 public class RedisTicketRegistry extends AbstractTicketRegistry {
 
     private static final String CAS_TICKET_PREFIX = "CAS_TICKET:";
+    private static final int BATCH_SIZE = 500;
+    private static final String CAS_TICKET_COUNT_PREFIX = "CAS_TICKET_COUNT:";
+    private static final String SESSION_COUNT_KEY = CAS_TICKET_COUNT_PREFIX + "TGT";
+    private static final String SERVICE_TICKET_COUNT_KEY = CAS_TICKET_COUNT_PREFIX + "ST";
+    private static final String CAS_TICKET_CHILDREN_PREFIX = "CAS_TICKET_CHILDREN:";
 
     @NotNull
     private final TicketRedisTemplate client;
@@ -28,18 +57,26 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
 
     @Override
     public long deleteAll() {
-        final Set<String> redisKeys = this.client.keys(getPatternTicketRedisKey());
-        final int size = redisKeys.size();
-        this.client.delete(redisKeys);
-        return size;
+        Assert.notNull(this.client, "No redis client is defined.");
+        long count = 0;
+        try (Stream<String> redisKeys = streamTicketRedisKeys()) {
+            final Iterator<List<String>> batches = Iterators.partition(redisKeys.iterator(), BATCH_SIZE);
+            while (batches.hasNext()) {
+                final List<String> ticketIds = batches.next().stream()
+                        .map(key -> key.substring(CAS_TICKET_PREFIX.length()))
+                        .collect(Collectors.toList());
+                count += deleteTicketIds(ticketIds);
+            }
+        }
+        this.client.delete(Arrays.asList(SESSION_COUNT_KEY, SERVICE_TICKET_COUNT_KEY));
+        return count;
     }
-    
+
     @Override
     public boolean deleteSingleTicket(final String ticketId) {
         Assert.notNull(this.client, "No redis client is defined.");
         try {
-            final String redisKey = getTicketRedisKey(ticketId);
-            this.client.delete(redisKey);
+            deleteTicketIds(Collections.singletonList(ticketId));
             return true;
         } catch (final Exception e) {
             logger.error("Ticket not found or is already removed. Failed deleting {}", ticketId, e);
@@ -47,22 +84,91 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Service tickets of the ticket-granting ticket are removed with a single
+     * multi-key {@code DEL}, pipelined with the removal of their counts.
+     */
+    @Override
+    public int deleteChildren(final TicketGrantingTicket ticket) {
+        final Map<String, Service> services = ticket.getServices();
+        if (services == null || services.isEmpty()) {
+            return 0;
+        }
+        try {
+            final long count = deleteTicketIds(new ArrayList<>(services.keySet()));
+            logger.debug("Removed [{}] service tickets of [{}]", count, ticket.getId());
+            return (int) count;
+        } catch (final Exception e) {
+            logger.error("Unable to remove service tickets of {}", ticket.getId(), e);
+        }
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Descendants are resolved from the index of child tickets kept for every granting ticket,
+     * with one pipelined lookup per level of proxying, and are then removed in a single pipeline.
+     * Tickets are not individually fetched.
+     */
+    @Override
+    public int deleteTicketsFor(final TicketGrantingTicket ticketGrantingTicket) {
+        Assert.notNull(this.client, "No redis client is defined.");
+        try {
+            final Set<String> ticketIds = new LinkedHashSet<>();
+            ticketIds.add(ticketGrantingTicket.getId());
+            Collection<String> parents = Collections.singletonList(ticketGrantingTicket.getId());
+            while (!parents.isEmpty()) {
+                final List<String> parentIds = new ArrayList<>(parents);
+                final RedisSerializer<String> serializer = this.client.getStringSerializer();
+                final List<Object> results = this.client.executePipelined((RedisCallback<Object>) connection -> {
+                    parentIds.forEach(id -> connection.sMembers(serializer.serialize(getChildrenRedisKey(id))));
+                    return null;
+                }, serializer);
+
+                parents = results.stream()
+                        .filter(Objects::nonNull)
+                        .flatMap(children -> ((Collection<String>) children).stream())
+                        .filter(ticketIds::add)
+                        .collect(Collectors.toList());
+            }
+            logger.debug("Removing ticket [{}] along with [{}] descendant tickets", ticketGrantingTicket.getId(), ticketIds.size() - 1);
+            return (int) deleteTicketIds(new ArrayList<>(ticketIds));
+        } catch (final Exception e) {
+            logger.error("Failed to remove {} and its descendant tickets", ticketGrantingTicket.getId(), e);
+        }
+        return 0;
+    }
 
     @Override
     public void addTicket(final Ticket ticket) {
         Assert.notNull(this.client, "No redis client is defined.");
         try {
             logger.debug("Adding ticket {}", ticket);
-            final String redisKey = this.getTicketRedisKey(ticket.getId());
-            // Encode first, then add
-            final Ticket encodeTicket = this.encodeTicket(ticket);
-            this.client.boundValueOps(redisKey)
-                    .set(encodeTicket, getTimeout(ticket), TimeUnit.SECONDS);
+            writeTickets(ticket);
         } catch (final Exception e) {
             logger.error("Failed to add {}", ticket);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Both tickets are written in a single {@code MULTI}/{@code EXEC} transaction.
+     */
+    @Override
+    public void addGrantedTicket(final TicketGrantingTicket ticketGrantingTicket, final Ticket ticket) {
+        Assert.notNull(this.client, "No redis client is defined.");
+        try {
+            logger.debug("Updating ticket {} and adding ticket {}", ticketGrantingTicket, ticket);
+            writeTickets(ticketGrantingTicket, ticket);
+        } catch (final Exception e) {
+            logger.error("Failed to update {} and add {}", ticketGrantingTicket, ticket);
+        }
+    }
+
     @Override
     public Ticket getTicket(final String ticketId) {
         Assert.notNull(this.client, "No redis client is defined.");
@@ -81,20 +187,36 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
 
     @Override
     public Collection<Ticket> getTickets() {
+        try (Stream<Ticket> tickets = streamTickets(Ticket.class)) {
+            return tickets.collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Ticket keys are iterated incrementally using {@code SCAN} rather than {@code KEYS},
+     * so that the redis server is not blocked while the keyspace is traversed,
+     * and tickets are fetched in batches with {@code MGET}.
+     * The stream holds on to a redis connection until it is closed.
+     */
+    @Override
+    public <T extends Ticket> Stream<T> streamTickets(final Class<T> ticketType) {
         Assert.notNull(this.client, "No redis client is defined.");
 
-        final Set<Ticket> tickets = new HashSet<>();
-        final Set<String> redisKeys = this.client.keys(this.getPatternTicketRedisKey());
-        redisKeys.forEach(redisKey -> {
-            final Ticket ticket = this.client.boundValueOps(redisKey).get();
-            if (ticket == null) {
-                this.client.delete(redisKey);
-            } else {
+        final Stream<String> redisKeys = streamTicketRedisKeys();
+        final Iterator<List<String>> batches = Iterators.partition(redisKeys.iterator(), BATCH_SIZE);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batches, Spliterator.NONNULL), false)
+                .flatMap(batch -> {
+                    final List<Ticket> tickets = this.client.opsForValue().multiGet(batch);
+                    return tickets == null ? Stream.empty() : tickets.stream();
+                })
+                .filter(Objects::nonNull)
                 // Decoding add first
-                tickets.add(this.decodeTicket(ticket));
-            }
-        });
-        return tickets;
+                .map(this::decodeTicket)
+                .filter(ticketType::isInstance)
+                .map(ticketType::cast)
+                .onClose(redisKeys::close);
     }
 
     @Override
@@ -102,16 +224,164 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
         Assert.notNull(this.client, "No redis client is defined.");
         try {
             logger.debug("Updating ticket {}", ticket);
-            final Ticket encodeTicket = this.encodeTicket(ticket);
-            final String redisKey = this.getTicketRedisKey(ticket.getId());
-            this.client.boundValueOps(redisKey).set(encodeTicket, getTimeout(ticket), TimeUnit.SECONDS);
-            return encodeTicket;
+            return writeTickets(ticket).get(0);
         } catch (final Exception e) {
             logger.error("Failed to update {}", ticket);
         }
         return null;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Ticket-granting tickets are tracked in a sorted set scored by their expiration time,
+     * so the count is obtained without traversing the keyspace.
+     */
+    @Override
+    public long sessionCount() {
+        return countTickets(SESSION_COUNT_KEY);
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return countTickets(SERVICE_TICKET_COUNT_KEY);
+    }
+
+    /**
+     * Counts are maintained by the registry alongside the ticket keys, rather than
+     * derived from them, and expiration of counted tickets is tracked by the registry
+     * rather than by redis itself.
+     *
+     * @return true
+     */
+    @Override
+    public boolean isTicketCountApproximate() {
+        return true;
+    }
+
+    /**
+     * Encode and write the tickets, along with their counts, in a single transaction.
+     * Each ticket is tracked in the sorted set for its type, scored by the time at which
+     * redis is expected to expire its key, so updating a ticket refreshes its score.
+     *
+     * @param tickets the tickets
+     * @return the encoded tickets
+     */
+    private List<Ticket> writeTickets(final Ticket... tickets) {
+        final RedisSerializer<String> keySerializer = this.client.getStringSerializer();
+        final RedisSerializer<Ticket> valueSerializer = (RedisSerializer<Ticket>) this.client.getValueSerializer();
+        final List<Ticket> encodedTickets = new ArrayList<>(tickets.length);
+
+        this.client.execute((RedisCallback<List<Object>>) connection -> {
+            connection.multi();
+            for (final Ticket ticket : tickets) {
+                // Encode first, then add
+                final Ticket encodedTicket = this.encodeTicket(ticket);
+                encodedTickets.add(encodedTicket);
+                final int timeout = getTimeout(ticket);
+                connection.setEx(keySerializer.serialize(getTicketRedisKey(ticket.getId())), timeout, valueSerializer.serialize(encodedTicket));
+
+                final String countKey = getCountKey(ticket);
+                if (countKey != null) {
+                    final long expirationTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeout);
+                    connection.zAdd(keySerializer.serialize(countKey), expirationTime, keySerializer.serialize(ticket.getId()));
+                }
+
+                final TicketGrantingTicket grantingTicket = ticket.getGrantingTicket();
+                if (grantingTicket != null) {
+                    final byte[] childrenKey = keySerializer.serialize(getChildrenRedisKey(grantingTicket.getId()));
+                    connection.sAdd(childrenKey, keySerializer.serialize(ticket.getId()));
+                    connection.expire(childrenKey, getTimeout(grantingTicket));
+                }
+                if (ticket instanceof TicketGrantingTicket) {
+                    connection.expire(keySerializer.serialize(getChildrenRedisKey(ticket.getId())), timeout);
+                }
+            }
+            return connection.exec();
+        });
+        return encodedTickets;
+    }
+
+    /**
+     * Delete the given tickets with a single {@code DEL}, pipelined with the removal
+     * of their child ticket indexes and of their entries in the count sets.
+     *
+     * @param ticketIds the ticket ids
+     * @return the number of tickets deleted
+     */
+    private long deleteTicketIds(final List<String> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return 0;
+        }
+        final RedisSerializer<String> serializer = this.client.getStringSerializer();
+        final List<Object> results = this.client.executePipelined((RedisCallback<Object>) connection -> {
+            connection.del(ticketIds.stream().map(this::getTicketRedisKey).map(serializer::serialize).toArray(byte[][]::new));
+            connection.del(ticketIds.stream().map(this::getChildrenRedisKey).map(serializer::serialize).toArray(byte[][]::new));
+            final byte[][] members = ticketIds.stream().map(serializer::serialize).toArray(byte[][]::new);
+            connection.zRem(serializer.serialize(SESSION_COUNT_KEY), members);
+            connection.zRem(serializer.serialize(SERVICE_TICKET_COUNT_KEY), members);
+            return null;
+        });
+        return results.isEmpty() || results.get(0) == null ? 0 : ((Number) results.get(0)).longValue();
+    }
+
+    /**
+     * Stream the keys of all tickets using {@code SCAN}.
+     * The stream holds on to a redis connection until it is closed.
+     *
+     * @return the keys
+     */
+    private Stream<String> streamTicketRedisKeys() {
+        final RedisConnectionFactory connectionFactory = this.client.getConnectionFactory();
+        final RedisConnection connection = RedisConnectionUtils.getConnection(connectionFactory);
+        final Cursor<byte[]> cursor;
+        try {
+            cursor = connection.scan(ScanOptions.scanOptions().match(getPatternTicketRedisKey()).count(BATCH_SIZE).build());
+        } catch (final RuntimeException e) {
+            RedisConnectionUtils.releaseConnection(connection, connectionFactory);
+            throw e;
+        }
+        final RedisSerializer<String> serializer = this.client.getStringSerializer();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.NONNULL), false)
+                .map(serializer::deserialize)
+                .onClose(() -> {
+                    try {
+                        cursor.close();
+                    } catch (final IOException e) {
+                        logger.warn("Failed to close redis cursor", e);
+                    } finally {
+                        RedisConnectionUtils.releaseConnection(connection, connectionFactory);
+                    }
+                });
+    }
+
+    private static String getCountKey(final Ticket ticket) {
+        if (ticket instanceof TicketGrantingTicket) {
+            return SESSION_COUNT_KEY;
+        }
+        if (ticket instanceof ServiceTicket) {
+            return SERVICE_TICKET_COUNT_KEY;
+        }
+        return null;
+    }
+
+    /**
+     * Count tickets in the given sorted set, first dropping entries whose keys have expired.
+     *
+     * @param countKey the count key
+     * @return the count
+     */
+    private long countTickets(final String countKey) {
+        Assert.notNull(this.client, "No redis client is defined.");
+        final RedisSerializer<String> serializer = this.client.getStringSerializer();
+        final Long count = this.client.execute((RedisCallback<Long>) connection -> {
+            final byte[] key = serializer.serialize(countKey);
+            connection.zRemRangeByScore(key, 0, System.currentTimeMillis());
+            return connection.zCard(key);
+        });
+        return count == null ? 0 : count;
+    }
+
     /**
      * If not time out value is specified, expire the ticket immediately.
      *
@@ -131,6 +401,11 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
         return CAS_TICKET_PREFIX + ticketId;
     }
 
+    // Key of the set holding ids of tickets granted by the given ticket
+    private String getChildrenRedisKey(final String ticketId) {
+        return CAS_TICKET_CHILDREN_PREFIX + ticketId;
+    }
+
     // pattern all ticket redisKey
     private String getPatternTicketRedisKey() {
         return CAS_TICKET_PREFIX + "*";
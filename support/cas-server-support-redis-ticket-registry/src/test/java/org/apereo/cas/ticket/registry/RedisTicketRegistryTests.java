@@ -1,8 +1,16 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
 import org.apereo.cas.config.RedisTicketRegistryConfiguration;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
+import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -12,6 +20,8 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
 import redis.embedded.RedisServer;
 
+import static org.junit.Assert.*;
+
 /**
  * Unit test for {@link RedisTicketRegistry}.
  *
@@ -44,4 +54,29 @@ public class RedisTicketRegistryTests extends AbstractTicketRegistryTests {
     public TicketRegistry getNewTicketRegistry() throws Exception {
         return this.ticketRegistry;
     }
+
+    @Test
+    public void verifyDeleteTicketsForRemovesDescendants() throws Exception {
+        final TicketGrantingTicket tgt = new TicketGrantingTicketImpl("TGT-1",
+                CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        this.ticketRegistry.addTicket(tgt);
+
+        final ServiceTicket st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+                new NeverExpiresExpirationPolicy(), false, true);
+        this.ticketRegistry.addGrantedTicket(tgt, st);
+
+        final ProxyGrantingTicket pgt = st.grantProxyGrantingTicket("PGT-1",
+                CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        this.ticketRegistry.addGrantedTicket(tgt, pgt);
+
+        final ServiceTicket pt = pgt.grantServiceTicket("ST-2", RegisteredServiceTestUtils.getService(),
+                new NeverExpiresExpirationPolicy(), false, true);
+        this.ticketRegistry.addGrantedTicket(pgt, pt);
+
+        assertEquals(4, this.ticketRegistry.deleteTicketsFor(tgt));
+        assertNull(this.ticketRegistry.getTicket("TGT-1"));
+        assertNull(this.ticketRegistry.getTicket("ST-1"));
+        assertNull(this.ticketRegistry.getTicket("PGT-1"));
+        assertNull(this.ticketRegistry.getTicket("ST-2"));
+    }
 }
@@ -4,7 +4,6 @@ import org.apereo.cas.CentralAuthenticationService;
 import org.apereo.cas.authentication.Authentication;
 import org.apereo.cas.authentication.principal.Principal;
 import org.apereo.cas.configuration.CasConfigurationProperties;
-import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.util.DateTimeUtils;
 import org.apereo.cas.util.ISOStandardDateFormat;
@@ -28,6 +27,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.stream.Stream;
 
 /**
  * SSO Report web controller that produces JSON data for the view.
@@ -122,40 +122,44 @@ public class SingleSignOnSessionsReportController {
         final Collection<Map<String, Object>> activeSessions = new ArrayList<>();
         final ISOStandardDateFormat dateFormat = new ISOStandardDateFormat();
 
-        for (final Ticket ticket : getNonExpiredTicketGrantingTickets()) {
-            final TicketGrantingTicket tgt = (TicketGrantingTicket) ticket;
-
-            if (option == SsoSessionReportOptions.DIRECT && tgt.getProxiedBy() != null) {
-                continue;
-            }
-
-            final Authentication authentication = tgt.getAuthentication();
-            final Principal principal = authentication.getPrincipal();
-
-            final Map<String, Object> sso = new HashMap<>(SsoSessionAttributeKeys.values().length);
-            sso.put(SsoSessionAttributeKeys.AUTHENTICATED_PRINCIPAL.toString(), principal.getId());
-            sso.put(SsoSessionAttributeKeys.AUTHENTICATION_DATE.toString(), authentication.getAuthenticationDate());
-            sso.put(SsoSessionAttributeKeys.AUTHENTICATION_DATE_FORMATTED.toString(),
-                    dateFormat.format(DateTimeUtils.dateOf(authentication.getAuthenticationDate())));
-            sso.put(SsoSessionAttributeKeys.NUMBER_OF_USES.toString(), tgt.getCountOfUses());
-            sso.put(SsoSessionAttributeKeys.TICKET_GRANTING_TICKET.toString(), tgt.getId());
-            sso.put(SsoSessionAttributeKeys.PRINCIPAL_ATTRIBUTES.toString(), principal.getAttributes());
-            sso.put(SsoSessionAttributeKeys.AUTHENTICATION_ATTRIBUTES.toString(), authentication.getAttributes());
-
-            if (option != SsoSessionReportOptions.DIRECT) {
-                if (tgt.getProxiedBy() != null) {
-                    sso.put(SsoSessionAttributeKeys.IS_PROXIED.toString(), Boolean.TRUE);
-                    sso.put(SsoSessionAttributeKeys.PROXIED_BY.toString(), tgt.getProxiedBy().getId());
-                } else {
-                    sso.put(SsoSessionAttributeKeys.IS_PROXIED.toString(), Boolean.FALSE);
+        try (Stream<TicketGrantingTicket> tickets = getNonExpiredTicketGrantingTickets()) {
+            tickets.forEach(tgt -> {
+                if (option == SsoSessionReportOptions.DIRECT && tgt.getProxiedBy() != null) {
+                    return;
                 }
+                activeSessions.add(buildSsoSession(tgt, option, dateFormat));
+            });
+        }
+        return activeSessions;
+    }
+
+    private static Map<String, Object> buildSsoSession(final TicketGrantingTicket tgt, final SsoSessionReportOptions option,
+                                                       final ISOStandardDateFormat dateFormat) {
+        final Authentication authentication = tgt.getAuthentication();
+        final Principal principal = authentication.getPrincipal();
+
+        final Map<String, Object> sso = new HashMap<>(SsoSessionAttributeKeys.values().length);
+        sso.put(SsoSessionAttributeKeys.AUTHENTICATED_PRINCIPAL.toString(), principal.getId());
+        sso.put(SsoSessionAttributeKeys.AUTHENTICATION_DATE.toString(), authentication.getAuthenticationDate());
+        sso.put(SsoSessionAttributeKeys.AUTHENTICATION_DATE_FORMATTED.toString(),
+                dateFormat.format(DateTimeUtils.dateOf(authentication.getAuthenticationDate())));
+        sso.put(SsoSessionAttributeKeys.NUMBER_OF_USES.toString(), tgt.getCountOfUses());
+        sso.put(SsoSessionAttributeKeys.TICKET_GRANTING_TICKET.toString(), tgt.getId());
+        sso.put(SsoSessionAttributeKeys.PRINCIPAL_ATTRIBUTES.toString(), principal.getAttributes());
+        sso.put(SsoSessionAttributeKeys.AUTHENTICATION_ATTRIBUTES.toString(), authentication.getAttributes());
+
+        if (option != SsoSessionReportOptions.DIRECT) {
+            if (tgt.getProxiedBy() != null) {
+                sso.put(SsoSessionAttributeKeys.IS_PROXIED.toString(), Boolean.TRUE);
+                sso.put(SsoSessionAttributeKeys.PROXIED_BY.toString(), tgt.getProxiedBy().getId());
+            } else {
+                sso.put(SsoSessionAttributeKeys.IS_PROXIED.toString(), Boolean.FALSE);
             }
+        }
 
-            sso.put(SsoSessionAttributeKeys.AUTHENTICATED_SERVICES.toString(), tgt.getServices());
+        sso.put(SsoSessionAttributeKeys.AUTHENTICATED_SERVICES.toString(), tgt.getServices());
 
-            activeSessions.add(sso);
-        }
-        return activeSessions;
+        return sso;
     }
 
     /**
@@ -163,8 +167,8 @@ public class SingleSignOnSessionsReportController {
      *
      * @return the non expired ticket granting tickets
      */
-    private Collection<Ticket> getNonExpiredTicketGrantingTickets() {
-        return this.centralAuthenticationService.getTickets(ticket -> ticket instanceof TicketGrantingTicket && !ticket.isExpired());
+    private Stream<TicketGrantingTicket> getNonExpiredTicketGrantingTickets() {
+        return this.centralAuthenticationService.streamTickets(TicketGrantingTicket.class).filter(ticket -> !ticket.isExpired());
     }
 
     /**
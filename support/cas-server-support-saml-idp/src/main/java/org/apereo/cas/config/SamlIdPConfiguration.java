@@ -1,5 +1,6 @@
 package org.apereo.cas.config;
 
+import com.codahale.metrics.MetricRegistry;
 import org.apereo.cas.authentication.AuthenticationSystemSupport;
 import org.apereo.cas.authentication.principal.ServiceFactory;
 import org.apereo.cas.authentication.principal.WebApplicationService;
@@ -61,6 +62,8 @@ import org.springframework.webflow.execution.Action;
 
 import javax.annotation.PostConstruct;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * The {@link SamlIdPConfiguration}.
@@ -110,6 +113,10 @@ public class SamlIdPConfiguration {
     @Autowired(required = false)
     private FlowBuilderServices flowBuilderServices;
 
+    @Autowired(required = false)
+    @Qualifier("metrics")
+    private MetricRegistry metricRegistry;
+
     @ConditionalOnMissingBean(name = "samlIdPMetadataUIWebConfigurer")
     @Bean
     public CasWebflowConfigurer samlIdPMetadataUIWebConfigurer() {
@@ -154,12 +161,21 @@ public class SamlIdPConfiguration {
     @Bean
     @RefreshScope
     public SamlRegisteredServiceCachingMetadataResolver defaultSamlRegisteredServiceCachingMetadataResolver() {
+        final SamlIdPProperties.Metadata md = casProperties.getAuthn().getSamlIdp().getMetadata();
         return new DefaultSamlRegisteredServiceCachingMetadataResolver(
-                casProperties.getAuthn().getSamlIdp().getMetadata().getCacheExpirationMinutes(),
-                chainingMetadataResolverCacheLoader()
+                md.getCacheExpirationMinutes(),
+                md.getCacheMaximumSize(),
+                chainingMetadataResolverCacheLoader(),
+                samlMetadataRefreshExecutor(),
+                metricRegistry
         );
     }
 
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService samlMetadataRefreshExecutor() {
+        return Executors.newFixedThreadPool(Math.max(1, casProperties.getAuthn().getSamlIdp().getMetadata().getCacheRefreshPoolSize()));
+    }
+
     @Bean
     @RefreshScope
     public SamlProfileObjectBuilder<org.opensaml.saml.saml2.core.Response> samlProfileSamlResponseBuilder() {
@@ -3,6 +3,7 @@ package org.apereo.cas.support.saml.services.idp.metadata.cache;
 import com.google.common.base.Function;
 import com.google.common.base.Throwables;
 import com.google.common.cache.CacheLoader;
+import com.google.common.util.concurrent.Striped;
 import net.shibboleth.ext.spring.resource.ResourceHelper;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -49,21 +50,28 @@ import javax.annotation.Nullable;
 import javax.xml.namespace.QName;
 import java.io.File;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 
 /**
  * This is {@link ChainingMetadataResolverCacheLoader} that uses Guava's cache loading strategy
  * to keep track of metadata resources and resolvers. The cache loader here supports loading
  * metadata resources from SAML services, supports dynamic metadata queries and is able
  * to run various validation filters on the metadata before finally caching the resolver.
+ * Loads are serialized per metadata location, so that the same metadata source is never
+ * parsed concurrently while different sources can load in parallel.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
  */
-public class ChainingMetadataResolverCacheLoader extends CacheLoader<SamlRegisteredService, ChainingMetadataResolver> {
+public class ChainingMetadataResolverCacheLoader extends CacheLoader<SamlRegisteredServiceCacheKey, ChainingMetadataResolver> {
+    private static final int LOCK_STRIPES = 16;
+
     protected transient Logger logger = LoggerFactory.getLogger(this.getClass());
 
     /**
@@ -76,7 +84,7 @@ public class ChainingMetadataResolverCacheLoader extends CacheLoader<SamlRegiste
      */
     protected HttpClient httpClient;
 
-    private transient Object lock = new Object();
+    private final transient Striped<Lock> locks = Striped.lock(LOCK_STRIPES);
 
     @Autowired
     private CasConfigurationProperties casProperties;
@@ -88,7 +96,10 @@ public class ChainingMetadataResolverCacheLoader extends CacheLoader<SamlRegiste
     }
 
     @Override
-    public ChainingMetadataResolver load(final SamlRegisteredService service) throws Exception {
+    public ChainingMetadataResolver load(final SamlRegisteredServiceCacheKey cacheKey) throws Exception {
+        final SamlRegisteredService service = cacheKey.getRegisteredService();
+        final Lock lock = this.locks.get(cacheKey.getMetadataLocation());
+        lock.lock();
         try {
             final ChainingMetadataResolver metadataResolver = new ChainingMetadataResolver();
 
@@ -104,14 +115,14 @@ public class ChainingMetadataResolverCacheLoader extends CacheLoader<SamlRegiste
                         + " with metadata location " + service.getMetadataLocation());
             }
 
-            synchronized (this.lock) {
-                metadataResolver.setId(ChainingMetadataResolver.class.getCanonicalName());
-                metadataResolver.setResolvers(metadataResolvers);
-                metadataResolver.initialize();
-            }
+            metadataResolver.setId(ChainingMetadataResolver.class.getCanonicalName());
+            metadataResolver.setResolvers(metadataResolvers);
+            metadataResolver.initialize();
             return metadataResolver;
         } catch (final Exception e) {
             throw new SamlException(e.getMessage(), e);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -217,8 +228,10 @@ public class ChainingMetadataResolverCacheLoader extends CacheLoader<SamlRegiste
         logger.debug("Metadata backup file will be at {}", backupFile.getCanonicalPath());
         FileUtils.forceMkdirParent(backupFile);
 
-        final HttpClientMultithreadedDownloader downloader =
-                new HttpClientMultithreadedDownloader(metadataResource, backupFile);
+        if (md.isIndexAggregates()) {
+            metadataResolvers.add(buildIndexedMetadataResolverFromUrl(service, metadataResource, backupFile));
+            return;
+        }
 
         final FileBackedHTTPMetadataResolver metadataProvider = new FileBackedHTTPMetadataResolver(
                 this.httpClient.getWrappedHttpClient(), metadataResource.getURL().toExternalForm(),
@@ -227,6 +240,32 @@ public class ChainingMetadataResolverCacheLoader extends CacheLoader<SamlRegiste
         metadataResolvers.add(metadataProvider);
     }
 
+    /**
+     * Download the metadata aggregate and build an indexed resolver over it. The aggregate
+     * replaces the backup file only once it has been indexed successfully; if the aggregate
+     * cannot be downloaded or indexed, the resolver is built over the last backup instead.
+     */
+    private MetadataResolver buildIndexedMetadataResolverFromUrl(final SamlRegisteredService service,
+                                                                 final AbstractResource metadataResource,
+                                                                 final File backupFile) throws Exception {
+        final File downloadFile = new File(backupFile.getParentFile(), backupFile.getName() + ".download");
+        try {
+            new HttpClientMultithreadedDownloader(metadataResource, downloadFile).download();
+            final MetadataResolver metadataResolver = buildIndexedMetadataResolver(service, new FileSystemResource(downloadFile));
+            Files.move(downloadFile.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return metadataResolver;
+        } catch (final Exception e) {
+            FileUtils.deleteQuietly(downloadFile);
+            if (!backupFile.isFile()) {
+                throw e;
+            }
+            logger.warn("Unable to download and index metadata from [{}]; falling back to the backup at [{}]: {}",
+                    service.getMetadataLocation(), backupFile, e.getMessage());
+            logger.debug(e.getMessage(), e);
+            return buildIndexedMetadataResolver(service, new FileSystemResource(backupFile));
+        }
+    }
+
     private void resolveFileSystemBasedMetadataResource(final SamlRegisteredService service,
                                                         final List<MetadataResolver> metadataResolvers,
                                                         final AbstractResource metadataResource) throws Exception {
@@ -234,6 +273,9 @@ public class ChainingMetadataResolverCacheLoader extends CacheLoader<SamlRegiste
         final AbstractMetadataResolver metadataResolver;
         if (metadataFile.isDirectory()) {
             metadataResolver = new LocalDynamicMetadataResolver(new FilesystemLoadSaveManager<>(metadataFile, configBean.getParserPool()));
+        } else if (casProperties.getAuthn().getSamlIdp().getMetadata().isIndexAggregates()) {
+            metadataResolvers.add(buildIndexedMetadataResolver(service, metadataResource));
+            return;
         } else {
             metadataResolver = new ResourceBackedMetadataResolver(ResourceHelper.of(metadataResource));
         }
@@ -241,6 +283,35 @@ public class ChainingMetadataResolverCacheLoader extends CacheLoader<SamlRegiste
         metadataResolvers.add(metadataResolver);
     }
 
+    /**
+     * Estimate the size of the metadata document behind the service, in bytes.
+     * Only metadata held in files, or backed up to files when fetched over http, can be sized.
+     *
+     * @param service the service
+     * @return the size, or 0 if unknown
+     */
+    public long estimateMetadataSize(final SamlRegisteredService service) {
+        try {
+            if (isDynamicMetadataQueryConfigured(service)) {
+                return 0;
+            }
+            final AbstractResource metadataResource = ResourceUtils.getResourceFrom(service.getMetadataLocation());
+            final File metadataFile;
+            if (metadataResource instanceof UrlResource) {
+                final File backupDirectory = new File(casProperties.getAuthn().getSamlIdp().getMetadata().getLocation().getFile(), "metadata-backups");
+                metadataFile = new File(backupDirectory, metadataResource.getFilename());
+            } else if (metadataResource instanceof FileSystemResource) {
+                metadataFile = metadataResource.getFile();
+            } else {
+                return 0;
+            }
+            return metadataFile.isFile() ? metadataFile.length() : 0;
+        } catch (final Exception e) {
+            logger.debug("Unable to determine the size of metadata at [{}]: [{}]", service.getMetadataLocation(), e.getMessage());
+            return 0;
+        }
+    }
+
     /**
      * Is dynamic metadata query configured ?
      *
@@ -282,6 +353,20 @@ public class ChainingMetadataResolverCacheLoader extends CacheLoader<SamlRegiste
      */
     protected void buildMetadataFilters(final SamlRegisteredService service, final AbstractMetadataResolver metadataProvider) throws
             Exception {
+        final MetadataFilterChain metadataFilterChain = buildMetadataFilterChain(service);
+        if (metadataFilterChain != null) {
+            metadataProvider.setMetadataFilter(metadataFilterChain);
+        }
+    }
+
+    /**
+     * Build the chain of metadata filters configured for the service.
+     *
+     * @param service the service
+     * @return the metadata filter chain, or null if no filters are configured
+     * @throws Exception the exception
+     */
+    protected MetadataFilterChain buildMetadataFilterChain(final SamlRegisteredService service) throws Exception {
         final List<MetadataFilter> metadataFilterList = new ArrayList<>();
 
         buildRequiredValidUntilFilterIfNeeded(service, metadataFilterList);
@@ -290,13 +375,58 @@ public class ChainingMetadataResolverCacheLoader extends CacheLoader<SamlRegiste
         buildEntityRoleFilterIfNeeded(service, metadataFilterList);
         buildPredicateFilterIfNeeded(service, metadataFilterList);
 
+        if (metadataFilterList.isEmpty()) {
+            return null;
+        }
+        final MetadataFilterChain metadataFilterChain = new MetadataFilterChain();
+        metadataFilterChain.setFilters(metadataFilterList);
+        logger.debug("Metadata filter chain initialized with [{}] filters", metadataFilterList.size());
+        return metadataFilterChain;
+    }
+
+    /**
+     * Build a metadata resolver over an index of the entities in the metadata aggregate.
+     * The aggregate is filtered once while it is indexed, after which entities are
+     * loaded from the index on demand, and released from memory once idle.
+     * The aggregate is only indexed again once its content changes. Since entities may stay
+     * in the index well beyond the validity of the aggregate, the validity of entities is
+     * checked again as they are loaded from the index.
+     *
+     * @param service           the service
+     * @param metadataAggregate the metadata aggregate
+     * @return the metadata resolver
+     * @throws Exception the exception
+     */
+    protected MetadataResolver buildIndexedMetadataResolver(final SamlRegisteredService service,
+                                                            final AbstractResource metadataAggregate) throws Exception {
+        final SamlIdPProperties.Metadata md = casProperties.getAuthn().getSamlIdp().getMetadata();
+        final String indexName = new SamlRegisteredServiceCacheKey(service).getFingerprint();
+        final File indexRoot = new File(new File(md.getLocation().getFile(), "metadata-index"), indexName);
+
+        final SamlMetadataAggregateIndexer indexer = new SamlMetadataAggregateIndexer(this.configBean.getParserPool());
+        logger.debug("Indexing SAML metadata aggregate from [{}] under [{}]", service.getMetadataLocation(), indexRoot);
+        final File indexDirectory = indexer.index(metadataAggregate, buildMetadataFilterChain(service), indexRoot);
+
+        final LocalDynamicMetadataResolver metadataResolver =
+                new LocalDynamicMetadataResolver(new FilesystemLoadSaveManager<>(indexDirectory, this.configBean.getParserPool()));
+        metadataResolver.setParserPool(this.configBean.getParserPool());
+        metadataResolver.setFailFastInitialization(md.isFailFast());
+        metadataResolver.setRequireValidMetadata(md.isRequireValidMetadata());
+        metadataResolver.setMaxIdleEntityData(TimeUnit.MINUTES.toMillis(md.getCacheExpirationMinutes()));
+        metadataResolver.setId(metadataResolver.getClass().getCanonicalName());
+
+        final List<MetadataFilter> metadataFilterList = new ArrayList<>();
+        buildRequiredValidUntilFilterIfNeeded(service, metadataFilterList);
         if (!metadataFilterList.isEmpty()) {
             final MetadataFilterChain metadataFilterChain = new MetadataFilterChain();
             metadataFilterChain.setFilters(metadataFilterList);
-
-            logger.debug("Metadata filter chain initialized with [{}] filters", metadataFilterList.size());
-            metadataProvider.setMetadataFilter(metadataFilterChain);
+            metadataResolver.setMetadataFilter(metadataFilterChain);
         }
+        metadataResolver.initialize();
+
+        indexer.publish(indexRoot, indexDirectory);
+        logger.info("Initialized indexed metadata resolver from [{}] over [{}]", service.getMetadataLocation(), indexDirectory);
+        return metadataResolver;
     }
 
     private void buildEntityRoleFilterIfNeeded(final SamlRegisteredService service, final List<MetadataFilter> metadataFilterList) {
@@ -1,18 +1,33 @@
 package org.apereo.cas.support.saml.services.idp.metadata.cache;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Ticker;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.apereo.cas.support.saml.services.SamlRegisteredService;
 import org.opensaml.saml.metadata.resolver.ChainingMetadataResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
  * An adaptation of metadata resolver which handles the resolution of metadata resources
  * inside a Guava cache. It basically is a fancy wrapper around Guava, and constructs the cache
  * semantics before processing the resolution of metadata for a SAML service.
+ * <p>
+ * Resolvers are cached by metadata location and filter settings, so services that share
+ * the same metadata aggregate share the same resolver. Once the expiration period elapses,
+ * resolvers are reloaded on the given executor while the previous resolver keeps serving requests.
+ * Resolvers that are not used for the expiration period are evicted. Resolvers that are replaced or
+ * evicted are destroyed, which stops their background reload tasks. Load time, hit rate and
+ * an estimate of the size of cached metadata are published to the metric registry, if one is available.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
@@ -20,18 +35,60 @@ import java.util.concurrent.TimeUnit;
 public class DefaultSamlRegisteredServiceCachingMetadataResolver implements SamlRegisteredServiceCachingMetadataResolver {
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultSamlRegisteredServiceCachingMetadataResolver.class);
 
+    private static final long DEFAULT_MAXIMUM_SIZE = 100;
+
     private long metadataCacheExpirationMinutes;
 
     private ChainingMetadataResolverCacheLoader chainingMetadataResolverCacheLoader;
 
-    private LoadingCache<SamlRegisteredService, ChainingMetadataResolver> cache;
+    private LoadingCache<SamlRegisteredServiceCacheKey, ChainingMetadataResolver> cache;
 
     public DefaultSamlRegisteredServiceCachingMetadataResolver(final long metadataCacheExpirationMinutes,
                                                                final ChainingMetadataResolverCacheLoader chainingMetadataResolverCacheLoader) {
+        this(metadataCacheExpirationMinutes, DEFAULT_MAXIMUM_SIZE, chainingMetadataResolverCacheLoader, MoreExecutors.directExecutor(), null);
+    }
+
+    /**
+     * Instantiates a new caching metadata resolver.
+     *
+     * @param metadataCacheExpirationMinutes      the period after which resolvers are reloaded, or evicted if unused
+     * @param maximumSize                         the maximum number of cached resolvers
+     * @param chainingMetadataResolverCacheLoader the cache loader
+     * @param refreshExecutor                     the executor on which resolvers are reloaded
+     * @param metricRegistry                      the metric registry; may be null
+     */
+    public DefaultSamlRegisteredServiceCachingMetadataResolver(final long metadataCacheExpirationMinutes,
+                                                               final long maximumSize,
+                                                               final ChainingMetadataResolverCacheLoader chainingMetadataResolverCacheLoader,
+                                                               final Executor refreshExecutor,
+                                                               final MetricRegistry metricRegistry) {
+        this(metadataCacheExpirationMinutes, maximumSize, chainingMetadataResolverCacheLoader, refreshExecutor, metricRegistry,
+                Ticker.systemTicker());
+    }
+
+    DefaultSamlRegisteredServiceCachingMetadataResolver(final long metadataCacheExpirationMinutes,
+                                                        final long maximumSize,
+                                                        final ChainingMetadataResolverCacheLoader chainingMetadataResolverCacheLoader,
+                                                        final Executor refreshExecutor,
+                                                        final MetricRegistry metricRegistry,
+                                                        final Ticker ticker) {
         this.metadataCacheExpirationMinutes = metadataCacheExpirationMinutes;
         this.chainingMetadataResolverCacheLoader = chainingMetadataResolverCacheLoader;
-        this.cache = CacheBuilder.newBuilder().maximumSize(1)
-                .expireAfterWrite(this.metadataCacheExpirationMinutes, TimeUnit.MINUTES).build(this.chainingMetadataResolverCacheLoader);
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(this.metadataCacheExpirationMinutes, TimeUnit.MINUTES)
+                .expireAfterAccess(this.metadataCacheExpirationMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .ticker(ticker)
+                .removalListener(this::destroy)
+                .build(CacheLoader.asyncReloading(this.chainingMetadataResolverCacheLoader, refreshExecutor));
+
+        if (metricRegistry != null) {
+            register(metricRegistry, "size", (Gauge<Long>) this.cache::size);
+            register(metricRegistry, "hitRate", (Gauge<Double>) () -> getStats().hitRate());
+            register(metricRegistry, "averageLoadTime", (Gauge<Double>) () -> getStats().averageLoadPenalty() / TimeUnit.MILLISECONDS.toNanos(1));
+            register(metricRegistry, "metadataSize", (Gauge<Long>) this::estimateMetadataSize);
+        }
     }
 
     @Override
@@ -39,7 +96,7 @@ public class DefaultSamlRegisteredServiceCachingMetadataResolver implements Saml
         ChainingMetadataResolver resolver = null;
         try {
             LOGGER.debug("Resolving metadata for [{}] at [{}].", service.getName(), service.getMetadataLocation());
-            resolver = this.cache.get(service);
+            resolver = this.cache.get(new SamlRegisteredServiceCacheKey(service));
             return resolver;
         } catch (final Exception e) {
             throw new IllegalArgumentException("Metadata resolver could not be located from metadata "
@@ -54,6 +111,26 @@ public class DefaultSamlRegisteredServiceCachingMetadataResolver implements Saml
         }
     }
 
+    /**
+     * Gets cache statistics.
+     *
+     * @return the stats
+     */
+    public CacheStats getStats() {
+        return this.cache.stats();
+    }
+
+    /**
+     * Estimate the total size in bytes of the metadata documents behind cached resolvers.
+     *
+     * @return the estimated size
+     */
+    public long estimateMetadataSize() {
+        return this.cache.asMap().keySet().stream()
+                .mapToLong(key -> this.chainingMetadataResolverCacheLoader.estimateMetadataSize(key.getRegisteredService()))
+                .sum();
+    }
+
     public void setChainingMetadataResolverCacheLoader(final ChainingMetadataResolverCacheLoader chainingMetadataResolverCacheLoader) {
         this.chainingMetadataResolverCacheLoader = chainingMetadataResolverCacheLoader;
     }
@@ -61,4 +138,19 @@ public class DefaultSamlRegisteredServiceCachingMetadataResolver implements Saml
     public void setMetadataCacheExpirationMinutes(final long metadataCacheExpirationMinutes) {
         this.metadataCacheExpirationMinutes = metadataCacheExpirationMinutes;
     }
+
+    private void destroy(final RemovalNotification<SamlRegisteredServiceCacheKey, ChainingMetadataResolver> notification) {
+        final ChainingMetadataResolver resolver = notification.getValue();
+        if (resolver != null) {
+            LOGGER.debug("Destroying metadata resolver for [{}] removed from the cache: [{}]",
+                    notification.getKey().getMetadataLocation(), notification.getCause());
+            resolver.destroy();
+        }
+    }
+
+    private void register(final MetricRegistry metricRegistry, final String name, final Gauge<?> gauge) {
+        final String metricName = MetricRegistry.name(getClass(), name);
+        metricRegistry.remove(metricName);
+        metricRegistry.register(metricName, gauge);
+    }
 }
@@ -0,0 +1,191 @@
+package org.apereo.cas.support.saml.services.idp.metadata.cache;
+
+import com.google.common.base.Function;
+import net.shibboleth.utilities.java.support.resolver.CriteriaSet;
+import net.shibboleth.utilities.java.support.xml.ParserPool;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.joda.time.DateTime;
+import org.opensaml.core.criterion.EntityIdCriterion;
+import org.opensaml.core.xml.XMLObject;
+import org.opensaml.core.xml.persist.FilesystemLoadSaveManager;
+import org.opensaml.core.xml.util.XMLObjectSupport;
+import org.opensaml.saml.metadata.resolver.filter.MetadataFilter;
+import org.opensaml.saml.metadata.resolver.impl.DefaultLocalDynamicSourceKeyGenerator;
+import org.opensaml.saml.saml2.metadata.EntitiesDescriptor;
+import org.opensaml.saml.saml2.metadata.EntityDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * This is {@link SamlMetadataAggregateIndexer} that splits a metadata aggregate into one file
+ * per entity, named after the entity id, in the layout expected by
+ * {@link org.opensaml.saml.metadata.resolver.impl.LocalDynamicMetadataResolver}.
+ * The aggregate is parsed and run through the metadata filters once, including signature validation;
+ * entities are then resolved from the index one at a time, on demand, instead of keeping
+ * the entire aggregate in memory.
+ * <p>
+ * Each distinct content of the aggregate is indexed into its own directory, named after a digest
+ * of the content, so an aggregate that has not changed is not indexed again. A new index is built
+ * in a staging directory and renamed into place, and older indexes are only deleted once they are
+ * no longer in use; see {@link #publish(File, File)}.
+ * <p>
+ * Entity-level signatures are dropped from indexed entities, since they have already been
+ * validated as part of the aggregate. Indexed entities carry the earliest {@code validUntil}
+ * of the groups they were part of, so that their validity can still be checked when they are resolved.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class SamlMetadataAggregateIndexer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SamlMetadataAggregateIndexer.class);
+
+    private static final String PUBLISHED_VERSION_FILE = "published";
+
+    private static final String STAGING_SUFFIX = ".staging";
+
+    private final ParserPool parserPool;
+
+    private final Function<CriteriaSet, String> sourceKeyGenerator = new DefaultLocalDynamicSourceKeyGenerator();
+
+    public SamlMetadataAggregateIndexer(final ParserPool parserPool) {
+        this.parserPool = parserPool;
+    }
+
+    /**
+     * Index the entities of the metadata aggregate into a directory under the given root,
+     * unless the same content has been indexed before.
+     *
+     * @param aggregate the metadata aggregate
+     * @param filter    the metadata filter to apply to the aggregate; may be null
+     * @param root      the root directory of the indexes of the aggregate
+     * @return the index directory
+     * @throws Exception if the aggregate cannot be parsed, filtered or indexed
+     */
+    public File index(final Resource aggregate, final MetadataFilter filter, final File root) throws Exception {
+        final String version = digest(aggregate);
+        final File directory = new File(root, version);
+        if (directory.isDirectory()) {
+            LOGGER.debug("Metadata aggregate [{}] has not changed since it was indexed into [{}]", aggregate, directory);
+            return directory;
+        }
+
+        FileUtils.forceMkdir(root);
+        final File staging = Files.createTempDirectory(root.toPath(), version + STAGING_SUFFIX).toFile();
+        try {
+            XMLObject metadata;
+            try (InputStream in = aggregate.getInputStream()) {
+                metadata = XMLObjectSupport.unmarshallFromInputStream(this.parserPool, in);
+            }
+            if (filter != null) {
+                metadata = filter.filter(metadata);
+            }
+            final int count = save(metadata, null, new FilesystemLoadSaveManager<>(staging, this.parserPool));
+            try {
+                Files.move(staging.toPath(), directory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (final IOException e) {
+                if (!directory.isDirectory()) {
+                    throw e;
+                }
+                LOGGER.debug("Metadata aggregate [{}] was indexed into [{}] concurrently", aggregate, directory);
+            }
+            LOGGER.info("Indexed [{}] entities from [{}] into [{}]", count, aggregate, directory);
+            return directory;
+        } finally {
+            FileUtils.deleteQuietly(staging);
+        }
+    }
+
+    /**
+     * Record the index directory as the one in use, once a resolver over it is in place.
+     * Other indexes of the aggregate are deleted, except for the one previously in use:
+     * the resolver over it may still be serving lookups until it is replaced, so it is only
+     * deleted once another index is published.
+     *
+     * @param root      the root directory of the indexes of the aggregate
+     * @param directory the index directory in use
+     * @throws IOException if the index in use cannot be recorded
+     */
+    public void publish(final File root, final File directory) throws IOException {
+        final File publishedVersion = new File(root, PUBLISHED_VERSION_FILE);
+        final String previous = publishedVersion.isFile()
+                ? FileUtils.readFileToString(publishedVersion, StandardCharsets.UTF_8).trim() : null;
+        FileUtils.writeStringToFile(publishedVersion, directory.getName(), StandardCharsets.UTF_8);
+
+        final File[] stale = root.listFiles(f -> f.isDirectory()
+                && !f.getName().contains(STAGING_SUFFIX)
+                && !f.getName().equals(directory.getName())
+                && !f.getName().equals(previous));
+        if (stale != null) {
+            for (final File index : stale) {
+                LOGGER.debug("Deleting metadata index [{}] that is no longer in use", index);
+                FileUtils.deleteQuietly(index);
+            }
+        }
+    }
+
+    /**
+     * Gets the key under which the entity is indexed.
+     *
+     * @param entityId the entity id
+     * @return the key
+     */
+    public String getKey(final String entityId) {
+        return this.sourceKeyGenerator.apply(new CriteriaSet(new EntityIdCriterion(entityId)));
+    }
+
+    private int save(final XMLObject metadata, final DateTime validUntil,
+                     final FilesystemLoadSaveManager<XMLObject> manager) throws Exception {
+        if (metadata instanceof EntitiesDescriptor) {
+            final EntitiesDescriptor entities = (EntitiesDescriptor) metadata;
+            final DateTime entitiesValidUntil = earliest(validUntil, entities.getValidUntil());
+            int count = 0;
+            for (final EntitiesDescriptor child : entities.getEntitiesDescriptors()) {
+                count += save(child, entitiesValidUntil, manager);
+            }
+            for (final EntityDescriptor child : entities.getEntityDescriptors()) {
+                count += save(child, entitiesValidUntil, manager);
+            }
+            return count;
+        }
+        if (metadata instanceof EntityDescriptor) {
+            final EntityDescriptor entity = (EntityDescriptor) metadata;
+            if (StringUtils.isBlank(entity.getEntityID())) {
+                return 0;
+            }
+            entity.releaseParentDOM(true);
+            entity.releaseChildrenDOM(true);
+            entity.releaseDOM();
+            entity.setSignature(null);
+            entity.setValidUntil(earliest(validUntil, entity.getValidUntil()));
+            manager.save(getKey(entity.getEntityID()), entity);
+            return 1;
+        }
+        return 0;
+    }
+
+    private static DateTime earliest(final DateTime first, final DateTime second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return first.isBefore(second) ? first : second;
+    }
+
+    private static String digest(final Resource aggregate) throws IOException {
+        try (InputStream in = aggregate.getInputStream()) {
+            return DigestUtils.sha256Hex(in);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.apereo.cas.support.saml.services.idp.metadata.cache;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apereo.cas.support.saml.services.SamlRegisteredService;
+import org.apereo.cas.util.DigestUtils;
+
+/**
+ * This is {@link SamlRegisteredServiceCacheKey} that identifies a metadata resolver
+ * by the metadata location and the filter settings of a SAML service. Services that
+ * share the same metadata source and filters share the same key, and thus the same resolver.
+ * The service from which the key was built is kept to load the resolver, but does not
+ * take part in equality.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class SamlRegisteredServiceCacheKey {
+
+    private final String metadataLocation;
+    private final String metadataSignatureLocation;
+    private final long metadataMaxValidity;
+    private final String metadataCriteriaDirection;
+    private final String metadataCriteriaPattern;
+    private final String metadataCriteriaRoles;
+    private final boolean metadataCriteriaRemoveEmptyEntitiesDescriptors;
+    private final boolean metadataCriteriaRemoveRolelessEntityDescriptors;
+
+    private final SamlRegisteredService registeredService;
+
+    public SamlRegisteredServiceCacheKey(final SamlRegisteredService registeredService) {
+        this.registeredService = registeredService;
+        this.metadataLocation = registeredService.getMetadataLocation();
+        this.metadataSignatureLocation = registeredService.getMetadataSignatureLocation();
+        this.metadataMaxValidity = registeredService.getMetadataMaxValidity();
+        this.metadataCriteriaDirection = registeredService.getMetadataCriteriaDirection();
+        this.metadataCriteriaPattern = registeredService.getMetadataCriteriaPattern();
+        this.metadataCriteriaRoles = registeredService.getMetadataCriteriaRoles();
+        this.metadataCriteriaRemoveEmptyEntitiesDescriptors = registeredService.isMetadataCriteriaRemoveEmptyEntitiesDescriptors();
+        this.metadataCriteriaRemoveRolelessEntityDescriptors = registeredService.isMetadataCriteriaRemoveRolelessEntityDescriptors();
+    }
+
+    public SamlRegisteredService getRegisteredService() {
+        return this.registeredService;
+    }
+
+    public String getMetadataLocation() {
+        return this.metadataLocation;
+    }
+
+    /**
+     * Gets a digest of the metadata location and filter settings that make up this key,
+     * which remains stable across restarts.
+     *
+     * @return the fingerprint
+     */
+    public String getFingerprint() {
+        return DigestUtils.sha(StringUtils.joinWith("|", this.metadataLocation, this.metadataSignatureLocation,
+                this.metadataMaxValidity, this.metadataCriteriaDirection, this.metadataCriteriaPattern, this.metadataCriteriaRoles,
+                this.metadataCriteriaRemoveEmptyEntitiesDescriptors, this.metadataCriteriaRemoveRolelessEntityDescriptors));
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (obj == this) {
+            return true;
+        }
+        if (obj.getClass() != getClass()) {
+            return false;
+        }
+        final SamlRegisteredServiceCacheKey rhs = (SamlRegisteredServiceCacheKey) obj;
+        return new EqualsBuilder()
+                .append(this.metadataLocation, rhs.metadataLocation)
+                .append(this.metadataSignatureLocation, rhs.metadataSignatureLocation)
+                .append(this.metadataMaxValidity, rhs.metadataMaxValidity)
+                .append(this.metadataCriteriaDirection, rhs.metadataCriteriaDirection)
+                .append(this.metadataCriteriaPattern, rhs.metadataCriteriaPattern)
+                .append(this.metadataCriteriaRoles, rhs.metadataCriteriaRoles)
+                .append(this.metadataCriteriaRemoveEmptyEntitiesDescriptors, rhs.metadataCriteriaRemoveEmptyEntitiesDescriptors)
+                .append(this.metadataCriteriaRemoveRolelessEntityDescriptors, rhs.metadataCriteriaRemoveRolelessEntityDescriptors)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+                .append(this.metadataLocation)
+                .append(this.metadataSignatureLocation)
+                .append(this.metadataMaxValidity)
+                .append(this.metadataCriteriaDirection)
+                .append(this.metadataCriteriaPattern)
+                .append(this.metadataCriteriaRoles)
+                .append(this.metadataCriteriaRemoveEmptyEntitiesDescriptors)
+                .append(this.metadataCriteriaRemoveRolelessEntityDescriptors)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("metadataLocation", this.metadataLocation)
+                .append("metadataSignatureLocation", this.metadataSignatureLocation)
+                .append("metadataCriteriaPattern", this.metadataCriteriaPattern)
+                .append("metadataCriteriaRoles", this.metadataCriteriaRoles)
+                .toString();
+    }
+}
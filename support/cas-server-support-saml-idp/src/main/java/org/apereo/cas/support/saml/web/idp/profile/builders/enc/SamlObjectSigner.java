@@ -1,6 +1,8 @@
 package org.apereo.cas.support.saml.web.idp.profile.builders.enc;
 
 import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import net.shibboleth.utilities.java.support.resolver.CriteriaSet;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.configuration.CasConfigurationProperties;
@@ -28,6 +30,7 @@ import org.opensaml.saml.metadata.resolver.RoleDescriptorResolver;
 import org.opensaml.saml.metadata.resolver.impl.BasicRoleDescriptorResolver;
 import org.opensaml.saml.saml2.binding.security.impl.SAML2HTTPRedirectDeflateSignatureSecurityHandler;
 import org.opensaml.saml.saml2.core.RequestAbstractType;
+import org.opensaml.saml.saml2.metadata.EntityDescriptor;
 import org.opensaml.saml.saml2.metadata.RoleDescriptor;
 import org.opensaml.saml.saml2.metadata.SPSSODescriptor;
 import org.opensaml.saml.security.impl.MetadataCredentialResolver;
@@ -69,11 +72,19 @@ import java.util.List;
 
 /**
  * This is {@link SamlObjectSigner}.
+ * <p>
+ * The signing certificate and private key are read once and kept in memory, along with the
+ * signature signing configuration built from them; both are loaded again when either file
+ * is modified. Signature signing parameters are remembered per entity id and role, for as long
+ * as the same role descriptor instance is resolved from metadata and the signing credential is unchanged;
+ * parameters are kept for a bounded number of entities, and those used least recently are forgotten first.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
  */
 public class SamlObjectSigner {
+    private static final long MAXIMUM_CACHED_SIGNING_PARAMETERS = 1000;
+
     protected transient Logger logger = LoggerFactory.getLogger(this.getClass());
 
     /**
@@ -100,6 +111,11 @@ public class SamlObjectSigner {
     @Autowired
     private CasConfigurationProperties casProperties;
 
+    private volatile SigningConfiguration signingConfiguration;
+
+    private final Cache<String, SigningParameters> signingParameters =
+            CacheBuilder.newBuilder().maximumSize(MAXIMUM_CACHED_SIGNING_PARAMETERS).build();
+
     public SamlObjectSigner(final List overrideSignatureReferenceDigestMethods, final List overrideSignatureAlgorithms,
                             final List overrideBlackListedSignatureAlgorithms, final List overrideWhiteListedAlgorithms) {
         this.overrideSignatureReferenceDigestMethods = overrideSignatureReferenceDigestMethods;
@@ -228,8 +244,18 @@ public class SamlObjectSigner {
      */
     protected SignatureSigningParameters buildSignatureSigningParameters(final RoleDescriptor descriptor) throws SAMLException {
         try {
+            final SigningConfiguration configuration = getCachedSignatureSigningConfiguration();
+            final String key = descriptor.getParent() instanceof EntityDescriptor
+                    ? ((EntityDescriptor) descriptor.getParent()).getEntityID() + '|' + descriptor.getElementQName()
+                    : null;
+            final SigningParameters cached = key != null ? this.signingParameters.getIfPresent(key) : null;
+            if (cached != null && cached.descriptor == descriptor && cached.configuration == configuration) {
+                logger.debug("Using cached signature signing parameters for [{}]", key);
+                return cached.parameters;
+            }
+
             final CriteriaSet criteria = new CriteriaSet();
-            criteria.add(new SignatureSigningConfigurationCriterion(getSignatureSigningConfiguration()));
+            criteria.add(new SignatureSigningConfigurationCriterion(configuration.configuration));
             criteria.add(new RoleDescriptorCriterion(descriptor));
             final SAMLMetadataSignatureSigningParametersResolver resolver = new SAMLMetadataSignatureSigningParametersResolver();
             logger.debug("Resolving signature signing parameters for [{}]", descriptor.getElementQName().getLocalPart());
@@ -246,6 +272,9 @@ public class SamlObjectSigner {
                     params.getSignatureAlgorithm(), params.getSignatureCanonicalizationAlgorithm(),
                     params.getSignatureReferenceDigestMethod());
 
+            if (key != null) {
+                this.signingParameters.put(key, new SigningParameters(descriptor, configuration, params));
+            }
             return params;
         } catch (final Exception e) {
             throw new SAMLException(e.getMessage(), e);
@@ -280,6 +309,34 @@ public class SamlObjectSigner {
         return config;
     }
 
+    /**
+     * Gets the signature signing configuration, building it again only when
+     * the signing certificate or private key file has been modified.
+     *
+     * @return the signature signing configuration
+     * @throws Exception the exception
+     */
+    private SigningConfiguration getCachedSignatureSigningConfiguration() throws Exception {
+        final SamlIdPProperties.Metadata md = casProperties.getAuthn().getSamlIdp().getMetadata();
+        final long certificateLastModified = md.getSigningCertFile().getFile().lastModified();
+        final long keyLastModified = md.getSigningKeyFile().getFile().lastModified();
+
+        SigningConfiguration current = this.signingConfiguration;
+        if (current == null || current.certificateLastModified != certificateLastModified || current.keyLastModified != keyLastModified) {
+            synchronized (this) {
+                current = this.signingConfiguration;
+                if (current == null || current.certificateLastModified != certificateLastModified
+                        || current.keyLastModified != keyLastModified) {
+                    logger.debug("Loading signature signing configuration and credentials");
+                    current = new SigningConfiguration(getSignatureSigningConfiguration(), certificateLastModified, keyLastModified);
+                    this.signingConfiguration = current;
+                    this.signingParameters.invalidateAll();
+                }
+            }
+        }
+        return current;
+    }
+
     /**
      * Gets signature signing configuration.
      *
@@ -463,4 +520,35 @@ public class SamlObjectSigner {
             throw Throwables.propagate(e);
         }
     }
+
+    /**
+     * Signature signing configuration, along with the modification times
+     * of the credential files it was built from.
+     */
+    private static class SigningConfiguration {
+        private final SignatureSigningConfiguration configuration;
+        private final long certificateLastModified;
+        private final long keyLastModified;
+
+        SigningConfiguration(final SignatureSigningConfiguration configuration, final long certificateLastModified, final long keyLastModified) {
+            this.configuration = configuration;
+            this.certificateLastModified = certificateLastModified;
+            this.keyLastModified = keyLastModified;
+        }
+    }
+
+    /**
+     * Signature signing parameters resolved for a role descriptor.
+     */
+    private static class SigningParameters {
+        private final RoleDescriptor descriptor;
+        private final SigningConfiguration configuration;
+        private final SignatureSigningParameters parameters;
+
+        SigningParameters(final RoleDescriptor descriptor, final SigningConfiguration configuration, final SignatureSigningParameters parameters) {
+            this.descriptor = descriptor;
+            this.configuration = configuration;
+            this.parameters = parameters;
+        }
+    }
 }
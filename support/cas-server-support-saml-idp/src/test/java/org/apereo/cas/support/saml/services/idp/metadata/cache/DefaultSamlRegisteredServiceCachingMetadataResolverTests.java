@@ -0,0 +1,110 @@
+package org.apereo.cas.support.saml.services.idp.metadata.cache;
+
+import com.google.common.base.Ticker;
+import org.apereo.cas.support.saml.services.SamlRegisteredService;
+import org.junit.Test;
+import org.opensaml.saml.metadata.resolver.ChainingMetadataResolver;
+
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link DefaultSamlRegisteredServiceCachingMetadataResolverTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class DefaultSamlRegisteredServiceCachingMetadataResolverTests {
+
+    private static final long EXPIRATION_MINUTES = 5;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final Queue<Runnable> refreshes = new ConcurrentLinkedQueue<>();
+
+    private final Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    };
+
+    private final ChainingMetadataResolverCacheLoader loader = new ChainingMetadataResolverCacheLoader(null, null) {
+        @Override
+        public ChainingMetadataResolver load(final SamlRegisteredServiceCacheKey cacheKey) throws Exception {
+            loads.incrementAndGet();
+            final ChainingMetadataResolver resolver = new ChainingMetadataResolver();
+            resolver.setId(cacheKey.getFingerprint());
+            resolver.setResolvers(Collections.emptyList());
+            resolver.initialize();
+            return resolver;
+        }
+    };
+
+    @Test
+    public void verifyServicesSharingMetadataShareResolver() {
+        final DefaultSamlRegisteredServiceCachingMetadataResolver resolver = newResolver(100);
+        final ChainingMetadataResolver first = resolver.resolve(newService(1, "https://md.example.org/aggregate.xml"));
+
+        assertSame(first, resolver.resolve(newService(2, "https://md.example.org/aggregate.xml")));
+        assertNotSame(first, resolver.resolve(newService(3, "https://md.example.org/other.xml")));
+        assertEquals(2, this.loads.get());
+    }
+
+    @Test
+    public void verifyResolverIsRefreshedInBackground() {
+        final DefaultSamlRegisteredServiceCachingMetadataResolver resolver = newResolver(100);
+        final SamlRegisteredService service = newService(1, "https://md.example.org/aggregate.xml");
+        final ChainingMetadataResolver first = resolver.resolve(service);
+
+        advance(EXPIRATION_MINUTES - 1);
+        assertSame(first, resolver.resolve(service));
+        advance(EXPIRATION_MINUTES - 1);
+        assertSame(first, resolver.resolve(service));
+        assertEquals(1, this.refreshes.size());
+        assertFalse(first.isDestroyed());
+
+        this.refreshes.poll().run();
+        final ChainingMetadataResolver refreshed = resolver.resolve(service);
+        assertNotSame(first, refreshed);
+        assertEquals(2, this.loads.get());
+        assertTrue(first.isDestroyed());
+        assertFalse(refreshed.isDestroyed());
+    }
+
+    @Test
+    public void verifyEvictedResolversAreDestroyed() {
+        final DefaultSamlRegisteredServiceCachingMetadataResolver resolver = newResolver(1);
+        final ChainingMetadataResolver first = resolver.resolve(newService(1, "https://md.example.org/aggregate.xml"));
+        final ChainingMetadataResolver second = resolver.resolve(newService(2, "https://md.example.org/other.xml"));
+
+        assertTrue(first.isDestroyed());
+        assertFalse(second.isDestroyed());
+    }
+
+    private DefaultSamlRegisteredServiceCachingMetadataResolver newResolver(final long maximumSize) {
+        return new DefaultSamlRegisteredServiceCachingMetadataResolver(EXPIRATION_MINUTES, maximumSize, this.loader,
+                this.refreshes::add, null, this.ticker);
+    }
+
+    private void advance(final long minutes) {
+        this.nanos.addAndGet(TimeUnit.MINUTES.toNanos(minutes));
+    }
+
+    private static SamlRegisteredService newService(final long id, final String metadataLocation) {
+        final SamlRegisteredService service = new SamlRegisteredService();
+        service.setId(id);
+        service.setName("SAML" + id);
+        service.setServiceId("https://sp" + id + ".example.org");
+        service.setMetadataLocation(metadataLocation);
+        return service;
+    }
+}
@@ -0,0 +1,167 @@
+package org.apereo.cas.support.saml.services.idp.metadata.cache;
+
+import net.shibboleth.utilities.java.support.resolver.CriteriaSet;
+import org.apache.commons.io.FileUtils;
+import org.apereo.cas.config.CoreSamlConfiguration;
+import org.apereo.cas.support.saml.OpenSamlConfigBean;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.opensaml.core.criterion.EntityIdCriterion;
+import org.opensaml.core.xml.persist.FilesystemLoadSaveManager;
+import org.opensaml.saml.metadata.resolver.filter.impl.EntityRoleFilter;
+import org.opensaml.saml.metadata.resolver.impl.LocalDynamicMetadataResolver;
+import org.opensaml.saml.saml2.metadata.EntityDescriptor;
+import org.opensaml.saml.saml2.metadata.SPSSODescriptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link SamlMetadataAggregateIndexerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {RefreshAutoConfiguration.class, CoreSamlConfiguration.class})
+public class SamlMetadataAggregateIndexerTests {
+
+    private static final String SP1 = "https://sp1.example.org";
+    private static final String SP2 = "https://sp2.example.org";
+    private static final String SP3 = "https://sp3.example.org";
+    private static final String IDP1 = "https://idp1.example.org";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Autowired
+    @Qualifier("shibboleth.OpenSAMLConfig")
+    private OpenSamlConfigBean configBean;
+
+    private SamlMetadataAggregateIndexer indexer;
+
+    private File indexRoot;
+
+    @Before
+    public void setUp() {
+        this.indexer = new SamlMetadataAggregateIndexer(this.configBean.getParserPool());
+        this.indexRoot = new File(this.folder.getRoot(), "index");
+    }
+
+    @Test
+    public void verifyEntitiesAreResolvedFromIndex() throws Exception {
+        final DateTime validUntil = DateTime.now(DateTimeZone.UTC).plusDays(1);
+        final File directory = index(aggregate(validUntil, sp(SP1), sp(SP2), idp(IDP1)), null);
+
+        final LocalDynamicMetadataResolver resolver = newResolver(directory);
+        assertEquals(SP1, resolver.resolveSingle(criteria(SP1)).getEntityID());
+        assertEquals(SP2, resolver.resolveSingle(criteria(SP2)).getEntityID());
+        assertEquals(IDP1, resolver.resolveSingle(criteria(IDP1)).getEntityID());
+        assertNull(resolver.resolveSingle(criteria(SP3)));
+
+        final EntityDescriptor entity = resolver.resolveSingle(criteria(SP1));
+        assertEquals(validUntil.getMillis(), entity.getValidUntil().getMillis());
+    }
+
+    @Test
+    public void verifyFilterIsAppliedWhileIndexing() throws Exception {
+        final EntityRoleFilter filter = new EntityRoleFilter(Collections.singletonList(SPSSODescriptor.DEFAULT_ELEMENT_NAME));
+        filter.setRemoveRolelessEntityDescriptors(true);
+        final File directory = index(aggregate(DateTime.now(DateTimeZone.UTC).plusDays(1), sp(SP1), sp(SP2), idp(IDP1)), filter);
+
+        final LocalDynamicMetadataResolver resolver = newResolver(directory);
+        assertNotNull(resolver.resolveSingle(criteria(SP1)));
+        assertNotNull(resolver.resolveSingle(criteria(SP2)));
+        assertNull(resolver.resolveSingle(criteria(IDP1)));
+    }
+
+    @Test
+    public void verifyChangedAggregateReplacesStaleEntities() throws Exception {
+        final DateTime validUntil = DateTime.now(DateTimeZone.UTC).plusDays(1);
+        final File first = index(aggregate(validUntil, sp(SP1), sp(SP2)), null);
+        assertEquals(first, index(aggregate(validUntil, sp(SP1), sp(SP2)), null));
+
+        final File second = index(aggregate(validUntil, sp(SP1), sp(SP3)), null);
+        assertNotEquals(first, second);
+
+        final LocalDynamicMetadataResolver resolver = newResolver(second);
+        assertNotNull(resolver.resolveSingle(criteria(SP1)));
+        assertNull(resolver.resolveSingle(criteria(SP2)));
+        assertNotNull(resolver.resolveSingle(criteria(SP3)));
+    }
+
+    @Test
+    public void verifyExpiredEntitiesAreNotResolved() throws Exception {
+        final File directory = index(aggregate(DateTime.now(DateTimeZone.UTC).minusMinutes(1), sp(SP1)), null);
+        assertNull(newResolver(directory).resolveSingle(criteria(SP1)));
+    }
+
+    @Test
+    public void verifyPublishingKeepsPreviousIndex() throws Exception {
+        final DateTime validUntil = DateTime.now(DateTimeZone.UTC).plusDays(1);
+        final File first = index(aggregate(validUntil, sp(SP1)), null);
+        this.indexer.publish(this.indexRoot, first);
+        final File second = index(aggregate(validUntil, sp(SP2)), null);
+        this.indexer.publish(this.indexRoot, second);
+        assertTrue(first.isDirectory());
+
+        final File third = index(aggregate(validUntil, sp(SP3)), null);
+        this.indexer.publish(this.indexRoot, third);
+        assertFalse(first.exists());
+        assertTrue(second.isDirectory());
+        assertNotNull(newResolver(third).resolveSingle(criteria(SP3)));
+    }
+
+    private File index(final String aggregate, final EntityRoleFilter filter) throws Exception {
+        final File file = this.folder.newFile();
+        FileUtils.writeStringToFile(file, aggregate, StandardCharsets.UTF_8);
+        return this.indexer.index(new FileSystemResource(file), filter, this.indexRoot);
+    }
+
+    private LocalDynamicMetadataResolver newResolver(final File directory) throws Exception {
+        final LocalDynamicMetadataResolver resolver =
+                new LocalDynamicMetadataResolver(new FilesystemLoadSaveManager<>(directory, this.configBean.getParserPool()));
+        resolver.setParserPool(this.configBean.getParserPool());
+        resolver.setRequireValidMetadata(true);
+        resolver.setId(resolver.getClass().getCanonicalName());
+        resolver.initialize();
+        return resolver;
+    }
+
+    private static CriteriaSet criteria(final String entityId) {
+        return new CriteriaSet(new EntityIdCriterion(entityId));
+    }
+
+    private static String aggregate(final DateTime validUntil, final String... entities) {
+        return "<md:EntitiesDescriptor xmlns:md=\"urn:oasis:names:tc:SAML:2.0:metadata\" validUntil=\"" + validUntil + "\">"
+                + String.join("", entities) + "</md:EntitiesDescriptor>";
+    }
+
+    private static String sp(final String entityId) {
+        return "<md:EntityDescriptor entityID=\"" + entityId + "\">"
+                + "<md:SPSSODescriptor protocolSupportEnumeration=\"urn:oasis:names:tc:SAML:2.0:protocol\">"
+                + "<md:AssertionConsumerService Binding=\"urn:oasis:names:tc:SAML:2.0:bindings:HTTP-POST\" Location=\""
+                + entityId + "/acs\" index=\"0\"/></md:SPSSODescriptor></md:EntityDescriptor>";
+    }
+
+    private static String idp(final String entityId) {
+        return "<md:EntityDescriptor entityID=\"" + entityId + "\">"
+                + "<md:IDPSSODescriptor protocolSupportEnumeration=\"urn:oasis:names:tc:SAML:2.0:protocol\">"
+                + "<md:SingleSignOnService Binding=\"urn:oasis:names:tc:SAML:2.0:bindings:HTTP-Redirect\" Location=\""
+                + entityId + "/sso\"/></md:IDPSSODescriptor></md:EntityDescriptor>";
+    }
+}
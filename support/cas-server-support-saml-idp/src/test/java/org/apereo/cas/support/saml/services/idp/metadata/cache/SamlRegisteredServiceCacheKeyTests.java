@@ -0,0 +1,47 @@
+package org.apereo.cas.support.saml.services.idp.metadata.cache;
+
+import org.apereo.cas.support.saml.services.SamlRegisteredService;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link SamlRegisteredServiceCacheKeyTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class SamlRegisteredServiceCacheKeyTests {
+
+    private static final String METADATA_LOCATION = "https://md.example.org/aggregate.xml";
+
+    @Test
+    public void verifyServicesSharingMetadataShareKey() {
+        final SamlRegisteredService first = newService(1, "https://sp1.example.org");
+        final SamlRegisteredService second = newService(2, "https://sp2.example.org");
+
+        final SamlRegisteredServiceCacheKey key = new SamlRegisteredServiceCacheKey(first);
+        assertEquals(key, new SamlRegisteredServiceCacheKey(second));
+        assertEquals(key.hashCode(), new SamlRegisteredServiceCacheKey(second).hashCode());
+        assertEquals(key.getFingerprint(), new SamlRegisteredServiceCacheKey(second).getFingerprint());
+    }
+
+    @Test
+    public void verifyFilterSettingsAreKeyed() {
+        final SamlRegisteredService first = newService(1, "https://sp1.example.org");
+        final SamlRegisteredService second = newService(2, "https://sp2.example.org");
+        second.setMetadataCriteriaRoles("SPSSODescriptor");
+
+        assertNotEquals(new SamlRegisteredServiceCacheKey(first), new SamlRegisteredServiceCacheKey(second));
+        assertNotEquals(new SamlRegisteredServiceCacheKey(first).getFingerprint(), new SamlRegisteredServiceCacheKey(second).getFingerprint());
+    }
+
+    private static SamlRegisteredService newService(final long id, final String entityId) {
+        final SamlRegisteredService service = new SamlRegisteredService();
+        service.setId(id);
+        service.setName("SAML" + id);
+        service.setServiceId(entityId);
+        service.setMetadataLocation(METADATA_LOCATION);
+        return service;
+    }
+}
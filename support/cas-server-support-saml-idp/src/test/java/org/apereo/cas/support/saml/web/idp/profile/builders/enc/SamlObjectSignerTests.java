@@ -0,0 +1,127 @@
+package org.apereo.cas.support.saml.web.idp.profile.builders.enc;
+
+import org.apache.commons.io.FileUtils;
+import org.apereo.cas.config.CoreSamlConfiguration;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.support.saml.OpenSamlConfigBean;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.opensaml.core.xml.util.XMLObjectSupport;
+import org.opensaml.saml.common.xml.SAMLConstants;
+import org.opensaml.saml.saml2.metadata.EntityDescriptor;
+import org.opensaml.saml.saml2.metadata.RoleDescriptor;
+import org.opensaml.xmlsec.SignatureSigningConfiguration;
+import org.opensaml.xmlsec.SignatureSigningParameters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link SamlObjectSignerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {RefreshAutoConfiguration.class, CoreSamlConfiguration.class})
+public class SamlObjectSignerTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private CasConfigurationProperties casProperties;
+
+    @Autowired
+    @Qualifier("shibboleth.OpenSAMLConfig")
+    private OpenSamlConfigBean configBean;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private SamlObjectSigner signer;
+
+    private File keyFile;
+
+    @Before
+    public void setUp() throws Exception {
+        FileUtils.copyFile(new ClassPathResource("saml-signing.crt").getFile(), new File(this.folder.getRoot(), "idp-signing.crt"));
+        this.keyFile = new File(this.folder.getRoot(), "idp-signing.key");
+        FileUtils.copyFile(new ClassPathResource("saml-signing.key").getFile(), this.keyFile);
+        this.casProperties.getAuthn().getSamlIdp().getMetadata().setLocation(new FileSystemResource(this.folder.getRoot()));
+
+        this.signer = new SamlObjectSigner(null, null, null, null) {
+            @Override
+            protected SignatureSigningConfiguration getSignatureSigningConfiguration() throws Exception {
+                loads.incrementAndGet();
+                return super.getSignatureSigningConfiguration();
+            }
+        };
+        this.applicationContext.getAutowireCapableBeanFactory().autowireBean(this.signer);
+    }
+
+    @Test
+    public void verifySigningParametersAreReused() throws Exception {
+        final RoleDescriptor descriptor = newServiceProvider("https://sp1.example.org");
+        final SignatureSigningParameters parameters = this.signer.buildSignatureSigningParameters(descriptor);
+        assertNotNull(parameters.getSigningCredential());
+
+        assertSame(parameters, this.signer.buildSignatureSigningParameters(descriptor));
+        assertNotSame(parameters, this.signer.buildSignatureSigningParameters(newServiceProvider("https://sp2.example.org")));
+        assertEquals(1, this.loads.get());
+    }
+
+    @Test
+    public void verifySigningParametersAreResolvedForReloadedMetadata() throws Exception {
+        final SignatureSigningParameters parameters =
+                this.signer.buildSignatureSigningParameters(newServiceProvider("https://sp1.example.org"));
+        final SignatureSigningParameters reloaded =
+                this.signer.buildSignatureSigningParameters(newServiceProvider("https://sp1.example.org"));
+
+        assertNotSame(parameters, reloaded);
+        assertSame(parameters.getSigningCredential(), reloaded.getSigningCredential());
+        assertEquals(1, this.loads.get());
+    }
+
+    @Test
+    public void verifySigningCredentialsAreReloadedOnceModified() throws Exception {
+        final RoleDescriptor descriptor = newServiceProvider("https://sp1.example.org");
+        final SignatureSigningParameters parameters = this.signer.buildSignatureSigningParameters(descriptor);
+
+        assertTrue(this.keyFile.setLastModified(this.keyFile.lastModified() + TimeUnit.MINUTES.toMillis(1)));
+        final SignatureSigningParameters reloaded = this.signer.buildSignatureSigningParameters(descriptor);
+
+        assertNotSame(parameters, reloaded);
+        assertNotSame(parameters.getSigningCredential(), reloaded.getSigningCredential());
+        assertEquals(2, this.loads.get());
+        assertSame(reloaded, this.signer.buildSignatureSigningParameters(descriptor));
+    }
+
+    private RoleDescriptor newServiceProvider(final String entityId) throws Exception {
+        final String metadata = "<md:EntityDescriptor xmlns:md=\"urn:oasis:names:tc:SAML:2.0:metadata\" entityID=\"" + entityId + "\">"
+                + "<md:SPSSODescriptor protocolSupportEnumeration=\"urn:oasis:names:tc:SAML:2.0:protocol\">"
+                + "<md:AssertionConsumerService Binding=\"urn:oasis:names:tc:SAML:2.0:bindings:HTTP-POST\" Location=\""
+                + entityId + "/acs\" index=\"0\"/></md:SPSSODescriptor></md:EntityDescriptor>";
+        final EntityDescriptor entity = (EntityDescriptor) XMLObjectSupport.unmarshallFromInputStream(
+                this.configBean.getParserPool(), new ByteArrayInputStream(metadata.getBytes(StandardCharsets.UTF_8)));
+        return entity.getSPSSODescriptor(SAMLConstants.SAML20P_NS);
+    }
+}
@@ -1,46 +1,117 @@
 package org.apereo.cas.trusted.authentication.storage;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustRecord;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * This is {@link RestMultifactorAuthenticationTrustStorage}.
+ * <p>
+ * Requests are sent through a shared {@link RestTemplate}, which is expected to be backed
+ * by a pooled HTTP client. Lookups by principal, including those that find no records,
+ * are remembered for a short period and forgotten as soon as records are stored or expired.
+ * When given an executor, stored records are queued and posted in the background,
+ * in batches drained from the queue; records are written synchronously if the queue is full.
+ * Queued records that cannot be written are put back in the queue and retried with the next flush;
+ * records that do not fit back in the queue, or are still queued once the storage is destroyed, are counted as failed.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
  */
-public class RestMultifactorAuthenticationTrustStorage extends BaseMultifactorAuthenticationTrustStorage {
+public class RestMultifactorAuthenticationTrustStorage extends BaseMultifactorAuthenticationTrustStorage implements DisposableBean {
+
+    private static final long DEFAULT_CACHE_EXPIRATION = 10000;
+    private static final long DEFAULT_CACHE_MAXIMUM_SIZE = 10000;
 
     private final String endpoint;
 
+    private final RestTemplate restTemplate;
+
+    private final Cache<String, Set<MultifactorAuthenticationTrustRecord>> lookups;
+
+    private final ExecutorService writeExecutor;
+
+    private final int writeBatchSize;
+
+    private final BlockingQueue<MultifactorAuthenticationTrustRecord> pendingWrites;
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final AtomicLong failedWrites = new AtomicLong();
+
     public RestMultifactorAuthenticationTrustStorage(final String endpoint) {
+        this(endpoint, new RestTemplate(), DEFAULT_CACHE_EXPIRATION, DEFAULT_CACHE_MAXIMUM_SIZE, null, 1, 1);
+    }
+
+    /**
+     * Instantiates a new Rest multifactor authentication trust storage.
+     *
+     * @param endpoint           the endpoint
+     * @param restTemplate       the rest template
+     * @param cacheExpiration    the duration in milliseconds for which lookups by principal are remembered
+     * @param cacheMaximumSize   the maximum number of remembered lookups
+     * @param writeExecutor      the executor that posts queued records; if null, records are written synchronously
+     * @param writeBatchSize     the maximum number of records posted by one flush of the queue
+     * @param writeQueueCapacity the capacity of the queue of records waiting to be written
+     */
+    public RestMultifactorAuthenticationTrustStorage(final String endpoint, final RestTemplate restTemplate,
+                                                     final long cacheExpiration, final long cacheMaximumSize,
+                                                     final ExecutorService writeExecutor, final int writeBatchSize,
+                                                     final int writeQueueCapacity) {
         this.endpoint = endpoint;
+        this.restTemplate = restTemplate;
+        this.lookups = CacheBuilder.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(cacheExpiration, TimeUnit.MILLISECONDS)
+                .build();
+        this.writeExecutor = writeExecutor;
+        this.writeBatchSize = Math.max(1, writeBatchSize);
+        this.pendingWrites = new LinkedBlockingQueue<>(Math.max(1, writeQueueCapacity));
     }
 
     @Override
     public Set<MultifactorAuthenticationTrustRecord> get(final String principal) {
+        final Set<MultifactorAuthenticationTrustRecord> cached = this.lookups.getIfPresent(principal);
+        if (cached != null) {
+            logger.debug("Using cached trusted authentication records for [{}]", principal);
+            return new HashSet<>(cached);
+        }
         final String url = (!this.endpoint.endsWith("/") ? this.endpoint.concat("/") : this.endpoint).concat(principal);
-        return getResults(url);
+        final Set<MultifactorAuthenticationTrustRecord> results = getResults(url);
+        this.lookups.put(principal, Collections.unmodifiableSet(new HashSet<>(results)));
+        return results;
     }
 
     @Override
     public void expire(final LocalDate onOrBefore) {
-        final RestTemplate restTemplate = new RestTemplate();
-        restTemplate.postForEntity(this.endpoint, onOrBefore, Object.class);
+        this.restTemplate.postForEntity(this.endpoint, onOrBefore, Object.class);
+        this.lookups.invalidateAll();
     }
 
     @Override
     public void expire(final String key) {
-        final RestTemplate restTemplate = new RestTemplate();
-        restTemplate.postForEntity(this.endpoint, key, Object.class);
+        this.restTemplate.postForEntity(this.endpoint, key, Object.class);
+        this.lookups.invalidateAll();
     }
 
     @Override
@@ -51,23 +122,104 @@ public class RestMultifactorAuthenticationTrustStorage extends BaseMultifactorAu
 
     @Override
     protected MultifactorAuthenticationTrustRecord setInternal(final MultifactorAuthenticationTrustRecord record) {
-        final RestTemplate restTemplate = new RestTemplate();
-        final ResponseEntity<Object> response = restTemplate.postForEntity(this.endpoint, record, Object.class);
-        if (response != null && response.getStatusCode() == HttpStatus.OK) {
-            return record;
+        this.lookups.invalidate(record.getPrincipal());
+        if (this.writeExecutor != null) {
+            if (this.pendingWrites.offer(record)) {
+                scheduleFlush();
+                return record;
+            }
+            logger.warn("Queue of trusted authentication records to write is full; writing record for [{}] synchronously",
+                    record.getPrincipal());
         }
-        return null;
+        return write(record) ? record : null;
+    }
+
+    public long getFailedWriteCount() {
+        return this.failedWrites.get();
     }
-    
-    private static Set<MultifactorAuthenticationTrustRecord> getResults(final String url) {
-        final RestTemplate restTemplate = new RestTemplate();
+
+    /**
+     * Write all queued records.
+     */
+    @Override
+    public void destroy() {
+        flush();
+        final List<MultifactorAuthenticationTrustRecord> remaining = new ArrayList<>();
+        this.pendingWrites.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            logger.error("[{}] trusted authentication record(s) could not be written to [{}] before shutdown", remaining.size(), this.endpoint);
+            this.failedWrites.addAndGet(remaining.size());
+        }
+    }
+
+    private boolean write(final MultifactorAuthenticationTrustRecord record) {
+        final ResponseEntity<Object> response = this.restTemplate.postForEntity(this.endpoint, record, Object.class);
+        this.lookups.invalidate(record.getPrincipal());
+        return response != null && response.getStatusCode() == HttpStatus.OK;
+    }
+
+    private void scheduleFlush() {
+        if (this.flushScheduled.compareAndSet(false, true)) {
+            try {
+                this.writeExecutor.execute(this::flush);
+            } catch (final RejectedExecutionException e) {
+                logger.debug("Unable to schedule writing of queued records; writing them synchronously");
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Write queued records until the queue is empty. Records that cannot be written are put back
+     * in the queue once the flush is done, and the flush is not rescheduled right away so that an
+     * unavailable endpoint is not retried in a loop; they are retried with the next flush.
+     */
+    private void flush() {
+        final List<MultifactorAuthenticationTrustRecord> batch = new ArrayList<>(this.writeBatchSize);
+        final List<MultifactorAuthenticationTrustRecord> failed = new ArrayList<>();
+        try {
+            while (this.pendingWrites.drainTo(batch, this.writeBatchSize) > 0) {
+                logger.debug("Writing [{}] queued trusted authentication records", batch.size());
+                batch.stream().filter(record -> !tryWrite(record)).forEach(failed::add);
+                batch.clear();
+            }
+        } finally {
+            failed.forEach(this::requeue);
+            this.flushScheduled.set(false);
+            if (this.writeExecutor != null && failed.isEmpty() && !this.pendingWrites.isEmpty()) {
+                scheduleFlush();
+            }
+        }
+    }
+
+    private boolean tryWrite(final MultifactorAuthenticationTrustRecord record) {
+        try {
+            if (write(record)) {
+                return true;
+            }
+            logger.warn("Trusted authentication record for [{}] was not accepted by [{}]", record.getPrincipal(), this.endpoint);
+        } catch (final Exception e) {
+            logger.error("Unable to write trusted authentication record for [{}]: [{}]", record.getPrincipal(), e.getMessage());
+            logger.debug(e.getMessage(), e);
+        }
+        return false;
+    }
+
+    private void requeue(final MultifactorAuthenticationTrustRecord record) {
+        if (!this.pendingWrites.offer(record)) {
+            logger.error("Queue of trusted authentication records to write is full; Record for [{}] is lost", record.getPrincipal());
+            this.failedWrites.incrementAndGet();
+        }
+    }
+
+    private Set<MultifactorAuthenticationTrustRecord> getResults(final String url) {
         final ResponseEntity<MultifactorAuthenticationTrustRecord[]> responseEntity =
-                restTemplate.getForEntity(url, MultifactorAuthenticationTrustRecord[].class);
+                this.restTemplate.getForEntity(url, MultifactorAuthenticationTrustRecord[].class);
         if (responseEntity.getStatusCode() == HttpStatus.OK) {
             final MultifactorAuthenticationTrustRecord[] results = responseEntity.getBody();
             return Stream.of(results).collect(Collectors.toSet());
         }
 
-        return Collections.emptySet();
+        return new HashSet<>();
     }
 }
@@ -1,7 +1,12 @@
 package org.apereo.cas.trusted.config;
 
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apereo.cas.CipherExecutor;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.support.mfa.MultifactorAuthenticationProperties;
 import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustStorage;
 import org.apereo.cas.trusted.authentication.storage.RestMultifactorAuthenticationTrustStorage;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +15,13 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is {@link RestMultifactorAuthenticationTrustConfiguration}.
@@ -28,12 +40,41 @@ public class RestMultifactorAuthenticationTrustConfiguration {
     @Qualifier("mfaTrustCipherExecutor")
     private CipherExecutor mfaTrustCipherExecutor;
 
+    @RefreshScope
+    @Bean
+    public CloseableHttpClient mfaTrustRestHttpClient() {
+        final MultifactorAuthenticationProperties.Trusted.Rest rest = casProperties.getAuthn().getMfa().getTrusted().getRest();
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(rest.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(rest.getMaxConnections());
+
+        final RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) rest.getConnectTimeout())
+                .setConnectionRequestTimeout((int) rest.getConnectTimeout())
+                .setSocketTimeout((int) rest.getReadTimeout())
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .build();
+    }
+
+    @RefreshScope
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService mfaTrustRestWriteExecutor() {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    }
+
     @RefreshScope
     @Bean
     public MultifactorAuthenticationTrustStorage mfaTrustEngine() {
+        final MultifactorAuthenticationProperties.Trusted.Rest rest = casProperties.getAuthn().getMfa().getTrusted().getRest();
+        final RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(mfaTrustRestHttpClient()));
         final RestMultifactorAuthenticationTrustStorage m =
-                new RestMultifactorAuthenticationTrustStorage(
-                        casProperties.getAuthn().getMfa().getTrusted().getRest().getEndpoint());
+                new RestMultifactorAuthenticationTrustStorage(rest.getEndpoint(), restTemplate,
+                        rest.getCacheExpiration(), rest.getCacheMaximumSize(),
+                        rest.isAsynchronousWrites() ? mfaTrustRestWriteExecutor() : null,
+                        rest.getWriteBatchSize(), rest.getWriteQueueCapacity());
         m.setCipherExecutor(this.mfaTrustCipherExecutor);
         return m;
     }
@@ -0,0 +1,222 @@
+package org.apereo.cas.trusted.authentication.storage;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustRecord;
+import org.apereo.cas.util.cipher.NoOpCipherExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link RestMultifactorAuthenticationTrustStorageTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class RestMultifactorAuthenticationTrustStorageTests {
+
+    private static final int REQUEST_COUNT = 10;
+
+    private static final long CACHE_EXPIRATION = 60000;
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+
+    private HttpServer server;
+
+    private String endpoint;
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final Set<Integer> connections = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger posts = new AtomicInteger();
+
+    private final AtomicInteger accepted = new AtomicInteger();
+
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private volatile int postStatus = 200;
+
+    @Before
+    public void setup() throws Exception {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/trusted", exchange -> {
+            this.requests.incrementAndGet();
+            this.connections.add(exchange.getRemoteAddress().getPort());
+            int status = 200;
+            if ("POST".equals(exchange.getRequestMethod())) {
+                this.posts.incrementAndGet();
+                status = this.postStatus;
+                if (status == 200) {
+                    this.accepted.incrementAndGet();
+                }
+            }
+            final byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        this.server.start();
+        this.endpoint = "http://localhost:" + this.server.getAddress().getPort() + "/trusted";
+    }
+
+    @After
+    public void shutdown() {
+        this.released.countDown();
+        this.executor.shutdownNow();
+        this.server.stop(0);
+    }
+
+    @Test
+    public void verifyPooledConnectionsAreReused() {
+        final RestMultifactorAuthenticationTrustStorage storage = newStorage(0);
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            assertTrue(storage.get("casuser" + i).isEmpty());
+        }
+        assertEquals(REQUEST_COUNT, this.requests.get());
+        assertEquals(1, this.connections.size());
+    }
+
+    @Test
+    public void verifyLookupsAreCached() {
+        final RestMultifactorAuthenticationTrustStorage storage = newStorage(CACHE_EXPIRATION);
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            assertTrue(storage.get("casuser").isEmpty());
+        }
+        assertEquals(1, this.requests.get());
+
+        storage.expire("key");
+        assertTrue(storage.get("casuser").isEmpty());
+        assertEquals(3, this.requests.get());
+    }
+
+    @Test
+    public void verifyRecordsAreWrittenInBackground() {
+        final RestMultifactorAuthenticationTrustStorage storage = newStorage(CACHE_EXPIRATION, this.executor, REQUEST_COUNT);
+        assertNotNull(storage.set(newRecord("casuser")));
+        waitUntil(() -> this.accepted.get() == 1);
+    }
+
+    @Test
+    public void verifyRecordsAreWrittenSynchronouslyWhenQueueIsFull() {
+        blockExecutor();
+        final RestMultifactorAuthenticationTrustStorage storage = newStorage(CACHE_EXPIRATION, this.executor, 1);
+        assertNotNull(storage.set(newRecord("casuser1")));
+        assertEquals(0, this.posts.get());
+
+        assertNotNull(storage.set(newRecord("casuser2")));
+        assertEquals(1, this.accepted.get());
+
+        this.released.countDown();
+        waitUntil(() -> this.accepted.get() == 2);
+    }
+
+    @Test
+    public void verifyQueuedRecordsAreWrittenOnDestroy() {
+        blockExecutor();
+        final RestMultifactorAuthenticationTrustStorage storage = newStorage(CACHE_EXPIRATION, this.executor, REQUEST_COUNT);
+        storage.set(newRecord("casuser1"));
+        storage.set(newRecord("casuser2"));
+        assertEquals(0, this.posts.get());
+
+        storage.destroy();
+        assertEquals(2, this.accepted.get());
+        assertEquals(0, storage.getFailedWriteCount());
+    }
+
+    @Test
+    public void verifyFailedWritesAreRetried() throws Exception {
+        final RestMultifactorAuthenticationTrustStorage storage = newStorage(CACHE_EXPIRATION, this.executor, REQUEST_COUNT);
+        this.postStatus = 500;
+        storage.set(newRecord("casuser1"));
+        waitUntil(() -> this.posts.get() == 1);
+        this.executor.submit(() -> { }).get(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertEquals(0, this.accepted.get());
+
+        this.postStatus = 200;
+        storage.set(newRecord("casuser2"));
+        waitUntil(() -> this.accepted.get() == 2);
+        assertEquals(0, storage.getFailedWriteCount());
+    }
+
+    @Test
+    public void verifyFailedWritesAreCountedOnDestroy() {
+        blockExecutor();
+        final RestMultifactorAuthenticationTrustStorage storage = newStorage(CACHE_EXPIRATION, this.executor, REQUEST_COUNT);
+        this.postStatus = 500;
+        storage.set(newRecord("casuser"));
+
+        storage.destroy();
+        assertEquals(1, this.posts.get());
+        assertEquals(1, storage.getFailedWriteCount());
+    }
+
+    /**
+     * Keep the single executor thread busy until released, so queued records stay queued.
+     */
+    private void blockExecutor() {
+        this.executor.execute(() -> {
+            try {
+                this.released.await(TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private RestMultifactorAuthenticationTrustStorage newStorage(final long cacheExpiration) {
+        return newStorage(cacheExpiration, null, 1);
+    }
+
+    private RestMultifactorAuthenticationTrustStorage newStorage(final long cacheExpiration, final ExecutorService writeExecutor,
+                                                                 final int writeQueueCapacity) {
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        final RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(
+                HttpClients.custom().setConnectionManager(connectionManager).build()));
+        final RestMultifactorAuthenticationTrustStorage storage = new RestMultifactorAuthenticationTrustStorage(this.endpoint,
+                restTemplate, cacheExpiration, REQUEST_COUNT, writeExecutor, REQUEST_COUNT, writeQueueCapacity);
+        storage.setCipherExecutor(NoOpCipherExecutor.getInstance());
+        return storage;
+    }
+
+    private static MultifactorAuthenticationTrustRecord newRecord(final String principal) {
+        return MultifactorAuthenticationTrustRecord.newInstance(principal, "geography");
+    }
+
+    private static void waitUntil(final BooleanSupplier condition) {
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition was not met in time");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e.getMessage());
+            }
+        }
+    }
+}
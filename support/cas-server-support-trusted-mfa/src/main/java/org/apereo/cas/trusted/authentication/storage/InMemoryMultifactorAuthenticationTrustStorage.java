@@ -1,44 +1,63 @@
 package org.apereo.cas.trusted.authentication.storage;
 
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
 import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustRecord;
 
 import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * This is {@link InMemoryMultifactorAuthenticationTrustStorage}.
+ * <p>
+ * Records are held in a cache keyed by record key, and indexed by case-folded principal
+ * and by date, so that lookups by principal only visit the records of that principal, and
+ * records can be expired or selected by date without scanning the entire storage.
+ * Indexes are maintained as records are stored and removed from the cache; records are indexed
+ * before they are stored, so a record evicted while it is being stored is also removed from the indexes;
+ * entries found in an index are always confirmed against the cache.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
  */
 public class InMemoryMultifactorAuthenticationTrustStorage extends BaseMultifactorAuthenticationTrustStorage {
 
-    private LoadingCache<String, MultifactorAuthenticationTrustRecord> storage;
+    private final Cache<String, MultifactorAuthenticationTrustRecord> storage;
 
-    public InMemoryMultifactorAuthenticationTrustStorage(final LoadingCache<String, MultifactorAuthenticationTrustRecord> st) {
-        this.storage = st;
+    private final ConcurrentMap<String, Set<String>> principalIndex = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListMap<LocalDate, Set<String>> dateIndex = new ConcurrentSkipListMap<>();
+
+    public InMemoryMultifactorAuthenticationTrustStorage(final CacheBuilder<Object, Object> builder) {
+        this.storage = builder
+                .removalListener((RemovalListener<String, MultifactorAuthenticationTrustRecord>) this::handleRemoval)
+                .build();
     }
 
     @Override
     public void expire(final String key) {
+        if (storage.getIfPresent(key) != null) {
+            storage.invalidate(key);
+            return;
+        }
         storage.asMap().keySet().removeIf(k -> k.equalsIgnoreCase(key));
     }
 
     @Override
     public void expire(final LocalDate onOrBefore) {
-        final Set<MultifactorAuthenticationTrustRecord> results = storage.asMap()
-                .values()
-                .stream()
-                .filter(entry -> entry.getDate().isEqual(onOrBefore) || entry.getDate().isBefore(onOrBefore))
-                .sorted()
-                .distinct()
-                .collect(Collectors.toSet());
-
+        final Set<String> results = collectKeys(dateIndex.headMap(onOrBefore, true));
         logger.info("Found {} expired records", results.size());
         if (!results.isEmpty()) {
-            results.forEach(entry -> storage.invalidate(entry.getKey()));
+            storage.invalidateAll(results);
             logger.info("Invalidated and removed {} expired records", results.size());
         }
     }
@@ -46,30 +65,105 @@ public class InMemoryMultifactorAuthenticationTrustStorage extends BaseMultifact
     @Override
     public Set<MultifactorAuthenticationTrustRecord> get(final LocalDate onOrAfterDate) {
         expire(onOrAfterDate);
-        return storage.asMap()
-                .values()
-                .stream()
-                .filter(entry -> entry.getDate().isEqual(onOrAfterDate) || entry.getDate().isAfter(onOrAfterDate))
-                .sorted()
-                .distinct()
-                .collect(Collectors.toSet());
+        final Set<MultifactorAuthenticationTrustRecord> results = new HashSet<>();
+        collectKeys(dateIndex.tailMap(onOrAfterDate, true)).forEach(key -> {
+            final MultifactorAuthenticationTrustRecord record = storage.getIfPresent(key);
+            if (record != null && !record.getDate().isBefore(onOrAfterDate)) {
+                results.add(record);
+            }
+        });
+        return results;
     }
 
     @Override
     public Set<MultifactorAuthenticationTrustRecord> get(final String principal) {
-        return storage.asMap()
-                .values()
-                .stream()
-                .filter(entry -> entry.getPrincipal().equalsIgnoreCase(principal))
-                .sorted()
-                .distinct()
-                .collect(Collectors.toSet());
+        final Set<MultifactorAuthenticationTrustRecord> results = new HashSet<>();
+        final Set<String> keys = principalIndex.get(foldCase(principal));
+        if (keys != null) {
+            keys.forEach(key -> {
+                final MultifactorAuthenticationTrustRecord record = storage.getIfPresent(key);
+                if (record != null && record.getPrincipal().equalsIgnoreCase(principal)) {
+                    results.add(record);
+                }
+            });
+        }
+        return results;
     }
 
-
     @Override
     public MultifactorAuthenticationTrustRecord setInternal(final MultifactorAuthenticationTrustRecord record) {
-        this.storage.put(record.getKey(), record);
+        index(record);
+        final MultifactorAuthenticationTrustRecord previous = this.storage.asMap().put(record.getKey(), record);
+        if (previous != null && previous != record) {
+            unindex(previous);
+        }
         return record;
     }
+
+    /**
+     * Number of records held by the storage.
+     *
+     * @return the size
+     */
+    public long size() {
+        return this.storage.size();
+    }
+
+    private void handleRemoval(final RemovalNotification<String, MultifactorAuthenticationTrustRecord> notification) {
+        if (notification.getCause() != RemovalCause.REPLACED && notification.getValue() != null) {
+            unindex(notification.getValue());
+        }
+    }
+
+    private void index(final MultifactorAuthenticationTrustRecord record) {
+        addToIndex(principalIndex, foldCase(record.getPrincipal()), record.getKey());
+        addToIndex(dateIndex, record.getDate(), record.getKey());
+    }
+
+    private void unindex(final MultifactorAuthenticationTrustRecord record) {
+        final MultifactorAuthenticationTrustRecord current = storage.getIfPresent(record.getKey());
+        final boolean samePrincipal = current != null && foldCase(current.getPrincipal()).equals(foldCase(record.getPrincipal()));
+        final boolean sameDate = current != null && current.getDate().equals(record.getDate());
+        if (!samePrincipal) {
+            removeFromIndex(principalIndex, foldCase(record.getPrincipal()), record.getKey());
+        }
+        if (!sameDate) {
+            removeFromIndex(dateIndex, record.getDate(), record.getKey());
+        }
+    }
+
+    private static <K> void addToIndex(final Map<K, Set<String>> index, final K indexKey, final String key) {
+        index.compute(indexKey, (k, keys) -> {
+            final Set<String> results = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+            results.add(key);
+            return results;
+        });
+    }
+
+    private static <K> void removeFromIndex(final Map<K, Set<String>> index, final K indexKey, final String key) {
+        index.computeIfPresent(indexKey, (k, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static Set<String> collectKeys(final NavigableMap<LocalDate, Set<String>> entries) {
+        final Set<String> keys = new HashSet<>();
+        entries.values().forEach(keys::addAll);
+        return keys;
+    }
+
+    /**
+     * Fold the case of the principal id consistently with {@link String#equalsIgnoreCase(String)}.
+     *
+     * @param principal the principal
+     * @return the folded principal
+     */
+    private static String foldCase(final String principal) {
+        final char[] chars = principal.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
 }
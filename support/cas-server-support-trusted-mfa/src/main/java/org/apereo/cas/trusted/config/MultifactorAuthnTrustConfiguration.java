@@ -1,13 +1,10 @@
 package org.apereo.cas.trusted.config;
 
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import org.apereo.cas.CipherExecutor;
 import org.apereo.cas.config.CasCoreUtilConfiguration;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.trusted.authentication.MultifactorAuthenticationTrustCipherExecutor;
-import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustRecord;
 import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustStorage;
 import org.apereo.cas.trusted.authentication.storage.InMemoryMultifactorAuthenticationTrustStorage;
 import org.apereo.cas.trusted.authentication.storage.MultifactorAuthenticationTrustStorageCleaner;
@@ -72,19 +69,12 @@ public class MultifactorAuthnTrustConfiguration {
     @Bean
     @RefreshScope
     public MultifactorAuthenticationTrustStorage mfaTrustEngine() {
-        final LoadingCache<String, MultifactorAuthenticationTrustRecord> storage = CacheBuilder.newBuilder()
+        final CacheBuilder<Object, Object> storage = CacheBuilder.newBuilder()
                 .initialCapacity(INITIAL_CACHE_SIZE)
                 .maximumSize(MAX_CACHE_SIZE)
                 .recordStats()
                 .expireAfterWrite(casProperties.getAuthn().getMfa().getTrusted().getExpiration(),
-                        casProperties.getAuthn().getMfa().getTrusted().getTimeUnit())
-                .build(new CacheLoader<String, MultifactorAuthenticationTrustRecord>() {
-                    @Override
-                    public MultifactorAuthenticationTrustRecord load(final String s) throws Exception {
-                        LOGGER.error("Load operation of the cache is not supported.");
-                        return null;
-                    }
-                });
+                        casProperties.getAuthn().getMfa().getTrusted().getTimeUnit());
 
         final InMemoryMultifactorAuthenticationTrustStorage m = new InMemoryMultifactorAuthenticationTrustStorage(storage);
         m.setCipherExecutor(mfaTrustCipherExecutor());
@@ -0,0 +1,83 @@
+package org.apereo.cas.trusted.authentication.storage;
+
+import com.google.common.cache.CacheBuilder;
+import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustRecord;
+import org.apereo.cas.util.cipher.NoOpCipherExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link InMemoryMultifactorAuthenticationTrustStorageTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class InMemoryMultifactorAuthenticationTrustStorageTests {
+
+    private static final int RECORD_COUNT = 10000;
+
+    private InMemoryMultifactorAuthenticationTrustStorage storage;
+
+    @Before
+    public void setup() {
+        this.storage = new InMemoryMultifactorAuthenticationTrustStorage(CacheBuilder.newBuilder()
+                .maximumSize(RECORD_COUNT * 2)
+                .expireAfterWrite(1, TimeUnit.DAYS));
+        this.storage.setCipherExecutor(NoOpCipherExecutor.getInstance());
+    }
+
+    @Test
+    public void verifyRecordsAreFoundByPrincipalIgnoringCase() {
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            storage.set(newRecord("user" + i, LocalDate.now(), "device" + i));
+        }
+        storage.set(newRecord("CASUser", LocalDate.now(), "laptop"));
+        storage.set(newRecord("casuser", LocalDate.now(), "phone"));
+
+        final Set<MultifactorAuthenticationTrustRecord> results = storage.get("casUSER");
+        assertEquals(2, results.size());
+        assertEquals(1, storage.get("user5").size());
+        assertTrue(storage.get("unknown").isEmpty());
+        assertEquals(2, storage.get("casuser", LocalDate.now()).size());
+    }
+
+    @Test
+    public void verifyRecordsExpireByDate() {
+        final LocalDate today = LocalDate.now();
+        storage.set(newRecord("casuser", today.minusDays(10), "old"));
+        storage.set(newRecord("casuser", today.minusDays(1), "recent"));
+        storage.set(newRecord("casuser", today, "current"));
+
+        storage.expire(today.minusDays(5));
+        assertEquals(2, storage.size());
+        assertEquals(2, storage.get("casuser").size());
+
+        final Set<MultifactorAuthenticationTrustRecord> results = storage.get(today.minusDays(1));
+        assertEquals(1, results.size());
+        assertEquals("current", results.iterator().next().getGeography());
+        assertEquals(1, storage.get("casuser").size());
+    }
+
+    @Test
+    public void verifyRecordsExpireByKey() {
+        final MultifactorAuthenticationTrustRecord record = storage.set(newRecord("casuser", LocalDate.now(), "laptop"));
+        storage.set(newRecord("casuser", LocalDate.now(), "phone"));
+
+        storage.expire(record.getKey());
+        final Set<MultifactorAuthenticationTrustRecord> results = storage.get("casuser");
+        assertEquals(1, results.size());
+        assertEquals("phone", results.iterator().next().getGeography());
+    }
+
+    private static MultifactorAuthenticationTrustRecord newRecord(final String principal, final LocalDate date, final String geography) {
+        final MultifactorAuthenticationTrustRecord record = MultifactorAuthenticationTrustRecord.newInstance(principal, geography);
+        record.setDate(date);
+        return record;
+    }
+}
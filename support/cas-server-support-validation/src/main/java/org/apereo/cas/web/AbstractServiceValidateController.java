@@ -16,6 +16,7 @@ import org.apereo.cas.authentication.MultifactorTriggerSelectionStrategy;
 import org.apereo.cas.authentication.principal.Service;
 import org.apereo.cas.authentication.principal.WebApplicationService;
 import org.apereo.cas.services.MultifactorAuthenticationProvider;
+import org.apereo.cas.services.MultifactorAuthenticationProviderRegistry;
 import org.apereo.cas.services.RegisteredService;
 import org.apereo.cas.services.RegisteredServiceAccessStrategyUtils;
 import org.apereo.cas.services.ServicesManager;
@@ -131,7 +132,7 @@ public abstract class AbstractServiceValidateController extends AbstractDelegate
 
         // resolve MFA auth context for this request
         final Map<String, MultifactorAuthenticationProvider> providers =
-                this.applicationContext.getBeansOfType(MultifactorAuthenticationProvider.class, false, true);
+                MultifactorAuthenticationProviderRegistry.getInstance(this.applicationContext).getProviders();
         final Authentication authentication = assertion.getPrimaryAuthentication();
         final Optional<String> requestedContext = this.multifactorTriggerSelectionStrategy.resolve(providers.values(), request,
                 service, authentication.getPrincipal());